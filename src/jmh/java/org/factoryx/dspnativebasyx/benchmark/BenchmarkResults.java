@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+
+/**
+ * Runs benchmarks from their main() and records the JMH results as JSON under
+ * target/benchmark-results, named by the run and its start time, then logs the score of each run.
+ */
+@Slf4j
+final class BenchmarkResults {
+
+    private BenchmarkResults() {
+    }
+
+    static Collection<RunResult> run(String name, ChainedOptionsBuilder options) throws Exception {
+        Path results = Path.of("target", "benchmark-results", name + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        Files.createDirectories(results.getParent());
+        Collection<RunResult> runResults = new Runner(options
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build()).run();
+        for (RunResult runResult : runResults) {
+            log.info("{} {} threads={}: {} {} (+- {})",
+                    runResult.getParams().getBenchmark(),
+                    runResult.getParams().getParamsKeys().stream()
+                            .map(key -> key + "=" + runResult.getParams().getParam(key))
+                            .toList(),
+                    runResult.getParams().getThreads(),
+                    String.format("%.1f", runResult.getPrimaryResult().getScore()),
+                    runResult.getPrimaryResult().getScoreUnit(),
+                    String.format("%.1f", runResult.getPrimaryResult().getScoreError()));
+        }
+        log.info("Results written to {}", results.toAbsolutePath());
+        return runResults;
+    }
+}
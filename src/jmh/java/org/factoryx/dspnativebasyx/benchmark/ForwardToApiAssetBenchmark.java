@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.benchmark;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.Action;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacRule;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacStorage;
+import org.eclipse.digitaltwin.basyx.authorization.rules.rbac.backend.inmemory.InMemoryAuthorizationRbacStorage;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.feature.authorization.SubmodelTargetInformation;
+import org.factoryx.dspnativebasyx.model.ReadApiAsset;
+import org.factoryx.dspnativebasyx.service.*;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * Batches of concurrent submodel GETs through the ReadApiAsset against a backend with a
+ * simulated latency, handled by a pool of platform threads sized like the Tomcat default,
+ * compared to a virtual thread per request, as Tomcat does with spring.threads.virtual.enabled.
+ *
+ * main() runs both variants and records the results, see BenchmarkResults:
+ * ./mvnw -Pbenchmark test-compile exec:java -Dexec.mainClass=org.factoryx.dspnativebasyx.benchmark.ForwardToApiAssetBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ForwardToApiAssetBenchmark {
+
+    /**
+     * Number of requests that are in flight at the same time.
+     */
+    @Param({"1000"})
+    public int concurrentRequests;
+
+    /**
+     * Simulated latency of a backend call, e.g. a round trip to MongoDB.
+     */
+    @Param({"5"})
+    public long backendLatencyMillis;
+
+    private ServiceFixture fixture;
+    private BaSyxAccessManagementService service;
+    private ExecutorService platformPool;
+    private ExecutorService virtualThreadPerRequest;
+    private String path;
+    private final String readApiAssetId = ReadApiAsset.ID_PREFIX + "role";
+
+    @Setup
+    public void setup() throws Exception {
+        Submodel submodel = new DefaultSubmodel.Builder().id("urn:uuid:submodel-1").idShort("Nameplate").build();
+        AasBackend aasBackend = Mockito.mock(AasBackend.class);
+        SubmodelBackend submodelBackend = Mockito.mock(SubmodelBackend.class);
+        Mockito.when(submodelBackend.findById(submodel.getId())).thenAnswer(invocation -> {
+            Thread.sleep(backendLatencyMillis);
+            return Optional.of(submodel);
+        });
+        // unbounded bulkheads, the benchmark measures the threading of the request handling itself
+        RbacStorage rbacStorage = new InMemoryAuthorizationRbacStorage(new HashMap<>());
+        rbacStorage.addRule(new RbacRule("role", List.of(Action.READ), new SubmodelTargetInformation(List.of("*"), List.of("*"))));
+        fixture = ServiceFixture.builder(aasBackend, submodelBackend).rbac(rbacStorage, "member=role")
+                .unboundedBulkheads().cacheSize(100).build();
+        service = fixture.accessManagementService;
+        platformPool = Executors.newFixedThreadPool(200);
+        virtualThreadPerRequest = Executors.newVirtualThreadPerTaskExecutor();
+        path = "/submodels/" + Base64.getUrlEncoder().encodeToString(submodel.getId().getBytes());
+    }
+
+    @TearDown
+    public void tearDown() {
+        platformPool.shutdown();
+        virtualThreadPerRequest.shutdown();
+        fixture.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void platformThreads() throws Exception {
+        forwardAll(platformPool);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public void virtualThreads() throws Exception {
+        forwardAll(virtualThreadPerRequest);
+    }
+
+    private void forwardAll(ExecutorService executor) throws Exception {
+        List<Future<ResponseEntity<byte[]>>> futures = new ArrayList<>(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            futures.add(executor.submit(() -> service.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null,
+                    HttpHeaders.EMPTY, path, new LinkedMultiValueMap<>())));
+        }
+        for (Future<ResponseEntity<byte[]>> future : futures) {
+            future.get();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkResults.run("forward-to-api-asset", new OptionsBuilder().include(ForwardToApiAssetBenchmark.class.getSimpleName()));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.*;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization and deserialization of a submodel through the generic ObjectMapper calls,
+ * as used before, compared to the AasSerializationService.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class SerializationBenchmark {
+
+    /**
+     * Number of properties in the submodel.
+     */
+    @Param({"10", "500"})
+    public int propertyCount;
+
+    private ObjectMapper objectMapper;
+    private AasSerializationService aasSerializationService;
+    private Submodel submodel;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = JsonMapper.builder()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .addModule(new SimpleModule()
+                        .addAbstractTypeMapping(Reference.class, DefaultReference.class)
+                        .addAbstractTypeMapping(Key.class, DefaultKey.class)
+                        .addAbstractTypeMapping(SubmodelElement.class, DefaultProperty.class)
+                        .addAbstractTypeMapping(LangStringTextType.class, DefaultLangStringTextType.class))
+                .build();
+        aasSerializationService = new AasSerializationService(objectMapper);
+        List<SubmodelElement> elements = new ArrayList<>();
+        for (int i = 0; i < propertyCount; i++) {
+            elements.add(new DefaultProperty.Builder()
+                    .idShort("Property" + i)
+                    .valueType(DataTypeDefXsd.DOUBLE)
+                    .value(Double.toString(i * 0.5))
+                    .semanticId(new DefaultReference.Builder()
+                            .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                            .keys(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE).value("urn:example:property:" + i).build())
+                            .build())
+                    .build());
+        }
+        submodel = new DefaultSubmodel.Builder()
+                .id("urn:uuid:submodel-1")
+                .idShort("OperationalData")
+                .submodelElements(elements)
+                .build();
+        json = objectMapper.writeValueAsBytes(submodel);
+    }
+
+    @Benchmark
+    public byte[] serializeObjectMapper() throws Exception {
+        return objectMapper.writeValueAsBytes(submodel);
+    }
+
+    @Benchmark
+    public byte[] serializeAasSerializationService() throws Exception {
+        return aasSerializationService.serialize(submodel);
+    }
+
+    @Benchmark
+    public Submodel deserializeObjectMapper() throws Exception {
+        return objectMapper.readValue(json, DefaultSubmodel.class);
+    }
+
+    @Benchmark
+    public Submodel deserializeAasSerializationService() throws Exception {
+        return aasSerializationService.deserializeSubmodel(json);
+    }
+}
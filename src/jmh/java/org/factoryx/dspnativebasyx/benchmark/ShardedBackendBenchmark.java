@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.InMemorySubmodelBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ModelStoreInvocationHandler;
+import org.factoryx.dspnativebasyx.backend.ShardedModelStore;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Point lookups, writes, a read-mostly mix with occasional full scans and a parallel catalog-like
+ * scan on the ShardedModelStore backend, compared to the in-memory SubmodelBackend of BaSyx that
+ * it replaces. The sharded backend uses a BaSyx in-memory backend as its workspace, as in the
+ * application (see ShardedBackendConfig).
+ *
+ * The thread count is set with -t, e.g. -t 64; main() runs the benchmark at 1 to 64 threads and
+ * records the results of each thread count, see BenchmarkResults:
+ * ./mvnw -Pbenchmark test-compile exec:java -Dexec.mainClass=org.factoryx.dspnativebasyx.benchmark.ShardedBackendBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ShardedBackendBenchmark {
+
+    @Param({"basyx-inmemory", "sharded"})
+    public String backendType;
+
+    /**
+     * Number of submodels in the backend.
+     */
+    @Param({"10000"})
+    public int objectCount;
+
+    @Param({"64"})
+    public int segments;
+
+    private SubmodelBackend backend;
+    private Submodel[] submodels;
+
+    @Setup
+    public void setup() {
+        submodels = new Submodel[objectCount];
+        List<Submodel> initial = new ArrayList<>();
+        for (int i = 0; i < objectCount; i++) {
+            submodels[i] = new DefaultSubmodel.Builder().id("urn:uuid:submodel-" + i).idShort("Submodel" + i).build();
+            initial.add(submodels[i]);
+        }
+        if ("sharded".equals(backendType)) {
+            ShardedModelStore<Submodel> store = ShardedModelStore.forSubmodels(segments, objectCount,
+                    new AasSerializationService(new ObjectMapper()));
+            store.saveAll(initial);
+            backend = ModelStoreInvocationHandler.create(SubmodelBackend.class, new InMemorySubmodelBackend(),
+                    store, store::getLock);
+        } else {
+            backend = new InMemorySubmodelBackend();
+            backend.saveAll(initial);
+        }
+    }
+
+    @Benchmark
+    public Object findById() {
+        return backend.findById(submodels[ThreadLocalRandom.current().nextInt(objectCount)].getId());
+    }
+
+    @Benchmark
+    public Object save() {
+        return backend.save(submodels[ThreadLocalRandom.current().nextInt(objectCount)]);
+    }
+
+    /**
+     * 90% lookups, 9% writes and 1% full scans.
+     */
+    @Benchmark
+    public void mixed(Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int operation = random.nextInt(100);
+        Submodel submodel = submodels[random.nextInt(objectCount)];
+        if (operation < 90) {
+            blackhole.consume(backend.findById(submodel.getId()));
+        } else if (operation < 99) {
+            blackhole.consume(backend.save(submodel));
+        } else {
+            for (Submodel scanned : backend.findAll()) {
+                blackhole.consume(scanned);
+            }
+        }
+    }
+
+    /**
+     * Builds an id map of all submodels from a parallel stream, like a catalog snapshot load.
+     */
+    @Benchmark
+    public Map<String, Submodel> parallelScan() {
+        return StreamSupport.stream(backend.findAll().spliterator(), true)
+                .collect(Collectors.toConcurrentMap(Submodel::getId, Function.identity(), (first, second) -> second));
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            BenchmarkResults.run("sharded-backend-" + threads + "-threads", new OptionsBuilder()
+                    .include(ShardedBackendBenchmark.class.getSimpleName())
+                    .threads(threads));
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.benchmark;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasrepository.feature.authorization.AasTargetInformation;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.Action;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacRule;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacStorage;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.feature.authorization.SubmodelTargetInformation;
+import org.factoryx.dspnativebasyx.BaSyxStarterApplication;
+import org.factoryx.dspnativebasyx.service.BaSyxAccessManagementService;
+import org.factoryx.library.connector.embedded.provider.interfaces.DataAsset;
+import org.factoryx.library.connector.embedded.provider.interfaces.DspTokenValidationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from starting the application to the first served catalog, against the BaSyx in-memory
+ * backends with assets seeded before the first request. The MQTT feature is enabled, so with
+ * deferIntegrations=false the broker connect is part of the startup, while with
+ * deferIntegrations=true it happens in the background once the application is ready.
+ *
+ * Like the application itself, this needs a MongoDB (for the DSP library, see
+ * spring.data.mongodb.uri) and an MQTT broker at mqttHost:mqttPort.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+    @Param({"1000", "10000"})
+    public int assets;
+
+    @Param({"true", "false"})
+    public boolean deferIntegrations;
+
+    @Param({"localhost"})
+    public String mqttHost;
+
+    @Param({"1883"})
+    public int mqttPort;
+
+    private final Map<String, String> partnerProperties =
+            Map.of(DspTokenValidationService.ReservedKeys.credentials.toString(), "member");
+    private final List<AssetAdministrationShell> shells = new ArrayList<>();
+    private final List<Submodel> submodels = new ArrayList<>();
+    private Path rulesFile;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        for (int i = 0; i < assets / 2; i++) {
+            shells.add(new DefaultAssetAdministrationShell.Builder().id("urn:uuid:shell-" + i).idShort("Shell" + i)
+                    .assetInformation(new DefaultAssetInformation.Builder().globalAssetId("urn:uuid:asset-" + i).build())
+                    .build());
+            submodels.add(new DefaultSubmodel.Builder().id("urn:uuid:submodel-" + i).idShort("Nameplate")
+                    .submodelElements(new DefaultProperty.Builder().idShort("SerialNumber").value(String.valueOf(i)).build())
+                    .build());
+        }
+        rulesFile = Files.createTempFile("startup-benchmark-rules", ".json");
+        Files.writeString(rulesFile, "[]");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        Files.deleteIfExists(rulesFile);
+    }
+
+    @Benchmark
+    public List<DataAsset> timeToFirstCatalog() {
+        context = new SpringApplicationBuilder(BaSyxStarterApplication.class).run(
+                "--server.port=0",
+                "--basyx.backend=InMemory",
+                "--basyx.feature.mqtt.enabled=true",
+                "--mqtt.clientId=startup-benchmark-" + ProcessHandle.current().pid(),
+                "--mqtt.hostname=" + mqttHost,
+                "--mqtt.port=" + mqttPort,
+                "--basyx.feature.authorization.rbac.file=file:" + rulesFile,
+                "--org.factoryx.dspnativebasyx.credentialtorolemappings=member=role",
+                "--org.factoryx.dspnativebasyx.startup.deferintegrations=" + deferIntegrations);
+        context.getBean(AasBackend.class).saveAll(shells);
+        context.getBean(SubmodelBackend.class).saveAll(submodels);
+        RbacStorage rbacStorage = context.getBean(RbacStorage.class);
+        rbacStorage.addRule(new RbacRule("role", List.of(Action.READ), new AasTargetInformation(List.of("*"))));
+        rbacStorage.addRule(new RbacRule("role", List.of(Action.READ), new SubmodelTargetInformation(List.of("*"), List.of("*"))));
+        return context.getBean(BaSyxAccessManagementService.class).getAll(partnerProperties);
+    }
+}
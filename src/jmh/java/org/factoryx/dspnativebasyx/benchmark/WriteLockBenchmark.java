@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.benchmark;
+
+import org.factoryx.dspnativebasyx.service.WriteLockService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent writers performing a simulated find-then-save sequence under the
+ * per-id write lock, compared to a single global lock.
+ *
+ * main() runs both variants and records the results, see BenchmarkResults:
+ * ./mvnw -Pbenchmark test-compile exec:java -Dexec.mainClass=org.factoryx.dspnativebasyx.benchmark.WriteLockBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class WriteLockBenchmark {
+
+    /**
+     * Number of distinct submodel ids the writers pick from. With 1 id, all writers contend.
+     */
+    @Param({"1", "1000"})
+    public int idCount;
+
+    /**
+     * Simulated cost of the backend calls inside the critical section.
+     */
+    @Param({"1000"})
+    public long backendTokens;
+
+    private WriteLockService writeLockService;
+    private final Lock globalLock = new ReentrantLock();
+    private String[] ids;
+
+    @Setup
+    public void setup() {
+        writeLockService = new WriteLockService(1024);
+        ids = new String[idCount];
+        for (int i = 0; i < idCount; i++) {
+            ids[i] = "urn:uuid:submodel-" + i;
+        }
+    }
+
+    @Benchmark
+    public void stripedLock() {
+        Lock lock = writeLockService.getSubmodelLock(ids[ThreadLocalRandom.current().nextInt(idCount)]);
+        lock.lock();
+        try {
+            Blackhole.consumeCPU(backendTokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public void globalLock() {
+        globalLock.lock();
+        try {
+            Blackhole.consumeCPU(backendTokens);
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkResults.run("write-lock", new OptionsBuilder().include(WriteLockBenchmark.class.getSimpleName()));
+    }
+}
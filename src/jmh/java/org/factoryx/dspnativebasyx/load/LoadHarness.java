@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.BaSyxStarterApplication;
+import org.factoryx.dspnativebasyx.model.AasDataAsset;
+import org.factoryx.dspnativebasyx.model.ReadApiAsset;
+import org.factoryx.dspnativebasyx.model.SearchApiAsset;
+import org.factoryx.dspnativebasyx.model.SubmodelDataAsset;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.factoryx.dspnativebasyx.service.BaSyxAccessManagementService;
+import org.factoryx.library.connector.embedded.provider.interfaces.DataAsset;
+import org.factoryx.library.connector.embedded.provider.interfaces.DspTokenValidationService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load and soak harness for the DSP-to-BaSyx path: boots the application with the BaSyx in-memory
+ * backends, the RBAC rules of a synthetic repository and a StubIdentityProvider in place of Keycloak,
+ * seeds the repository and drives catalog requests, transfers and forwardToApiAsset calls from many
+ * simulated partners with different credential sets. The calls go to the DataAssetManagementService
+ * of the application with the partner properties that the DSP library derives from a validated token,
+ * i.e. the token exchange of the DSP protocol itself is not part of the load.
+ *
+ * Every intervalSeconds a line with the throughput and p99 per operation, the heap and the GC
+ * time is logged; at the end the intervals and totals (p50/p99/p999 latencies, outcomes, heap
+ * and GC figures) are written as JSON to out. Like the application itself, this needs a MongoDB
+ * for the DSP library (mongodbUri). Run with e.g.
+ * ./mvnw -Pbenchmark test-compile exec:java@load -Dexec.args="threads=64 durationSeconds=3600"
+ */
+@Slf4j
+public class LoadHarness {
+
+    static final String CATALOG = "catalog";
+    static final String TRANSFER = "transfer";
+    static final String FORWARD_GET = "forward-get";
+    static final String FORWARD_PUT = "forward-put";
+    static final String SEARCH = "search";
+
+    private record Partner(Map<String, String> properties, String role) {
+    }
+
+    private final Map<String, String> settings;
+    private final SyntheticRepository repository;
+    private final List<String> assetIds = new ArrayList<>();
+    private final List<Partner> partners = new ArrayList<>();
+    private final NavigableMap<Integer, String> operationsByWeight = new TreeMap<>();
+    private final int totalWeight;
+    private final AtomicLong putValues = new AtomicLong();
+    private final List<AutoCloseable> stopActions = new ArrayList<>();
+    private AasSerializationService aasSerializationService;
+    private BaSyxAccessManagementService service;
+    private volatile boolean measuring = false;
+    private volatile boolean stopped = false;
+
+    LoadHarness(Map<String, String> settings) {
+        this.settings = settings;
+        this.repository = new SyntheticRepository(intSetting("shells"), intSetting("submodelsPerShell"),
+                intSetting("elementsPerSubmodel"), intSetting("roles"));
+        repository.getShells().forEach(shell -> assetIds.add(shell.getId()));
+        repository.getSubmodels().forEach(submodel -> assetIds.add(submodel.getId()));
+        List<Map<String, String>> credentialSets = repository.getCredentialSets();
+        for (int p = 0; p < intSetting("partners"); p++) {
+            int credentialSet = p % credentialSets.size();
+            Map<String, String> properties = new HashMap<>(credentialSets.get(credentialSet));
+            properties.put(DspTokenValidationService.ReservedKeys.partnerId.toString(), "did:web:partner-" + p);
+            partners.add(new Partner(Map.copyOf(properties),
+                    credentialSet < repository.getRoles() ? "role" + credentialSet : null));
+        }
+        int weight = 0;
+        for (String operation : List.of(CATALOG, TRANSFER, FORWARD_GET, FORWARD_PUT, SEARCH)) {
+            int operationWeight = intSetting(operation + "Weight");
+            if (operationWeight > 0) {
+                operationsByWeight.put(weight, operation);
+                weight += operationWeight;
+            }
+        }
+        this.totalWeight = weight;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("shells", "1000");
+        settings.put("submodelsPerShell", "4");
+        settings.put("elementsPerSubmodel", "20");
+        settings.put("roles", "4");
+        settings.put("partners", "200");
+        settings.put("threads", "32");
+        settings.put("warmupSeconds", "30");
+        settings.put("durationSeconds", "300");
+        settings.put("intervalSeconds", "10");
+        settings.put(CATALOG + "Weight", "1");
+        settings.put(TRANSFER + "Weight", "60");
+        settings.put(FORWARD_GET + "Weight", "25");
+        settings.put(FORWARD_PUT + "Weight", "10");
+        settings.put(SEARCH + "Weight", "4");
+        settings.put("mongodbUri", "mongodb://localhost:27017");
+        settings.put("out", "target/load-results/load-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        for (String arg : args) {
+            String[] keyValue = arg.split("=", 2);
+            if (keyValue.length != 2 || !settings.containsKey(keyValue[0])) {
+                log.error("Unknown argument {}, the arguments and their defaults are {}", arg, settings);
+                System.exit(1);
+            }
+            settings.put(keyValue[0], keyValue[1]);
+        }
+        new LoadHarness(settings).run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        bootApplication();
+        LoadReport report = new LoadReport(new LinkedHashSet<>(operationsByWeight.values()));
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < intSetting("threads"); i++) {
+            Thread worker = new Thread(() -> drive(report), "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Seeded {} shells and {} submodels, warming up for {} s with {}", repository.getShells().size(),
+                repository.getSubmodels().size(), intSetting("warmupSeconds"), settings);
+        Thread.sleep(intSetting("warmupSeconds") * 1000L);
+
+        report.reset();
+        measuring = true;
+        long intervalNanos = intSetting("intervalSeconds") * 1_000_000_000L;
+        long start = System.nanoTime();
+        long end = start + intSetting("durationSeconds") * 1_000_000_000L;
+        long last = start;
+        while (last < end) {
+            long next = Math.min(last + intervalNanos, end);
+            Thread.sleep(Math.max(0, (next - System.nanoTime()) / 1_000_000));
+            long now = System.nanoTime();
+            report.closeInterval((now - start) / 1e9, (now - last) / 1e9);
+            last = now;
+        }
+        measuring = false;
+        stopped = true;
+        for (Thread worker : workers) {
+            worker.join(10000);
+        }
+        for (AutoCloseable stopAction : stopActions.reversed()) {
+            stopAction.close();
+        }
+
+        Path out = Path.of(settings.get("out"));
+        report.write(out, settings, (last - start) / 1e9);
+        log.info("Wrote {}", out.toAbsolutePath());
+    }
+
+    private void drive(LoadReport report) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!stopped) {
+            Partner partner = partners.get(random.nextInt(partners.size()));
+            String operation = operationsByWeight.floorEntry(random.nextInt(totalWeight)).getValue();
+            long start = System.nanoTime();
+            LoadReport.Outcome outcome;
+            try {
+                outcome = execute(operation, partner, random);
+            } catch (ResponseStatusException e) {
+                // rate limits (429) and saturated bulkheads (503) of getAll and getByIdForProperties
+                outcome = outcome(e.getStatusCode().value());
+            } catch (Exception e) {
+                outcome = LoadReport.Outcome.error;
+            }
+            if (measuring) {
+                report.record(operation, System.nanoTime() - start, outcome);
+            }
+        }
+    }
+
+    private LoadReport.Outcome execute(String operation, Partner partner, Random random) throws Exception {
+        return switch (operation) {
+            case CATALOG -> {
+                // a catalog without any shell or submodel only lists the public api assets
+                boolean granted = service.getAll(partner.properties()).stream()
+                        .anyMatch(asset -> asset instanceof AasDataAsset || asset instanceof SubmodelDataAsset);
+                yield granted ? LoadReport.Outcome.ok : LoadReport.Outcome.denied;
+            }
+            case TRANSFER -> {
+                DataAsset asset = service.getByIdForProperties(assetIds.get(random.nextInt(assetIds.size())), partner.properties());
+                if (asset == null) {
+                    yield LoadReport.Outcome.denied;
+                }
+                asset.getDtoRepresentation();
+                yield LoadReport.Outcome.ok;
+            }
+            case FORWARD_GET -> {
+                // reads go through the read asset of the partner's role
+                DataAsset readAsset = negotiate(ReadApiAsset.ID_PREFIX, partner, random);
+                if (readAsset == null) {
+                    yield LoadReport.Outcome.denied;
+                }
+                yield outcome(service.forwardToApiAsset(readAsset.getDspId(), HttpMethod.GET, null,
+                        HttpHeaders.EMPTY, submodelPath(randomSubmodel(random).getId()), new LinkedMultiValueMap<>()));
+            }
+            case FORWARD_PUT -> {
+                Submodel current = randomSubmodel(random);
+                Submodel updated = repository.createSubmodel(current.getId(), "Nameplate".equals(current.getIdShort()),
+                        putValues.incrementAndGet());
+                yield outcome(service.forwardToApiAsset("SubmodelsApiAsset", HttpMethod.PUT, aasSerializationService.serialize(updated),
+                        HttpHeaders.EMPTY, submodelPath(current.getId()), new LinkedMultiValueMap<>()));
+            }
+            case SEARCH -> {
+                MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+                params.add("semanticId", random.nextBoolean() ? SyntheticRepository.NAMEPLATE : SyntheticRepository.OPERATIONAL_DATA);
+                params.add("limit", "100");
+                DataAsset searchAsset = negotiate(SearchApiAsset.ID_PREFIX, partner, random);
+                if (searchAsset == null) {
+                    yield LoadReport.Outcome.denied;
+                }
+                yield outcome(service.forwardToApiAsset(searchAsset.getDspId(), HttpMethod.GET, null,
+                        HttpHeaders.EMPTY, "/search", params));
+            }
+            default -> throw new IllegalArgumentException(operation);
+        };
+    }
+
+    /**
+     * Requests the role-scoped api asset of the partner's role like the DSP library does before a
+     * transfer. A partner without a role asks for the asset of a random role and is denied.
+     *
+     * @return the granted asset, or null if it was denied
+     */
+    private DataAsset negotiate(String idPrefix, Partner partner, Random random) {
+        String role = partner.role() != null ? partner.role() : "role" + random.nextInt(repository.getRoles());
+        return service.getByIdForProperties(idPrefix + role, partner.properties());
+    }
+
+    private Submodel randomSubmodel(Random random) {
+        return repository.getSubmodels().get(random.nextInt(repository.getSubmodels().size()));
+    }
+
+    private static String submodelPath(String submodelId) {
+        return "/submodels/" + Base64.getUrlEncoder().encodeToString(submodelId.getBytes());
+    }
+
+    private static LoadReport.Outcome outcome(ResponseEntity<byte[]> response) {
+        return outcome(response.getStatusCode().value());
+    }
+
+    private static LoadReport.Outcome outcome(int status) {
+        if (status < 300) {
+            return LoadReport.Outcome.ok;
+        }
+        if (status == 429 || status == 503) {
+            return LoadReport.Outcome.rejected;
+        }
+        return status == 401 || status == 403 ? LoadReport.Outcome.denied : LoadReport.Outcome.error;
+    }
+
+    /**
+     * Boots the application with the BaSyx in-memory backends, the production defaults of the
+     * bulkheads and without rate limits or integrations, and seeds the synthetic repository.
+     */
+    private void bootApplication() throws Exception {
+        StubIdentityProvider identityProvider = new StubIdentityProvider();
+        stopActions.add(identityProvider::stop);
+        Path rulesFile = Files.createTempFile("load-harness-rules", ".json");
+        stopActions.add(() -> Files.deleteIfExists(rulesFile));
+        new ObjectMapper().writeValue(rulesFile.toFile(), repository.createRules());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BaSyxStarterApplication.class).run(
+                "--server.port=0",
+                "--basyx.backend=InMemory",
+                "--spring.data.mongodb.uri=" + settings.get("mongodbUri"),
+                "--spring.data.mongodb.database=load-harness",
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + identityProvider.getIssuer(),
+                "--basyx.feature.authorization.rbac.file=file:" + rulesFile,
+                "--org.factoryx.dspnativebasyx.credentialtorolemappings=" + repository.getRoleMappings(),
+                "--org.factoryx.dspnativebasyx.changelog.capacity=10000");
+        stopActions.add(context::close);
+        // seeded through the backends of the context, so that the catalog snapshot and the indexes see the objects
+        context.getBean(AasBackend.class).saveAll(repository.getShells());
+        context.getBean(SubmodelBackend.class).saveAll(repository.getSubmodels());
+        aasSerializationService = context.getBean(AasSerializationService.class);
+        service = context.getBean(BaSyxAccessManagementService.class);
+    }
+
+    private int intSetting(String name) {
+        return Integer.parseInt(settings.get(name));
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the latencies and outcomes per operation in intervals, together with the heap and GC
+ * figures of each interval, and writes them as JSON so that runs can be compared.
+ *
+ * Latencies are recorded into HdrHistogram Recorders, which are lock-free for the recording
+ * threads; each interval swaps the histograms and adds them to the totals of the run.
+ */
+@Slf4j
+public class LoadReport {
+
+    public enum Outcome {
+        ok, denied, rejected, error
+    }
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+    private final Map<String, Histogram> totals = new LinkedHashMap<>();
+    private final Map<String, Map<Outcome, LongAdder>> outcomes = new LinkedHashMap<>();
+    private final Map<String, Map<Outcome, Long>> totalOutcomes = new LinkedHashMap<>();
+    private final List<Map<String, Object>> intervals = new ArrayList<>();
+    private final Map<String, long[]> lastGc = new ConcurrentHashMap<>();
+    private long maxHeapUsed = 0;
+
+    public LoadReport(Collection<String> operations) {
+        for (String operation : operations) {
+            recorders.put(operation, new Recorder(3));
+            totals.put(operation, new Histogram(3));
+            Map<Outcome, LongAdder> counters = new EnumMap<>(Outcome.class);
+            Map<Outcome, Long> totalCounters = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                counters.put(outcome, new LongAdder());
+                totalCounters.put(outcome, 0L);
+            }
+            outcomes.put(operation, counters);
+            totalOutcomes.put(operation, totalCounters);
+        }
+        sampleGc();
+    }
+
+    public void record(String operation, long nanos, Outcome outcome) {
+        recorders.get(operation).recordValue(nanos);
+        outcomes.get(operation).get(outcome).increment();
+    }
+
+    /**
+     * Drops everything recorded so far, e.g. at the end of the warm-up.
+     */
+    public void reset() {
+        recorders.values().forEach(Recorder::reset);
+        outcomes.values().forEach(counters -> counters.values().forEach(LongAdder::reset));
+        sampleGc();
+    }
+
+    /**
+     * Closes the current interval and logs a summary line of it.
+     */
+    public void closeInterval(double elapsedSeconds, double intervalSeconds) {
+        Map<String, Object> interval = new LinkedHashMap<>();
+        interval.put("elapsedSeconds", elapsedSeconds);
+        Map<String, Object> operations = new LinkedHashMap<>();
+        StringBuilder line = new StringBuilder(String.format("[%7.1fs]", elapsedSeconds));
+        for (var entry : recorders.entrySet()) {
+            Histogram histogram = entry.getValue().getIntervalHistogram();
+            totals.get(entry.getKey()).add(histogram);
+            Map<Outcome, Long> counts = new EnumMap<>(Outcome.class);
+            for (var counter : outcomes.get(entry.getKey()).entrySet()) {
+                long count = counter.getValue().sumThenReset();
+                counts.put(counter.getKey(), count);
+                totalOutcomes.get(entry.getKey()).merge(counter.getKey(), count, Long::sum);
+            }
+            operations.put(entry.getKey(), summarize(histogram, counts, intervalSeconds));
+            line.append(String.format(" %s %.0f/s p99 %.2fms", entry.getKey(),
+                    histogram.getTotalCount() / intervalSeconds, histogram.getValueAtPercentile(99) / NANOS_PER_MILLI));
+        }
+        interval.put("operations", operations);
+        Map<String, Object> jvm = sampleJvm();
+        interval.put("jvm", jvm);
+        intervals.add(interval);
+        line.append(String.format(" heap %d MB gc %d ms", (long) jvm.get("heapUsedBytes") / (1024 * 1024), (long) jvm.get("gcMillis")));
+        log.info("{}", line);
+    }
+
+    /**
+     * Writes the settings, the intervals and the totals of the run.
+     */
+    public void write(Path file, Map<String, String> settings, double measuredSeconds) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("jvm", Map.of(
+                "version", Runtime.version().toString(),
+                "availableProcessors", Runtime.getRuntime().availableProcessors(),
+                "maxHeapBytes", Runtime.getRuntime().maxMemory(),
+                "inputArguments", ManagementFactory.getRuntimeMXBean().getInputArguments()));
+        Map<String, Object> totalOperations = new LinkedHashMap<>();
+        for (var entry : totals.entrySet()) {
+            totalOperations.put(entry.getKey(), summarize(entry.getValue(), totalOutcomes.get(entry.getKey()), measuredSeconds));
+        }
+        Map<String, Object> gc = new LinkedHashMap<>();
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gc.put(collector.getName(), Map.of("count", collector.getCollectionCount(), "millis", collector.getCollectionTime()));
+        }
+        result.put("totals", Map.of("measuredSeconds", measuredSeconds, "operations", totalOperations,
+                "maxHeapUsedBytes", maxHeapUsed, "garbageCollectors", gc));
+        result.put("intervals", intervals);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), result);
+    }
+
+    private static Map<String, Object> summarize(Histogram histogram, Map<Outcome, Long> counts, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("throughputPerSecond", seconds > 0 ? histogram.getTotalCount() / seconds : 0);
+        summary.put("p50Millis", histogram.getValueAtPercentile(50) / NANOS_PER_MILLI);
+        summary.put("p99Millis", histogram.getValueAtPercentile(99) / NANOS_PER_MILLI);
+        summary.put("p999Millis", histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI);
+        summary.put("maxMillis", histogram.getMaxValue() / NANOS_PER_MILLI);
+        summary.put("outcomes", counts);
+        return summary;
+    }
+
+    private Map<String, Object> sampleJvm() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        maxHeapUsed = Math.max(maxHeapUsed, heap.getUsed());
+        long gcCount = 0;
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            long[] last = lastGc.getOrDefault(collector.getName(), new long[2]);
+            gcCount += collector.getCollectionCount() - last[0];
+            gcMillis += collector.getCollectionTime() - last[1];
+        }
+        sampleGc();
+        Map<String, Object> jvm = new LinkedHashMap<>();
+        jvm.put("heapUsedBytes", heap.getUsed());
+        jvm.put("heapCommittedBytes", heap.getCommitted());
+        jvm.put("gcCount", gcCount);
+        jvm.put("gcMillis", gcMillis);
+        jvm.put("threads", ManagementFactory.getThreadMXBean().getThreadCount());
+        return jvm;
+    }
+
+    private void sampleGc() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            lastGc.put(collector.getName(), new long[]{collector.getCollectionCount(), collector.getCollectionTime()});
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A stand-in for the identity provider (Keycloak) that the BaSyx authorization of the application
+ * is configured against: serves the OpenID discovery document and a JWKS with a freshly generated
+ * RSA key on a local port, so that the application can be booted without a Keycloak. The load itself
+ * does not carry tokens, it is driven with the partner properties that the DSP library derives
+ * from validated tokens.
+ */
+public class StubIdentityProvider {
+
+    private final HttpServer server;
+    private final String issuer;
+
+    public StubIdentityProvider() throws IOException, NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        RSAPublicKey publicKey = (RSAPublicKey) generator.generateKeyPair().getPublic();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        issuer = "http://localhost:" + server.getAddress().getPort() + "/realms/load-harness";
+        ObjectMapper objectMapper = new ObjectMapper();
+        byte[] discovery = objectMapper.writeValueAsBytes(Map.of(
+                "issuer", issuer,
+                "jwks_uri", issuer + "/protocol/openid-connect/certs",
+                "subject_types_supported", List.of("public"),
+                "id_token_signing_alg_values_supported", List.of("RS256")));
+        byte[] jwks = objectMapper.writeValueAsBytes(Map.of("keys", List.of(Map.of(
+                "kty", "RSA",
+                "kid", "load-harness",
+                "use", "sig",
+                "alg", "RS256",
+                "n", base64Url(publicKey.getModulus()),
+                "e", base64Url(publicKey.getPublicExponent())))));
+        server.createContext("/realms/load-harness/.well-known/openid-configuration", exchange -> respond(exchange, discovery));
+        server.createContext("/realms/load-harness/protocol/openid-connect/certs", exchange -> respond(exchange, jwks));
+        server.start();
+    }
+
+    /**
+     * The issuer URI to configure as spring.security.oauth2.resourceserver.jwt.issuer-uri.
+     */
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public void stop() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // unsigned big-endian as required by RFC 7518, without the sign byte of BigInteger
+        int offset = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                Arrays.copyOfRange(bytes, offset, bytes.length));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.load;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.*;
+import org.factoryx.library.connector.embedded.provider.interfaces.DspTokenValidationService;
+
+import java.util.*;
+
+/**
+ * A synthetic repository for the load harness: shells with a number of submodels each, whose
+ * elements are numeric Properties, and a set of roles with different grants.
+ *
+ * Role 0 may read everything through wildcard rules, role r > 0 only the shells and submodels
+ * with index % roles == r through explicit id lists. Every role has one credential set
+ * ("credential-r"); one more credential set is not mapped to any role and is always denied.
+ */
+public class SyntheticRepository {
+
+    static final String NAMEPLATE = "https://admin-shell.io/zvei/nameplate/2/0/Nameplate";
+    static final String OPERATIONAL_DATA = "https://admin-shell.io/idta/OperationalData/1/0";
+
+    private final List<AssetAdministrationShell> shells = new ArrayList<>();
+    private final List<Submodel> submodels = new ArrayList<>();
+    private final int roles;
+    private final int elementsPerSubmodel;
+
+    public SyntheticRepository(int shellCount, int submodelsPerShell, int elementsPerSubmodel, int roles) {
+        this.roles = Math.max(1, roles);
+        this.elementsPerSubmodel = elementsPerSubmodel;
+        for (int i = 0; i < shellCount; i++) {
+            List<Reference> submodelReferences = new ArrayList<>();
+            for (int j = 0; j < submodelsPerShell; j++) {
+                Submodel submodel = createSubmodel("urn:uuid:submodel-" + i + "-" + j, j % 2 == 0, 0);
+                submodels.add(submodel);
+                submodelReferences.add(new DefaultReference.Builder().type(ReferenceTypes.MODEL_REFERENCE)
+                        .keys(new DefaultKey.Builder().type(KeyTypes.SUBMODEL).value(submodel.getId()).build()).build());
+            }
+            shells.add(new DefaultAssetAdministrationShell.Builder().id("urn:uuid:shell-" + i).idShort("Shell" + i)
+                    .assetInformation(new DefaultAssetInformation.Builder().assetKind(AssetKind.INSTANCE)
+                            .globalAssetId("urn:uuid:asset-" + i).build())
+                    .submodels(submodelReferences)
+                    .build());
+        }
+    }
+
+    /**
+     * A submodel of the repository with all Property values set to the given value, e.g. for PUTs.
+     */
+    public Submodel createSubmodel(String id, boolean nameplate, long value) {
+        List<SubmodelElement> elements = new ArrayList<>(elementsPerSubmodel);
+        for (int k = 0; k < elementsPerSubmodel; k++) {
+            elements.add(new DefaultProperty.Builder().idShort("Value" + k).valueType(DataTypeDefXsd.DOUBLE)
+                    .value(String.valueOf(value + k)).build());
+        }
+        return new DefaultSubmodel.Builder().id(id).idShort(nameplate ? "Nameplate" : "OperationalData")
+                .semanticId(new DefaultReference.Builder().type(ReferenceTypes.EXTERNAL_REFERENCE)
+                        .keys(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE)
+                                .value(nameplate ? NAMEPLATE : OPERATIONAL_DATA).build())
+                        .build())
+                .submodelElements(elements)
+                .build();
+    }
+
+    public List<AssetAdministrationShell> getShells() {
+        return shells;
+    }
+
+    public List<Submodel> getSubmodels() {
+        return submodels;
+    }
+
+    public int getRoles() {
+        return roles;
+    }
+
+    /**
+     * The credential sets of the partners, the last one is not mapped to a role.
+     */
+    public List<Map<String, String>> getCredentialSets() {
+        List<Map<String, String>> credentialSets = new ArrayList<>();
+        for (int r = 0; r <= roles; r++) {
+            credentialSets.add(Map.of(DspTokenValidationService.ReservedKeys.credentials.toString(), "credential-" + r));
+        }
+        return credentialSets;
+    }
+
+    public String getRoleMappings() {
+        StringJoiner mappings = new StringJoiner(", ");
+        for (int r = 0; r < roles; r++) {
+            mappings.add("credential-" + r + "=role" + r);
+        }
+        return mappings.toString();
+    }
+
+    /**
+     * The RBAC rules of the roles in the format of the BaSyx rules file
+     * (basyx.feature.authorization.rbac.file).
+     */
+    public List<Map<String, Object>> createRules() {
+        List<Map<String, Object>> rules = new ArrayList<>();
+        rules.add(rule("role0", Map.of("@type", "aas", "aasIds", "*")));
+        rules.add(rule("role0", Map.of("@type", "submodel", "submodelIds", "*", "submodelElementIdShortPaths", "*")));
+        for (int r = 1; r < roles; r++) {
+            List<String> shellIds = new ArrayList<>();
+            for (int i = r; i < shells.size(); i += roles) {
+                shellIds.add(shells.get(i).getId());
+            }
+            List<String> submodelIds = new ArrayList<>();
+            for (int i = r; i < submodels.size(); i += roles) {
+                submodelIds.add(submodels.get(i).getId());
+            }
+            rules.add(rule("role" + r, Map.of("@type", "aas", "aasIds", shellIds)));
+            rules.add(rule("role" + r, Map.of("@type", "submodel", "submodelIds", submodelIds, "submodelElementIdShortPaths", "*")));
+        }
+        return rules;
+    }
+
+    private static Map<String, Object> rule(String role, Map<String, Object> targetInformation) {
+        return Map.of("role", role, "action", List.of("READ"), "targetInformation", targetInformation);
+    }
+}
@@ -33,6 +33,10 @@ import org.springframework.data.mongodb.repository.config.EnableMongoRepositorie
  * so that it no longer uses the spring-boot-starter-data-jpa module.
  * From testing, we learned that BaSyx's own MongoDB Repositories do not get properly instantiated, when
  * additional spring-boot-starter-data modules (other than spring-boot-starter-data-mongodb) are present.
+ * As a workaround, org.factoryx.dspnativebasyx.mongobackend.enabled moves the storage of the InMemory
+ * backends to MongoDB (see MongoBackendConfig).
+ * For many concurrent writers, org.factoryx.dspnativebasyx.shardedbackend.enabled replaces them by
+ * a sharded in-memory store (see ShardedBackendConfig).
  */
 @SpringBootApplication
 @Slf4j
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.backend;
+
+import org.springframework.data.repository.CrudRepository;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classifies the operations that the BaSyx backend interfaces (AasBackend and SubmodelBackend) add
+ * to CrudRepository, e.g. the submodel element operations of the BaSyx REST API, into reads and
+ * writes. All of them take the id of the shell or submodel they work on as first argument.
+ */
+public final class BackendOperations {
+
+    private static final Set<String> READS = Set.of(
+            // SubmodelBackend
+            "getSubmodelElements", "getSubmodelElement", "getSubmodelElementValue", "getFileByFilePath",
+            "getFileByPathSubmodel",
+            // AasBackend
+            "getSubmodelReferences", "getAssetInformation", "getThumbnail");
+
+    private static final Set<String> WRITES = Set.of(
+            // SubmodelBackend
+            "updateSubmodelElement", "setSubmodelElementValue", "createSubmodelElement", "deleteSubmodelElement",
+            "patchSubmodelElements", "deleteFileValue", "uploadFileValue",
+            // AasBackend
+            "addSubmodelReference", "removeSubmodelReference", "setAssetInformation", "deleteThumbnail",
+            "setThumbnail");
+
+    private BackendOperations() {
+    }
+
+    public static boolean isRead(Method method) {
+        return READS.contains(method.getName());
+    }
+
+    public static boolean isWrite(Method method) {
+        return WRITES.contains(method.getName());
+    }
+
+    /**
+     * Lists the operations of a backend interface beyond CrudRepository that are not classified, or
+     * that do not take the id as first argument, e.g. after a BaSyx upgrade added or changed one.
+     */
+    public static List<Method> unclassified(Class<?> backendType) {
+        List<Method> unclassified = new ArrayList<>();
+        for (Method method : backendType.getMethods()) {
+            if (method.isDefault() || method.getDeclaringClass().isAssignableFrom(CrudRepository.class)) {
+                continue;
+            }
+            if ((!isRead(method) && !isWrite(method))
+                    || method.getParameterCount() == 0 || method.getParameterTypes()[0] != String.class) {
+                unclassified.add(method);
+            }
+        }
+        return unclassified;
+    }
+}
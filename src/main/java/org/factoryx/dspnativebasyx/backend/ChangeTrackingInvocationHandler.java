@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.backend;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.repository.CrudRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Reports every write on a BaSyx backend (AasBackend or SubmodelBackend) to a ModelChangeListener,
+ * whether it comes from the DSP side, the repository import or the BaSyx REST API.
+ *
+ * The CrudRepository writes report the saved objects and the deleted ids. After the other write
+ * operations (see BackendOperations), the current state of the object is read back and reported;
+ * operations that are not classified are treated as writes. A write and its report are done under
+ * the lock of the id, so that the reports of one id arrive in the order of the writes. Before the
+ * write, the listener is told that the id is being written, e.g. to drop a buffered state that
+ * would otherwise overwrite it.
+ *
+ * The proxy is the outermost layer around the backend: the ModelStore backends are placed inside
+ * of it (see rewrap).
+ */
+@Slf4j
+public class ChangeTrackingInvocationHandler<T> implements InvocationHandler {
+
+    private final CrudRepository<T, String> backend;
+    private final Function<T, String> idOf;
+    private final ModelChangeListener<T> listener;
+    private final Function<String, Lock> locks;
+
+    private ChangeTrackingInvocationHandler(CrudRepository<T, String> backend, Function<T, String> idOf,
+                                            ModelChangeListener<T> listener, Function<String, Lock> locks) {
+        this.backend = backend;
+        this.idOf = idOf;
+        this.listener = listener;
+        this.locks = locks;
+    }
+
+    /**
+     * Creates the tracking proxy of the backend interface around the backend.
+     */
+    @SuppressWarnings("unchecked")
+    public static <B extends CrudRepository<T, String>, T> B create(Class<B> backendType, B backend, Function<T, String> idOf,
+                                                                   ModelChangeListener<T> listener, Function<String, Lock> locks) {
+        List<Method> unclassified = BackendOperations.unclassified(backendType);
+        if (!unclassified.isEmpty()) {
+            log.warn("Operations of {} that are not classified, and are therefore tracked as writes: {}",
+                    backendType.getSimpleName(), unclassified);
+        }
+        return (B) Proxy.newProxyInstance(backendType.getClassLoader(), new Class<?>[]{backendType},
+                new ChangeTrackingInvocationHandler<>(backend, idOf, listener, locks));
+    }
+
+    public static boolean isTracked(Object backend) {
+        return Proxy.isProxyClass(backend.getClass())
+                && Proxy.getInvocationHandler(backend) instanceof ChangeTrackingInvocationHandler<?>;
+    }
+
+    /**
+     * Returns the backend inside of a tracking proxy, or the given backend if it is not tracked.
+     * Writes on the result are not reported, e.g. because they only persist a state that has
+     * been reported before.
+     */
+    @SuppressWarnings("unchecked")
+    public static <B> B unwrap(B backend) {
+        if (isTracked(backend)) {
+            return (B) ((ChangeTrackingInvocationHandler<?>) Proxy.getInvocationHandler(backend)).backend;
+        }
+        return backend;
+    }
+
+    /**
+     * Replaces the backend inside of a tracking proxy by the result of the wrapper, keeping the
+     * tracking outermost; an untracked backend is wrapped directly.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <B extends CrudRepository<?, String>> B rewrap(Class<B> backendType, B backend, UnaryOperator<B> wrapper) {
+        if (!isTracked(backend)) {
+            return wrapper.apply(backend);
+        }
+        ChangeTrackingInvocationHandler handler = (ChangeTrackingInvocationHandler) Proxy.getInvocationHandler(backend);
+        return (B) Proxy.newProxyInstance(backendType.getClassLoader(), new Class<?>[]{backendType},
+                new ChangeTrackingInvocationHandler<>((CrudRepository) wrapper.apply((B) handler.backend),
+                        handler.idOf, handler.listener, handler.locks));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Tracked backend (" + backend + ")";
+            };
+        }
+        int arity = args == null ? 0 : args.length;
+        if (method.getDeclaringClass() == CrudRepository.class) {
+            return switch (method.getName()) {
+                case "save" -> withLock(idOf.apply((T) args[0]), () -> {
+                    listener.writing(idOf.apply((T) args[0]), true);
+                    T saved = (T) invokeOnBackend(method, args);
+                    report(() -> listener.saved(saved));
+                    return saved;
+                });
+                case "saveAll" -> {
+                    for (T model : (Iterable<T>) args[0]) {
+                        writing(idOf.apply(model));
+                    }
+                    List<T> saved = new ArrayList<>();
+                    ((Iterable<T>) invokeOnBackend(method, args)).forEach(saved::add);
+                    for (T model : saved) {
+                        withLock(idOf.apply(model), () -> {
+                            report(() -> listener.saved(model));
+                            return null;
+                        });
+                    }
+                    yield saved;
+                }
+                case "deleteById" -> deleted(method, args, List.of((String) args[0]));
+                case "delete" -> deleted(method, args, List.of(idOf.apply((T) args[0])));
+                case "deleteAllById" -> {
+                    List<String> ids = new ArrayList<>();
+                    ((Iterable<String>) args[0]).forEach(ids::add);
+                    yield deleted(method, args, ids);
+                }
+                case "deleteAll" -> {
+                    List<String> ids = new ArrayList<>();
+                    ((Iterable<T>) (arity == 0 ? backend.findAll() : args[0])).forEach(model -> ids.add(idOf.apply(model)));
+                    yield deleted(method, args, ids);
+                }
+                default -> invokeOnBackend(method, args);
+            };
+        }
+        if (arity == 0 || !(args[0] instanceof String id) || BackendOperations.isRead(method)) {
+            return invokeOnBackend(method, args);
+        }
+        return withLock(id, () -> {
+            listener.writing(id, false);
+            Object result = invokeOnBackend(method, args);
+            report(() -> backend.findById(id).ifPresentOrElse(listener::saved, () -> listener.deleted(id)));
+            return result;
+        });
+    }
+
+    private Object deleted(Method method, Object[] args, List<String> ids) throws Throwable {
+        if (ids.size() == 1) {
+            return withLock(ids.get(0), () -> {
+                listener.writing(ids.get(0), true);
+                invokeOnBackend(method, args);
+                report(() -> listener.deleted(ids.get(0)));
+                return null;
+            });
+        }
+        for (String id : ids) {
+            writing(id);
+        }
+        invokeOnBackend(method, args);
+        for (String id : ids) {
+            withLock(id, () -> {
+                report(() -> listener.deleted(id));
+                return null;
+            });
+        }
+        return null;
+    }
+
+    private void writing(String id) throws Throwable {
+        withLock(id, () -> {
+            listener.writing(id, true);
+            return null;
+        });
+    }
+
+    /**
+     * The write has already happened when it is reported, so a failing listener must not fail it.
+     */
+    private void report(Runnable report) {
+        try {
+            report.run();
+        } catch (Exception e) {
+            log.error("Failed to report a write on {}", backend, e);
+        }
+    }
+
+    private interface Call {
+        Object call() throws Throwable;
+    }
+
+    private Object withLock(String id, Call call) throws Throwable {
+        Lock lock = locks.apply(id);
+        lock.lock();
+        try {
+            return call.call();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Object invokeOnBackend(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(backend, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
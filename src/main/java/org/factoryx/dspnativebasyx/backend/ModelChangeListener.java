@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.backend;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Receives the writes that a ChangeTrackingInvocationHandler observes on a backend.
+ */
+public interface ModelChangeListener<T> {
+
+    void saved(T model);
+
+    void deleted(String id);
+
+    /**
+     * Called under the lock of the id before the write is done on the backend. A failure fails the write.
+     *
+     * @param replacing true if the write replaces or deletes the whole model, false if it changes a part of it
+     */
+    default void writing(String id, boolean replacing) {
+    }
+
+    static <T> ModelChangeListener<T> of(Consumer<T> saved, Consumer<String> deleted) {
+        return of(saved, deleted, (id, replacing) -> {
+        });
+    }
+
+    static <T> ModelChangeListener<T> of(Consumer<T> saved, Consumer<String> deleted, BiConsumer<String, Boolean> writing) {
+        return new ModelChangeListener<>() {
+            @Override
+            public void saved(T model) {
+                saved.accept(model);
+            }
+
+            @Override
+            public void deleted(String id) {
+                deleted.accept(id);
+            }
+
+            @Override
+            public void writing(String id, boolean replacing) {
+                writing.accept(id, replacing);
+            }
+        };
+    }
+}
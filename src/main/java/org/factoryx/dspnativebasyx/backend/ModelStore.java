@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.backend;
+
+import java.util.Optional;
+
+/**
+ * Storage of shells or submodels behind a BaSyx backend, see ModelStoreInvocationHandler.
+ */
+public interface ModelStore<T> {
+
+    T save(T entity);
+
+    Iterable<T> saveAll(Iterable<T> entities);
+
+    Optional<T> findById(String id);
+
+    /**
+     * Loads an object for a read-modify-write of the ModelStoreInvocationHandler. The result may be
+     * modified by the caller without affecting the stored object or its readers, until it is saved.
+     * Stores that deserialize their objects on every read already return a fresh instance.
+     */
+    default Optional<T> findCopyById(String id) {
+        return findById(id);
+    }
+
+    boolean existsById(String id);
+
+    Iterable<T> findAll();
+
+    /**
+     * Lists all objects with at least the fields that the catalogs and the search index need. A
+     * store that has to deserialize its objects for findAll() returns ModelSummary instances
+     * instead, which are read from its lookup fields alone.
+     */
+    default Iterable<T> findAllSummaries() {
+        return findAll();
+    }
+
+    Iterable<T> findAllById(Iterable<String> ids);
+
+    long count();
+
+    void deleteById(String id);
+
+    void delete(T entity);
+
+    void deleteAllById(Iterable<String> ids);
+
+    void deleteAll(Iterable<T> entities);
+
+    void deleteAll();
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.backend;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.repository.CrudRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+
+/**
+ * Turns a BaSyx backend (AasBackend or SubmodelBackend) into one backed by a ModelStore, e.g.
+ * MongoDB (MongoModelStore) or the sharded in-memory ShardedModelStore.
+ *
+ * The CrudRepository methods, i.e. everything the DSP side and the catalogs use, are answered by
+ * the store. The remaining operations of the backend interface, e.g. the submodel element
+ * operations of the BaSyx REST API, are delegated to the original in-memory backend, which only
+ * serves as a workspace: a copy of the object is loaded from the store into it, the operation is
+ * applied, and the result is written back unless BackendOperations classifies the operation as a read. The
+ * operations take the id of their object as first argument and are serialized per id by the given
+ * locks.
+ *
+ * The dispatch table is built from the backend interface when the proxy is created, so that an
+ * operation which cannot be served from the store fails at startup rather than on its first call.
+ * Operations that BackendOperations does not know, e.g. after a BaSyx upgrade, are written back
+ * like writes.
+ */
+@Slf4j
+public class ModelStoreInvocationHandler<T> implements InvocationHandler {
+
+    @FunctionalInterface
+    private interface Operation {
+        Object apply(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    private final ModelStore<T> store;
+    private final CrudRepository<T, String> workspace;
+    private final Function<String, Lock> locks;
+    private final Map<Method, Operation> operations = new HashMap<>();
+
+    ModelStoreInvocationHandler(Class<?> backendType, ModelStore<T> store, CrudRepository<T, String> workspace,
+                                Function<String, Lock> locks) {
+        this.store = store;
+        this.workspace = workspace;
+        this.locks = locks;
+        List<Method> unclassified = new ArrayList<>();
+        for (Method method : backendType.getMethods()) {
+            operations.put(method, operationFor(method, unclassified));
+        }
+        if (!unclassified.isEmpty()) {
+            log.warn("Operations of {} that are not classified, and are therefore written back like writes: {}",
+                    backendType.getSimpleName(), unclassified);
+        }
+    }
+
+    /**
+     * Creates the store-backed proxy of the backend interface around the in-memory backend.
+     *
+     * @throws IllegalStateException if the interface has an operation that does not take the id of its object as
+     *                               first argument, and can therefore not be applied to an object from the store
+     */
+    @SuppressWarnings("unchecked")
+    public static <B extends CrudRepository<T, String>, T> B create(Class<B> backendType, B inMemoryBackend,
+                                                                   ModelStore<T> store, Function<String, Lock> locks) {
+        return (B) Proxy.newProxyInstance(backendType.getClassLoader(), new Class<?>[]{backendType},
+                new ModelStoreInvocationHandler<>(backendType, store, inMemoryBackend, locks));
+    }
+
+    public static boolean isStoreBackend(Object backend) {
+        return Proxy.isProxyClass(backend.getClass())
+                && Proxy.getInvocationHandler(backend) instanceof ModelStoreInvocationHandler<?>;
+    }
+
+    /**
+     * Lists the objects of the backend for the catalog and the search index: the summaries of its
+     * ModelStore (see ModelStore.findAllSummaries()), or all objects if it is not backed by a store.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Iterable<T> findAllSummaries(CrudRepository<T, String> backend) {
+        CrudRepository<T, String> unwrapped = ChangeTrackingInvocationHandler.unwrap(backend);
+        if (isStoreBackend(unwrapped)) {
+            return ((ModelStoreInvocationHandler<T>) Proxy.getInvocationHandler(unwrapped)).store.findAllSummaries();
+        }
+        return backend.findAll();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (method.getName()) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "ModelStore backend (" + store + ")";
+            };
+        }
+        return operations.get(method).apply(proxy, method, args);
+    }
+
+    private Operation operationFor(Method method, List<Method> unclassified) {
+        if (method.isDefault()) {
+            return InvocationHandler::invokeDefault;
+        }
+        if (method.getDeclaringClass().isAssignableFrom(CrudRepository.class)) {
+            return crudOperation(method);
+        }
+        if (method.getParameterCount() == 0 || method.getParameterTypes()[0] != String.class) {
+            throw new IllegalStateException("The operation " + method + " does not take the id of its object as first argument");
+        }
+        if (BackendOperations.isRead(method)) {
+            return (proxy, invoked, args) -> applyOperation((String) args[0], invoked, args, false);
+        }
+        if (!BackendOperations.isWrite(method)) {
+            unclassified.add(method);
+        }
+        return (proxy, invoked, args) -> applyOperation((String) args[0], invoked, args, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Operation crudOperation(Method method) {
+        int arity = method.getParameterCount();
+        return switch (method.getName() + "/" + arity) {
+            case "save/1" -> (proxy, invoked, args) -> store.save((T) args[0]);
+            case "saveAll/1" -> (proxy, invoked, args) -> store.saveAll((Iterable<T>) args[0]);
+            case "findById/1" -> (proxy, invoked, args) -> store.findById((String) args[0]);
+            case "existsById/1" -> (proxy, invoked, args) -> store.existsById((String) args[0]);
+            case "findAll/0" -> (proxy, invoked, args) -> store.findAll();
+            case "findAllById/1" -> (proxy, invoked, args) -> store.findAllById((Iterable<String>) args[0]);
+            case "count/0" -> (proxy, invoked, args) -> store.count();
+            case "deleteById/1" -> (proxy, invoked, args) -> {
+                store.deleteById((String) args[0]);
+                return null;
+            };
+            case "delete/1" -> (proxy, invoked, args) -> {
+                store.delete((T) args[0]);
+                return null;
+            };
+            case "deleteAllById/1" -> (proxy, invoked, args) -> {
+                store.deleteAllById((Iterable<String>) args[0]);
+                return null;
+            };
+            case "deleteAll/1" -> (proxy, invoked, args) -> {
+                store.deleteAll((Iterable<T>) args[0]);
+                return null;
+            };
+            case "deleteAll/0" -> (proxy, invoked, args) -> {
+                store.deleteAll();
+                return null;
+            };
+            default -> throw new IllegalStateException("The CrudRepository method " + method + " is not backed by the ModelStore");
+        };
+    }
+
+    private Object applyOperation(String id, Method method, Object[] args, boolean write) throws Throwable {
+        Lock lock = locks.apply(id);
+        lock.lock();
+        try {
+            // a private copy, so that readers of the stored object never see a partially applied operation
+            Optional<T> stored = store.findCopyById(id);
+            // an unknown id is left to the operation, so that it fails with the usual BaSyx exception
+            stored.ifPresent(workspace::save);
+            Object result = invokeOnWorkspace(method, args);
+            if (stored.isPresent() && write) {
+                workspace.findById(id).ifPresent(store::save);
+            }
+            return result;
+        } finally {
+            try {
+                if (workspace.existsById(id)) {
+                    workspace.deleteById(id);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Object invokeOnWorkspace(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(workspace, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
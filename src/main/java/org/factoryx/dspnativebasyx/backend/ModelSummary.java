@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.backend;
+
+/**
+ * Marks the shells and submodels returned by ModelStore.findAllSummaries() that only carry the
+ * fields the catalogs and the search index need: the id and idShort, the globalAssetId of a shell,
+ * and the semanticId and the idShorts of the top-level elements of a submodel. The elements of such
+ * a submodel are placeholders without values, so the full object has to be loaded by its id before
+ * it is serialized or transferred.
+ */
+public interface ModelSummary {
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.backend;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.*;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.Binary;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Stores shells or submodels in a MongoDB collection, one document per object:
+ * {"_id": id, "idShort": ..., "globalAssetId" or "semanticIds" and "elementIdShorts": ..., "json": binary}.
+ *
+ * The object itself is kept as its serialized JSON, so that reading it back is a single Jackson
+ * pass instead of a BSON to object mapping. The lookup fields next to it are what the catalogs and
+ * the search index need, so findAllSummaries() lists all objects from a projection onto them
+ * without reading the JSON. Reads project the documents onto the fields they need, batches are
+ * written with unordered bulk writes of at most batchSize replacements.
+ */
+public class MongoModelStore<T> implements ModelStore<T> {
+
+    static final String ID = "_id";
+    static final String ID_SHORT = "idShort";
+    static final String GLOBAL_ASSET_ID = "globalAssetId";
+    static final String SEMANTIC_IDS = "semanticIds";
+    static final String ELEMENT_ID_SHORTS = "elementIdShorts";
+    static final String JSON = "json";
+
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(byte[] json) throws IOException;
+    }
+
+    private static final Bson JSON_ONLY = Projections.include(JSON);
+    private static final Bson ID_ONLY = Projections.include(ID);
+    private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+    private static final BulkWriteOptions UNORDERED = new BulkWriteOptions().ordered(false);
+
+    private final MongoCollection<Document> collection;
+    private final AasSerializationService aasSerializationService;
+    private final Reader<T> reader;
+    private final Function<T, String> idFunction;
+    private final Function<T, Document> lookupFields;
+    private final Function<Document, T> summaryReader;
+    private final List<String> summaryFields;
+    private final Bson summaryProjection;
+    private final int batchSize;
+
+    MongoModelStore(MongoCollection<Document> collection, AasSerializationService aasSerializationService, Reader<T> reader,
+                    Function<T, String> idFunction, Function<T, Document> lookupFields, Function<Document, T> summaryReader,
+                    List<String> summaryFields, int batchSize) {
+        this.collection = collection;
+        this.aasSerializationService = aasSerializationService;
+        this.reader = reader;
+        this.idFunction = idFunction;
+        this.lookupFields = lookupFields;
+        this.summaryReader = summaryReader;
+        this.summaryFields = summaryFields;
+        this.summaryProjection = Projections.include(summaryFields);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public static MongoModelStore<AssetAdministrationShell> forShells(MongoCollection<Document> collection,
+                                                                      AasSerializationService aasSerializationService, int batchSize) {
+        return new MongoModelStore<>(collection, aasSerializationService, aasSerializationService::deserializeShell,
+                AssetAdministrationShell::getId, shell -> new Document(ID_SHORT, shell.getIdShort())
+                        .append(GLOBAL_ASSET_ID, shell.getAssetInformation() == null ? null
+                                : shell.getAssetInformation().getGlobalAssetId()),
+                MongoModelStore::toShellSummary, List.of(ID_SHORT, GLOBAL_ASSET_ID), batchSize);
+    }
+
+    public static MongoModelStore<Submodel> forSubmodels(MongoCollection<Document> collection,
+                                                         AasSerializationService aasSerializationService, int batchSize) {
+        return new MongoModelStore<>(collection, aasSerializationService, aasSerializationService::deserializeSubmodel,
+                Submodel::getId, submodel -> new Document(ID_SHORT, submodel.getIdShort())
+                        .append(SEMANTIC_IDS, keyValues(submodel.getSemanticId()))
+                        .append(ELEMENT_ID_SHORTS, submodel.getSubmodelElements() == null ? List.of()
+                                : submodel.getSubmodelElements().stream().map(Referable::getIdShort).toList()),
+                MongoModelStore::toSubmodelSummary, List.of(ID_SHORT, SEMANTIC_IDS, ELEMENT_ID_SHORTS), batchSize);
+    }
+
+    @Override
+    public T save(T entity) {
+        String id = idFunction.apply(entity);
+        collection.replaceOne(Filters.eq(ID, id), toDocument(id, entity), UPSERT);
+        return entity;
+    }
+
+    @Override
+    public List<T> saveAll(Iterable<T> entities) {
+        List<T> saved = new ArrayList<>();
+        List<WriteModel<Document>> batch = new ArrayList<>(batchSize);
+        for (T entity : entities) {
+            String id = idFunction.apply(entity);
+            batch.add(new ReplaceOneModel<>(Filters.eq(ID, id), toDocument(id, entity), UPSERT));
+            saved.add(entity);
+            if (batch.size() == batchSize) {
+                collection.bulkWrite(batch, UNORDERED);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            collection.bulkWrite(batch, UNORDERED);
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        Document document = collection.find(Filters.eq(ID, id)).projection(JSON_ONLY).first();
+        return document == null ? Optional.empty() : Optional.of(fromDocument(document));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return collection.find(Filters.eq(ID, id)).projection(ID_ONLY).first() != null;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return read(collection.find().projection(JSON_ONLY).batchSize(batchSize));
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        return read(collection.find(Filters.in(ID, toList(ids))).projection(JSON_ONLY).batchSize(batchSize));
+    }
+
+    /**
+     * Reads the summaries from the lookup fields only. Documents written before a lookup field was
+     * introduced are read in full instead.
+     */
+    @Override
+    public List<T> findAllSummaries() {
+        List<T> summaries = new ArrayList<>();
+        List<String> incomplete = new ArrayList<>();
+        for (Document document : collection.find().projection(summaryProjection).batchSize(batchSize)) {
+            if (document.keySet().containsAll(summaryFields)) {
+                summaries.add(summaryReader.apply(document));
+            } else {
+                incomplete.add(document.getString(ID));
+            }
+        }
+        if (!incomplete.isEmpty()) {
+            summaries.addAll(findAllById(incomplete));
+        }
+        return summaries;
+    }
+
+    @Override
+    public long count() {
+        return collection.countDocuments();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        collection.deleteOne(Filters.eq(ID, id));
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idFunction.apply(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<String> ids) {
+        collection.deleteMany(Filters.in(ID, toList(ids)));
+    }
+
+    @Override
+    public void deleteAll(Iterable<T> entities) {
+        List<String> ids = new ArrayList<>();
+        for (T entity : entities) {
+            ids.add(idFunction.apply(entity));
+        }
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        collection.deleteMany(new Document());
+    }
+
+    private Document toDocument(String id, T entity) {
+        try {
+            Document document = new Document(ID, id);
+            document.putAll(lookupFields.apply(entity));
+            return document.append(JSON, new Binary(aasSerializationService.serialize(entity)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize " + id, e);
+        }
+    }
+
+    private T fromDocument(Document document) {
+        try {
+            return reader.read(document.get(JSON, Binary.class).getData());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not deserialize " + document.get(ID), e);
+        }
+    }
+
+    private List<T> read(Iterable<Document> documents) {
+        List<T> entities = new ArrayList<>();
+        for (Document document : documents) {
+            entities.add(fromDocument(document));
+        }
+        return entities;
+    }
+
+    private static List<String> toList(Iterable<String> ids) {
+        List<String> list = new ArrayList<>();
+        ids.forEach(list::add);
+        return list;
+    }
+
+    private static AssetAdministrationShell toShellSummary(Document document) {
+        ShellSummary shell = new ShellSummary();
+        shell.setId(document.getString(ID));
+        shell.setIdShort(document.getString(ID_SHORT));
+        String globalAssetId = document.getString(GLOBAL_ASSET_ID);
+        if (globalAssetId != null) {
+            shell.setAssetInformation(new DefaultAssetInformation.Builder().globalAssetId(globalAssetId).build());
+        }
+        return shell;
+    }
+
+    private static Submodel toSubmodelSummary(Document document) {
+        SubmodelSummary submodel = new SubmodelSummary();
+        submodel.setId(document.getString(ID));
+        submodel.setIdShort(document.getString(ID_SHORT));
+        List<String> semanticIds = document.getList(SEMANTIC_IDS, String.class);
+        if (!semanticIds.isEmpty()) {
+            submodel.setSemanticId(new DefaultReference.Builder().type(ReferenceTypes.EXTERNAL_REFERENCE)
+                    .keys(semanticIds.stream().<Key>map(value -> new DefaultKey.Builder()
+                            .type(KeyTypes.GLOBAL_REFERENCE).value(value).build()).toList())
+                    .build());
+        }
+        List<SubmodelElement> elements = new ArrayList<>();
+        for (String idShort : document.getList(ELEMENT_ID_SHORTS, String.class)) {
+            elements.add(new DefaultProperty.Builder().idShort(idShort).build());
+        }
+        submodel.setSubmodelElements(elements);
+        return submodel;
+    }
+
+    static final class ShellSummary extends DefaultAssetAdministrationShell implements ModelSummary {
+    }
+
+    static final class SubmodelSummary extends DefaultSubmodel implements ModelSummary {
+    }
+
+    private static List<String> keyValues(Reference reference) {
+        if (reference == null || reference.getKeys() == null) {
+            return List.of();
+        }
+        return reference.getKeys().stream().map(Key::getValue).filter(Objects::nonNull).toList();
+    }
+}
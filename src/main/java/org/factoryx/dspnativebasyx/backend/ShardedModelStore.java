@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.backend;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Keeps shells or submodels in memory, sharded across a power of two number of segments.
+ *
+ * Each segment is a ConcurrentHashMap plus a lock. Point lookups read the map without locking.
+ * Writes take the lock of their segment, so that they are serialized with the operations of the
+ * ModelStoreInvocationHandler on the same segment (see getLock) and cannot overwrite a concurrent
+ * read-modify-write; writers of different segments do not contend. Batches are grouped by segment
+ * and take each lock once.
+ *
+ * Scans (findAll) are weakly consistent: they never block writers and see every object that was
+ * present for the whole scan, changes during the scan may or may not be visible. Their spliterator
+ * splits along the segments, so that e.g. a catalog can be built from a parallel stream.
+ *
+ * The stored objects are shared with every reader, e.g. the catalog snapshot, so they are never
+ * modified in place: findCopyById hands out a deep copy for the read-modify-write of the
+ * ModelStoreInvocationHandler, which then saves the modified copy.
+ */
+public class ShardedModelStore<T> implements ModelStore<T> {
+
+    private static final class Segment<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final ConcurrentHashMap<String, T> objects;
+
+        private Segment(int initialCapacity) {
+            this.objects = new ConcurrentHashMap<>(initialCapacity);
+        }
+    }
+
+    private final Segment<T>[] segments;
+    private final int mask;
+    private final Function<T, String> idFunction;
+    private final UnaryOperator<T> copier;
+
+    @SuppressWarnings("unchecked")
+    ShardedModelStore(Function<T, String> idFunction, UnaryOperator<T> copier, int segmentCount, int initialCapacity) {
+        int size = segmentCount <= 1 ? 1 : Integer.highestOneBit(segmentCount - 1) << 1;
+        this.segments = new Segment[size];
+        for (int i = 0; i < size; i++) {
+            this.segments[i] = new Segment<>(Math.max(16, initialCapacity / size));
+        }
+        this.mask = size - 1;
+        this.idFunction = idFunction;
+        this.copier = copier;
+    }
+
+    public static ShardedModelStore<AssetAdministrationShell> forShells(int segmentCount, int initialCapacity,
+                                                                        AasSerializationService aasSerializationService) {
+        return new ShardedModelStore<>(AssetAdministrationShell::getId, shell -> {
+            try {
+                return aasSerializationService.deserializeShell(aasSerializationService.serialize(shell));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not copy " + shell.getId(), e);
+            }
+        }, segmentCount, initialCapacity);
+    }
+
+    public static ShardedModelStore<Submodel> forSubmodels(int segmentCount, int initialCapacity,
+                                                           AasSerializationService aasSerializationService) {
+        return new ShardedModelStore<>(Submodel::getId, submodel -> {
+            try {
+                return aasSerializationService.deserializeSubmodel(aasSerializationService.serialize(submodel));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not copy " + submodel.getId(), e);
+            }
+        }, segmentCount, initialCapacity);
+    }
+
+    /**
+     * The lock of the segment of the id, held by every write to the segment.
+     */
+    public Lock getLock(String id) {
+        return segment(id).lock;
+    }
+
+    @Override
+    public T save(T entity) {
+        String id = idFunction.apply(entity);
+        Segment<T> segment = segment(id);
+        segment.lock.lock();
+        try {
+            segment.objects.put(id, entity);
+        } finally {
+            segment.lock.unlock();
+        }
+        return entity;
+    }
+
+    @Override
+    public List<T> saveAll(Iterable<T> entities) {
+        List<T> saved = new ArrayList<>();
+        entities.forEach(saved::add);
+        List<List<T>> bySegment = groupBySegment(saved, idFunction);
+        for (int i = 0; i < segments.length; i++) {
+            List<T> batch = bySegment.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            Segment<T> segment = segments[i];
+            segment.lock.lock();
+            try {
+                for (T entity : batch) {
+                    segment.objects.put(idFunction.apply(entity), entity);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(segment(id).objects.get(id));
+    }
+
+    @Override
+    public Optional<T> findCopyById(String id) {
+        return findById(id).map(copier);
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return segment(id).objects.containsKey(id);
+    }
+
+    /**
+     * A weakly consistent view on all objects, iterated or split segment by segment.
+     */
+    @Override
+    public Iterable<T> findAll() {
+        return new Iterable<>() {
+            @Override
+            public Iterator<T> iterator() {
+                return Spliterators.iterator(spliterator());
+            }
+
+            @Override
+            public Spliterator<T> spliterator() {
+                return new SegmentSpliterator(0, segments.length);
+            }
+
+            @Override
+            public void forEach(Consumer<? super T> action) {
+                for (Segment<T> segment : segments) {
+                    segment.objects.values().forEach(action);
+                }
+            }
+        };
+    }
+
+    public Stream<T> stream(boolean parallel) {
+        return StreamSupport.stream(new SegmentSpliterator(0, segments.length), parallel);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        for (String id : ids) {
+            T object = segment(id).objects.get(id);
+            if (object != null) {
+                found.add(object);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (Segment<T> segment : segments) {
+            count += segment.objects.mappingCount();
+        }
+        return count;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        Segment<T> segment = segment(id);
+        segment.lock.lock();
+        try {
+            segment.objects.remove(id);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idFunction.apply(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<String> ids) {
+        List<String> idList = new ArrayList<>();
+        ids.forEach(idList::add);
+        List<List<String>> bySegment = groupBySegment(idList, Function.identity());
+        for (int i = 0; i < segments.length; i++) {
+            List<String> batch = bySegment.get(i);
+            if (batch.isEmpty()) {
+                continue;
+            }
+            Segment<T> segment = segments[i];
+            segment.lock.lock();
+            try {
+                batch.forEach(segment.objects::remove);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void deleteAll(Iterable<T> entities) {
+        List<String> ids = new ArrayList<>();
+        for (T entity : entities) {
+            ids.add(idFunction.apply(entity));
+        }
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        for (Segment<T> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.objects.clear();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    @Override
+    public String toString() {
+        return "sharded in-memory store, " + segments.length + " segments";
+    }
+
+    private Segment<T> segment(String id) {
+        return segments[segmentIndex(id)];
+    }
+
+    int segmentIndex(String id) {
+        int hash = id.hashCode();
+        // spread the higher bits, as String hashes of similar ids mostly differ in the lower ones
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return hash & mask;
+    }
+
+    private <E> List<List<E>> groupBySegment(List<E> elements, Function<E, String> idOf) {
+        List<List<E>> bySegment = new ArrayList<>(segments.length);
+        for (int i = 0; i < segments.length; i++) {
+            bySegment.add(new ArrayList<>());
+        }
+        for (E element : elements) {
+            bySegment.get(segmentIndex(idOf.apply(element))).add(element);
+        }
+        return bySegment;
+    }
+
+    /**
+     * Traverses the segments [from, to). Splits off half of the segments not yet started, and
+     * the last segment along its ConcurrentHashMap spliterator.
+     */
+    private final class SegmentSpliterator implements Spliterator<T> {
+
+        private int from;
+        private final int to;
+        private Spliterator<T> current;
+
+        private SegmentSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (true) {
+                if (current == null) {
+                    if (from >= to) {
+                        return false;
+                    }
+                    current = segments[from++].objects.values().spliterator();
+                }
+                if (current.tryAdvance(action)) {
+                    return true;
+                }
+                current = null;
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (current != null) {
+                current.forEachRemaining(action);
+                current = null;
+            }
+            while (from < to) {
+                segments[from++].objects.values().forEach(action);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int remaining = to - from;
+            if (remaining > 1) {
+                int mid = from + remaining / 2;
+                SegmentSpliterator prefix = new SegmentSpliterator(from, mid);
+                from = mid;
+                return prefix;
+            }
+            if (current == null && remaining == 1) {
+                current = segments[from++].objects.values().spliterator();
+            }
+            return current == null ? null : current.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = current == null ? 0 : current.estimateSize();
+            for (int i = from; i < to; i++) {
+                size += segments[i].objects.mappingCount();
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.config;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ChangeTrackingInvocationHandler;
+import org.factoryx.dspnativebasyx.backend.ModelChangeListener;
+import org.factoryx.dspnativebasyx.service.ModelWritePipeline;
+import org.factoryx.dspnativebasyx.service.WriteLockService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reports every write on the AasBackend and SubmodelBackend to the ModelWritePipeline, so that the
+ * caches, the catalog snapshot, the submodel index and the Property history also follow the
+ * writes of the BaSyx REST API and not only those of the DSP side.
+ *
+ * The backend beans are wrapped once created (see ChangeTrackingInvocationHandler). The pipeline
+ * is only resolved with the first write, as it depends on the backends itself.
+ */
+@Configuration
+public class ChangeTrackingConfig {
+
+    @Bean
+    public static BeanPostProcessor changeTrackingPostProcessor(ObjectProvider<ModelWritePipeline> modelWritePipeline,
+                                                               ObjectProvider<WriteLockService> writeLockService) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (ChangeTrackingInvocationHandler.isTracked(bean)) {
+                    return bean;
+                }
+                if (bean instanceof AasBackend aasBackend) {
+                    return ChangeTrackingInvocationHandler.create(AasBackend.class, aasBackend, AssetAdministrationShell::getId,
+                            ModelChangeListener.of(shell -> modelWritePipeline.getObject().shellSaved(shell),
+                                    shellId -> modelWritePipeline.getObject().shellDeleted(shellId)),
+                            shellId -> writeLockService.getObject().getShellLock(shellId));
+                }
+                if (bean instanceof SubmodelBackend submodelBackend) {
+                    return ChangeTrackingInvocationHandler.create(SubmodelBackend.class, submodelBackend, Submodel::getId,
+                            ModelChangeListener.of(submodel -> modelWritePipeline.getObject().submodelSaved(submodel),
+                                    submodelId -> modelWritePipeline.getObject().submodelDeleted(submodelId),
+                                    (submodelId, replacing) -> modelWritePipeline.getObject().submodelWriting(submodelId, replacing)),
+                            submodelId -> writeLockService.getObject().getSubmodelLock(submodelId));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.basyx.aasrepository.feature.kafka.events.AasEventHandler;
+import org.eclipse.digitaltwin.basyx.submodelservice.feature.kafka.events.SubmodelEventHandler;
+import org.eclipse.paho.client.mqttv3.IMqttClient;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Takes the optional integrations that MessagingSupportService notifies, i.e. the MQTT client
+ * and the event handlers, off the startup path: their beans are marked lazy, so that they are
+ * only created (and e.g. connect to the MQTT broker) when MessagingSupportService resolves them
+ * in the background. Beans that are also injected directly elsewhere, e.g. by the BaSyx MQTT
+ * feature, are still created during startup.
+ */
+@Configuration
+@Slf4j
+public class DeferredIntegrationsConfig {
+
+    private static final List<Class<?>> DEFERRED_TYPES = List.of(IMqttClient.class, AasEventHandler.class, SubmodelEventHandler.class);
+
+    @Bean
+    public static BeanFactoryPostProcessor deferredIntegrationsPostProcessor(Environment environment) {
+        return beanFactory -> {
+            if (!environment.getProperty("org.factoryx.dspnativebasyx.startup.deferintegrations", Boolean.class, false)) {
+                return;
+            }
+            for (Class<?> type : DEFERRED_TYPES) {
+                markLazy(beanFactory, type);
+            }
+        };
+    }
+
+    private static void markLazy(ConfigurableListableBeanFactory beanFactory, Class<?> type) {
+        for (String beanName : beanFactory.getBeanNamesForType(type, true, false)) {
+            if (beanFactory.containsBeanDefinition(beanName)) {
+                beanFactory.getBeanDefinition(beanName).setLazyInit(true);
+                log.info("Deferring the creation of {} ({})", beanName, type.getSimpleName());
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ChangeTrackingInvocationHandler;
+import org.factoryx.dspnativebasyx.backend.ModelStoreInvocationHandler;
+import org.factoryx.dspnativebasyx.backend.MongoModelStore;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.factoryx.dspnativebasyx.service.WriteLockService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Stores the shells and submodels in MongoDB instead of memory.
+ *
+ * BaSyx's own MongoDB backends are not instantiated next to the data modules of the protocol
+ * library (see BaSyxStarterApplication). Instead, the in-memory AasBackend and SubmodelBackend
+ * beans are wrapped, once created, by MongoDB-backed implementations of the same interfaces
+ * (see ModelStoreInvocationHandler), so that every user of the backends, including the BaSyx
+ * REST API, reads and writes MongoDB through the MongoTemplate of this application. The store is
+ * placed inside of the change tracking (see ChangeTrackingConfig).
+ */
+@Configuration
+@Slf4j
+public class MongoBackendConfig {
+
+    private static final String PREFIX = "org.factoryx.dspnativebasyx.mongobackend.";
+
+    @Bean
+    public static BeanPostProcessor mongoBackendPostProcessor(Environment environment, ObjectProvider<MongoTemplate> mongoTemplate,
+                                                              ObjectProvider<AasSerializationService> aasSerializationService,
+                                                              ObjectProvider<WriteLockService> writeLockService) {
+        boolean enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, false);
+        int batchSize = environment.getProperty(PREFIX + "batchsize", Integer.class, 1000);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || ModelStoreInvocationHandler.isStoreBackend(ChangeTrackingInvocationHandler.unwrap(bean))) {
+                    return bean;
+                }
+                if (bean instanceof AasBackend aasBackend) {
+                    String collection = environment.getProperty(PREFIX + "shellcollection", "dspnativebasyx-shells");
+                    log.info("Storing shells in the MongoDB collection {}", collection);
+                    return ChangeTrackingInvocationHandler.rewrap(AasBackend.class, aasBackend,
+                            backend -> ModelStoreInvocationHandler.create(AasBackend.class, backend,
+                                    MongoModelStore.forShells(mongoTemplate.getObject().getCollection(collection),
+                                            aasSerializationService.getObject(), batchSize),
+                                    writeLockService.getObject()::getShellLock));
+                }
+                if (bean instanceof SubmodelBackend submodelBackend) {
+                    String collection = environment.getProperty(PREFIX + "submodelcollection", "dspnativebasyx-submodels");
+                    log.info("Storing submodels in the MongoDB collection {}", collection);
+                    return ChangeTrackingInvocationHandler.rewrap(SubmodelBackend.class, submodelBackend,
+                            backend -> ModelStoreInvocationHandler.create(SubmodelBackend.class, backend,
+                                    MongoModelStore.forSubmodels(mongoTemplate.getObject().getCollection(collection),
+                                            aasSerializationService.getObject(), batchSize),
+                                    writeLockService.getObject()::getSubmodelLock));
+                }
+                return bean;
+            }
+        };
+    }
+}
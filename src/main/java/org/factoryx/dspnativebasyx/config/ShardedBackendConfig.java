@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ChangeTrackingInvocationHandler;
+import org.factoryx.dspnativebasyx.backend.ModelStoreInvocationHandler;
+import org.factoryx.dspnativebasyx.backend.ShardedModelStore;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Keeps the shells and submodels in the sharded in-memory ShardedModelStore instead of the
+ * BaSyx in-memory backends, for many concurrent writers next to full scans.
+ *
+ * Like MongoBackendConfig, the AasBackend and SubmodelBackend beans are wrapped once created,
+ * so that every user of the backends, including the BaSyx REST API, uses the sharded store.
+ * The store is placed inside of the change tracking (see ChangeTrackingConfig).
+ * The MongoDB backend takes precedence if both are enabled.
+ */
+@Configuration
+@Slf4j
+public class ShardedBackendConfig {
+
+    private static final String PREFIX = "org.factoryx.dspnativebasyx.shardedbackend.";
+
+    @Bean
+    public static BeanPostProcessor shardedBackendPostProcessor(Environment environment,
+                                                                ObjectProvider<AasSerializationService> aasSerializationService) {
+        boolean enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, false)
+                && !environment.getProperty("org.factoryx.dspnativebasyx.mongobackend.enabled", Boolean.class, false);
+        int segments = environment.getProperty(PREFIX + "segments", Integer.class,
+                4 * Runtime.getRuntime().availableProcessors());
+        int initialCapacity = environment.getProperty(PREFIX + "initialcapacity", Integer.class, 1024);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!enabled || ModelStoreInvocationHandler.isStoreBackend(ChangeTrackingInvocationHandler.unwrap(bean))) {
+                    return bean;
+                }
+                if (bean instanceof AasBackend aasBackend) {
+                    ShardedModelStore<AssetAdministrationShell> store = ShardedModelStore.forShells(segments, initialCapacity,
+                            aasSerializationService.getObject());
+                    log.info("Storing shells in a {}", store);
+                    return ChangeTrackingInvocationHandler.rewrap(AasBackend.class, aasBackend,
+                            backend -> ModelStoreInvocationHandler.create(AasBackend.class, backend, store, store::getLock));
+                }
+                if (bean instanceof SubmodelBackend submodelBackend) {
+                    ShardedModelStore<Submodel> store = ShardedModelStore.forSubmodels(segments, initialCapacity,
+                            aasSerializationService.getObject());
+                    log.info("Storing submodels in a {}", store);
+                    return ChangeTrackingInvocationHandler.rewrap(SubmodelBackend.class, submodelBackend,
+                            backend -> ModelStoreInvocationHandler.create(SubmodelBackend.class, backend, store, store::getLock));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.Action;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacPermissionResolver;
+import org.eclipse.digitaltwin.basyx.submodelservice.feature.authorization.SubmodelTargetInformation;
+import org.factoryx.dspnativebasyx.service.ApiAssetReadService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Streams the Blob contents kept in the AttachmentStoreService to the clients of the BaSyx REST API,
+ * whose submodels only carry references to them. The file is handed to the response with
+ * FileChannel.transferTo, so that it is neither loaded into the heap nor Base64 encoded.
+ *
+ * A content is served if the submodel references it in a Blob that the caller may read under the
+ * BaSyx RBAC rules; without authorization there is no way to tell, so the endpoint stays closed.
+ */
+@RestController
+@Slf4j
+public class AttachmentController {
+
+    private final ApiAssetReadService apiAssetReadService;
+    private final RbacPermissionResolver<SubmodelTargetInformation> permissionResolver;
+    private final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+
+    public AttachmentController(ApiAssetReadService apiAssetReadService,
+                                Optional<RbacPermissionResolver<SubmodelTargetInformation>> permissionResolver) {
+        this.apiAssetReadService = apiAssetReadService;
+        this.permissionResolver = permissionResolver.orElse(null);
+    }
+
+    @GetMapping("/attachments/{submodelIdB64}/{hash}")
+    public void getAttachment(@PathVariable String submodelIdB64, @PathVariable String hash,
+                              HttpServletResponse response) throws IOException {
+        if (permissionResolver == null) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+        String submodelId = new String(B64_DECODER.decode(submodelIdB64));
+        Path path = apiAssetReadService.resolveAttachment(submodelId, hash, idShortPath ->
+                        permissionResolver.hasPermission(Action.READ,
+                                new SubmodelTargetInformation(List.of(submodelId), List.of(idShortPath))))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        response.setHeader(HttpHeaders.ETAG, "\"" + hash + "\"");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            response.setContentLengthLong(size);
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, out);
+            }
+        }
+    }
+}
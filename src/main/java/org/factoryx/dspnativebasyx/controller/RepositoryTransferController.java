@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.RoleProvider;
+import org.factoryx.dspnativebasyx.service.RepositoryTransferService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Optional;
+
+/**
+ * Admin endpoints to move the whole repository between environments, see RepositoryTransferService.
+ * Access requires the configured admin role, as provided by the BaSyx RoleProvider.
+ */
+@RestController
+@Slf4j
+public class RepositoryTransferController {
+
+    private final RepositoryTransferService repositoryTransferService;
+    private final RoleProvider roleProvider;
+    private final String adminRole;
+
+    public RepositoryTransferController(RepositoryTransferService repositoryTransferService, Optional<RoleProvider> roleProvider,
+                                        @Value("${org.factoryx.dspnativebasyx.transfer.adminrole:admin}") String adminRole) {
+        this.repositoryTransferService = repositoryTransferService;
+        this.roleProvider = roleProvider.orElse(null);
+        this.adminRole = adminRole;
+    }
+
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportRepository() {
+        requireAdmin();
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"repository.ndjson.gz\"")
+                .body(repositoryTransferService::exportTo);
+    }
+
+    @PostMapping("/admin/import")
+    public RepositoryTransferService.ImportResult importRepository(HttpServletRequest request) throws Exception {
+        requireAdmin();
+        return repositoryTransferService.importFrom(request.getInputStream());
+    }
+
+    private void requireAdmin() {
+        // without authorization there is no way to tell admins apart, so the endpoints stay closed
+        if (roleProvider == null || !roleProvider.getRoles().contains(adminRole)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+        }
+    }
+}
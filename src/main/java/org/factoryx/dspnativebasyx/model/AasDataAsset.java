@@ -16,11 +16,13 @@
 
 package org.factoryx.dspnativebasyx.model;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.factoryx.dspnativebasyx.service.Bulkhead;
+import org.factoryx.dspnativebasyx.service.DtoCacheService;
 import org.factoryx.library.connector.embedded.provider.interfaces.DataAsset;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * This class wraps an AssetAdministrationShell object from the BaSyx world
@@ -30,13 +32,27 @@ import java.util.Map;
 public class AasDataAsset implements DataAsset {
 
     private final AssetAdministrationShell shell;
-    public static ObjectMapper objectMapper;
+    private final Supplier<AssetAdministrationShell> content;
+    private volatile AssetAdministrationShell loadedContent;
+    private final DtoCacheService dtoCacheService;
+    private final Bulkhead transferBulkhead;
+    // immutable, built once per wrapped shell version and shared by all catalogs listing it
+    private Map<String, String> properties;
 
     public static String DSP_ID_PREFIX = "";
 
-    public AasDataAsset(AssetAdministrationShell shell) {
+    public AasDataAsset(AssetAdministrationShell shell, DtoCacheService dtoCacheService, Bulkhead transferBulkhead) {
+        this(shell, () -> shell, dtoCacheService, transferBulkhead);
+    }
+
+    /**
+     * @param content supplies the full shell to transfer, if the wrapped one is only a summary (see ModelSummary)
+     */
+    public AasDataAsset(AssetAdministrationShell shell, Supplier<AssetAdministrationShell> content, DtoCacheService dtoCacheService, Bulkhead transferBulkhead) {
         this.shell = shell;
-        this.objectMapper = objectMapper;
+        this.content = content;
+        this.dtoCacheService = dtoCacheService;
+        this.transferBulkhead = transferBulkhead;
     }
 
     @Override
@@ -50,10 +66,15 @@ public class AasDataAsset implements DataAsset {
 
     @Override
     public Map<String, String> getProperties() {
-        return Map.of("modelType", "AssetAdministrationShell",
-                "globalAssetId", shell.getAssetInformation().getGlobalAssetId(),
-                "idShort", shell.getIdShort(),
-                "dto-type", getContentType());
+        Map<String, String> result = properties;
+        if (result == null) {
+            result = Map.of("modelType", "AssetAdministrationShell",
+                    "globalAssetId", shell.getAssetInformation().getGlobalAssetId(),
+                    "idShort", shell.getIdShort(),
+                    "dto-type", getContentType());
+            properties = result;
+        }
+        return result;
     }
 
     @Override
@@ -63,11 +84,23 @@ public class AasDataAsset implements DataAsset {
 
     @Override
     public byte[] getDtoRepresentation() {
-        try {
-            return objectMapper.writeValueAsBytes(shell);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        return transferBulkhead.call(() -> dtoCacheService.getForShell(getContent()).bytes());
+    }
+
+    /**
+     * The shell to transfer, loaded once per DataAsset if the wrapped one is only a summary.
+     */
+    private AssetAdministrationShell getContent() {
+        AssetAdministrationShell result = loadedContent;
+        if (result == null) {
+            result = content.get();
+            loadedContent = result;
         }
+        return result;
+    }
+
+    public String getETag() {
+        return dtoCacheService.getForShell(getContent()).eTag();
     }
 
     public String getAssetId() {
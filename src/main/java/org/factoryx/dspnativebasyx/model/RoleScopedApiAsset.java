@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.model;
+
+/**
+ * Base class of the ApiAssets that exist once per RBAC role.
+ *
+ * Since the dsp-protocol-lib does not hand the partner properties over to the ApiAsset calls,
+ * the role is made part of the dsp-id, and the results are filtered against the rules of that role.
+ */
+public abstract class RoleScopedApiAsset extends BaSyxApiAsset {
+
+    private final String idPrefix;
+    private final String role;
+
+    protected RoleScopedApiAsset(String idPrefix, String role) {
+        this.idPrefix = idPrefix;
+        this.role = role;
+    }
+
+    /**
+     * Extracts the role from a dsp-id with the given prefix.
+     *
+     * @return the role, or null if the id does not start with the prefix
+     */
+    protected static String parseRole(String idPrefix, String dspId) {
+        if (dspId == null || !dspId.startsWith(idPrefix) || dspId.length() == idPrefix.length()) {
+            return null;
+        }
+        return dspId.substring(idPrefix.length());
+    }
+
+    @Override
+    public String getDspId() {
+        return idPrefix + role;
+    }
+
+    public String getRole() {
+        return role;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.model;
+
+import java.util.Map;
+
+/**
+ * ApiAsset that lets partners search submodels by semanticId and idShort prefix, returning only
+ * the submodels the role may read. There is one instance per RBAC role, see RoleScopedApiAsset.
+ */
+public class SearchApiAsset extends RoleScopedApiAsset {
+
+    public static final String ID_PREFIX = "SearchApiAsset--";
+
+    public SearchApiAsset(String role) {
+        super(ID_PREFIX, role);
+    }
+
+    /**
+     * Extracts the role from a dsp-id of a SearchApiAsset.
+     *
+     * @param dspId the dsp-id
+     * @return the role, or null if the id does not designate a SearchApiAsset
+     */
+    public static String parseRole(String dspId) {
+        return parseRole(ID_PREFIX, dspId);
+    }
+
+    @Override
+    public Map<String, String> getProperties() {
+        return Map.of("modelType", "SearchApiAsset",
+                "role", getRole(),
+                "dto-type", getContentType());
+    }
+}
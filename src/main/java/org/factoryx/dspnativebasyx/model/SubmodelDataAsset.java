@@ -16,23 +16,41 @@
 
 package org.factoryx.dspnativebasyx.model;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
 import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.factoryx.dspnativebasyx.service.Bulkhead;
+import org.factoryx.dspnativebasyx.service.DtoCacheService;
 import org.factoryx.library.connector.embedded.provider.interfaces.DataAsset;
 
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 public class SubmodelDataAsset implements DataAsset {
     private final Submodel submodel;
-    public static ObjectMapper objectMapper;
+    private final Supplier<Submodel> content;
+    private volatile Submodel loadedContent;
+    private final DtoCacheService dtoCacheService;
+    private final Bulkhead transferBulkhead;
+    // immutable, built once per wrapped submodel version and shared by all catalogs listing it
+    private Map<String, String> properties;
+    private List<String> submodelElements;
 
     public static String DSP_ID_PREFIX = "";
 
-    public SubmodelDataAsset(Submodel submodel) {
+    public SubmodelDataAsset(Submodel submodel, DtoCacheService dtoCacheService, Bulkhead transferBulkhead) {
+        this(submodel, () -> submodel, dtoCacheService, transferBulkhead);
+    }
+
+    /**
+     * @param content supplies the full submodel to transfer, if the wrapped one is only a summary (see ModelSummary)
+     */
+    public SubmodelDataAsset(Submodel submodel, Supplier<Submodel> content, DtoCacheService dtoCacheService, Bulkhead transferBulkhead) {
         this.submodel = submodel;
+        this.content = content;
+        this.dtoCacheService = dtoCacheService;
+        this.transferBulkhead = transferBulkhead;
     }
 
 
@@ -47,10 +65,15 @@ public class SubmodelDataAsset implements DataAsset {
 
     @Override
     public Map<String, String> getProperties() {
-        return Map.of("modelType", "Submodel",
-                "submodelId", submodel.getId(),
-                "idShort", submodel.getIdShort(),
-                "dto-type", getContentType());
+        Map<String, String> result = properties;
+        if (result == null) {
+            result = Map.of("modelType", "Submodel",
+                    "submodelId", submodel.getId(),
+                    "idShort", submodel.getIdShort(),
+                    "dto-type", getContentType());
+            properties = result;
+        }
+        return result;
     }
 
     @Override
@@ -60,11 +83,23 @@ public class SubmodelDataAsset implements DataAsset {
 
     @Override
     public byte[] getDtoRepresentation() {
-        try {
-            return objectMapper.writeValueAsBytes(submodel);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        return transferBulkhead.call(() -> dtoCacheService.getForSubmodel(getContent()).bytes());
+    }
+
+    /**
+     * The submodel to transfer, loaded once per DataAsset if the wrapped one is only a summary.
+     */
+    private Submodel getContent() {
+        Submodel result = loadedContent;
+        if (result == null) {
+            result = content.get();
+            loadedContent = result;
         }
+        return result;
+    }
+
+    public String getETag() {
+        return dtoCacheService.getForSubmodel(getContent()).eTag();
     }
 
     public String getSubmodelId() {
@@ -72,7 +107,12 @@ public class SubmodelDataAsset implements DataAsset {
     }
 
     public List<String> getSubmodelElements(){
-        return submodel.getSubmodelElements().stream().map(Referable::getIdShort).toList();
+        List<String> result = submodelElements;
+        if (result == null) {
+            result = submodel.getSubmodelElements().stream().map(Referable::getIdShort).toList();
+            submodelElements = result;
+        }
+        return result;
     }
 
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Serializes and deserializes the AAS model for the DataAssets, ApiAssets and messaging.
+ *
+ * Works on a copy of the application's ObjectMapper, so that the BaSyx configuration is kept, with
+ * - the Blackbird module, which replaces reflective property access by generated lambdas,
+ * - a shared, concurrent pool for the output buffers, which unlike the default thread-local pool
+ *   is also effective on virtual threads,
+ * - ObjectWriters and ObjectReaders that are resolved once for the aas4j default types.
+ */
+@Service
+public class AasSerializationService {
+
+    private final ObjectMapper mapper;
+    private final ObjectWriter writer;
+    private final ObjectWriter shellWriter;
+    private final ObjectWriter submodelWriter;
+    private final ObjectReader shellReader;
+    private final ObjectReader submodelReader;
+
+    public AasSerializationService(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copy();
+        this.mapper.getFactory().setRecyclerPool(JsonRecyclerPools.sharedConcurrentDequePool());
+        this.mapper.registerModule(new BlackbirdModule());
+        this.writer = mapper.writer();
+        this.shellWriter = mapper.writerFor(DefaultAssetAdministrationShell.class);
+        this.submodelWriter = mapper.writerFor(DefaultSubmodel.class);
+        this.shellReader = mapper.readerFor(DefaultAssetAdministrationShell.class);
+        this.submodelReader = mapper.readerFor(DefaultSubmodel.class);
+    }
+
+    /**
+     * Serializes shells, submodels and any other value to JSON.
+     */
+    public byte[] serialize(Object value) throws IOException {
+        if (value != null && value.getClass() == DefaultSubmodel.class) {
+            return submodelWriter.writeValueAsBytes(value);
+        }
+        if (value != null && value.getClass() == DefaultAssetAdministrationShell.class) {
+            return shellWriter.writeValueAsBytes(value);
+        }
+        return writer.writeValueAsBytes(value);
+    }
+
+    public AssetAdministrationShell deserializeShell(byte[] json) throws IOException {
+        return shellReader.readValue(json);
+    }
+
+    public Submodel deserializeSubmodel(byte[] json) throws IOException {
+        return submodelReader.readValue(json);
+    }
+
+    public AssetAdministrationShell deserializeShell(JsonNode json) throws IOException {
+        return shellReader.readValue(json);
+    }
+
+    public Submodel deserializeSubmodel(JsonNode json) throws IOException {
+        return submodelReader.readValue(json);
+    }
+
+    /**
+     * Creates a parser on the copied ObjectMapper, e.g. to read a stream of JSON values.
+     */
+    public JsonParser createParser(InputStream in) throws IOException {
+        return mapper.createParser(in);
+    }
+
+    public JsonParser createParser(byte[] json) throws IOException {
+        return mapper.createParser(json);
+    }
+
+    public JsonNode readTree(JsonParser parser) throws IOException {
+        return mapper.readTree(parser);
+    }
+
+    public JsonNode toTree(Object value) {
+        return mapper.valueToTree(value);
+    }
+
+    public ObjectNode createObjectNode() {
+        return mapper.createObjectNode();
+    }
+}
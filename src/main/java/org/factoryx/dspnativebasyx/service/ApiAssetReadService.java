@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Handles the GET requests that are forwarded to the ApiAssets. Gating, rate limits and bulkheads
+ * are applied by the BaSyxAccessManagementService before a request reaches this class.
+ */
+@Service
+public class ApiAssetReadService {
+
+    private static final int CHANGES_DEFAULT_LIMIT = 100;
+    private static final int CHANGES_MAX_LIMIT = 1000;
+    private static final int SEARCH_DEFAULT_LIMIT = 100;
+    private static final int SEARCH_MAX_LIMIT = SubmodelIndexService.MAX_LIMIT;
+
+    private final AasBackend aasBackend;
+    private final WriteBehindService writeBehindService;
+    private final RbacDCPValidationService rbacDCPValidationService;
+    private final AasSerializationService aasSerializationService;
+    private final DtoCacheService dtoCacheService;
+    private final ChangeLogService changeLogService;
+    private final SubmodelIndexService submodelIndexService;
+    private final PropertyHistoryService propertyHistoryService;
+    private final AttachmentStoreService attachmentStoreService;
+    private final CatalogFragmentService catalogFragmentService;
+    private final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+
+    public ApiAssetReadService(AasBackend aasBackend, WriteBehindService writeBehindService,
+                               RbacDCPValidationService rbacDCPValidationService, AasSerializationService aasSerializationService,
+                               DtoCacheService dtoCacheService, ChangeLogService changeLogService,
+                               SubmodelIndexService submodelIndexService, PropertyHistoryService propertyHistoryService,
+                               AttachmentStoreService attachmentStoreService, CatalogFragmentService catalogFragmentService) {
+        this.aasBackend = aasBackend;
+        this.writeBehindService = writeBehindService;
+        this.rbacDCPValidationService = rbacDCPValidationService;
+        this.aasSerializationService = aasSerializationService;
+        this.dtoCacheService = dtoCacheService;
+        this.changeLogService = changeLogService;
+        this.submodelIndexService = submodelIndexService;
+        this.propertyHistoryService = propertyHistoryService;
+        this.attachmentStoreService = attachmentStoreService;
+        this.catalogFragmentService = catalogFragmentService;
+    }
+
+    /**
+     * Handles a GET request.
+     *
+     * @param role the RBAC role of the ChangesApiAsset, SearchApiAsset or ReadApiAsset the request was sent to
+     */
+    public ResponseEntity<byte[]> handle(String path, HttpHeaders headers, MultiValueMap<String, String> incomingQueryParams,
+                                         String role) throws IOException {
+        if (path.equals("/changes")) {
+            String since = incomingQueryParams.getFirst("since");
+            String limit = incomingQueryParams.getFirst("limit");
+            var page = changeLogService.readSince(since == null ? 0 : Long.parseLong(since),
+                    limit == null ? CHANGES_DEFAULT_LIMIT : clamp(Integer.parseInt(limit), CHANGES_MAX_LIMIT),
+                    event -> rbacDCPValidationService.validateReadAccessForChangeEvent(event, role));
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(MediaType.parseMediaType("application/json; charset=UTF-8"))
+                    .body(aasSerializationService.serialize(page));
+        }
+
+        if (path.equals("/search")) {
+            return searchResponse(incomingQueryParams,
+                    entry -> rbacDCPValidationService.validateReadAccessForIndexEntry(entry, role));
+        }
+
+        if (path.startsWith("/submodels/") && path.contains("/submodel-elements/") && path.endsWith("/history")) {
+            String[] segments = path.substring("/submodels/".length()).split("/submodel-elements/", 2);
+            String submodelId = new String(B64_DECODER.decode(segments[0]));
+            String idShortPath = UriUtils.decode(segments[1].substring(0, segments[1].length() - "/history".length()),
+                    StandardCharsets.UTF_8);
+            if (!rbacDCPValidationService.validateReadAccessForSubmodelElement(submodelId, idShortPath, role)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            var history = propertyHistoryService.read(submodelId, idShortPath,
+                    parseTimestamp(incomingQueryParams.getFirst("from"), Long.MIN_VALUE),
+                    parseTimestamp(incomingQueryParams.getFirst("to"), Long.MAX_VALUE));
+            if (history == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+            }
+            return ResponseEntity.status(HttpStatus.OK)
+                    .contentType(MediaType.parseMediaType("application/json; charset=UTF-8"))
+                    .body(aasSerializationService.serialize(history));
+        }
+
+        if (path.startsWith("/submodels/") && path.contains("/attachments/")) {
+            String[] segments = path.substring("/submodels/".length()).split("/attachments/", 2);
+            String submodelId = new String(B64_DECODER.decode(segments[0]));
+            var file = resolveAttachment(submodelId, segments[1], idShortPath ->
+                    rbacDCPValidationService.validateReadAccessForSubmodelElement(submodelId, idShortPath, role));
+            if (file.isPresent()) {
+                // the protocol library takes the response as byte[], the AttachmentController streams
+                return ResponseEntity.status(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .eTag("\"" + segments[1] + "\"")
+                        .body(Files.readAllBytes(file.get()));
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        if (path.startsWith("/submodels/")) {
+            String submodelIdB64 = path.substring("/submodels/".length());
+            String submodelId = new String(B64_DECODER.decode(submodelIdB64));
+            var opt = writeBehindService.findById(submodelId);
+            // models the role may not read are answered like missing ones
+            if (opt.isPresent() && rbacDCPValidationService.validateReadAccessForDataAsset(
+                    catalogFragmentService.getSubmodelAsset(opt.get()), role)) {
+                return conditionalResponse(dtoCacheService.getForSubmodel(opt.get()), headers);
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        if (path.startsWith("/shells/")) {
+            String shellIdB64 = path.substring("/shells/".length());
+            String shellId = new String(B64_DECODER.decode(shellIdB64));
+            var opt = aasBackend.findById(shellId);
+            if (opt.isPresent() && rbacDCPValidationService.validateReadAccessForDataAsset(
+                    catalogFragmentService.getShellAsset(opt.get()), role)) {
+                return conditionalResponse(dtoCacheService.getForShell(opt.get()), headers);
+            }
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    /**
+     * Resolves a stored Blob content of a submodel, if the current representation of the submodel
+     * refers to it in a Blob that may be read.
+     *
+     * @param mayRead checks the idShortPath of the Blob
+     */
+    public Optional<Path> resolveAttachment(String submodelId, String hash, Predicate<String> mayRead) {
+        String idShortPath = writeBehindService.findById(submodelId)
+                .map(submodel -> dtoCacheService.getForSubmodel(submodel).attachments().get(hash))
+                .orElse(null);
+        if (idShortPath == null || !mayRead.test(idShortPath)) {
+            return Optional.empty();
+        }
+        return attachmentStoreService.resolve(hash);
+    }
+
+    /**
+     * Answers a GET request with 304, if the client already holds the current content version,
+     * or with the full representation otherwise. In both cases the ETag is sent along.
+     */
+    private ResponseEntity<byte[]> conditionalResponse(DtoCacheService.CachedDto dto, HttpHeaders headers) {
+        if (dto.matches(headers)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(dto.eTag()).build();
+        }
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("application/json; charset=UTF-8"))
+                .eTag(dto.eTag())
+                .body(dto.bytes());
+    }
+
+    private static int clamp(int limit, int maxLimit) {
+        return Math.max(1, Math.min(limit, maxLimit));
+    }
+
+    /**
+     * Parses a history bound, given in epoch milliseconds or as ISO-8601 instant.
+     */
+    private static long parseTimestamp(String value, long defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        if (value.chars().allMatch(Character::isDigit)) {
+            return Long.parseLong(value);
+        }
+        return Instant.parse(value).toEpochMilli();
+    }
+
+    /**
+     * Answers a search for submodels by semanticId and/or idShort prefix from the index,
+     * restricted to the entries accepted by the filter.
+     */
+    private ResponseEntity<byte[]> searchResponse(MultiValueMap<String, String> queryParams,
+                                                  Predicate<SubmodelIndexService.IndexEntry> filter) throws IOException {
+        String limit = queryParams.getFirst("limit");
+        var result = submodelIndexService.search(queryParams.getFirst("semanticId"), queryParams.getFirst("idShortPrefix"),
+                limit == null ? SEARCH_DEFAULT_LIMIT : clamp(Integer.parseInt(limit), SEARCH_MAX_LIMIT), filter);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType("application/json; charset=UTF-8"))
+                .body(aasSerializationService.serialize(result));
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Handles the POST, PUT and DELETE requests that are forwarded to the ApiAssets. Every write is
+ * done under the write lock of its id and reported to the ModelWritePipeline, by the change tracking
+ * of the backends, before the partners and integrations are notified. Large Blob values of submodels
+ * are moved into the AttachmentStoreService before they are written.
+ */
+@Service
+@Slf4j
+public class ApiAssetWriteService {
+
+    private final AasBackend aasBackend;
+    private final SubmodelBackend submodelBackend;
+    private final AasSerializationService aasSerializationService;
+    private final RequestBodyValidationService requestBodyValidationService;
+    private final CanonicalizationService canonicalizationService;
+    private final WriteLockService writeLockService;
+    private final WriteBehindService writeBehindService;
+    private final AttachmentStoreService attachmentStoreService;
+    private final MessagingSupportService messagingSupportService;
+    private final ModelWritePipeline modelWritePipeline;
+    private final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
+
+    public ApiAssetWriteService(AasBackend aasBackend, SubmodelBackend submodelBackend,
+                                AasSerializationService aasSerializationService,
+                                RequestBodyValidationService requestBodyValidationService,
+                                CanonicalizationService canonicalizationService,
+                                WriteLockService writeLockService, WriteBehindService writeBehindService,
+                                AttachmentStoreService attachmentStoreService,
+                                MessagingSupportService messagingSupportService, ModelWritePipeline modelWritePipeline) {
+        this.aasBackend = aasBackend;
+        this.submodelBackend = submodelBackend;
+        this.aasSerializationService = aasSerializationService;
+        this.requestBodyValidationService = requestBodyValidationService;
+        this.canonicalizationService = canonicalizationService;
+        this.writeLockService = writeLockService;
+        this.writeBehindService = writeBehindService;
+        this.attachmentStoreService = attachmentStoreService;
+        this.messagingSupportService = messagingSupportService;
+        this.modelWritePipeline = modelWritePipeline;
+    }
+
+    public ResponseEntity<byte[]> handle(HttpMethod method, byte[] requestBody, String path) throws IOException {
+        switch (method.name()) {
+            case "POST" -> {
+                if (path.equals("/submodels")) {
+                    return createSubmodel(requestBody);
+                }
+                if (path.equals("/shells")) {
+                    return createShell(requestBody);
+                }
+            }
+            case "PUT" -> {
+                if (path.startsWith("/submodels")) {
+                    return updateSubmodel(decodeId(path, "/submodels/"), requestBody);
+                }
+                if (path.startsWith("/shells")) {
+                    return updateShell(decodeId(path, "/shells/"), requestBody);
+                }
+            }
+            case "DELETE" -> {
+                if (path.startsWith("/submodels")) {
+                    return deleteSubmodel(decodeId(path, "/submodels/"));
+                }
+                if (path.startsWith("/shells")) {
+                    return deleteShell(decodeId(path, "/shells/"));
+                }
+            }
+        }
+        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    private ResponseEntity<byte[]> createSubmodel(byte[] requestBody) throws IOException {
+        String submodelId = requestBodyValidationService.validate(requestBody);
+        // rejects duplicates before the full parse, checked again under the lock
+        if (writeBehindService.findById(submodelId).isPresent()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        Submodel submodel = aasSerializationService.deserializeSubmodel(requestBody);
+        canonicalizationService.canonicalize(submodel);
+        attachmentStoreService.externalize(submodel);
+        Lock lock = writeLockService.getSubmodelLock(submodel.getId());
+        lock.lock();
+        try {
+            if (writeBehindService.findById(submodel.getId()).isPresent()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            submodel = submodelBackend.save(submodel);
+            log.info("Created submodel {}", submodel.getId());
+            messagingSupportService.notifyNewSubmodel(submodel);
+        } finally {
+            lock.unlock();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.parseMediaType("application/json; charset=UTF-8"))
+                .body(aasSerializationService.serialize(submodel));
+    }
+
+    private ResponseEntity<byte[]> createShell(byte[] requestBody) throws IOException {
+        String shellId = requestBodyValidationService.validate(requestBody);
+        if (aasBackend.findById(shellId).isPresent()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        AssetAdministrationShell shell = aasSerializationService.deserializeShell(requestBody);
+        canonicalizationService.canonicalize(shell);
+        Lock lock = writeLockService.getShellLock(shell.getId());
+        lock.lock();
+        try {
+            if (aasBackend.findById(shell.getId()).isPresent()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            shell = aasBackend.save(shell);
+            log.info("Created shell {}", shell.getId());
+            messagingSupportService.notifyNewShell(shell);
+        } finally {
+            lock.unlock();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.valueOf("application/json; charset=UTF-8"))
+                .body(aasSerializationService.serialize(shell));
+    }
+
+    private ResponseEntity<byte[]> updateSubmodel(String submodelId, byte[] requestBody) throws IOException {
+        if (!requestBodyValidationService.validate(requestBody).equals(submodelId)
+                || writeBehindService.findById(submodelId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        Submodel submodel = aasSerializationService.deserializeSubmodel(requestBody);
+        canonicalizationService.canonicalize(submodel);
+        attachmentStoreService.externalize(submodel);
+        Lock lock = writeLockService.getSubmodelLock(submodelId);
+        lock.lock();
+        try {
+            var previous = writeBehindService.findById(submodelId);
+            if (previous.isPresent()) {
+                if (writeBehindService.appliesTo(submodel)) {
+                    writeBehindService.buffer(submodel);
+                    // the backend is only written on the next flush, all other writes are reported by the change tracking
+                    modelWritePipeline.submodelSaved(submodel);
+                } else {
+                    // drops a buffered state, see ModelWritePipeline.submodelWriting
+                    submodel = submodelBackend.save(submodel);
+                }
+                log.info("Updated submodel {}", submodel.getId());
+                messagingSupportService.notifyUpdatedSubmodel(previous.get(), submodel);
+                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    private ResponseEntity<byte[]> updateShell(String shellId, byte[] requestBody) throws IOException {
+        if (!requestBodyValidationService.validate(requestBody).equals(shellId)
+                || aasBackend.findById(shellId).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        AssetAdministrationShell shell = aasSerializationService.deserializeShell(requestBody);
+        canonicalizationService.canonicalize(shell);
+        Lock lock = writeLockService.getShellLock(shellId);
+        lock.lock();
+        try {
+            if (aasBackend.findById(shellId).isPresent()) {
+                shell = aasBackend.save(shell);
+                log.info("Updated shell {}", shell.getId());
+                messagingSupportService.notifyUpdatedShell(shell);
+                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    private ResponseEntity<byte[]> deleteSubmodel(String submodelId) {
+        Lock lock = writeLockService.getSubmodelLock(submodelId);
+        lock.lock();
+        try {
+            var opt = writeBehindService.findById(submodelId);
+            if (opt.isPresent()) {
+                submodelBackend.delete(opt.get());
+                log.info("Deleted submodel {}", submodelId);
+                messagingSupportService.notifyDeletedSubmodel(opt.get());
+                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+            }
+        } catch (Exception e) {
+            log.error("Failed to delete submodel {}", submodelId, e);
+        } finally {
+            lock.unlock();
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    private ResponseEntity<byte[]> deleteShell(String shellId) {
+        Lock lock = writeLockService.getShellLock(shellId);
+        lock.lock();
+        try {
+            var opt = aasBackend.findById(shellId);
+            if (opt.isPresent()) {
+                aasBackend.delete(opt.get());
+                log.info("Deleted shell {}", shellId);
+                messagingSupportService.notifyDeletedShell(opt.get());
+                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+            }
+        } catch (Exception e) {
+            log.error("Failed to delete shell {}", shellId, e);
+        } finally {
+            lock.unlock();
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+    }
+
+    private String decodeId(String path, String prefix) {
+        return new String(B64_DECODER.decode(path.substring(prefix.length())));
+    }
+}
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultExtension;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Local content-addressed store for the contents of Blob elements.
+ *
+ * When a submodel is created or updated through the ApiAssets or imported (see externalize), Blob
+ * values of at least minsize bytes are written to a file named by the SHA-256 of the content, and
+ * the Blob keeps only an extension that references this hash, so that the content is not held on
+ * the heap. Identical contents are stored once. Consumers fetch the contents separately, without
+ * Base64 encoding: the ReadApiAssets at /submodels/{id}/attachments/{sha256}, and the BaSyx REST
+ * clients at /attachments/{id}/{sha256} (see AttachmentController). The export puts the contents
+ * back into the Blobs (see inline).
+ *
+ * Submodels written through the BaSyx REST API keep their Blob values; their DTO representation
+ * (see DtoCacheService) references the contents instead, which are stored when it is built.
+ *
+ * The referenced hashes are tracked per submodel as the writes are reported (see ModelWritePipeline),
+ * from the reference extensions, without reading the contents. Every gcintervalmillis, the contents
+ * that no submodel references anymore, and that have not been stored again within the interval,
+ * are deleted. The first collection after startup reads the references of all submodels once.
+ *
+ * File elements are not touched, as their value already is a reference to the content.
+ */
+@Service
+@Slf4j
+public class AttachmentStoreService {
+
+    public static final String REFERENCE_EXTENSION_NAME = "org.factoryx.dspnativebasyx.attachment";
+    private static final Pattern HASH_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private final SubmodelBackend submodelBackend;
+    private final WriteBehindService writeBehindService;
+    private final Path directory;
+    private final int minSize;
+    private final long gcIntervalMillis;
+    private final ScheduledExecutorService scheduler;
+    // the content hashes each submodel references, by submodel id
+    private final ConcurrentHashMap<String, Set<String>> references = new ConcurrentHashMap<>();
+    private volatile boolean referencesLoaded;
+
+    public AttachmentStoreService(SubmodelBackend submodelBackend, WriteBehindService writeBehindService,
+                                  @Value("${org.factoryx.dspnativebasyx.attachments.directory:}") String directory,
+                                  @Value("${org.factoryx.dspnativebasyx.attachments.minsize:65536}") int minSize,
+                                  @Value("${org.factoryx.dspnativebasyx.attachments.gcintervalmillis:3600000}") long gcIntervalMillis) throws IOException {
+        this.submodelBackend = submodelBackend;
+        this.writeBehindService = writeBehindService;
+        this.directory = directory.isBlank() ? null : Path.of(directory).toAbsolutePath();
+        this.minSize = minSize;
+        this.gcIntervalMillis = gcIntervalMillis;
+        if (this.directory != null) {
+            Files.createDirectories(this.directory);
+            log.info("Storing blob contents of at least {} bytes in {}", minSize, this.directory);
+        }
+        if (this.directory == null || gcIntervalMillis <= 0) {
+            this.scheduler = null;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "attachment-gc");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::collectGarbage, gcIntervalMillis, gcIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /**
+     * Moves the large Blob values of a submodel into the store and replaces them by references, before
+     * the submodel is written.
+     */
+    public void externalize(Submodel submodel) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        try {
+            forEachBlob(submodel.getSubmodelElements(), "", false, (idShortPath, blob) -> {
+                if (blob.getValue() != null && blob.getValue().length >= minSize) {
+                    try {
+                        String hash = store(blob.getValue());
+                        if (blob.getExtensions() == null) {
+                            blob.setExtensions(new ArrayList<>());
+                        }
+                        blob.getExtensions().removeIf(extension -> REFERENCE_EXTENSION_NAME.equals(extension.getName()));
+                        blob.getExtensions().add(new DefaultExtension.Builder()
+                                .name(REFERENCE_EXTENSION_NAME)
+                                .valueType(DataTypeDefXsd.STRING)
+                                .value(hash)
+                                .build());
+                        blob.setValue(null);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Checks whether the DTO representation of the submodel references stored contents, see externalize(Submodel, JsonNode).
+     */
+    public boolean hasAttachments(Submodel submodel) {
+        if (directory == null) {
+            return false;
+        }
+        boolean[] found = {false};
+        forEachBlob(submodel.getSubmodelElements(), "", false, (idShortPath, blob) -> {
+            if (getReference(blob) != null || (blob.getValue() != null && blob.getValue().length >= minSize)) {
+                found[0] = true;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Collects the stored contents that the JSON tree of a submodel references, and moves the large Blob
+     * values that the submodel still holds (e.g. written through the BaSyx REST API) into the store,
+     * replacing them by references in the tree. Only the tree is modified, not the submodel itself.
+     *
+     * @param submodel the submodel
+     * @param tree     the JSON tree the submodel has been serialized to
+     * @return the idShortPaths of the referencing Blobs, by content hash
+     */
+    public Map<String, String> externalize(Submodel submodel, JsonNode tree) throws IOException {
+        Map<String, String> found = new HashMap<>();
+        if (directory == null) {
+            return found;
+        }
+        walk(submodel.getSubmodelElements(), tree.get("submodelElements"), "", false, (idShortPath, blob, node) -> {
+            String hash = getReference(blob);
+            if (hash == null && blob.getValue() != null && blob.getValue().length >= minSize) {
+                hash = store(blob.getValue());
+                node.remove("value");
+                ArrayNode extensions = node.get("extensions") instanceof ArrayNode existing
+                        ? existing : node.putArray("extensions");
+                extensions.addObject()
+                        .put("name", REFERENCE_EXTENSION_NAME)
+                        .put("valueType", "xs:string")
+                        .put("value", hash);
+            }
+            if (hash != null) {
+                found.put(hash, idShortPath);
+            }
+        });
+        if (!found.isEmpty()) {
+            // the contents stored for the representation, which the writes do not report
+            references.computeIfAbsent(submodel.getId(), id -> ConcurrentHashMap.newKeySet()).addAll(found.keySet());
+        }
+        return found;
+    }
+
+    /**
+     * Puts the stored contents that the JSON tree of a submodel references back into its Blobs,
+     * e.g. for the export. A content that is missing in the store keeps its reference.
+     */
+    public void inline(Submodel submodel, JsonNode tree) throws IOException {
+        if (directory == null) {
+            return;
+        }
+        walk(submodel.getSubmodelElements(), tree.get("submodelElements"), "", false, (idShortPath, blob, node) -> {
+            String hash = getReference(blob);
+            if (hash == null) {
+                return;
+            }
+            Optional<Path> file = resolve(hash);
+            if (file.isEmpty()) {
+                log.warn("Content {} of Blob {} in submodel {} is missing in the store", hash, idShortPath, submodel.getId());
+                return;
+            }
+            node.put("value", Files.readAllBytes(file.get()));
+            if (node.get("extensions") instanceof ArrayNode extensions) {
+                for (Iterator<JsonNode> iterator = extensions.elements(); iterator.hasNext(); ) {
+                    if (REFERENCE_EXTENSION_NAME.equals(iterator.next().path("name").asText())) {
+                        iterator.remove();
+                    }
+                }
+                if (extensions.isEmpty()) {
+                    node.remove("extensions");
+                }
+            }
+        });
+    }
+
+    /**
+     * Records the contents a written submodel references, see ModelWritePipeline.
+     */
+    public void submodelSaved(Submodel submodel) {
+        if (directory == null) {
+            return;
+        }
+        Set<String> hashes = referencedHashes(submodel);
+        if (hashes.isEmpty()) {
+            references.remove(submodel.getId());
+        } else {
+            references.put(submodel.getId(), hashes);
+        }
+    }
+
+    public void submodelDeleted(String submodelId) {
+        references.remove(submodelId);
+    }
+
+    /**
+     * Resolves the file of a stored content, if the hash is well-formed and known.
+     */
+    public Optional<Path> resolve(String hash) {
+        if (directory == null || hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = getPath(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    String store(byte[] content) throws IOException {
+        String hash = hash(content);
+        Path path = getPath(hash);
+        if (Files.exists(path)) {
+            // referenced again, which keeps the garbage collection from deleting it
+            Files.setLastModifiedTime(path, FileTime.from(Instant.now()));
+            return hash;
+        }
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), hash, ".tmp");
+        try {
+            Files.write(temp, content);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return hash;
+    }
+
+    /**
+     * Deletes the stored contents that none of the submodels references and that have not been
+     * stored within the last gcintervalmillis, which covers contents stored for writes that have
+     * not been reported yet.
+     *
+     * @return the number of deleted contents
+     */
+    public int collectGarbage() {
+        if (directory == null) {
+            return 0;
+        }
+        try {
+            Instant cutoff = Instant.now().minusMillis(Math.max(0, gcIntervalMillis));
+            if (!referencesLoaded) {
+                loadReferences();
+            }
+            Set<String> referenced = new HashSet<>();
+            references.values().forEach(referenced::addAll);
+            int deleted = 0;
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.filter(Files::isRegularFile).toList()) {
+                    String hash = file.getFileName().toString();
+                    if (HASH_PATTERN.matcher(hash).matches() && !referenced.contains(hash)
+                            && Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(file);
+                        deleted++;
+                    }
+                }
+            }
+            if (deleted > 0) {
+                log.info("Deleted {} unreferenced blob contents, {} are referenced", deleted, referenced.size());
+            }
+            return deleted;
+        } catch (Exception e) {
+            log.error("Failed to collect unreferenced blob contents", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Reads the references of the submodels written before startup. A submodel whose writes have been
+     * reported in the meantime keeps the reported references.
+     */
+    private void loadReferences() {
+        for (Submodel submodel : submodelBackend.findAll()) {
+            Set<String> hashes = referencedHashes(writeBehindService.resolve(submodel));
+            if (!hashes.isEmpty()) {
+                references.putIfAbsent(submodel.getId(), hashes);
+            }
+        }
+        referencesLoaded = true;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private Path getPath(String hash) {
+        // spread the files across subdirectories, to keep the directories small
+        return directory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static Set<String> referencedHashes(Submodel submodel) {
+        Set<String> hashes = ConcurrentHashMap.newKeySet();
+        forEachBlob(submodel.getSubmodelElements(), "", false, (idShortPath, blob) -> {
+            String hash = getReference(blob);
+            if (hash != null) {
+                hashes.add(hash);
+            }
+        });
+        return hashes;
+    }
+
+    private static String getReference(Blob blob) {
+        if (blob.getExtensions() == null) {
+            return null;
+        }
+        for (Extension extension : blob.getExtensions()) {
+            if (REFERENCE_EXTENSION_NAME.equals(extension.getName())) {
+                return extension.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String childPath(String parentPath, boolean inList, int index, String idShort) {
+        if (inList) {
+            return parentPath + "[" + index + "]";
+        }
+        String name = idShort == null ? "" : idShort;
+        return parentPath.isEmpty() ? name : parentPath + "." + name;
+    }
+
+    private static void forEachBlob(List<SubmodelElement> elements, String parentPath, boolean inList,
+                                    BiConsumer<String, Blob> action) {
+        if (elements == null) {
+            return;
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            SubmodelElement element = elements.get(i);
+            String idShortPath = childPath(parentPath, inList, i, element.getIdShort());
+            if (element instanceof Blob blob) {
+                action.accept(idShortPath, blob);
+            } else if (element instanceof SubmodelElementCollection collection) {
+                forEachBlob(collection.getValue(), idShortPath, false, action);
+            } else if (element instanceof SubmodelElementList list) {
+                forEachBlob(list.getValue(), idShortPath, true, action);
+            } else if (element instanceof Entity entity) {
+                forEachBlob(entity.getStatements(), idShortPath, false, action);
+            }
+        }
+    }
+
+    private interface BlobNodeVisitor {
+        void visit(String idShortPath, Blob blob, ObjectNode node) throws IOException;
+    }
+
+    // walks the model and its tree in parallel, the model tells the element types
+    private static void walk(List<SubmodelElement> elements, JsonNode nodes, String parentPath, boolean inList,
+                             BlobNodeVisitor visitor) throws IOException {
+        if (elements == null || nodes == null || !nodes.isArray() || nodes.size() != elements.size()) {
+            return;
+        }
+        for (int i = 0; i < elements.size(); i++) {
+            SubmodelElement element = elements.get(i);
+            if (!(nodes.get(i) instanceof ObjectNode node)) {
+                continue;
+            }
+            String idShortPath = childPath(parentPath, inList, i, element.getIdShort());
+            if (element instanceof Blob blob) {
+                visitor.visit(idShortPath, blob, node);
+            } else if (element instanceof SubmodelElementCollection collection) {
+                walk(collection.getValue(), node.get("value"), idShortPath, false, visitor);
+            } else if (element instanceof SubmodelElementList list) {
+                walk(list.getValue(), node.get("value"), idShortPath, true, visitor);
+            } else if (element instanceof Entity entity) {
+                walk(entity.getStatements(), node.get("statements"), idShortPath, false, visitor);
+            }
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
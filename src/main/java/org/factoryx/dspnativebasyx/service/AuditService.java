@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Audit channel for the access decisions of the DSP asset access.
+ *
+ * Request threads only put small events into a bounded ring buffer; a background thread writes
+ * them in batches. The logger org.factoryx.dspnativebasyx.audit gets one summary per catalog
+ * request and a sample of the requests for unknown or denied ids: the first one per id, and then
+ * every sampleinterval-th.
+ *
+ * The complete trail, i.e. every single grant, denial and miss together with the partner id, is
+ * written to the logger org.factoryx.dspnativebasyx.audit.trail, e.g. to be routed into a file
+ * of its own. A catalog request puts its decisions into a single event, which is written as lines
+ * of up to TRAIL_IDS_PER_LINE ids. Events are never dropped: if the ring buffer is full, the
+ * request thread writes its event itself, and the number of such events is logged.
+ */
+@Service
+@Slf4j
+public class AuditService {
+
+    public static final String AUDIT_LOGGER_NAME = "org.factoryx.dspnativebasyx.audit";
+    public static final String TRAIL_LOGGER_NAME = AUDIT_LOGGER_NAME + ".trail";
+
+    /**
+     * @param targets the ids the event is about, empty for a summary
+     * @param trail   true if the event belongs to the trail, false for a summary or a sampled miss
+     */
+    record AuditEvent(long timestamp, String type, String partner, List<String> targets, String detail, boolean trail) {
+    }
+
+    private static final int WRITE_BATCH_SIZE = 256;
+    static final int TRAIL_IDS_PER_LINE = 100;
+
+    private final Logger auditLog;
+    private final Logger trailLog;
+    private final ArrayBlockingQueue<AuditEvent> ringBuffer;
+    private final int sampleInterval;
+    private final int maxSampledIds;
+    private final ConcurrentHashMap<String, AtomicLong> missCounts = new ConcurrentHashMap<>();
+    private final AtomicLong writtenByCaller = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AuditService(@Value("${org.factoryx.dspnativebasyx.audit.buffersize:8192}") int bufferSize,
+                        @Value("${org.factoryx.dspnativebasyx.audit.sampleinterval:100}") int sampleInterval,
+                        @Value("${org.factoryx.dspnativebasyx.audit.maxsampledids:10000}") int maxSampledIds) {
+        this(LoggerFactory.getLogger(AUDIT_LOGGER_NAME), LoggerFactory.getLogger(TRAIL_LOGGER_NAME),
+                bufferSize, sampleInterval, maxSampledIds);
+    }
+
+    AuditService(Logger auditLog, Logger trailLog, int bufferSize, int sampleInterval, int maxSampledIds) {
+        this.auditLog = auditLog;
+        this.trailLog = trailLog;
+        this.ringBuffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        this.sampleInterval = Math.max(1, sampleInterval);
+        this.maxSampledIds = Math.max(1, maxSampledIds);
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * False only if the trail logger has been switched off.
+     */
+    private boolean isTrailEnabled() {
+        return trailLog.isInfoEnabled();
+    }
+
+    /**
+     * Records a granted access to a single asset, e.g. for a data transfer.
+     */
+    public void accessGranted(String id, Map<String, String> partnerProperties) {
+        if (isTrailEnabled()) {
+            publish(new AuditEvent(System.currentTimeMillis(), "granted", PartnerIdentity.of(partnerProperties),
+                    List.of(id), null, true));
+        }
+    }
+
+    /**
+     * Records a catalog request: a summary and, for the trail, the ids of the granted and the
+     * denied shells and submodels.
+     *
+     * @param checked the number of shells and submodels that the RBAC rules have been applied to
+     * @param granted the DSP ids of the shells and submodels that the RBAC rules granted
+     * @param denied  the DSP ids of the shells and submodels that the RBAC rules denied
+     */
+    public void catalogServed(Map<String, String> partnerProperties, int checked, List<String> granted, List<String> denied,
+                              long durationNanos) {
+        String partner = PartnerIdentity.of(partnerProperties);
+        long now = System.currentTimeMillis();
+        if (isTrailEnabled()) {
+            if (!granted.isEmpty()) {
+                publish(new AuditEvent(now, "granted", partner, granted, "catalog", true));
+            }
+            if (!denied.isEmpty()) {
+                publish(new AuditEvent(now, "denied", partner, denied, "catalog", true));
+            }
+        }
+        publish(new AuditEvent(now, "catalog", partner, List.of(),
+                "checked=" + checked + " granted=" + granted.size() + " denied=" + denied.size() + " durationMillis=" + TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                false));
+    }
+
+    /**
+     * Records a request for an id that does not exist.
+     *
+     * @param partnerProperties the properties of the requesting partner, null if unknown
+     */
+    public void unknownId(String id, Map<String, String> partnerProperties) {
+        miss("unknown", id, partnerProperties);
+    }
+
+    /**
+     * Records a request for an id that the partner may not read.
+     */
+    public void accessDenied(String id, Map<String, String> partnerProperties) {
+        miss("denied", id, partnerProperties);
+    }
+
+    private void miss(String type, String id, Map<String, String> partnerProperties) {
+        String partner = PartnerIdentity.of(partnerProperties);
+        long now = System.currentTimeMillis();
+        if (isTrailEnabled()) {
+            publish(new AuditEvent(now, type, partner, List.of(id), null, true));
+        }
+        if (missCounts.size() >= maxSampledIds && !missCounts.containsKey(type + id)) {
+            // start over rather than growing with every id that has ever been requested
+            missCounts.clear();
+        }
+        long count = missCounts.computeIfAbsent(type + id, key -> new AtomicLong()).incrementAndGet();
+        if (count % sampleInterval == 1 || sampleInterval == 1) {
+            publish(new AuditEvent(now, type, partner, List.of(id), "occurrences=" + count, false));
+        }
+    }
+
+    private void publish(AuditEvent event) {
+        if (!ringBuffer.offer(event)) {
+            // the writer falls behind: write on the request thread rather than losing the event
+            writtenByCaller.incrementAndGet();
+            write(event);
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(WRITE_BATCH_SIZE);
+        while (running || !ringBuffer.isEmpty()) {
+            try {
+                AuditEvent first = ringBuffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                ringBuffer.drainTo(batch, WRITE_BATCH_SIZE - 1);
+                long overflow = writtenByCaller.getAndSet(0);
+                if (overflow > 0) {
+                    auditLog.warn("type=overflow count={}", overflow);
+                }
+                batch.forEach(this::write);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Exception e) {
+                log.error("Failed to write audit events", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(AuditEvent event) {
+        if (event.trail()) {
+            List<String> targets = event.targets();
+            for (int from = 0; from < targets.size(); from += TRAIL_IDS_PER_LINE) {
+                trailLog.info("type={} timestamp={} partner={} targets={} {}", event.type(), event.timestamp(),
+                        event.partner(), targets.subList(from, Math.min(from + TRAIL_IDS_PER_LINE, targets.size())),
+                        event.detail() == null ? "" : event.detail());
+            }
+        } else if (event.targets().isEmpty()) {
+            auditLog.info("type={} timestamp={} partner={} {}", event.type(), event.timestamp(), event.partner(), event.detail());
+        } else {
+            auditLog.warn("type={} timestamp={} partner={} target={} {}", event.type(), event.timestamp(),
+                    event.partner(), event.targets().get(0), event.detail());
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+}
@@ -16,16 +16,15 @@
 
 package org.factoryx.dspnativebasyx.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
 import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
-import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShell;
-import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
 import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
-import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
 import org.factoryx.dspnativebasyx.model.AasDataAsset;
 import org.factoryx.dspnativebasyx.model.BaSyxApiAsset;
+import org.factoryx.dspnativebasyx.model.ChangesApiAsset;
+import org.factoryx.dspnativebasyx.model.ReadApiAsset;
+import org.factoryx.dspnativebasyx.model.SearchApiAsset;
 import org.factoryx.dspnativebasyx.model.SubmodelDataAsset;
 import org.factoryx.library.connector.embedded.provider.interfaces.DataAsset;
 import org.factoryx.library.connector.embedded.provider.interfaces.DataAssetManagementService;
@@ -35,24 +34,30 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.MultiValueMap;
 
 import java.util.ArrayList;
-import java.util.Base64;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Implementation that provides access for the dsp-protocol-lib to the contents of
  * the AasBackend and SubmodelBackend from BaSyx.
+ *
+ * Requests to the ApiAssets are gated, rate limited and run in their bulkhead here, the requests
+ * themselves are handled by the ApiAssetReadService and the ApiAssetWriteService.
  */
 @Service
 @Slf4j
 public class BaSyxAccessManagementService implements DataAssetManagementService {
 
     private final AasBackend aasBackend;
-    private final SubmodelBackend submodelBackend;
     private final RbacDCPValidationService rbacDCPValidationService;
-    private final ObjectMapper objectMapper;
-    private final Base64.Decoder B64_DECODER = Base64.getUrlDecoder();
-    private final MessagingSupportService messagingSupportService;
+    private final WriteBehindService writeBehindService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final RateLimitService rateLimitService;
+    private final BulkheadService bulkheadService;
+    private final AuditService auditService;
+    private final CatalogFragmentService catalogFragmentService;
+    private final ApiAssetReadService apiAssetReadService;
+    private final ApiAssetWriteService apiAssetWriteService;
 
     private final BaSyxApiAsset SHELLS_API_ASSET = new BaSyxApiAsset() {
         @Override
@@ -79,197 +84,201 @@ public class BaSyxAccessManagementService implements DataAssetManagementService
     };
     private final String SUBMODELS_API_ASSET_ID = SUBMODELS_API_ASSET.getDspId();
 
-    public BaSyxAccessManagementService(AasBackend aasBackend, SubmodelBackend submodelBackend,
-                                        RbacDCPValidationService rbacDCPValidationService, ObjectMapper objectMapper,
-                                        MessagingSupportService messagingSupportService,
+    public BaSyxAccessManagementService(AasBackend aasBackend, RbacDCPValidationService rbacDCPValidationService,
+                                        WriteBehindService writeBehindService, CatalogSnapshotService catalogSnapshotService,
+                                        RateLimitService rateLimitService, BulkheadService bulkheadService,
+                                        AuditService auditService, CatalogFragmentService catalogFragmentService,
+                                        ApiAssetReadService apiAssetReadService, ApiAssetWriteService apiAssetWriteService,
                                         @Value("${org.factoryx.dspnativebasyx.aasidprefix:}") String aasIdPrefix,
                                         @Value("${org.factoryx.dspnativebasyx.submodelidprefix:}") String submodelIdPrefix) {
-        this.messagingSupportService = messagingSupportService;
-        AasDataAsset.objectMapper = objectMapper;
-        SubmodelDataAsset.objectMapper = objectMapper;
+        this.writeBehindService = writeBehindService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.rateLimitService = rateLimitService;
+        this.bulkheadService = bulkheadService;
+        this.auditService = auditService;
+        this.catalogFragmentService = catalogFragmentService;
+        this.apiAssetReadService = apiAssetReadService;
+        this.apiAssetWriteService = apiAssetWriteService;
         AasDataAsset.DSP_ID_PREFIX = aasIdPrefix;
         SubmodelDataAsset.DSP_ID_PREFIX = submodelIdPrefix;
         this.aasBackend = aasBackend;
-        this.submodelBackend = submodelBackend;
         this.rbacDCPValidationService = rbacDCPValidationService;
-        this.objectMapper = objectMapper;
     }
 
 
     @Override
     public DataAsset getById(String id) {
+        DataAsset dataAsset = findById(id);
+        if (dataAsset == null) {
+            auditService.unknownId(id, null);
+        }
+        return dataAsset;
+    }
+
+    private DataAsset findById(String id) {
         if (SHELLS_API_ASSET_ID.equals(id)) {
             return SHELLS_API_ASSET;
         }
         if (SUBMODELS_API_ASSET_ID.equals(id)) {
             return SUBMODELS_API_ASSET;
         }
+        String changesRole = ChangesApiAsset.parseRole(id);
+        if (changesRole != null && rbacDCPValidationService.isMappedRole(changesRole)) {
+            return new ChangesApiAsset(changesRole);
+        }
+        String searchRole = SearchApiAsset.parseRole(id);
+        if (searchRole != null && rbacDCPValidationService.isMappedRole(searchRole)) {
+            return new SearchApiAsset(searchRole);
+        }
+        String readRole = ReadApiAsset.parseRole(id);
+        if (readRole != null && rbacDCPValidationService.isMappedRole(readRole)) {
+            return new ReadApiAsset(readRole);
+        }
         if (id.startsWith(AasDataAsset.DSP_ID_PREFIX)) {
             var aasOpt = aasBackend.findById(id.substring(AasDataAsset.DSP_ID_PREFIX.length()));
             if (aasOpt.isPresent()) {
-                return new AasDataAsset(aasOpt.get());
+                return catalogFragmentService.getShellAsset(aasOpt.get());
             }
         }
         if (id.startsWith(SubmodelDataAsset.DSP_ID_PREFIX)) {
-            var submodelOpt = submodelBackend.findById(id.substring(SubmodelDataAsset.DSP_ID_PREFIX.length()));
+            var submodelOpt = writeBehindService.findById(id.substring(SubmodelDataAsset.DSP_ID_PREFIX.length()));
             if (submodelOpt.isPresent()) {
-                return new SubmodelDataAsset(submodelOpt.get());
+                return catalogFragmentService.getSubmodelAsset(submodelOpt.get());
             }
         }
-        log.warn("No such id {}", id);
         return null;
     }
 
 
     @Override
     public DataAsset getByIdForProperties(String id, Map<String, String> partnerProperties) {
+        rateLimitService.checkTransfer(partnerProperties);
+        DataAsset dataAsset = findByIdForProperties(id, partnerProperties);
+        if (dataAsset != null) {
+            auditService.accessGranted(id, partnerProperties);
+        }
+        return dataAsset;
+    }
+
+    private DataAsset findByIdForProperties(String id, Map<String, String> partnerProperties) {
         if (SHELLS_API_ASSET_ID.equals(id)) {
             return SHELLS_API_ASSET;
         }
         if (SUBMODELS_API_ASSET_ID.equals(id)) {
             return SUBMODELS_API_ASSET;
         }
-        DataAsset dataAsset = getById(id);
-        if (dataAsset != null) {
-            if (rbacDCPValidationService.validateReadAccessForDataAssetAndPartnerProperties(dataAsset, partnerProperties)) {
-                return dataAsset;
-            }
+        String changesRole = ChangesApiAsset.parseRole(id);
+        if (changesRole != null && rbacDCPValidationService.getMappedRoles(partnerProperties).contains(changesRole)) {
+            return new ChangesApiAsset(changesRole);
+        }
+        String searchRole = SearchApiAsset.parseRole(id);
+        if (searchRole != null && rbacDCPValidationService.getMappedRoles(partnerProperties).contains(searchRole)) {
+            return new SearchApiAsset(searchRole);
+        }
+        String readRole = ReadApiAsset.parseRole(id);
+        if (readRole != null && rbacDCPValidationService.getMappedRoles(partnerProperties).contains(readRole)) {
+            return new ReadApiAsset(readRole);
+        }
+        DataAsset dataAsset = findById(id);
+        if (dataAsset == null) {
+            auditService.unknownId(id, partnerProperties);
+        } else if (rbacDCPValidationService.validateReadAccessForDataAssetAndPartnerProperties(dataAsset, partnerProperties)) {
+            return dataAsset;
+        } else {
+            auditService.accessDenied(id, partnerProperties);
         }
-        log.warn("No such id {}", id);
         return null;
     }
 
     @Override
     public List<DataAsset> getAll(Map<String, String> partnerProperties) {
+        rateLimitService.checkCatalog(partnerProperties);
+        return bulkheadService.getCatalogBulkhead().call(() -> buildCatalog(partnerProperties));
+    }
+
+    private List<DataAsset> buildCatalog(Map<String, String> partnerProperties) {
+        long start = System.nanoTime();
         ArrayList<DataAsset> dataAssets = new ArrayList<>();
         dataAssets.add(SHELLS_API_ASSET);
         dataAssets.add(SUBMODELS_API_ASSET);
+        for (String role : rbacDCPValidationService.getMappedRoles(partnerProperties)) {
+            dataAssets.add(new ChangesApiAsset(role));
+            dataAssets.add(new SearchApiAsset(role));
+            dataAssets.add(new ReadApiAsset(role));
+        }
 
-        for (AssetAdministrationShell shell : aasBackend.findAll()) {
-            DataAsset dataAsset = new AasDataAsset(shell);
-            if (rbacDCPValidationService.validateReadAccessForDataAssetAndPartnerProperties(dataAsset, partnerProperties)) {
-                dataAssets.add(dataAsset);
-            }
+        int apiAssetCount = dataAssets.size();
+
+        List<String> denied = new ArrayList<>();
+        // all checks run against one consistent version, concurrent writes show up in the next one
+        var snapshot = catalogSnapshotService.getSnapshot();
+        for (AssetAdministrationShell shell : snapshot.shells()) {
+            checkCatalogAccess(catalogFragmentService.getShellAsset(shell), partnerProperties, dataAssets, denied);
         }
 
-        for (Submodel submodel : submodelBackend.findAll()) {
-            DataAsset dataAsset = new SubmodelDataAsset(submodel);
-            if (rbacDCPValidationService.validateReadAccessForDataAssetAndPartnerProperties(dataAsset, partnerProperties)) {
-                dataAssets.add(dataAsset);
-            }
+        for (Submodel submodel : snapshot.submodels()) {
+            checkCatalogAccess(catalogFragmentService.getSubmodelAsset(writeBehindService.resolve(submodel)),
+                    partnerProperties, dataAssets, denied);
         }
+        auditService.catalogServed(partnerProperties, snapshot.shells().size() + snapshot.submodels().size(),
+                dataAssets.subList(apiAssetCount, dataAssets.size()).stream().map(DataAsset::getDspId).toList(),
+                denied, System.nanoTime() - start);
         return dataAssets;
     }
 
+    private void checkCatalogAccess(DataAsset dataAsset, Map<String, String> partnerProperties,
+                                    List<DataAsset> granted, List<String> denied) {
+        if (rbacDCPValidationService.validateReadAccessForDataAssetAndPartnerProperties(dataAsset, partnerProperties)) {
+            granted.add(dataAsset);
+        } else {
+            denied.add(dataAsset.getDspId());
+        }
+    }
+
     @Override
     public ResponseEntity<byte[]> forwardToApiAsset(String apiAssetId, HttpMethod method, byte[] requestBody,
                                                     HttpHeaders headers, String path, MultiValueMap<String, String> incomingQueryParams) {
-        if ((path.startsWith("/shells") && !SHELLS_API_ASSET_ID.equals(apiAssetId) ||
-                (path.startsWith("/submodels") && !SUBMODELS_API_ASSET_ID.equals(apiAssetId)))) {
+        String changesRole = ChangesApiAsset.parseRole(apiAssetId);
+        String searchRole = SearchApiAsset.parseRole(apiAssetId);
+        String readRole = ReadApiAsset.parseRole(apiAssetId);
+        // reads of shells and submodels go through the ReadApiAsset of a role, so that they can be checked
+        // against the RBAC rules, writes go through the ShellsApiAsset and SubmodelsApiAsset
+        boolean read = method == HttpMethod.GET;
+        if ((path.startsWith("/shells") && (read ? readRole == null : !SHELLS_API_ASSET_ID.equals(apiAssetId))) ||
+                (path.startsWith("/submodels") && (read ? readRole == null : !SUBMODELS_API_ASSET_ID.equals(apiAssetId))) ||
+                (path.startsWith("/changes") != (changesRole != null)) ||
+                (path.startsWith("/search") != (searchRole != null))) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
+        String role = changesRole != null ? changesRole : searchRole != null ? searchRole : readRole;
+        if (method != HttpMethod.GET && !rateLimitService.tryAcquireWrite(apiAssetId, headers)) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
 
+        Bulkhead bulkhead = method == HttpMethod.GET ? bulkheadService.getTransferBulkhead() : bulkheadService.getWriteBulkhead();
         try {
-            switch (method.name()) {
-                case "POST" -> {
-                    if (path.equals("/submodels")) {
-
-                        Submodel submodel = objectMapper.readValue(requestBody, DefaultSubmodel.class);
-                        if (submodelBackend.findById(submodel.getId()).isPresent()) {
-                            return ResponseEntity.status(HttpStatus.CONFLICT).build();
-                        }
-                        submodel = submodelBackend.save(submodel);
-                        log.info("Created submodel {}", submodel.getId());
-                        messagingSupportService.notifyNewSubmodel(submodel);
-                        return ResponseEntity.status(HttpStatus.CREATED)
-                                .contentType(MediaType.parseMediaType("application/json; charset=UTF-8"))
-                                .body(objectMapper.writeValueAsBytes(submodel));
-                    }
-
-                    if (path.equals("/shells")) {
-                        AssetAdministrationShell shell = objectMapper.readValue(requestBody, DefaultAssetAdministrationShell.class);
-                        if (aasBackend.findById(shell.getId()).isPresent()) {
-                            return ResponseEntity.status(HttpStatus.CONFLICT).build();
-                        }
-                        shell = aasBackend.save(shell);
-                        log.info("Created shell {}", shell.getId());
-                        messagingSupportService.notifyNewShell(shell);
-                        return ResponseEntity.status(HttpStatus.CREATED)
-                                .contentType(MediaType.valueOf("application/json; charset=UTF-8"))
-                                .body(objectMapper.writeValueAsBytes(shell));
-                    }
-                }
-
-                case "PUT" -> {
-                    if (path.startsWith("/submodels")) {
-                        String submodelIdB64 = path.substring("/submodels/".length());
-                        String submodelId = new String(B64_DECODER.decode(submodelIdB64));
-                        Submodel submodel = objectMapper.readValue(requestBody, DefaultSubmodel.class);
-                        if (submodel.getId().equals(submodelId) && submodelBackend.findById(submodel.getId()).isPresent()) {
-                            submodel = submodelBackend.save(submodel);
-                            log.info("Updated submodel {}", submodel.getId());
-                            messagingSupportService.notifyUpdatedSubmodel(submodel);
-                            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
-                        }
-                        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-                    }
-
-                    if (path.startsWith("/shells")) {
-                        AssetAdministrationShell shell = objectMapper.readValue(requestBody, DefaultAssetAdministrationShell.class);
-                        String shellIdB64 = path.substring("/shells/".length());
-                        String shellId = new String(B64_DECODER.decode(shellIdB64));
-                        if (shell.getId().equals(shellId) && aasBackend.findById(shell.getId()).isPresent()) {
-                            shell = aasBackend.save(shell);
-                            log.info("Updated shell {}", shell.getId());
-                            messagingSupportService.notifyUpdatedShell(shell);
-                            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
-                        }
-                        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-                    }
-                }
-
-                case "DELETE" -> {
-                    if (path.startsWith("/submodels")) {
-                        String submodelIdB64 = path.substring("/submodels/".length());
-                        String submodelId = new String(B64_DECODER.decode(submodelIdB64));
-                        var opt = submodelBackend.findById(submodelId);
-                        if (opt.isPresent()) {
-                            try {
-                                submodelBackend.delete(opt.get());
-                                log.info("Deleted submodel {}", submodelId);
-                                messagingSupportService.notifyDeletedSubmodel(opt.get());
-                                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
-                            } catch (Exception e) {
-                                log.error("Failed to delete submodel {}", submodelId, e);
-                            }
-                        }
-                        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-                    }
+            return bulkhead.call(() -> handleApiAssetRequest(apiAssetId, method, requestBody, headers, path,
+                    incomingQueryParams, role));
+        } catch (Bulkhead.BulkheadFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
 
-                    if (path.startsWith("/shells")) {
-                        String shellIdB64 = path.substring("/shells/".length());
-                        String shellId = new String(B64_DECODER.decode(shellIdB64));
-                        var opt = aasBackend.findById(shellId);
-                        if (opt.isPresent()) {
-                            try {
-                                aasBackend.delete(opt.get());
-                                log.info("Deleted shell {}", shellId);
-                                messagingSupportService.notifyDeletedShell(opt.get());
-                                return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
-                            } catch (Exception e) {
-                                log.error("Failed to delete shell {}", shellId, e);
-                            }
-                        }
-                        return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
-                    }
-                }
+    private ResponseEntity<byte[]> handleApiAssetRequest(String apiAssetId, HttpMethod method, byte[] requestBody,
+                                                         HttpHeaders headers, String path,
+                                                         MultiValueMap<String, String> incomingQueryParams,
+                                                         String role) {
+        try {
+            if (method == HttpMethod.GET) {
+                return apiAssetReadService.handle(path, headers, incomingQueryParams, role);
             }
-
+            return apiAssetWriteService.handle(method, requestBody, path);
+        } catch (RequestBodyValidationService.RequestBodyRejectedException e) {
+            log.debug("Rejected the request body for api asset {}: {}", apiAssetId, e.getReason());
+            return ResponseEntity.status(e.getStatusCode()).build();
         } catch (Exception e) {
             log.error("Failed to forward to api asset {}", apiAssetId, e);
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
     }
-
 }
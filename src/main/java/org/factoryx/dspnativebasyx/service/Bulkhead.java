@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of concurrent executions of one workload class. Callers beyond the limit wait
+ * up to maxWaitMillis for a permit and are rejected afterwards, so that a workload that has
+ * saturated its own share cannot occupy the threads needed by the others.
+ *
+ * The time spent waiting and executing, the number of active and waiting callers and the
+ * rejections are reported per workload.
+ */
+public class Bulkhead {
+
+    public static class BulkheadFullException extends ResponseStatusException {
+        public BulkheadFullException(String workload) {
+            super(HttpStatus.SERVICE_UNAVAILABLE, "Too many concurrent " + workload + " requests");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private final String workload;
+    private final Semaphore semaphore;
+    private final long maxWaitNanos;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param maxConcurrent the number of concurrent executions, or 0 to only measure the workload
+     */
+    public Bulkhead(String workload, int maxConcurrent, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.workload = workload;
+        this.semaphore = maxConcurrent > 0 ? new Semaphore(maxConcurrent, true) : null;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.waitTimer = Timer.builder("dspnativebasyx.bulkhead.wait").tag("workload", workload).register(meterRegistry);
+        this.executionTimer = Timer.builder("dspnativebasyx.bulkhead.execution").tag("workload", workload).register(meterRegistry);
+        this.rejectedCounter = Counter.builder("dspnativebasyx.bulkhead.rejected").tag("workload", workload).register(meterRegistry);
+        meterRegistry.gauge("dspnativebasyx.bulkhead.active", Tags.of("workload", workload), active);
+        meterRegistry.gauge("dspnativebasyx.bulkhead.waiting", Tags.of("workload", workload), waiting);
+    }
+
+    /**
+     * Runs the task once a permit is available.
+     *
+     * @throws BulkheadFullException if no permit became available within maxWaitMillis
+     */
+    public <T> T call(Supplier<T> task) {
+        acquire();
+        active.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            active.decrementAndGet();
+            if (semaphore != null) {
+                semaphore.release();
+            }
+        }
+    }
+
+    public void run(Runnable task) {
+        call(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private void acquire() {
+        if (semaphore == null) {
+            return;
+        }
+        if (semaphore.tryAcquire()) {
+            waitTimer.record(0, TimeUnit.NANOSECONDS);
+            return;
+        }
+        waiting.incrementAndGet();
+        long start = System.nanoTime();
+        boolean acquired = false;
+        try {
+            acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedCounter.increment();
+            throw new BulkheadFullException(workload);
+        }
+    }
+
+    int getAvailablePermits() {
+        return semaphore == null ? Integer.MAX_VALUE : semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Separates the workload classes of this instance from each other: catalog requests, data
+ * transfers (including reads through the ApiAssets), writes through the ApiAssets and imports,
+ * and the notifications of event handlers and MQTT.
+ *
+ * The request-driven classes each get a Bulkhead that bounds their concurrency, so that e.g. a
+ * bulk import saturating the write share does not delay catalog requests. The notifications
+ * run on a bounded pool with a bounded queue. When that queue is full, further notifications
+ * are dropped and counted instead of blocking the writers; partners can still catch up through
+ * the change feed, which is written synchronously. The drops are logged once per
+ * DROP_LOG_INTERVAL, the counter has the exact number.
+ */
+@Service
+@Slf4j
+public class BulkheadService {
+
+    private static final int DROP_LOG_INTERVAL = 1000;
+
+    private final Bulkhead catalogBulkhead;
+    private final Bulkhead transferBulkhead;
+    private final Bulkhead writeBulkhead;
+    private final ExecutorService notificationExecutor;
+
+    public BulkheadService(MeterRegistry meterRegistry,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.catalog.maxconcurrent:8}") int catalogMaxConcurrent,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.catalog.maxwaitmillis:2000}") long catalogMaxWaitMillis,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.transfer.maxconcurrent:64}") int transferMaxConcurrent,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.transfer.maxwaitmillis:2000}") long transferMaxWaitMillis,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.write.maxconcurrent:32}") int writeMaxConcurrent,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.write.maxwaitmillis:5000}") long writeMaxWaitMillis,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.notification.threads:4}") int notificationThreads,
+                           @Value("${org.factoryx.dspnativebasyx.bulkhead.notification.queuecapacity:10000}") int notificationQueueCapacity) {
+        this.catalogBulkhead = new Bulkhead("catalog", catalogMaxConcurrent, catalogMaxWaitMillis, meterRegistry);
+        this.transferBulkhead = new Bulkhead("transfer", transferMaxConcurrent, transferMaxWaitMillis, meterRegistry);
+        this.writeBulkhead = new Bulkhead("write", writeMaxConcurrent, writeMaxWaitMillis, meterRegistry);
+
+        Counter rejectedNotifications = Counter.builder("dspnativebasyx.bulkhead.rejected")
+                .tag("workload", "notification").register(meterRegistry);
+        AtomicLong droppedNotifications = new AtomicLong();
+        AtomicInteger threadCount = new AtomicInteger();
+        int threads = Math.max(1, notificationThreads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, notificationQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-" + threadCount.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    rejectedNotifications.increment();
+                    long dropped = droppedNotifications.incrementAndGet();
+                    if (dropped % DROP_LOG_INTERVAL == 1) {
+                        log.warn("Notification queue is full, dropped {} notifications so far", dropped);
+                    }
+                    throw new RejectedExecutionException("Notification queue is full");
+                });
+        executor.allowCoreThreadTimeOut(true);
+        // reports the queue size, the queued and the execution time of the notification pool
+        this.notificationExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "notification",
+                "dspnativebasyx.bulkhead", Tags.of("workload", "notification"));
+    }
+
+    public Bulkhead getCatalogBulkhead() {
+        return catalogBulkhead;
+    }
+
+    public Bulkhead getTransferBulkhead() {
+        return transferBulkhead;
+    }
+
+    public Bulkhead getWriteBulkhead() {
+        return writeBulkhead;
+    }
+
+    public ExecutorService getNotificationExecutor() {
+        return notificationExecutor;
+    }
+
+    @PreDestroy
+    public void stop() {
+        notificationExecutor.shutdown();
+    }
+}
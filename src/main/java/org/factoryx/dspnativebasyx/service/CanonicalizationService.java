@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deduplicates the strings that repeat across many shells and submodels, i.e. idShorts, categories,
+ * language tags and texts of descriptions, names of extensions and qualifiers, and the key values of
+ * semanticIds and other References. Equal strings are replaced by one canonical instance from a weak
+ * interning pool before a deserialized model is handed to the backend. Only the immutable strings are
+ * shared; the model objects holding them (References, Keys, LangStrings) stay separate per model,
+ * so that a change to one model can never show up in another.
+ *
+ * Property values are left alone, as they rarely repeat and would only grow the pools. The modelType
+ * is not held as a string in the model, so there is nothing to deduplicate.
+ *
+ * The estimated size of the duplicates that have been replaced is counted in
+ * dspnativebasyx.canonicalization.deduplicated.bytes. It is a cumulative count, not the heap saved at
+ * present: the counted strings of models that have been replaced or deleted since are not subtracted.
+ */
+@Service
+public class CanonicalizationService {
+
+    // rough shallow size with compressed oops: String plus its byte[]
+    private static final int STRING_OVERHEAD = 40;
+
+    private final boolean enabled;
+    private final WeakInterner strings = new WeakInterner();
+    private final Counter deduplicatedBytes;
+    private final Counter stringHits;
+
+    public CanonicalizationService(MeterRegistry meterRegistry,
+                                   @Value("${org.factoryx.dspnativebasyx.canonicalization.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+        this.deduplicatedBytes = Counter.builder("dspnativebasyx.canonicalization.deduplicated.bytes")
+                .description("Estimated total size of the duplicate model strings replaced by their canonical instance")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.stringHits = Counter.builder("dspnativebasyx.canonicalization.hits")
+                .tag("type", "string")
+                .register(meterRegistry);
+        Gauge.builder("dspnativebasyx.canonicalization.pool.size", strings, WeakInterner::size)
+                .tag("type", "string")
+                .register(meterRegistry);
+    }
+
+    public void canonicalize(AssetAdministrationShell shell) {
+        if (!enabled) {
+            return;
+        }
+        canonicalizeReferable(shell);
+    }
+
+    public void canonicalize(Submodel submodel) {
+        if (!enabled) {
+            return;
+        }
+        canonicalizeReferable(submodel);
+        canonicalizeSemantics(submodel);
+        canonicalizeQualifiers(submodel);
+        canonicalizeElements(submodel.getSubmodelElements());
+    }
+
+    private void canonicalizeElements(List<SubmodelElement> elements) {
+        if (elements == null) {
+            return;
+        }
+        for (SubmodelElement element : elements) {
+            canonicalizeReferable(element);
+            canonicalizeSemantics(element);
+            canonicalizeQualifiers(element);
+            if (element instanceof Property property) {
+                reference(property.getValueId());
+            } else if (element instanceof MultiLanguageProperty multiLanguageProperty) {
+                reference(multiLanguageProperty.getValueId());
+            } else if (element instanceof ReferenceElement referenceElement) {
+                reference(referenceElement.getValue());
+            } else if (element instanceof SubmodelElementCollection collection) {
+                canonicalizeElements(collection.getValue());
+            } else if (element instanceof SubmodelElementList list) {
+                reference(list.getSemanticIdListElement());
+                canonicalizeElements(list.getValue());
+            } else if (element instanceof Entity entity) {
+                canonicalizeElements(entity.getStatements());
+            }
+            if (element instanceof RelationshipElement relationship) {
+                reference(relationship.getFirst());
+                reference(relationship.getSecond());
+            }
+            if (element instanceof AnnotatedRelationshipElement annotated && annotated.getAnnotations() != null) {
+                canonicalizeElements(new ArrayList<>(annotated.getAnnotations()));
+            }
+        }
+    }
+
+    private void canonicalizeReferable(Referable referable) {
+        referable.setIdShort(string(referable.getIdShort()));
+        referable.setCategory(string(referable.getCategory()));
+        if (referable.getDescription() != null) {
+            referable.getDescription().forEach(this::langString);
+        }
+        if (referable.getDisplayName() != null) {
+            referable.getDisplayName().forEach(this::langString);
+        }
+        if (referable.getExtensions() != null) {
+            for (Extension extension : referable.getExtensions()) {
+                extension.setName(string(extension.getName()));
+                canonicalizeSemantics(extension);
+            }
+        }
+    }
+
+    private void canonicalizeSemantics(HasSemantics hasSemantics) {
+        reference(hasSemantics.getSemanticId());
+        if (hasSemantics.getSupplementalSemanticIds() != null) {
+            hasSemantics.getSupplementalSemanticIds().forEach(this::reference);
+        }
+    }
+
+    private void canonicalizeQualifiers(Qualifiable qualifiable) {
+        if (qualifiable.getQualifiers() == null) {
+            return;
+        }
+        for (Qualifier qualifier : qualifiable.getQualifiers()) {
+            qualifier.setType(string(qualifier.getType()));
+            reference(qualifier.getValueId());
+            canonicalizeSemantics(qualifier);
+        }
+    }
+
+    private String string(String value) {
+        if (value == null) {
+            return null;
+        }
+        String canonical = strings.intern(value);
+        if (canonical != value) {
+            stringHits.increment();
+            deduplicatedBytes.increment(STRING_OVERHEAD + value.length());
+        }
+        return canonical;
+    }
+
+    private void reference(org.eclipse.digitaltwin.aas4j.v3.model.Reference value) {
+        if (value == null || value.getKeys() == null) {
+            return;
+        }
+        for (Key key : value.getKeys()) {
+            key.setValue(string(key.getValue()));
+        }
+        reference(value.getReferredSemanticId());
+    }
+
+    private void langString(AbstractLangString value) {
+        value.setLanguage(string(value.getLanguage()));
+        value.setText(string(value.getText()));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ModelSummary;
+import org.factoryx.dspnativebasyx.model.AasDataAsset;
+import org.factoryx.dspnativebasyx.model.SubmodelDataAsset;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one DataAsset per shell and submodel, so that catalog requests reuse the same wrapper
+ * with its immutable property map and element idShorts instead of rebuilding them for every
+ * asset on every request.
+ *
+ * An entry is only reused for the very model object it was built for, and only as long as the
+ * write version of its id (see WriteVersionService) has not changed. A new version of a shell or
+ * submodel, also one that a backend applied to the same object, therefore gets a new entry.
+ * Writes and deletes, including those of the BaSyx REST API, drop the entry right away (see
+ * ModelWritePipeline), so that the maps only hold ids that still exist.
+ *
+ * The catalog snapshot may hold summaries instead of full objects (see ModelSummary). Their
+ * DataAssets load the full object from the backend once, when it is first transferred.
+ */
+@Service
+public class CatalogFragmentService {
+
+    private record Fragment<M, A>(M model, long version, A asset) {
+    }
+
+    private final DtoCacheService dtoCacheService;
+    private final Bulkhead transferBulkhead;
+    private final WriteVersionService writeVersionService;
+    private final AasBackend aasBackend;
+    private final SubmodelBackend submodelBackend;
+    private final ConcurrentHashMap<String, Fragment<AssetAdministrationShell, AasDataAsset>> shells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Fragment<Submodel, SubmodelDataAsset>> submodels = new ConcurrentHashMap<>();
+
+    public CatalogFragmentService(DtoCacheService dtoCacheService, BulkheadService bulkheadService,
+                                  WriteVersionService writeVersionService, AasBackend aasBackend, SubmodelBackend submodelBackend) {
+        this.dtoCacheService = dtoCacheService;
+        this.transferBulkhead = bulkheadService.getTransferBulkhead();
+        this.writeVersionService = writeVersionService;
+        this.aasBackend = aasBackend;
+        this.submodelBackend = submodelBackend;
+    }
+
+    public AasDataAsset getShellAsset(AssetAdministrationShell shell) {
+        long version = writeVersionService.getShellVersion(shell.getId());
+        Fragment<AssetAdministrationShell, AasDataAsset> fragment = shells.get(shell.getId());
+        if (fragment == null || fragment.model() != shell || fragment.version() != version) {
+            fragment = new Fragment<>(shell, version, shell instanceof ModelSummary
+                    ? new AasDataAsset(shell, () -> aasBackend.findById(shell.getId()).orElseThrow(), dtoCacheService, transferBulkhead)
+                    : new AasDataAsset(shell, dtoCacheService, transferBulkhead));
+            shells.put(shell.getId(), fragment);
+        }
+        return fragment.asset();
+    }
+
+    public SubmodelDataAsset getSubmodelAsset(Submodel submodel) {
+        long version = writeVersionService.getSubmodelVersion(submodel.getId());
+        Fragment<Submodel, SubmodelDataAsset> fragment = submodels.get(submodel.getId());
+        if (fragment == null || fragment.model() != submodel || fragment.version() != version) {
+            fragment = new Fragment<>(submodel, version, submodel instanceof ModelSummary
+                    ? new SubmodelDataAsset(submodel, () -> submodelBackend.findById(submodel.getId()).orElseThrow(), dtoCacheService, transferBulkhead)
+                    : new SubmodelDataAsset(submodel, dtoCacheService, transferBulkhead));
+            submodels.put(submodel.getId(), fragment);
+        }
+        return fragment.asset();
+    }
+
+    public void invalidateShell(String shellId) {
+        shells.remove(shellId);
+    }
+
+    public void invalidateSubmodel(String submodelId) {
+        submodels.remove(submodelId);
+    }
+
+    int size() {
+        return shells.size() + submodels.size();
+    }
+}
@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ModelStoreInvocationHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Provides versioned, immutable snapshots of all shells and submodels for catalog reads.
+ *
+ * Readers obtain the current snapshot with a single volatile read and iterate it while writers
+ * continue. Writers stage their changes and publish them as a new version, atomically and
+ * together with the changes other writers have staged in the meantime. Each version consists of
+ * an immutable base and a small immutable overlay of the changes since the base was built, so
+ * publishing a version only copies the overlay. Once the overlay has grown beyond the compaction
+ * threshold, it is merged into a new base in the background.
+ *
+ * The base is loaded from the backends in the background as well, from the summaries of a
+ * ModelStore if the backends are backed by one (see ModelSummary), right after startup and every
+ * reloadintervalmillis; readers only wait for the very first load. The writes on the backends,
+ * including those of the BaSyx REST API, are staged through the ModelWritePipeline, so the
+ * reload is only needed for changes that bypass the backends of this instance.
+ *
+ * Publication can be held back, e.g. for the duration of a bulk import (see RepositoryTransferService),
+ * so that catalogs never show a partially applied group of changes; the changes staged in the
+ * meantime are published when the last hold is released.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    /**
+     * An immutable, consistent version of the shells and submodels.
+     */
+    public record CatalogSnapshot(long version, SnapshotView<AssetAdministrationShell> shells,
+                                  SnapshotView<Submodel> submodels) {
+    }
+
+    private final AasBackend aasBackend;
+    private final SubmodelBackend submodelBackend;
+    private final int compactionThreshold;
+
+    private volatile CatalogSnapshot current;
+    private final ConcurrentHashMap<String, Optional<AssetAdministrationShell>> stagedShells = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Optional<Submodel>> stagedSubmodels = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicInteger publicationHolds = new AtomicInteger(0);
+    private final AtomicBoolean compactionPending = new AtomicBoolean(false);
+    // a ReentrantLock instead of synchronized, so that waiting readers do not pin their virtual threads
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    // the changes published while a reload scans the backends, to be applied on top of its result
+    private Map<String, Optional<AssetAdministrationShell>> shellChangesDuringLoad;
+    private Map<String, Optional<Submodel>> submodelChangesDuringLoad;
+    private final ScheduledExecutorService scheduler;
+    private final CompletableFuture<Void> initialLoad;
+
+    public CatalogSnapshotService(AasBackend aasBackend, SubmodelBackend submodelBackend,
+                                  @Value("${org.factoryx.dspnativebasyx.catalogsnapshot.compactionthreshold:4096}") int compactionThreshold,
+                                  @Value("${org.factoryx.dspnativebasyx.catalogsnapshot.reloadintervalmillis:0}") long reloadIntervalMillis) {
+        this.aasBackend = aasBackend;
+        this.submodelBackend = submodelBackend;
+        this.compactionThreshold = compactionThreshold;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.initialLoad = CompletableFuture.runAsync(this::reload, scheduler);
+        if (reloadIntervalMillis > 0) {
+            // picks up changes that bypass the backends of this instance, e.g. of other processes on a shared database
+            this.scheduler.scheduleWithFixedDelay(this::reload, reloadIntervalMillis, reloadIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the current snapshot. Only the very first readers wait, for the initial load.
+     */
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        initialLoad.join();
+        snapshot = current;
+        // the initial load failed
+        return snapshot == null ? publish() : snapshot;
+    }
+
+    public void stageShell(AssetAdministrationShell shell) {
+        stagedShells.put(shell.getId(), Optional.of(shell));
+        dirty.set(true);
+        publishStaged();
+    }
+
+    public void stageShellRemoval(String shellId) {
+        stagedShells.put(shellId, Optional.empty());
+        dirty.set(true);
+        publishStaged();
+    }
+
+    public void stageSubmodel(Submodel submodel) {
+        stagedSubmodels.put(submodel.getId(), Optional.of(submodel));
+        dirty.set(true);
+        publishStaged();
+    }
+
+    public void stageSubmodelRemoval(String submodelId) {
+        stagedSubmodels.put(submodelId, Optional.empty());
+        dirty.set(true);
+        publishStaged();
+    }
+
+    /**
+     * Keeps readers on the current version until releasePublication() is called.
+     */
+    public void holdPublication() {
+        publicationHolds.incrementAndGet();
+    }
+
+    public void releasePublication() {
+        if (publicationHolds.decrementAndGet() == 0) {
+            publishStaged();
+        }
+    }
+
+    /**
+     * Publishes the staged changes on the writer's thread, unless publication is held or the
+     * initial load has not finished yet; the changes staged before are published by the load.
+     */
+    private void publishStaged() {
+        if (!dirty.get() || publicationHolds.get() > 0 || current == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (current != null) {
+                publishLocked();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CatalogSnapshot publish() {
+        lock.lock();
+        try {
+            return publishLocked();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CatalogSnapshot publishLocked() {
+        CatalogSnapshot snapshot = current;
+        if (snapshot == null) {
+            // the initial load failed, the next reload replaces this base
+            snapshot = load(0);
+        } else if (!dirty.get() || publicationHolds.get() > 0) {
+            return snapshot;
+        }
+        dirty.set(false);
+        Map<String, Optional<AssetAdministrationShell>> shellChanges = drain(stagedShells);
+        Map<String, Optional<Submodel>> submodelChanges = drain(stagedSubmodels);
+        if (shellChangesDuringLoad != null) {
+            shellChangesDuringLoad.putAll(shellChanges);
+            submodelChangesDuringLoad.putAll(submodelChanges);
+        }
+        snapshot = new CatalogSnapshot(snapshot.version() + 1,
+                snapshot.shells().apply(shellChanges), snapshot.submodels().apply(submodelChanges));
+        current = snapshot;
+        if (snapshot.shells().overlaySize() + snapshot.submodels().overlaySize() > compactionThreshold
+                && compactionPending.compareAndSet(false, true)) {
+            scheduler.execute(this::compact);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Rebuilds the base from the backends. The backends are scanned without holding up readers;
+     * the changes published in the meantime are applied on top of the result.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            lock.lock();
+            try {
+                shellChangesDuringLoad = new HashMap<>();
+                submodelChangesDuringLoad = new HashMap<>();
+            } finally {
+                lock.unlock();
+            }
+            CatalogSnapshot loaded = null;
+            try {
+                loaded = load(0);
+            } catch (Exception e) {
+                log.error("Failed to reload the catalog snapshot", e);
+            }
+            lock.lock();
+            try {
+                if (loaded != null) {
+                    long version = current == null ? 1 : current.version() + 1;
+                    current = new CatalogSnapshot(version, loaded.shells().apply(shellChangesDuringLoad),
+                            loaded.submodels().apply(submodelChangesDuringLoad));
+                }
+                shellChangesDuringLoad = null;
+                submodelChangesDuringLoad = null;
+                if (current != null) {
+                    // the changes staged while no version was published yet, or while publication was held
+                    publishLocked();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Merges the overlay of the current version into its base. The result replaces the version
+     * only if no other version has been published in the meantime; otherwise a later publication
+     * schedules the compaction again.
+     */
+    private void compact() {
+        try {
+            CatalogSnapshot snapshot = current;
+            CatalogSnapshot compacted = new CatalogSnapshot(snapshot.version(),
+                    snapshot.shells().compact(), snapshot.submodels().compact());
+            lock.lock();
+            try {
+                if (current == snapshot) {
+                    current = compacted;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (Exception e) {
+            log.error("Failed to compact the catalog snapshot", e);
+        } finally {
+            compactionPending.set(false);
+        }
+    }
+
+    private CatalogSnapshot load(long version) {
+        return new CatalogSnapshot(version,
+                SnapshotView.of(ModelStoreInvocationHandler.findAllSummaries(aasBackend), AssetAdministrationShell::getId),
+                SnapshotView.of(ModelStoreInvocationHandler.findAllSummaries(submodelBackend), Submodel::getId));
+    }
+
+    private static <T> Map<String, Optional<T>> drain(ConcurrentHashMap<String, Optional<T>> staged) {
+        Map<String, Optional<T>> changes = new HashMap<>();
+        for (var entry : staged.entrySet()) {
+            // only remove what has been read, a concurrent write stays staged for the next version
+            if (staged.remove(entry.getKey(), entry.getValue())) {
+                changes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changes;
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Immutable view on the objects of one repository in one version.
+     */
+    public static final class SnapshotView<T> implements Iterable<T> {
+
+        private final Map<String, T> base;
+        private final Map<String, T> upserts;
+        private final Set<String> removed;
+        private final Function<T, String> idFunction;
+
+        private SnapshotView(Map<String, T> base, Map<String, T> upserts, Set<String> removed, Function<T, String> idFunction) {
+            this.base = base;
+            this.upserts = upserts;
+            this.removed = removed;
+            this.idFunction = idFunction;
+        }
+
+        static <T> SnapshotView<T> of(Iterable<T> objects, Function<T, String> idFunction) {
+            Spliterator<T> spliterator = objects.spliterator();
+            if (spliterator.hasCharacteristics(Spliterator.CONCURRENT)) {
+                // concurrent backends, e.g. the ShardedModelStore, are scanned in parallel along their splits
+                Map<String, T> base = StreamSupport.stream(spliterator, true)
+                        .collect(Collectors.toConcurrentMap(idFunction, Function.identity(), (first, second) -> second));
+                return new SnapshotView<>(Collections.unmodifiableMap(base), Map.of(), Set.of(), idFunction);
+            }
+            Map<String, T> base = new LinkedHashMap<>();
+            for (T object : objects) {
+                base.put(idFunction.apply(object), object);
+            }
+            return new SnapshotView<>(Collections.unmodifiableMap(base), Map.of(), Set.of(), idFunction);
+        }
+
+        public T get(String id) {
+            T upserted = upserts.get(id);
+            if (upserted != null) {
+                return upserted;
+            }
+            return removed.contains(id) ? null : base.get(id);
+        }
+
+        public int size() {
+            int size = upserts.size();
+            for (String id : upserts.keySet()) {
+                if (base.containsKey(id)) {
+                    size--;
+                }
+            }
+            return base.size() + size - removed.size();
+        }
+
+        /**
+         * The number of changes kept on top of the base.
+         */
+        int overlaySize() {
+            return upserts.size() + removed.size();
+        }
+
+        SnapshotView<T> compact() {
+            return overlaySize() == 0 ? this : of(this, idFunction);
+        }
+
+        SnapshotView<T> apply(Map<String, Optional<T>> changes) {
+            if (changes.isEmpty()) {
+                return this;
+            }
+            Map<String, T> newUpserts = new HashMap<>(upserts);
+            Set<String> newRemoved = new HashSet<>(removed);
+            for (var change : changes.entrySet()) {
+                if (change.getValue().isPresent()) {
+                    newUpserts.put(change.getKey(), change.getValue().get());
+                    newRemoved.remove(change.getKey());
+                } else {
+                    newUpserts.remove(change.getKey());
+                    if (base.containsKey(change.getKey())) {
+                        newRemoved.add(change.getKey());
+                    }
+                }
+            }
+            return new SnapshotView<>(base, Collections.unmodifiableMap(newUpserts),
+                    Collections.unmodifiableSet(newRemoved), idFunction);
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            Iterator<T> baseIterator = base.values().stream()
+                    .filter(object -> {
+                        String id = idFunction.apply(object);
+                        return !removed.contains(id) && !upserts.containsKey(id);
+                    })
+                    .iterator();
+            Iterator<T> upsertIterator = upserts.values().iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return baseIterator.hasNext() || upsertIterator.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return baseIterator.hasNext() ? baseIterator.next() : upsertIterator.next();
+                }
+            };
+        }
+    }
+}
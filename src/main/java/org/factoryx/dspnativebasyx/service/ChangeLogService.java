@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Bounded, append-only log of the create, update and delete events that have been
+ * issued for shells and submodels. Every event carries a strictly increasing sequence
+ * number, so that partners can mirror the repository by reading the changes after
+ * the last sequence number they have seen.
+ *
+ * Once the capacity is reached, the oldest events are overwritten. Partners that fall
+ * behind the oldest available sequence number have to resync from the full catalog.
+ */
+@Service
+@Slf4j
+public class ChangeLogService {
+
+    public enum Repository {shells, submodels}
+
+    public enum ChangeType {created, updated, deleted}
+
+    /**
+     * A single entry of the change log. Besides the id of the changed object, it holds
+     * the attributes which are needed to apply the RBAC rules without loading the object.
+     */
+    public record ChangeEvent(long sequence, long timestamp, Repository repository, ChangeType type, String id,
+                              String globalAssetId, List<String> submodelElementIdShorts) {
+    }
+
+    /**
+     * A page of change events.
+     *
+     * @param events          the events visible to the reader
+     * @param nextSince       the sequence number to pass as "since" for the next page
+     * @param oldestAvailable the oldest sequence number that is still held in the log
+     * @param truncated       true, if events after the requested sequence number have already been dropped
+     */
+    public record ChangePage(List<ChangeEvent> events, long nextSince, long oldestAvailable, boolean truncated) {
+    }
+
+    private final ChangeEvent[] ring;
+    private long nextSequence = 1;
+
+    public ChangeLogService(@Value("${org.factoryx.dspnativebasyx.changelog.capacity:100000}") int capacity) {
+        this.ring = new ChangeEvent[capacity];
+    }
+
+    public void appendShellEvent(ChangeType type, AssetAdministrationShell shell) {
+        String globalAssetId = shell.getAssetInformation() == null ? null : shell.getAssetInformation().getGlobalAssetId();
+        append(Repository.shells, type, shell.getId(), globalAssetId, List.of());
+    }
+
+    public void appendSubmodelEvent(ChangeType type, Submodel submodel) {
+        List<String> elementIdShorts = submodel.getSubmodelElements() == null ? List.of() :
+                submodel.getSubmodelElements().stream().map(Referable::getIdShort).toList();
+        append(Repository.submodels, type, submodel.getId(), null, elementIdShorts);
+    }
+
+    private synchronized void append(Repository repository, ChangeType type, String id, String globalAssetId,
+                                     List<String> submodelElementIdShorts) {
+        long sequence = nextSequence++;
+        ring[(int) (sequence % ring.length)] = new ChangeEvent(sequence, System.currentTimeMillis(), repository, type,
+                id, globalAssetId, submodelElementIdShorts);
+    }
+
+    /**
+     * Reads up to limit events with a sequence number greater than since. Events that
+     * are not accepted by the given filter are skipped, but still count towards the limit,
+     * so that nextSince always advances.
+     *
+     * @param since  the last sequence number the reader has seen
+     * @param limit  the maximum number of events to scan
+     * @param filter decides which events are visible to the reader
+     * @return the page of visible events
+     */
+    public ChangePage readSince(long since, int limit, Predicate<ChangeEvent> filter) {
+        List<ChangeEvent> scanned = new ArrayList<>();
+        long oldestAvailable;
+        long end;
+        synchronized (this) {
+            oldestAvailable = Math.max(1, nextSequence - ring.length);
+            long start = Math.max(since + 1, oldestAvailable);
+            end = Math.min(nextSequence, start + Math.max(0, limit));
+            for (long sequence = start; sequence < end; sequence++) {
+                scanned.add(ring[(int) (sequence % ring.length)]);
+            }
+        }
+        List<ChangeEvent> events = scanned.stream().filter(filter).toList();
+        return new ChangePage(events, Math.max(since, end - 1), oldestAvailable, since + 1 < oldestAvailable);
+    }
+
+    public synchronized long getLatestSequence() {
+        return nextSequence - 1;
+    }
+}
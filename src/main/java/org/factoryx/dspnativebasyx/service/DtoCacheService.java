@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the serialized DTO representation of shells and submodels together with
+ * a strong ETag, so that polling partners can be answered without re-serializing
+ * unchanged content.
+ *
+ * An entry is only reused as long as the write version of its shell or submodel (see
+ * WriteVersionService) is still the one it was computed at, and the model object it was
+ * computed from is the very instance currently held by the backend. The version detects writes
+ * that a backend applied to the cached instance itself; the identity check is constant-time, so
+ * a hit costs no walk over the model. Backends that return a new instance on every read, such as
+ * the MongoModelStore, therefore always recompute the entry. Writes additionally invalidate the
+ * entry explicitly (see ModelWritePipeline).
+ *
+ * At most maxentries entries are kept; beyond that, the least recently used one is dropped.
+ *
+ * The Blobs of submodels reference their large contents in the AttachmentStoreService instead of
+ * embedding them; the entry records which Blob references which content.
+ */
+@Service
+@Slf4j
+public class DtoCacheService {
+
+    private static final String SHELL_KEY_PREFIX = "shell:";
+    private static final String SUBMODEL_KEY_PREFIX = "submodel:";
+    private static final Base64.Encoder B64_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final AasSerializationService aasSerializationService;
+    private final WriteVersionService writeVersionService;
+    private final AttachmentStoreService attachmentStoreService;
+    private final int maxEntries;
+    private final Map<String, CachedDto> cache;
+
+    public DtoCacheService(AasSerializationService aasSerializationService, WriteVersionService writeVersionService,
+                           AttachmentStoreService attachmentStoreService,
+                           @Value("${org.factoryx.dspnativebasyx.dtocache.maxentries:10000}") int maxEntries) {
+        this.aasSerializationService = aasSerializationService;
+        this.writeVersionService = writeVersionService;
+        this.attachmentStoreService = attachmentStoreService;
+        this.maxEntries = maxEntries;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedDto> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * The serialized representation of a model object and its strong ETag.
+     *
+     * @param source      the model object the bytes have been computed from
+     * @param version     the write version of the model object at that time
+     * @param bytes       the JSON representation
+     * @param eTag        the quoted, strong ETag value
+     * @param attachments the idShortPaths of the Blobs that reference contents of the
+     *                    AttachmentStoreService, by content hash
+     */
+    public record CachedDto(Object source, long version, byte[] bytes, String eTag, Map<String, String> attachments) {
+
+        /**
+         * Checks whether any of the given If-None-Match values matches this entry.
+         *
+         * @param headers the incoming request headers
+         * @return true, if the client already holds this content version
+         */
+        public boolean matches(HttpHeaders headers) {
+            if (headers == null) {
+                return false;
+            }
+            for (String candidate : headers.getIfNoneMatch()) {
+                String value = candidate.trim();
+                if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    public CachedDto getForShell(AssetAdministrationShell shell) {
+        return get(SHELL_KEY_PREFIX + shell.getId(), shell, writeVersionService.getShellVersion(shell.getId()));
+    }
+
+    public CachedDto getForSubmodel(Submodel submodel) {
+        return get(SUBMODEL_KEY_PREFIX + submodel.getId(), submodel,
+                writeVersionService.getSubmodelVersion(submodel.getId()));
+    }
+
+    public void invalidateShell(String shellId) {
+        cache.remove(SHELL_KEY_PREFIX + shellId);
+    }
+
+    public void invalidateSubmodel(String submodelId) {
+        cache.remove(SUBMODEL_KEY_PREFIX + submodelId);
+    }
+
+    private CachedDto get(String key, Object model, long version) {
+        CachedDto cached = cache.get(key);
+        if (cached != null && cached.version() == version && cached.source() == model) {
+            return cached;
+        }
+        // serialized outside of the lock, concurrent readers of the same id may both compute it
+        CachedDto computed = compute(model, version);
+        if (maxEntries > 0) {
+            cache.put(key, computed);
+        }
+        return computed;
+    }
+
+    private CachedDto compute(Object model, long version) {
+        try {
+            if (model instanceof Submodel submodel && attachmentStoreService.hasAttachments(submodel)) {
+                JsonNode tree = aasSerializationService.toTree(submodel);
+                Map<String, String> attachments = attachmentStoreService.externalize(submodel, tree);
+                byte[] bytes = aasSerializationService.serialize(tree);
+                return new CachedDto(model, version, bytes, computeETag(bytes), Map.copyOf(attachments));
+            }
+            byte[] bytes = aasSerializationService.serialize(model);
+            return new CachedDto(model, version, bytes, computeETag(bytes), Map.of());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static String computeETag(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return "\"" + B64_ENCODER.encodeToString(digest) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
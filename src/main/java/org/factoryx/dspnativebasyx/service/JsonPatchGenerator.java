@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Computes RFC 6902 JSON Patch documents that transform one JSON tree into another.
+ *
+ * Arrays are compared position by position, which keeps the patches small for the
+ * typical update of a submodel, where element values change but the element list
+ * keeps its order.
+ */
+public final class JsonPatchGenerator {
+
+    private JsonPatchGenerator() {
+    }
+
+    /**
+     * Computes the operations that turn source into target.
+     *
+     * @param source the previous version
+     * @param target the new version
+     * @return the JSON Patch document, empty if both trees are equal
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode operations = JsonNodeFactory.instance.arrayNode();
+        diff("", source, target, operations);
+        return operations;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode operations) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> sourceFields = source.fields();
+            while (sourceFields.hasNext()) {
+                Map.Entry<String, JsonNode> field = sourceFields.next();
+                String fieldPath = path + "/" + escape(field.getKey());
+                JsonNode targetValue = target.get(field.getKey());
+                if (targetValue == null) {
+                    addOperation(operations, "remove", fieldPath, null);
+                } else {
+                    diff(fieldPath, field.getValue(), targetValue, operations);
+                }
+            }
+            Iterator<Map.Entry<String, JsonNode>> targetFields = target.fields();
+            while (targetFields.hasNext()) {
+                Map.Entry<String, JsonNode> field = targetFields.next();
+                if (!source.has(field.getKey())) {
+                    addOperation(operations, "add", path + "/" + escape(field.getKey()), field.getValue());
+                }
+            }
+        } else if (source.isArray() && target.isArray()) {
+            int common = Math.min(source.size(), target.size());
+            for (int i = 0; i < common; i++) {
+                diff(path + "/" + i, source.get(i), target.get(i), operations);
+            }
+            // remove from the end, so that the indices of the remaining elements stay valid
+            for (int i = source.size() - 1; i >= target.size(); i--) {
+                addOperation(operations, "remove", path + "/" + i, null);
+            }
+            for (int i = source.size(); i < target.size(); i++) {
+                addOperation(operations, "add", path + "/" + i, target.get(i));
+            }
+        } else {
+            addOperation(operations, "replace", path, target);
+        }
+    }
+
+    private static void addOperation(ArrayNode operations, String op, String path, JsonNode value) {
+        ObjectNode operation = operations.addObject();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) {
+            operation.set("value", value);
+        }
+    }
+
+    private static String escape(String key) {
+        return key.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.kafka.KafkaClientMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Optional Kafka sink for the shell and submodel changes, built for throughput.
+ *
+ * Every change is one record on the shell or submodel topic, keyed by the id, with the change type
+ * in the "type" header and the serialized shell or submodel as value (null for deletions, so that
+ * compacted topics drop deleted ids). Records of the same id go to the same partition and are
+ * serialized and sent in the order of the changes: the ids are striped onto single-threaded
+ * executors, and the producer is idempotent. The producer batches the records with linger and
+ * compresses the batches, so that a bulk import results in few large requests.
+ *
+ * The writer only enqueues the change; the stripe serializes it under the write lock of the id (see
+ * WriteLockService), so that it never sees a half-applied write. A record therefore carries the
+ * state at the time it is serialized, which may already include a later change of the same id; that
+ * change follows as its own record. A writer never waits for the sink: if a stripe's queue is full,
+ * the change is dropped and counted (dspnativebasyx.kafka.sink.dropped), and the drops are logged once
+ * per DROP_LOG_INTERVAL. If the brokers are unreachable, a send gives up after maxblockmillis and a
+ * record after deliverytimeoutmillis, so that the stripes keep draining their queues.
+ */
+@Service
+@Slf4j
+public class KafkaSinkService {
+
+    public static final String TYPE_HEADER = "type";
+
+    private static final int DROP_LOG_INTERVAL = 1000;
+    private static final int BATCH_ENQUEUE_TIMEOUT_SECONDS = 30;
+
+    private final AasSerializationService aasSerializationService;
+    private final WriteLockService writeLockService;
+    private final String shellTopic;
+    private final String submodelTopic;
+    private final Producer<String, byte[]> producer;
+    private final KafkaClientMetrics producerMetrics;
+    private final ThreadPoolExecutor[] stripes;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dropped;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public KafkaSinkService(AasSerializationService aasSerializationService, WriteLockService writeLockService,
+                            MeterRegistry meterRegistry,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.enabled:false}") boolean enabled,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.bootstrapservers:${spring.kafka.bootstrap-servers:localhost:9092}}") String bootstrapServers,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.shelltopic:dspnativebasyx-shell-events}") String shellTopic,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.submodeltopic:dspnativebasyx-submodel-events}") String submodelTopic,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.lingermillis:20}") int lingerMillis,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.batchsize:262144}") int batchSize,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.compression:lz4}") String compression,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.stripes:4}") int stripeCount,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.queuecapacity:10000}") int queueCapacity,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.maxblockmillis:1000}") long maxBlockMillis,
+                            @Value("${org.factoryx.dspnativebasyx.kafka.sink.deliverytimeoutmillis:30000}") int deliveryTimeoutMillis) {
+        this.aasSerializationService = aasSerializationService;
+        this.writeLockService = writeLockService;
+        this.shellTopic = shellTopic;
+        this.submodelTopic = submodelTopic;
+        this.sent = Counter.builder("dspnativebasyx.kafka.sink.sent").register(meterRegistry);
+        this.failed = Counter.builder("dspnativebasyx.kafka.sink.failed").register(meterRegistry);
+        this.dropped = Counter.builder("dspnativebasyx.kafka.sink.dropped").register(meterRegistry);
+        if (!enabled) {
+            this.producer = null;
+            this.producerMetrics = null;
+            this.stripes = new ThreadPoolExecutor[0];
+            return;
+        }
+        // the delivery timeout must cover the linger and one request
+        int requestTimeoutMillis = Math.max(1, Math.min(30000, deliveryTimeoutMillis - lingerMillis));
+        this.producer = new KafkaProducer<>(Map.ofEntries(
+                Map.entry(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers),
+                Map.entry(ProducerConfig.LINGER_MS_CONFIG, lingerMillis),
+                Map.entry(ProducerConfig.BATCH_SIZE_CONFIG, batchSize),
+                Map.entry(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression),
+                Map.entry(ProducerConfig.ACKS_CONFIG, "all"),
+                Map.entry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true),
+                Map.entry(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5),
+                Map.entry(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMillis),
+                Map.entry(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, requestTimeoutMillis),
+                Map.entry(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, Math.max(deliveryTimeoutMillis, lingerMillis + requestTimeoutMillis)),
+                Map.entry(ProducerConfig.CLIENT_ID_CONFIG, "dspnativebasyx-sink")),
+                new StringSerializer(), new ByteArraySerializer());
+        this.producerMetrics = new KafkaClientMetrics(producer);
+        producerMetrics.bindTo(meterRegistry);
+        this.stripes = new ThreadPoolExecutor[Math.max(1, stripeCount)];
+        for (int i = 0; i < stripes.length; i++) {
+            String name = "kafka-sink-" + i;
+            stripes[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            }, (runnable, executor) -> drop(1));
+            // batchImported() and flush() put their tasks into the queue directly
+            stripes[i].prestartAllCoreThreads();
+        }
+        log.info("Kafka sink enabled: {} / {} on {}, linger {} ms, batch size {}, compression {}, max block {} ms, delivery timeout {} ms",
+                shellTopic, submodelTopic, bootstrapServers, lingerMillis, batchSize, compression, maxBlockMillis,
+                deliveryTimeoutMillis);
+    }
+
+    public boolean isEnabled() {
+        return producer != null;
+    }
+
+    public void shellChanged(ChangeLogService.ChangeType type, AssetAdministrationShell shell) {
+        enqueue(createShellSend(type, shell), shell.getId());
+    }
+
+    public void submodelChanged(ChangeLogService.ChangeType type, Submodel submodel) {
+        enqueue(createSubmodelSend(type, submodel), submodel.getId());
+    }
+
+    /**
+     * Publishes the objects of an import batch, those with a replaced id as updated and the others as
+     * created, in one task per stripe. The import does not hold a write lock here, so it waits up to
+     * BATCH_ENQUEUE_TIMEOUT_SECONDS for space instead of dropping the batch right away.
+     */
+    public void batchImported(List<AssetAdministrationShell> shells, List<Submodel> submodels,
+                              Set<String> replacedShellIds, Set<String> replacedSubmodelIds) {
+        if (!isEnabled()) {
+            return;
+        }
+        List<List<Runnable>> sends = new ArrayList<>(stripes.length);
+        for (int i = 0; i < stripes.length; i++) {
+            sends.add(new ArrayList<>());
+        }
+        for (AssetAdministrationShell shell : shells) {
+            sends.get(stripeIndex(shell.getId())).add(createShellSend(replacedShellIds.contains(shell.getId())
+                    ? ChangeLogService.ChangeType.updated : ChangeLogService.ChangeType.created, shell));
+        }
+        for (Submodel submodel : submodels) {
+            sends.get(stripeIndex(submodel.getId())).add(createSubmodelSend(replacedSubmodelIds.contains(submodel.getId())
+                    ? ChangeLogService.ChangeType.updated : ChangeLogService.ChangeType.created, submodel));
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            List<Runnable> stripeSends = sends.get(i);
+            if (stripeSends.isEmpty()) {
+                continue;
+            }
+            try {
+                if (stripes[i].isShutdown() || !stripes[i].getQueue().offer(() -> stripeSends.forEach(Runnable::run),
+                        BATCH_ENQUEUE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    drop(stripeSends.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drop(stripeSends.size());
+            }
+        }
+    }
+
+    private Runnable createShellSend(ChangeLogService.ChangeType type, AssetAdministrationShell shell) {
+        return () -> send(shellTopic, type, shell.getId(), shell, writeLockService.getShellLock(shell.getId()));
+    }
+
+    private Runnable createSubmodelSend(ChangeLogService.ChangeType type, Submodel submodel) {
+        return () -> send(submodelTopic, type, submodel.getId(), submodel, writeLockService.getSubmodelLock(submodel.getId()));
+    }
+
+    private void enqueue(Runnable send, String id) {
+        if (isEnabled()) {
+            stripes[stripeIndex(id)].execute(send);
+        }
+    }
+
+    /**
+     * Rejection handler of the stripes, also used once the sink is stopped.
+     */
+    private void drop(int changes) {
+        dropped.increment(changes);
+        long before = droppedCount.getAndAdd(changes);
+        if (Math.floorDiv(before + changes - 1, DROP_LOG_INTERVAL) > Math.floorDiv(before - 1, DROP_LOG_INTERVAL)) {
+            log.warn("Kafka sink queue is full, dropped {} changes so far", before + changes);
+        }
+    }
+
+    /**
+     * Serializes the change under the write lock of the id and hands it to the producer.
+     */
+    private void send(String topic, ChangeLogService.ChangeType type, String id, Object model, Lock lock) {
+        byte[] value = null;
+        if (type != ChangeLogService.ChangeType.deleted) {
+            lock.lock();
+            try {
+                value = aasSerializationService.serialize(model);
+            } catch (Exception e) {
+                failed.increment();
+                log.error("Failed to serialize the {} event of {} for Kafka", type, id, e);
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+        try {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, id, value);
+            record.headers().add(TYPE_HEADER, type.name().getBytes(StandardCharsets.UTF_8));
+            producer.send(record, (metadata, e) -> {
+                if (e == null) {
+                    sent.increment();
+                } else {
+                    failed.increment();
+                    log.error("Failed to send the {} event of {} to Kafka", type, id, e);
+                }
+            });
+        } catch (Exception e) {
+            failed.increment();
+            log.error("Failed to send the {} event of {} to Kafka", type, id, e);
+        }
+    }
+
+    private int stripeIndex(String id) {
+        return Math.floorMod(id.hashCode(), stripes.length);
+    }
+
+    /**
+     * Waits until the changes enqueued so far have been handed to the producer, then flushes it.
+     */
+    public void flush() throws InterruptedException, ExecutionException, TimeoutException {
+        if (!isEnabled()) {
+            return;
+        }
+        for (ThreadPoolExecutor stripe : stripes) {
+            // waits for space instead of being dropped like a change
+            FutureTask<Void> marker = new FutureTask<>(() -> null);
+            if (!stripe.getQueue().offer(marker, 30, TimeUnit.SECONDS)) {
+                throw new TimeoutException("Kafka sink queue is full");
+            }
+            marker.get(30, TimeUnit.SECONDS);
+        }
+        producer.flush();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!isEnabled()) {
+            return;
+        }
+        for (ThreadPoolExecutor stripe : stripes) {
+            stripe.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor stripe : stripes) {
+                stripe.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        producerMetrics.close();
+        producer.close(Duration.ofSeconds(10));
+    }
+}
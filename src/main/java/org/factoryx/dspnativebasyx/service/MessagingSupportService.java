@@ -1,32 +1,39 @@
 package org.factoryx.dspnativebasyx.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
 import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
-import org.eclipse.digitaltwin.basyx.aasregistry.client.ApiException;
-import org.eclipse.digitaltwin.basyx.aasregistry.client.model.AssetAdministrationShellDescriptor;
-import org.eclipse.digitaltwin.basyx.aasregistry.main.client.factory.AasDescriptorFactory;
-import org.eclipse.digitaltwin.basyx.aasregistry.main.client.mapper.AttributeMapper;
 import org.eclipse.digitaltwin.basyx.aasrepository.AasRepository;
 import org.eclipse.digitaltwin.basyx.aasrepository.feature.kafka.events.AasEventHandler;
 import org.eclipse.digitaltwin.basyx.aasrepository.feature.mqtt.MqttAasRepositoryTopicFactory;
-import org.eclipse.digitaltwin.basyx.aasrepository.feature.registry.integration.AasRepositoryRegistryLink;
 import org.eclipse.digitaltwin.basyx.common.mqttcore.encoding.Base64URLEncoder;
-import org.eclipse.digitaltwin.basyx.submodelregistry.client.factory.SubmodelDescriptorFactory;
-import org.eclipse.digitaltwin.basyx.submodelregistry.client.model.SubmodelDescriptor;
 import org.eclipse.digitaltwin.basyx.submodelrepository.SubmodelRepository;
 import org.eclipse.digitaltwin.basyx.submodelrepository.feature.mqtt.MqttSubmodelRepositoryTopicFactory;
-import org.eclipse.digitaltwin.basyx.submodelrepository.feature.registry.integration.SubmodelRepositoryRegistryLink;
 import org.eclipse.digitaltwin.basyx.submodelservice.feature.kafka.events.SubmodelEventHandler;
 import org.eclipse.paho.client.mqttv3.IMqttClient;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.MqttPersistenceException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 /**
@@ -34,169 +41,474 @@ import java.util.concurrent.Executors;
  * within the context of the ApiAssets and if necessary issues
  * corresponding messages to related services.
  *
- * Currently supported is: MQTT, Kafka and BaSyx registry.
+ * Currently supported is: MQTT, Kafka and BaSyx registry (through the RegistrySyncService).
+ * Besides the BaSyx Kafka event handlers, the changes can be published through the batched
+ * KafkaSinkService.
+ *
+ * Optionally, submodel updates are published to MQTT as RFC 6902 JSON Patch
+ * documents relative to the previous version ({"id": ..., "sequence": ..., "patch": [...]}),
+ * with a full snapshot of the submodel every n-th update, so that consumers can resync.
+ *
+ * The notifications of the event handlers and MQTT run on the notification pool of the
+ * BulkheadService, but those about the same shell or submodel are sent in the order in which
+ * they have been issued, i.e. in the order of the writes under the WriteLockService.
+ *
+ * With deferred integrations, the event handlers and the MQTT client are resolved in the
+ * background once the application is ready. Until an integration has been resolved, the
+ * notifications for it are held back (up to maxpendingnotifications) and sent in their
+ * original order afterwards.
  */
 @Service
 @Slf4j
 public class MessagingSupportService {
 
-    private final ObjectMapper objectMapper;
-    private final SubmodelEventHandler submodelEventHandler;
-    private final AasEventHandler aasEventHandler;
+    // prefixes of the keys of the ordered notification tasks, one order per integration
+    private static final String HANDLER = "handler/";
+    private static final String MQTT = "mqtt/";
 
-    private final IMqttClient mqttClient;
+    private final AasSerializationService aasSerializationService;
     private final MqttSubmodelRepositoryTopicFactory submodelTopicFactory = new MqttSubmodelRepositoryTopicFactory(new Base64URLEncoder());
     private final MqttAasRepositoryTopicFactory aasTopicFactory = new MqttAasRepositoryTopicFactory(new Base64URLEncoder());
     private final String aasRepoName;
     private final String submodelRepoName;
 
-    private final AasRepositoryRegistryLink aasRepositoryRegistryLink;
-    private final AasDescriptorFactory aasDescriptorFactory;
+    private final RegistrySyncService registrySyncService;
+
+    private final ChangeLogService changeLogService;
+
+    private final KafkaSinkService kafkaSinkService;
 
-    private final SubmodelRepositoryRegistryLink submodelRepositoryRegistryLink;
-    private final SubmodelDescriptorFactory submodelDescriptorFactory;
+    private final boolean deltaUpdatesEnabled;
+    private final int deltaSnapshotInterval;
+    private final Map<String, AtomicInteger> submodelUpdateCounters = new ConcurrentHashMap<>();
+    // the last notification task per integration and id, see submitOrdered
+    private final Map<String, CompletableFuture<Void>> orderedTasks = new ConcurrentHashMap<>();
+    // submodels whose last patch was dropped or failed, their next update is sent as snapshot
+    private final Set<String> snapshotRequired = ConcurrentHashMap.newKeySet();
 
-    static final ExecutorService executorService = Executors.newCachedThreadPool();
+    private final ExecutorService notificationExecutor;
+
+    /**
+     * The optional integrations that the notifications are sent to, each may be null.
+     */
+    private record Integrations(SubmodelEventHandler submodelEventHandler, AasEventHandler aasEventHandler,
+                                IMqttClient mqttClient) {
+    }
+
+    private volatile Integrations integrations = new Integrations(null, null, null);
+    private final PendingNotifications pendingHandlerCalls;
+    private final PendingNotifications pendingMqttMessages;
+    private final CompletableFuture<IMqttClient> mqttClientWired = new CompletableFuture<>();
+    private final ObjectProvider<SubmodelEventHandler> submodelEventHandlerProvider;
+    private final ObjectProvider<AasEventHandler> aasEventHandlerProvider;
+    private final ObjectProvider<IMqttClient> mqttClientProvider;
+    private final boolean deferIntegrations;
+    private final long integrationRetryMillis;
+    private volatile Thread wiringThread;
+    private volatile boolean stopped = false;
 
 
-    public MessagingSupportService(Optional<SubmodelEventHandler> submodelEventHandler, Optional<AasEventHandler> aasEventHandler,
-                                   Optional<IMqttClient> iMqttClient, AasRepository aasRepository, SubmodelRepository submodelRepo,
-                                   Optional<AasRepositoryRegistryLink> aasRepositoryRegistryLink, Optional<AttributeMapper> attributeMapper,
-                                   Optional<SubmodelRepositoryRegistryLink> submodelRepositoryRegistryLink,
-                                   Optional<org.eclipse.digitaltwin.basyx.submodelregistry.client.mapper.AttributeMapper> submodelAttributeMapper, ObjectMapper objectMapper) {
-        this.submodelEventHandler = submodelEventHandler.orElse(null);
-        this.aasEventHandler = aasEventHandler.orElse(null);
-        this.mqttClient = iMqttClient.orElse(null);
+    public MessagingSupportService(ObjectProvider<SubmodelEventHandler> submodelEventHandler, ObjectProvider<AasEventHandler> aasEventHandler,
+                                   ObjectProvider<IMqttClient> iMqttClient, AasRepository aasRepository, SubmodelRepository submodelRepo,
+                                   RegistrySyncService registrySyncService, AasSerializationService aasSerializationService,
+                                   ChangeLogService changeLogService, BulkheadService bulkheadService, KafkaSinkService kafkaSinkService,
+                                   @Value("${org.factoryx.dspnativebasyx.mqtt.delta.enabled:false}") boolean deltaUpdatesEnabled,
+                                   @Value("${org.factoryx.dspnativebasyx.mqtt.delta.snapshotinterval:10}") int deltaSnapshotInterval,
+                                   @Value("${org.factoryx.dspnativebasyx.startup.deferintegrations:false}") boolean deferIntegrations,
+                                   @Value("${org.factoryx.dspnativebasyx.startup.integrationretrymillis:30000}") long integrationRetryMillis,
+                                   @Value("${org.factoryx.dspnativebasyx.startup.maxpendingnotifications:10000}") int maxPendingNotifications) {
         this.aasRepoName = aasRepository.getName();
         this.submodelRepoName = submodelRepo.getName();
-        this.aasRepositoryRegistryLink = aasRepositoryRegistryLink.orElse(null);
-        this.objectMapper = objectMapper;
-        if (this.aasRepositoryRegistryLink != null && attributeMapper.isPresent()) {
-            this.aasDescriptorFactory = new AasDescriptorFactory(this.aasRepositoryRegistryLink.getAasRepositoryBaseURLs(), attributeMapper.get());
-        } else {
-            this.aasDescriptorFactory = null;
+        this.registrySyncService = registrySyncService;
+        this.aasSerializationService = aasSerializationService;
+        this.changeLogService = changeLogService;
+        this.kafkaSinkService = kafkaSinkService;
+        this.notificationExecutor = bulkheadService.getNotificationExecutor();
+        this.deltaUpdatesEnabled = deltaUpdatesEnabled;
+        this.deltaSnapshotInterval = Math.max(1, deltaSnapshotInterval);
+        this.submodelEventHandlerProvider = submodelEventHandler;
+        this.aasEventHandlerProvider = aasEventHandler;
+        this.mqttClientProvider = iMqttClient;
+        this.deferIntegrations = deferIntegrations;
+        this.integrationRetryMillis = Math.max(1, integrationRetryMillis);
+        this.pendingHandlerCalls = new PendingNotifications("event handler", maxPendingNotifications);
+        this.pendingMqttMessages = new PendingNotifications("MQTT", maxPendingNotifications);
+        if (!deferIntegrations) {
+            this.integrations = new Integrations(submodelEventHandler.getIfAvailable(), aasEventHandler.getIfAvailable(),
+                    iMqttClient.getIfAvailable());
+            if (integrations.mqttClient() != null) {
+                mqttClientWired.complete(integrations.mqttClient());
+            }
+            pendingHandlerCalls.open();
+            pendingMqttMessages.open();
         }
-        this.submodelRepositoryRegistryLink = submodelRepositoryRegistryLink.orElse(null);
-        if (this.submodelRepositoryRegistryLink != null && submodelAttributeMapper.isPresent()) {
-            this.submodelDescriptorFactory = new SubmodelDescriptorFactory(this.submodelRepositoryRegistryLink.getSubmodelRepositoryBaseURLs(), submodelAttributeMapper.get());
-        } else {
-            this.submodelDescriptorFactory = null;
+    }
+
+    /**
+     * Starts resolving the deferred integrations once the application is ready, i.e. after the
+     * endpoints accept traffic.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void onApplicationReady() {
+        if (!deferIntegrations || wiringThread != null || stopped) {
+            return;
         }
+        wiringThread = Thread.ofVirtual().name("integration-wiring").start(this::wireIntegrations);
     }
 
-    public void notifyNewShell(AssetAdministrationShell shell) {
-        if (aasEventHandler != null) {
-            executorService.submit(() -> aasEventHandler.onAasCreated(shell));
+    /**
+     * Resolves the optional integrations off the startup path. Their beans are created lazily
+     * (see DeferredIntegrationsConfig), so e.g. connecting to the MQTT broker happens here. An
+     * MQTT client that cannot be created yet is retried until it succeeds; until then, the MQTT
+     * messages stay pending.
+     */
+    private void wireIntegrations() {
+        long start = System.nanoTime();
+        try {
+            integrations = new Integrations(submodelEventHandlerProvider.getIfAvailable(), aasEventHandlerProvider.getIfAvailable(), null);
+        } catch (Exception e) {
+            log.error("Failed to wire the event handlers", e);
         }
-        if (mqttClient != null) {
-            executorService.submit(() -> sendMqttMessage(aasTopicFactory.createCreateAASTopic(aasRepoName), shell));
+        pendingHandlerCalls.open();
+        while (!stopped) {
+            try {
+                IMqttClient mqttClient = mqttClientProvider.getIfAvailable();
+                Integrations current = integrations;
+                integrations = new Integrations(current.submodelEventHandler(), current.aasEventHandler(), mqttClient);
+                if (mqttClient != null) {
+                    mqttClientWired.complete(mqttClient);
+                }
+                break;
+            } catch (Exception e) {
+                log.warn("MQTT client not available, retrying in {} ms: {}", integrationRetryMillis, e.getMessage());
+                try {
+                    Thread.sleep(integrationRetryMillis);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
         }
-        if (aasDescriptorFactory != null) {
-            executorService.submit(() -> registerAas(shell));
+        if (stopped) {
+            return;
         }
+        pendingMqttMessages.open();
+        Integrations current = integrations;
+        log.info("Wired integrations in {} ms: event handlers {}/{}, MQTT {}", (System.nanoTime() - start) / 1_000_000,
+                current.aasEventHandler() != null, current.submodelEventHandler() != null, current.mqttClient() != null);
+    }
+
+    /**
+     * Runs the action with the MQTT client once it has been wired, never if there is none.
+     */
+    public void whenMqttClientAvailable(Consumer<IMqttClient> action) {
+        mqttClientWired.thenAccept(action);
+    }
+
+    public void notifyNewShell(AssetAdministrationShell shell) {
+        changeLogService.appendShellEvent(ChangeLogService.ChangeType.created, shell);
+        kafkaSinkService.shellChanged(ChangeLogService.ChangeType.created, shell);
+        toAasEventHandler(shell.getId(), handler -> handler.onAasCreated(shell));
+        toMqtt(WriteLockService.SHELLS + shell.getId(), () -> aasTopicFactory.createCreateAASTopic(aasRepoName), shell);
+        registrySyncService.shellChanged(shell);
     }
 
 
     public void notifyUpdatedShell(AssetAdministrationShell shell) {
-        if (aasEventHandler != null) {
-            executorService.submit(() -> aasEventHandler.onAasUpdated(shell.getId(), shell));
-        }
-        if (mqttClient != null) {
-            executorService.submit(() -> sendMqttMessage(aasTopicFactory.createUpdateAASTopic(aasRepoName), shell));
-        }
+        changeLogService.appendShellEvent(ChangeLogService.ChangeType.updated, shell);
+        kafkaSinkService.shellChanged(ChangeLogService.ChangeType.updated, shell);
+        toAasEventHandler(shell.getId(), handler -> handler.onAasUpdated(shell.getId(), shell));
+        toMqtt(WriteLockService.SHELLS + shell.getId(), () -> aasTopicFactory.createUpdateAASTopic(aasRepoName), shell);
+        registrySyncService.shellChanged(shell);
     }
 
     public void notifyDeletedShell(AssetAdministrationShell shell) {
-        if (aasEventHandler != null) {
-            executorService.submit(() -> aasEventHandler.onAasDeleted(shell.getId()));
-        }
-        if (mqttClient != null) {
-            executorService.submit(() -> sendMqttMessage(aasTopicFactory.createDeleteAASTopic(aasRepoName), shell));
-        }
-        if (aasRepositoryRegistryLink != null) {
-            executorService.submit(() -> {
-                try {
-                    aasRepositoryRegistryLink.getRegistryApi().deleteAssetAdministrationShellDescriptorById(shell.getId());
-                } catch (ApiException e) {
-                    log.error("Error registering shell deletion {}", shell.getId(), e);
+        changeLogService.appendShellEvent(ChangeLogService.ChangeType.deleted, shell);
+        kafkaSinkService.shellChanged(ChangeLogService.ChangeType.deleted, shell);
+        toAasEventHandler(shell.getId(), handler -> handler.onAasDeleted(shell.getId()));
+        toMqtt(WriteLockService.SHELLS + shell.getId(), () -> aasTopicFactory.createDeleteAASTopic(aasRepoName), shell);
+        registrySyncService.shellDeleted(shell.getId());
+    }
+
+
+    public void notifyNewSubmodel(Submodel submodel) {
+        changeLogService.appendSubmodelEvent(ChangeLogService.ChangeType.created, submodel);
+        kafkaSinkService.submodelChanged(ChangeLogService.ChangeType.created, submodel);
+        toSubmodelEventHandler(submodel.getId(), handler -> handler.onSubmodelCreated(submodel));
+        toMqtt(WriteLockService.SUBMODELS + submodel.getId(), () -> submodelTopicFactory.createCreateSubmodelTopic(submodelRepoName), submodel);
+        registrySyncService.submodelChanged(submodel);
+    }
+
+
+    /**
+     * @param previous the version of the submodel before the update, may be null if unknown
+     * @param submodel the updated submodel
+     */
+    public void notifyUpdatedSubmodel(Submodel previous, Submodel submodel) {
+        changeLogService.appendSubmodelEvent(ChangeLogService.ChangeType.updated, submodel);
+        kafkaSinkService.submodelChanged(ChangeLogService.ChangeType.updated, submodel);
+        toSubmodelEventHandler(submodel.getId(), handler -> handler.onSubmodelUpdated(submodel));
+        if (deltaUpdatesEnabled && mayUse(pendingMqttMessages, Integrations::mqttClient)) {
+            String topic = submodelTopicFactory.createUpdateSubmodelTopic(submodelRepoName);
+            int sequence = submodelUpdateCounters.computeIfAbsent(submodel.getId(), id -> new AtomicInteger()).incrementAndGet();
+            String id = submodel.getId();
+            boolean accepted = pendingMqttMessages.dispatch(() -> submitOrdered(MQTT + WriteLockService.SUBMODELS + id, () -> {
+                if (!sendMqttMessage(topic, createUpdatePayload(previous, submodel, sequence))) {
+                    snapshotRequired.add(id);
                 }
-            });
+            }, () -> snapshotRequired.add(id)));
+            if (!accepted) {
+                snapshotRequired.add(id);
+            }
+        } else {
+            toMqtt(WriteLockService.SUBMODELS + submodel.getId(), () -> submodelTopicFactory.createUpdateSubmodelTopic(submodelRepoName), submodel);
         }
+        registrySyncService.submodelChanged(submodel);
     }
 
+    public void notifyDeletedSubmodel(Submodel submodel) {
+        changeLogService.appendSubmodelEvent(ChangeLogService.ChangeType.deleted, submodel);
+        kafkaSinkService.submodelChanged(ChangeLogService.ChangeType.deleted, submodel);
+        submodelUpdateCounters.remove(submodel.getId());
+        snapshotRequired.remove(submodel.getId());
+        toSubmodelEventHandler(submodel.getId(), handler -> handler.onSubmodelDeleted(submodel.getId()));
+        toMqtt(WriteLockService.SUBMODELS + submodel.getId(), () -> submodelTopicFactory.createDeleteSubmodelTopic(submodelRepoName), submodel);
+        registrySyncService.submodelDeleted(submodel.getId());
+    }
 
-    public void notifyNewSubmodel(Submodel submodel) {
-        if (submodelEventHandler != null) {
-            executorService.submit(() -> submodelEventHandler.onSubmodelCreated(submodel));
+    /**
+     * Notifies about a batch of shells and submodels written by a bulk import. The change log and
+     * the registry sync are updated right away, while the event handlers and MQTT are each served
+     * by a single task per batch instead of one task per object. These tasks are not ordered against
+     * the notifications of single writes.
+     *
+     * @param replacedShellIds    the ids of the shells that replaced existing ones, announced as updated
+     * @param replacedSubmodelIds the ids of the submodels that replaced existing ones, announced as updated
+     */
+    public void notifyImportedBatch(List<AssetAdministrationShell> shells, List<Submodel> submodels,
+                                    Set<String> replacedShellIds, Set<String> replacedSubmodelIds) {
+        for (AssetAdministrationShell shell : shells) {
+            changeLogService.appendShellEvent(changeType(replacedShellIds, shell.getId()), shell);
+            registrySyncService.shellChanged(shell);
         }
-        if (mqttClient != null) {
-            executorService.submit(() -> sendMqttMessage(submodelTopicFactory.createCreateSubmodelTopic(submodelRepoName), submodel));
+        for (Submodel submodel : submodels) {
+            changeLogService.appendSubmodelEvent(changeType(replacedSubmodelIds, submodel.getId()), submodel);
+            registrySyncService.submodelChanged(submodel);
         }
-        if (submodelDescriptorFactory != null) {
-            executorService.submit(() -> registerSubmodel(submodel));
+        kafkaSinkService.batchImported(shells, submodels, replacedShellIds, replacedSubmodelIds);
+        if (mayUse(pendingHandlerCalls, Integrations::aasEventHandler)
+                || mayUse(pendingHandlerCalls, Integrations::submodelEventHandler)) {
+            pendingHandlerCalls.dispatch(() -> submit(() -> {
+                Integrations current = integrations;
+                if (current.aasEventHandler() != null) {
+                    for (AssetAdministrationShell shell : shells) {
+                        if (replacedShellIds.contains(shell.getId())) {
+                            current.aasEventHandler().onAasUpdated(shell.getId(), shell);
+                        } else {
+                            current.aasEventHandler().onAasCreated(shell);
+                        }
+                    }
+                }
+                if (current.submodelEventHandler() != null) {
+                    for (Submodel submodel : submodels) {
+                        if (replacedSubmodelIds.contains(submodel.getId())) {
+                            current.submodelEventHandler().onSubmodelUpdated(submodel);
+                        } else {
+                            current.submodelEventHandler().onSubmodelCreated(submodel);
+                        }
+                    }
+                }
+            }));
+        }
+        if (mayUse(pendingMqttMessages, Integrations::mqttClient)) {
+            pendingMqttMessages.dispatch(() -> submit(() -> {
+                for (AssetAdministrationShell shell : shells) {
+                    sendMqttMessage(replacedShellIds.contains(shell.getId())
+                            ? aasTopicFactory.createUpdateAASTopic(aasRepoName)
+                            : aasTopicFactory.createCreateAASTopic(aasRepoName), shell);
+                }
+                for (Submodel submodel : submodels) {
+                    sendMqttMessage(replacedSubmodelIds.contains(submodel.getId())
+                            ? submodelTopicFactory.createUpdateSubmodelTopic(submodelRepoName)
+                            : submodelTopicFactory.createCreateSubmodelTopic(submodelRepoName), submodel);
+                }
+            }));
         }
     }
 
+    private static ChangeLogService.ChangeType changeType(Set<String> replacedIds, String id) {
+        return replacedIds.contains(id) ? ChangeLogService.ChangeType.updated : ChangeLogService.ChangeType.created;
+    }
 
-    public void notifyUpdatedSubmodel(Submodel submodel) {
-        if (submodelEventHandler != null) {
-            final Submodel finalSubmodel = submodel;
-            executorService.submit(() -> submodelEventHandler.onSubmodelUpdated(finalSubmodel));
+    /**
+     * False if the integration is known to be absent. Until the integration has been resolved,
+     * it may still turn up.
+     */
+    private boolean mayUse(PendingNotifications pending, Function<Integrations, Object> integration) {
+        return !pending.isOpen() || integration.apply(integrations) != null;
+    }
+
+    private void toAasEventHandler(String shellId, Consumer<AasEventHandler> call) {
+        if (mayUse(pendingHandlerCalls, Integrations::aasEventHandler)) {
+            pendingHandlerCalls.dispatch(() -> submitOrdered(HANDLER + WriteLockService.SHELLS + shellId, () -> {
+                AasEventHandler handler = integrations.aasEventHandler();
+                if (handler != null) {
+                    call.accept(handler);
+                }
+            }, null));
         }
-        if (mqttClient != null) {
-            executorService.submit(() -> sendMqttMessage(submodelTopicFactory.createUpdateSubmodelTopic(submodelRepoName), submodel));
+    }
+
+    private void toSubmodelEventHandler(String submodelId, Consumer<SubmodelEventHandler> call) {
+        if (mayUse(pendingHandlerCalls, Integrations::submodelEventHandler)) {
+            pendingHandlerCalls.dispatch(() -> submitOrdered(HANDLER + WriteLockService.SUBMODELS + submodelId, () -> {
+                SubmodelEventHandler handler = integrations.submodelEventHandler();
+                if (handler != null) {
+                    call.accept(handler);
+                }
+            }, null));
         }
     }
 
-    public void notifyDeletedSubmodel(Submodel submodel) {
-        if (submodelEventHandler != null) {
-            executorService.submit(() -> submodelEventHandler.onSubmodelDeleted(submodel.getId()));
+    /**
+     * @param key the shell or submodel the message is about, prefixed as in the WriteLockService
+     */
+    private void toMqtt(String key, Supplier<String> topic, Object payload) {
+        if (mayUse(pendingMqttMessages, Integrations::mqttClient)) {
+            pendingMqttMessages.dispatch(() -> submitOrdered(MQTT + key, () -> sendMqttMessage(topic.get(), payload), null));
         }
-        if (mqttClient != null) {
-            executorService.submit(() -> sendMqttMessage(submodelTopicFactory.createDeleteSubmodelTopic(submodelRepoName), submodel));
+    }
+
+    /**
+     * Creates either a JSON Patch against the previous version or, every n-th update, whenever
+     * the previous version is unknown and after a dropped patch, the full submodel as snapshot.
+     */
+    private Object createUpdatePayload(Submodel previous, Submodel submodel, int sequence) {
+        boolean resync = snapshotRequired.remove(submodel.getId());
+        if (resync || previous == null || sequence % deltaSnapshotInterval == 0) {
+            return submodel;
         }
-        if (submodelRepositoryRegistryLink != null) {
-            executorService.submit(() -> {
-                try {
-                    submodelRepositoryRegistryLink.getRegistryApi().deleteSubmodelDescriptorById(submodel.getId());
-                } catch (org.eclipse.digitaltwin.basyx.submodelregistry.client.ApiException e) {
-                    log.error("Error registering submodel deletion {}", submodel.getId(), e);
-                }
-            });
+        JsonNode previousTree = aasSerializationService.toTree(previous);
+        JsonNode currentTree = aasSerializationService.toTree(submodel);
+        ObjectNode payload = aasSerializationService.createObjectNode();
+        payload.put("id", submodel.getId());
+        payload.put("sequence", sequence);
+        payload.set("patch", JsonPatchGenerator.diff(previousTree, currentTree));
+        return payload;
+    }
+
+    private void submit(Runnable task) {
+        try {
+            notificationExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            // the notification pool is saturated, the drop has already been counted and logged
         }
     }
 
+    /**
+     * Runs the task on the notification pool after all previously submitted tasks for the same key
+     * have completed, so that the receivers see the changes of a shell or submodel in the order in
+     * which they have been made; patches can only be applied in that order anyway. A task that was
+     * dropped or failed does not hold back its successors.
+     *
+     * @param onFailure run if the task was dropped or failed, may be null
+     */
+    private void submitOrdered(String key, Runnable task, Runnable onFailure) {
+        CompletableFuture<Void> next = orderedTasks.compute(key, (ignored, tail) ->
+                (tail == null ? CompletableFuture.<Void>completedFuture(null) : tail.handle((result, e) -> (Void) null))
+                        // a rejection by the saturated pool completes the task exceptionally
+                        .thenCompose(result -> CompletableFuture.runAsync(task, notificationExecutor)));
+        next.whenComplete((result, e) -> {
+            if (e != null && onFailure != null) {
+                onFailure.run();
+            }
+            orderedTasks.remove(key, next);
+        });
+    }
 
-    private void sendMqttMessage(String topic, Object payload) {
+    /**
+     * @return false if the message could not be sent
+     */
+    private boolean sendMqttMessage(String topic, Object payload) {
+        IMqttClient mqttClient = integrations.mqttClient();
+        if (mqttClient == null) {
+            return true;
+        }
         try {
-            byte[] payloadBytes = objectMapper.writeValueAsBytes(payload);
+            byte[] payloadBytes = aasSerializationService.serialize(payload);
             MqttMessage msg = payloadBytes == null ? new MqttMessage() : new MqttMessage(payloadBytes);
             mqttClient.publish(topic, msg);
             log.info("Sent MQTT message about topic {} with payload: {}", topic, payload);
+            return true;
         } catch (MqttPersistenceException e) {
             log.error("Could not persist mqtt message", e);
         } catch (Exception e) {
             log.error("Could not send mqtt message", e);
         }
+        return false;
     }
 
-    private void registerAas(AssetAdministrationShell shell) {
-        try {
-            AssetAdministrationShellDescriptor descriptor = aasDescriptorFactory.create(shell);
-            aasRepositoryRegistryLink.getRegistryApi().postAssetAdministrationShellDescriptor(descriptor);
-            log.info("Shell '{}' has been automatically linked with the Registry", descriptor.getId());
-        } catch (ApiException e) {
-            log.error("Failed to automatically link shell descriptor", e);
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        Thread thread = wiringThread;
+        if (thread != null) {
+            thread.interrupt();
         }
     }
 
-    private void registerSubmodel(Submodel submodel) {
-        try {
-            SubmodelDescriptor descriptor = submodelDescriptorFactory.create(submodel);
-            submodelRepositoryRegistryLink.getRegistryApi().postSubmodelDescriptor(descriptor);
-            log.info("Submodel '{}' has been automatically linked with the Registry", descriptor.getId());
-        } catch (Exception e) {
-            log.error("Failed to automatically link submodel", e);
+    /**
+     * Holds back the notifications for integrations that have not been resolved yet. Once opened,
+     * the pending notifications are dispatched in their original order and later ones are
+     * dispatched directly. Beyond maxPending, further notifications are dropped.
+     */
+    private static final class PendingNotifications {
+
+        private static final int DROP_LOG_INTERVAL = 1000;
+
+        private final String integration;
+        private final int maxPending;
+        private final ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        private volatile boolean open = false;
+        private long dropped = 0;
+
+        private PendingNotifications(String integration, int maxPending) {
+            this.integration = integration;
+            this.maxPending = Math.max(0, maxPending);
+        }
+
+        boolean isOpen() {
+            return open;
+        }
+
+        /**
+         * @return false if the notification was dropped
+         */
+        boolean dispatch(Runnable dispatch) {
+            if (!open) {
+                synchronized (this) {
+                    if (!open) {
+                        if (pending.size() < maxPending) {
+                            pending.add(dispatch);
+                            return true;
+                        }
+                        if (dropped++ % DROP_LOG_INTERVAL == 0) {
+                            log.warn("Too many pending {} notifications, dropped {} so far", integration, dropped);
+                        }
+                        return false;
+                    }
+                }
+            }
+            dispatch.run();
+            return true;
+        }
+
+        synchronized void open() {
+            Runnable next;
+            while ((next = pending.poll()) != null) {
+                next.run();
+            }
+            open = true;
         }
     }
+
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.springframework.stereotype.Service;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Applies the writes of shells and submodels to the state that is derived from the backends:
+ * the cached DTOs, the catalog entries and the catalog snapshot, the submodel index, the
+ * Property history and the references to stored Blob contents.
+ *
+ * The writes on the backends are reported here by their change tracking (see ChangeTrackingConfig),
+ * including those of the BaSyx REST API; buffered updates (see WriteBehindService) and the writes
+ * of other replicas are reported directly. Before a submodel is written on the backend, its buffered
+ * state is dropped or, if only a part of it is written, saved first, so that the next flush cannot
+ * overwrite the write with an older state. The notifications of partners and integrations are
+ * sent separately by MessagingSupportService.
+ *
+ * The local writes, but not those of other replicas, are passed on to the local write listener,
+ * which announces them to the other replicas (see ReplicaInvalidationService).
+ *
+ * The write version is advanced last, after the derived state has been dropped or updated, so that
+ * a reader that sees the new version also sees the new state.
+ */
+@Service
+public class ModelWritePipeline {
+
+    private final DtoCacheService dtoCacheService;
+    private final CatalogFragmentService catalogFragmentService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final SubmodelIndexService submodelIndexService;
+    private final PropertyHistoryService propertyHistoryService;
+    private final WriteVersionService writeVersionService;
+    private final WriteBehindService writeBehindService;
+    private final AttachmentStoreService attachmentStoreService;
+    private volatile BiConsumer<ReplicaInvalidationService.Change, String> localWriteListener = (change, id) -> {
+    };
+
+    public ModelWritePipeline(DtoCacheService dtoCacheService, CatalogFragmentService catalogFragmentService,
+                              CatalogSnapshotService catalogSnapshotService, SubmodelIndexService submodelIndexService,
+                              PropertyHistoryService propertyHistoryService, WriteVersionService writeVersionService,
+                              WriteBehindService writeBehindService, AttachmentStoreService attachmentStoreService) {
+        this.dtoCacheService = dtoCacheService;
+        this.catalogFragmentService = catalogFragmentService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.submodelIndexService = submodelIndexService;
+        this.propertyHistoryService = propertyHistoryService;
+        this.writeVersionService = writeVersionService;
+        this.writeBehindService = writeBehindService;
+        this.attachmentStoreService = attachmentStoreService;
+    }
+
+    void setLocalWriteListener(BiConsumer<ReplicaInvalidationService.Change, String> localWriteListener) {
+        this.localWriteListener = localWriteListener;
+    }
+
+    public void shellSaved(AssetAdministrationShell shell) {
+        shellSaved(shell, true);
+    }
+
+    /**
+     * @param local false for writes of other replicas
+     */
+    void shellSaved(AssetAdministrationShell shell, boolean local) {
+        dtoCacheService.invalidateShell(shell.getId());
+        catalogFragmentService.invalidateShell(shell.getId());
+        catalogSnapshotService.stageShell(shell);
+        writeVersionService.shellWritten(shell.getId());
+        if (local) {
+            localWriteListener.accept(ReplicaInvalidationService.Change.shellUpserted, shell.getId());
+        }
+    }
+
+    public void shellDeleted(String shellId) {
+        shellDeleted(shellId, true);
+    }
+
+    void shellDeleted(String shellId, boolean local) {
+        dtoCacheService.invalidateShell(shellId);
+        catalogFragmentService.invalidateShell(shellId);
+        catalogSnapshotService.stageShellRemoval(shellId);
+        writeVersionService.shellDeleted(shellId);
+        if (local) {
+            localWriteListener.accept(ReplicaInvalidationService.Change.shellDeleted, shellId);
+        }
+    }
+
+    /**
+     * Called by the change tracking before a local write of the submodel on the backend, but not
+     * for the updates that are buffered.
+     *
+     * @param replacing false if the write only changes a part of the submodel
+     */
+    public void submodelWriting(String submodelId, boolean replacing) {
+        if (replacing) {
+            writeBehindService.discard(submodelId);
+        } else {
+            writeBehindService.flush(submodelId);
+        }
+    }
+
+    /**
+     * Must not run concurrently for the same id, which the write locks of the change tracking ensure.
+     */
+    public void submodelSaved(Submodel submodel) {
+        submodelSaved(submodel, true);
+    }
+
+    void submodelSaved(Submodel submodel, boolean local) {
+        dtoCacheService.invalidateSubmodel(submodel.getId());
+        catalogFragmentService.invalidateSubmodel(submodel.getId());
+        catalogSnapshotService.stageSubmodel(submodel);
+        submodelIndexService.update(submodel);
+        propertyHistoryService.record(submodel, System.currentTimeMillis());
+        attachmentStoreService.submodelSaved(submodel);
+        writeVersionService.submodelWritten(submodel.getId());
+        if (local) {
+            localWriteListener.accept(ReplicaInvalidationService.Change.submodelUpserted, submodel.getId());
+        }
+    }
+
+    public void submodelDeleted(String submodelId) {
+        submodelDeleted(submodelId, true);
+    }
+
+    void submodelDeleted(String submodelId, boolean local) {
+        dtoCacheService.invalidateSubmodel(submodelId);
+        catalogFragmentService.invalidateSubmodel(submodelId);
+        catalogSnapshotService.stageSubmodelRemoval(submodelId);
+        submodelIndexService.remove(submodelId);
+        propertyHistoryService.remove(submodelId);
+        attachmentStoreService.submodelDeleted(submodelId);
+        writeVersionService.submodelDeleted(submodelId);
+        if (local) {
+            localWriteListener.accept(ReplicaInvalidationService.Change.submodelDeleted, submodelId);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.factoryx.library.connector.embedded.provider.interfaces.DspTokenValidationService;
+
+import java.util.Map;
+
+/**
+ * Tells partners apart by the partner id (the DID of the participant) that the dsp-protocol-lib
+ * puts into the partner properties. The credentials in the partner properties only name the
+ * credential type, which many partners share, so they must not be used as identity.
+ */
+final class PartnerIdentity {
+
+    static final String ANONYMOUS = "anonymous";
+
+    private PartnerIdentity() {
+    }
+
+    /**
+     * @return the partner id, or ANONYMOUS if the partner properties carry none
+     */
+    static String of(Map<String, String> partnerProperties) {
+        String partnerId = partnerProperties == null ? null
+                : partnerProperties.get(DspTokenValidationService.ReservedKeys.partnerId.toString());
+        return partnerId == null || partnerId.isEmpty() ? ANONYMOUS : partnerId;
+    }
+}
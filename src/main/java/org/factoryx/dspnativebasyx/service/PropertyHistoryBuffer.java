@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Fixed-size ring buffer of (timestamp, value) samples of one Property, stored as primitive
+ * long/double pairs in a ByteBuffer, optionally a direct one outside the heap. Once full, each
+ * new sample replaces the oldest one. Samples are appended in the order of the writes, their
+ * wall-clock timestamps may still step back, e.g. after a clock adjustment.
+ */
+public class PropertyHistoryBuffer {
+
+    /**
+     * The samples in a time window, oldest first.
+     */
+    public record Window(long[] timestamps, double[] values) {
+    }
+
+    private static final int SAMPLE_BYTES = Long.BYTES + Double.BYTES;
+
+    private final ByteBuffer samples;
+    private final int capacity;
+    private int next = 0;
+    private int size = 0;
+
+    public PropertyHistoryBuffer(int capacity, boolean offHeap) {
+        this.capacity = Math.max(1, capacity);
+        this.samples = offHeap ? ByteBuffer.allocateDirect(this.capacity * SAMPLE_BYTES)
+                : ByteBuffer.allocate(this.capacity * SAMPLE_BYTES);
+    }
+
+    public synchronized void append(long timestamp, double value) {
+        int offset = next * SAMPLE_BYTES;
+        samples.putLong(offset, timestamp);
+        samples.putDouble(offset + Long.BYTES, value);
+        next = (next + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    /**
+     * Returns the samples with from <= timestamp <= to, in the order they were appended. The whole
+     * buffer is scanned, as the timestamps are not guaranteed to be ascending.
+     */
+    public synchronized Window read(long from, long to) {
+        long[] timestamps = new long[size];
+        double[] values = new double[size];
+        int count = 0;
+        int oldest = (next - size + capacity) % capacity;
+        for (int i = 0; i < size; i++) {
+            int offset = ((oldest + i) % capacity) * SAMPLE_BYTES;
+            long timestamp = samples.getLong(offset);
+            if (timestamp >= from && timestamp <= to) {
+                timestamps[count] = timestamp;
+                values[count] = samples.getDouble(offset + Long.BYTES);
+                count++;
+            }
+        }
+        return new Window(Arrays.copyOf(timestamps, count), Arrays.copyOf(values, count));
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in history of numeric and boolean Property values of selected submodels.
+ *
+ * Every write of such a submodel through forwardToApiAsset appends the current value of each of
+ * its numeric and boolean Properties to a fixed-size ring buffer per element (see
+ * PropertyHistoryBuffer), so that the recent values can be read as a time series without keeping
+ * full snapshots of the submodel. Booleans are recorded as 0 and 1, values that cannot be parsed
+ * are skipped. At most maxseries buffers are kept; Properties beyond that are not recorded.
+ */
+@Service
+@Slf4j
+public class PropertyHistoryService {
+
+    /**
+     * The time series of one element, returned by the history endpoint.
+     */
+    public record History(String submodelId, String idShortPath, long[] timestamps, double[] values) {
+    }
+
+    private static final Set<DataTypeDefXsd> NUMERIC_TYPES = EnumSet.of(DataTypeDefXsd.DOUBLE, DataTypeDefXsd.FLOAT,
+            DataTypeDefXsd.DECIMAL, DataTypeDefXsd.INTEGER, DataTypeDefXsd.INT, DataTypeDefXsd.LONG, DataTypeDefXsd.SHORT,
+            DataTypeDefXsd.BYTE, DataTypeDefXsd.NON_NEGATIVE_INTEGER, DataTypeDefXsd.NON_POSITIVE_INTEGER,
+            DataTypeDefXsd.POSITIVE_INTEGER, DataTypeDefXsd.NEGATIVE_INTEGER, DataTypeDefXsd.UNSIGNED_INT,
+            DataTypeDefXsd.UNSIGNED_LONG, DataTypeDefXsd.UNSIGNED_SHORT, DataTypeDefXsd.UNSIGNED_BYTE);
+
+    private final SubmodelMatcher matcher;
+    private final int capacity;
+    private final boolean offHeap;
+    private final int maxSeries;
+    private final Map<String, Map<String, PropertyHistoryBuffer>> buffers = new ConcurrentHashMap<>();
+    private final AtomicInteger seriesCount = new AtomicInteger();
+
+    public PropertyHistoryService(@Value("${org.factoryx.dspnativebasyx.history.semanticids:}") String semanticIds,
+                                  @Value("${org.factoryx.dspnativebasyx.history.idpattern:}") String idPattern,
+                                  @Value("${org.factoryx.dspnativebasyx.history.capacity:1024}") int capacity,
+                                  @Value("${org.factoryx.dspnativebasyx.history.offheap:false}") boolean offHeap,
+                                  @Value("${org.factoryx.dspnativebasyx.history.maxseries:100000}") int maxSeries) {
+        this.matcher = new SubmodelMatcher(semanticIds, idPattern);
+        this.capacity = capacity;
+        this.offHeap = offHeap;
+        this.maxSeries = maxSeries;
+        if (!matcher.isEmpty()) {
+            log.info("Property history enabled for submodels with semanticIds [{}] or ids matching '{}', {} samples per element{}",
+                    semanticIds, idPattern, capacity, offHeap ? " off-heap" : "");
+        }
+    }
+
+    /**
+     * Records the numeric and boolean Property values of the submodel, if it is selected.
+     */
+    public void record(Submodel submodel, long timestamp) {
+        if (matcher.isEmpty() || !matcher.matches(submodel) || submodel.getSubmodelElements() == null) {
+            return;
+        }
+        Map<String, PropertyHistoryBuffer> series = buffers.computeIfAbsent(submodel.getId(), id -> new ConcurrentHashMap<>());
+        record(series, submodel.getSubmodelElements(), "", false, timestamp);
+    }
+
+    /**
+     * Walks the elements, building the idShortPaths like BaSyx: "a.b" in collections, "a[0]" in lists.
+     */
+    private void record(Map<String, PropertyHistoryBuffer> series, List<SubmodelElement> elements, String prefix,
+                        boolean inList, long timestamp) {
+        for (int i = 0; i < elements.size(); i++) {
+            SubmodelElement element = elements.get(i);
+            String path = inList ? prefix + "[" + i + "]" : (prefix.isEmpty() ? "" : prefix + ".") + element.getIdShort();
+            if (element instanceof Property property) {
+                record(series, path, property, timestamp);
+            } else if (element instanceof SubmodelElementCollection collection && collection.getValue() != null) {
+                record(series, collection.getValue(), path, false, timestamp);
+            } else if (element instanceof SubmodelElementList list && list.getValue() != null) {
+                record(series, list.getValue(), path, true, timestamp);
+            }
+        }
+    }
+
+    private void record(Map<String, PropertyHistoryBuffer> series, String path, Property property, long timestamp) {
+        String value = property.getValue();
+        if (value == null || property.getValueType() == null) {
+            return;
+        }
+        double sample;
+        if (property.getValueType() == DataTypeDefXsd.BOOLEAN) {
+            sample = "true".equals(value) || "1".equals(value) ? 1 : 0;
+        } else if (NUMERIC_TYPES.contains(property.getValueType())) {
+            try {
+                sample = Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return;
+            }
+        } else {
+            return;
+        }
+        PropertyHistoryBuffer buffer = series.get(path);
+        if (buffer == null) {
+            if (seriesCount.get() >= maxSeries) {
+                return;
+            }
+            buffer = series.computeIfAbsent(path, key -> {
+                seriesCount.incrementAndGet();
+                return new PropertyHistoryBuffer(capacity, offHeap);
+            });
+        }
+        buffer.append(timestamp, sample);
+    }
+
+    /**
+     * Returns the samples of the element with from <= timestamp <= to, or null if nothing
+     * has been recorded for it.
+     */
+    public History read(String submodelId, String idShortPath, long from, long to) {
+        Map<String, PropertyHistoryBuffer> series = buffers.get(submodelId);
+        PropertyHistoryBuffer buffer = series == null ? null : series.get(idShortPath);
+        if (buffer == null) {
+            return null;
+        }
+        PropertyHistoryBuffer.Window window = buffer.read(from, to);
+        return new History(submodelId, idShortPath, window.timestamps(), window.values());
+    }
+
+    /**
+     * Drops the history of a deleted submodel.
+     */
+    public void remove(String submodelId) {
+        Map<String, PropertyHistoryBuffer> series = buffers.remove(submodelId);
+        if (series != null) {
+            seriesCount.addAndGet(-series.size());
+        }
+    }
+}
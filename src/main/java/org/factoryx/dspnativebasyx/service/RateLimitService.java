@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Admission control for the DSP asset access, with separate per-partner budgets for catalog
+ * requests, data transfers and writes through the ApiAssets. Partners are told apart by their
+ * partner id (see PartnerIdentity). Writes carry no partner properties, so they are limited per
+ * authenticated principal of the request, otherwise per digest of the Authorization header, or per
+ * client address if there is none. The header itself is not kept, as it holds the credentials.
+ * Budgets with a rate of 0 are not limited.
+ *
+ * A rejection surfaces as RateLimitExceededException, which Spring MVC answers with 429.
+ */
+@Service
+@Slf4j
+public class RateLimitService {
+
+    /**
+     * Thrown when a partner has used up a budget. Rejections are expected under load,
+     * so the exception skips filling in its stack trace.
+     */
+    public static class RateLimitExceededException extends ResponseStatusException {
+        public RateLimitExceededException(String budget) {
+            super(HttpStatus.TOO_MANY_REQUESTS, "Rate limit for " + budget + " exceeded");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private final RateLimiter catalogLimiter;
+    private final RateLimiter transferLimiter;
+    private final RateLimiter writeLimiter;
+
+    public RateLimitService(@Value("${org.factoryx.dspnativebasyx.ratelimit.catalog.permitspersecond:0}") double catalogRate,
+                            @Value("${org.factoryx.dspnativebasyx.ratelimit.catalog.burst:5}") int catalogBurst,
+                            @Value("${org.factoryx.dspnativebasyx.ratelimit.transfer.permitspersecond:0}") double transferRate,
+                            @Value("${org.factoryx.dspnativebasyx.ratelimit.transfer.burst:50}") int transferBurst,
+                            @Value("${org.factoryx.dspnativebasyx.ratelimit.write.permitspersecond:0}") double writeRate,
+                            @Value("${org.factoryx.dspnativebasyx.ratelimit.write.burst:50}") int writeBurst,
+                            @Value("${org.factoryx.dspnativebasyx.ratelimit.maxpartners:10000}") int maxPartners) {
+        this.catalogLimiter = new RateLimiter(catalogRate, catalogBurst, maxPartners, System::nanoTime);
+        this.transferLimiter = new RateLimiter(transferRate, transferBurst, maxPartners, System::nanoTime);
+        this.writeLimiter = new RateLimiter(writeRate, writeBurst, maxPartners, System::nanoTime);
+        if (catalogLimiter.isEnabled() || transferLimiter.isEnabled() || writeLimiter.isEnabled()) {
+            log.info("Rate limits per partner: catalog {}/s, transfer {}/s, write {}/s", catalogRate, transferRate, writeRate);
+        }
+    }
+
+    public void checkCatalog(Map<String, String> partnerProperties) {
+        if (!catalogLimiter.tryAcquire(PartnerIdentity.of(partnerProperties))) {
+            throw new RateLimitExceededException("catalog");
+        }
+    }
+
+    public void checkTransfer(Map<String, String> partnerProperties) {
+        if (!transferLimiter.tryAcquire(PartnerIdentity.of(partnerProperties))) {
+            throw new RateLimitExceededException("transfer");
+        }
+    }
+
+    public boolean tryAcquireWrite(String apiAssetId, HttpHeaders headers) {
+        if (!writeLimiter.isEnabled()) {
+            return true;
+        }
+        return writeLimiter.tryAcquire(getWriterKey(apiAssetId, headers));
+    }
+
+    static String getWriterKey(String apiAssetId, HttpHeaders headers) {
+        HttpServletRequest request = RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                ? attributes.getRequest() : null;
+        Principal principal = request == null ? null : request.getUserPrincipal();
+        if (principal != null && principal.getName() != null) {
+            return "principal:" + principal.getName();
+        }
+        String authorization = headers == null ? null : headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization != null) {
+            return "authorization:" + digest(authorization);
+        }
+        if (request != null) {
+            return "address:" + request.getRemoteAddr();
+        }
+        return "asset:" + apiAssetId;
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
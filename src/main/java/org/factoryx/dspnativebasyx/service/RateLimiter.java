@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket per key, implemented as generic cell rate algorithm: the state of a
+ * bucket is a single timestamp, the theoretical arrival time of the next request, which is
+ * advanced with a compare-and-set. A request is admitted as long as that time is not further
+ * ahead of now than the burst allows.
+ *
+ * A bucket whose theoretical arrival time has passed is equivalent to a new one, so such
+ * buckets are dropped once maxKeys keys are tracked. If none of them is idle, requests of new keys
+ * are rejected until one is, so that a flood of distinct keys can neither grow the map beyond
+ * maxKeys nor reset the budgets of the known keys.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxKeys;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final ReentrantLock insertLock = new ReentrantLock();
+    // lower bound of the theoretical arrival times of the tracked buckets, before which none is idle
+    private long nextIdleNanos = Long.MIN_VALUE;
+
+    /**
+     * @param permitsPerSecond sustained rate per key, 0 or less disables the limiter
+     * @param burst            number of requests a key may send at once after being idle
+     */
+    public RateLimiter(double permitsPerSecond, int burst, int maxKeys, LongSupplier nanoClock) {
+        this.intervalNanos = permitsPerSecond > 0 ? (long) (1_000_000_000L / permitsPerSecond) : 0;
+        this.burstToleranceNanos = intervalNanos * (Math.max(burst, 1) - 1);
+        this.maxKeys = maxKeys;
+        this.nanoClock = nanoClock;
+    }
+
+    public boolean isEnabled() {
+        return intervalNanos > 0;
+    }
+
+    public boolean tryAcquire(String key) {
+        if (intervalNanos == 0) {
+            return true;
+        }
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = addBucket(key, now);
+            if (bucket == null) {
+                return false;
+            }
+        }
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            long start = Math.max(theoreticalArrival, now);
+            if (start - now > burstToleranceNanos) {
+                return false;
+            }
+            if (bucket.compareAndSet(theoreticalArrival, start + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    int getKeyCount() {
+        return buckets.size();
+    }
+
+    // new keys are rare compared to the requests of known keys, so they are added under a lock,
+    // which keeps the number of buckets within maxKeys
+    private AtomicLong addBucket(String key, long now) {
+        insertLock.lock();
+        try {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxKeys && now >= nextIdleNanos) {
+                evictIdle(now);
+            }
+            if (buckets.size() >= maxKeys) {
+                return null;
+            }
+            bucket = new AtomicLong(now);
+            buckets.put(key, bucket);
+            nextIdleNanos = Math.min(nextIdleNanos, now);
+            return bucket;
+        } finally {
+            insertLock.unlock();
+        }
+    }
+
+    private void evictIdle(long now) {
+        // the arrival times only grow, so the minimum of the remaining ones stays a lower bound
+        long nextIdle = Long.MAX_VALUE;
+        for (var iterator = buckets.entrySet().iterator(); iterator.hasNext(); ) {
+            long theoreticalArrival = iterator.next().getValue().get();
+            if (theoreticalArrival <= now) {
+                iterator.remove();
+            } else {
+                nextIdle = Math.min(nextIdle, theoreticalArrival);
+            }
+        }
+        nextIdleNanos = nextIdle;
+    }
+}
@@ -36,11 +36,22 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RbacDCPValidationService {
 
-    private final List<RbacRule> aasReadAccessRulesList;
-    private final List<RbacRule> submodelReadAccessRulesList;
+    /**
+     * The read rules of one role, compiled into sets, so that a check does not have to walk
+     * and copy the rules.
+     */
+    private record CompiledRules(boolean allAas, Set<String> aasIds, List<SubmodelGrant> submodelGrants) {
+    }
+
+    private record SubmodelGrant(boolean allSubmodels, Set<String> submodelIds, boolean allElements,
+                                 Set<String> elementIdShortPaths) {
+    }
+
+    private final Map<String, CompiledRules> compiledRules;
     private final Map<String, String> credentialToRbacRoleMapping;
 
-    public RbacDCPValidationService(RbacStorage rbacStorage, @Value("${org.factoryx.dspnativebasyx.credentialtorolemappings}") String roleMappings ) {
+    public RbacDCPValidationService(RbacStorage rbacStorage,
+                                    @Value("${org.factoryx.dspnativebasyx.credentialtorolemappings}") String roleMappings ) {
         this.credentialToRbacRoleMapping = new HashMap<>();
         for (String mapping : roleMappings.split(",")) {
             String[] mappingParts = mapping.split("=");
@@ -52,12 +63,32 @@ public class RbacDCPValidationService {
             }
         }
 
-        var sortedRules = rbacStorage.getRbacRules().values().stream()
+        var rulesByRole = rbacStorage.getRbacRules().values().stream()
                 .filter(rule -> rule.getAction().contains(Action.READ) || rule.getAction().contains(Action.ALL))
                 .filter(rule -> credentialToRbacRoleMapping.containsValue(rule.getRole()))
-                .collect(Collectors.groupingBy(rule -> rule.getTargetInformation().getClass().getName(), Collectors.toList()));
-        this.aasReadAccessRulesList = sortedRules.get(AasTargetInformation.class.getName());
-        this.submodelReadAccessRulesList = sortedRules.get(SubmodelTargetInformation.class.getName());
+                .collect(Collectors.groupingBy(RbacRule::getRole, Collectors.toList()));
+        Map<String, CompiledRules> compiled = new HashMap<>();
+        rulesByRole.forEach((role, rules) -> compiled.put(role, compile(rules)));
+        this.compiledRules = Collections.unmodifiableMap(compiled);
+        log.info("Compiled read rules for roles {}", compiled.keySet());
+    }
+
+    private static CompiledRules compile(List<RbacRule> rules) {
+        boolean allAas = false;
+        Set<String> aasIds = new HashSet<>();
+        List<SubmodelGrant> submodelGrants = new ArrayList<>();
+        for (RbacRule rule : rules) {
+            if (rule.getTargetInformation() instanceof AasTargetInformation aasTargetInformation) {
+                allAas |= aasTargetInformation.getAasIds().contains("*");
+                aasIds.addAll(aasTargetInformation.getAasIds());
+            } else if (rule.getTargetInformation() instanceof SubmodelTargetInformation submodelTargetInformation) {
+                submodelGrants.add(new SubmodelGrant(submodelTargetInformation.getSubmodelIds().contains("*"),
+                        new HashSet<>(submodelTargetInformation.getSubmodelIds()),
+                        submodelTargetInformation.getSubmodelElementIdShortPaths().contains("*"),
+                        new HashSet<>(submodelTargetInformation.getSubmodelElementIdShortPaths())));
+            }
+        }
+        return new CompiledRules(allAas, aasIds, submodelGrants);
     }
 
     public boolean validateReadAccessForDataAssetAndPartnerProperties(DataAsset dataAsset, Map<String, String> partnerProperties) {
@@ -67,53 +98,125 @@ public class RbacDCPValidationService {
         }
         for (String credential : credentials.split(",")) {
             String mappedRole = credentialToRbacRoleMapping.get(credential.trim());
-            if (dataAsset instanceof AasDataAsset aasDataAsset) {
-                if (validateReadAccessForAas(aasDataAsset, mappedRole)) {
-                    return true;
-                }
-            } else if (dataAsset instanceof SubmodelDataAsset submodelDataAsset) {
-                if (validateReadAccessForSubmodel(submodelDataAsset, mappedRole)) {
-                    return true;
-                }
+            if (validateReadAccessForDataAsset(dataAsset, mappedRole)) {
+                return true;
             }
         }
 
         return false;
     }
 
-    private boolean validateReadAccessForAas(AasDataAsset aasDataAsset, String mappedRole) {
-        String targetId = aasDataAsset.getAssetId();
-        if(targetId == null || targetId.isEmpty()) {
+    /**
+     * Checks whether a single RBAC role may read a data asset.
+     *
+     * @param dataAsset  the AasDataAsset or SubmodelDataAsset
+     * @param mappedRole the RBAC role, may be null
+     * @return true if the role grants read access
+     */
+    public boolean validateReadAccessForDataAsset(DataAsset dataAsset, String mappedRole) {
+        if (dataAsset instanceof AasDataAsset aasDataAsset) {
+            return validateReadAccessForAas(aasDataAsset.getAssetId(), mappedRole);
+        } else if (dataAsset instanceof SubmodelDataAsset submodelDataAsset) {
+            return validateReadAccessForSubmodel(submodelDataAsset.getSubmodelId(), submodelDataAsset.getSubmodelElements(), mappedRole);
+        }
+        return false;
+    }
+
+    /**
+     * Resolves the RBAC roles that the credentials of a partner are mapped to.
+     *
+     * @param partnerProperties the properties of the partner
+     * @return the mapped roles, may be empty
+     */
+    public Set<String> getMappedRoles(Map<String, String> partnerProperties) {
+        final String credentials = partnerProperties.get(DspTokenValidationService.ReservedKeys.credentials.toString());
+        if (credentials == null || credentials.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> roles = new TreeSet<>();
+        for (String credential : credentials.split(",")) {
+            String mappedRole = credentialToRbacRoleMapping.get(credential.trim());
+            if (mappedRole != null) {
+                roles.add(mappedRole);
+            }
+        }
+        return roles;
+    }
+
+    public boolean isMappedRole(String role) {
+        return credentialToRbacRoleMapping.containsValue(role);
+    }
+
+    public boolean validateReadAccessForChangeEvent(ChangeLogService.ChangeEvent event, String mappedRole) {
+        return switch (event.repository()) {
+            case shells -> validateReadAccessForAas(event.globalAssetId(), mappedRole);
+            case submodels -> validateReadAccessForSubmodel(event.id(), event.submodelElementIdShorts(), mappedRole);
+        };
+    }
+
+    public boolean validateReadAccessForIndexEntry(SubmodelIndexService.IndexEntry entry, String mappedRole) {
+        return validateReadAccessForSubmodel(entry.id(), entry.submodelElementIdShorts(), mappedRole);
+    }
+
+    /**
+     * Checks whether a role may read a single element of a submodel. A grant matches if it covers
+     * all elements, the idShortPath itself, or one of the elements that contain it.
+     *
+     * @param submodelId  the id of the submodel
+     * @param idShortPath the idShortPath of the element, e.g. "Collection.Property" or "List[0]"
+     * @param mappedRole  the RBAC role, may be null
+     * @return true if the role grants read access
+     */
+    public boolean validateReadAccessForSubmodelElement(String submodelId, String idShortPath, String mappedRole) {
+        if (submodelId == null || submodelId.isEmpty() || idShortPath == null) {
             return false;
         }
-        for (RbacRule rule : aasReadAccessRulesList) {
-            if(rule.getRole().equals(mappedRole)) {
-                if (rule.getTargetInformation() instanceof AasTargetInformation aasTargetInformation) {
-                    if (aasTargetInformation.getAasIds().contains("*") || aasTargetInformation.getAasIds().contains(targetId)) {
-                        log.info("Granted access to AAS {} for role {}", targetId, mappedRole);
-                        return true;
-                    }
-                }
+        CompiledRules rules = mappedRole == null ? null : compiledRules.get(mappedRole);
+        if (rules == null) {
+            return false;
+        }
+        for (SubmodelGrant grant : rules.submodelGrants()) {
+            if ((grant.allSubmodels() || grant.submodelIds().contains(submodelId))
+                    && (grant.allElements() || coversPath(grant.elementIdShortPaths(), idShortPath))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean coversPath(Set<String> grantedPaths, String idShortPath) {
+        for (int i = 1; i <= idShortPath.length(); i++) {
+            if ((i == idShortPath.length() || idShortPath.charAt(i) == '.' || idShortPath.charAt(i) == '[')
+                    && grantedPaths.contains(idShortPath.substring(0, i))) {
+                return true;
             }
         }
         return false;
     }
 
-    private boolean validateReadAccessForSubmodel(SubmodelDataAsset submodelDataAsset, String mappedRole) {
-        String targetId = submodelDataAsset.getSubmodelId();
+    private boolean validateReadAccessForAas(String targetId, String mappedRole) {
         if(targetId == null || targetId.isEmpty()) {
             return false;
         }
-        for (RbacRule rule : submodelReadAccessRulesList) {
-            if(rule.getRole().equals(mappedRole)) {
-                if (rule.getTargetInformation() instanceof SubmodelTargetInformation submodelTargetInformation) {
-                    if ((submodelTargetInformation.getSubmodelIds().contains("*") || submodelTargetInformation.getSubmodelIds().contains(targetId))
-                            && (submodelTargetInformation.getSubmodelElementIdShortPaths().contains("*")
-                            || new HashSet<>(submodelTargetInformation.getSubmodelElementIdShortPaths()).containsAll(submodelDataAsset.getSubmodelElements()))) {
-                        log.info("Granted access to Submodel {} for role {}", targetId, mappedRole);
-                        return true;
-                    }
-                }
+        CompiledRules rules = mappedRole == null ? null : compiledRules.get(mappedRole);
+        if (rules != null && (rules.allAas() || rules.aasIds().contains(targetId))) {
+            return true;
+        }
+        return false;
+    }
+
+    private boolean validateReadAccessForSubmodel(String targetId, List<String> submodelElementIdShorts, String mappedRole) {
+        if(targetId == null || targetId.isEmpty()) {
+            return false;
+        }
+        CompiledRules rules = mappedRole == null ? null : compiledRules.get(mappedRole);
+        if (rules == null) {
+            return false;
+        }
+        for (SubmodelGrant grant : rules.submodelGrants()) {
+            if ((grant.allSubmodels() || grant.submodelIds().contains(targetId))
+                    && (grant.allElements() || grant.elementIdShortPaths().containsAll(submodelElementIdShorts))) {
+                return true;
             }
         }
         return false;
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasregistry.client.ApiException;
+import org.eclipse.digitaltwin.basyx.aasregistry.client.api.RegistryAndDiscoveryInterfaceApi;
+import org.eclipse.digitaltwin.basyx.aasregistry.main.client.factory.AasDescriptorFactory;
+import org.eclipse.digitaltwin.basyx.aasregistry.main.client.mapper.AttributeMapper;
+import org.eclipse.digitaltwin.basyx.aasrepository.feature.registry.integration.AasRepositoryRegistryLink;
+import org.eclipse.digitaltwin.basyx.submodelregistry.client.api.SubmodelRegistryApi;
+import org.eclipse.digitaltwin.basyx.submodelregistry.client.factory.SubmodelDescriptorFactory;
+import org.eclipse.digitaltwin.basyx.submodelrepository.feature.registry.integration.SubmodelRepositoryRegistryLink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Keeps the BaSyx AAS and submodel registries in sync with the repositories.
+ *
+ * Descriptor changes are not sent right away, but handed to a RegistrySyncWorker per registry,
+ * which merges consecutive changes of the same id and sends them in batches with retries, and
+ * pauses altogether while the registry keeps failing.
+ */
+@Service
+@Slf4j
+public class RegistrySyncService {
+
+    private final RegistrySyncWorker<AssetAdministrationShell> aasWorker;
+    private final RegistrySyncWorker<Submodel> submodelWorker;
+
+    public RegistrySyncService(Optional<AasRepositoryRegistryLink> aasRepositoryRegistryLink, Optional<AttributeMapper> attributeMapper,
+                               Optional<SubmodelRepositoryRegistryLink> submodelRepositoryRegistryLink,
+                               Optional<org.eclipse.digitaltwin.basyx.submodelregistry.client.mapper.AttributeMapper> submodelAttributeMapper,
+                               @Value("${org.factoryx.dspnativebasyx.registrysync.batchsize:100}") int batchSize,
+                               @Value("${org.factoryx.dspnativebasyx.registrysync.intervalmillis:500}") long intervalMillis,
+                               @Value("${org.factoryx.dspnativebasyx.registrysync.initialbackoffmillis:1000}") long initialBackoffMillis,
+                               @Value("${org.factoryx.dspnativebasyx.registrysync.maxbackoffmillis:300000}") long maxBackoffMillis,
+                               @Value("${org.factoryx.dspnativebasyx.registrysync.failurethreshold:5}") int failureThreshold) {
+        if (aasRepositoryRegistryLink.isPresent() && attributeMapper.isPresent()) {
+            AasRepositoryRegistryLink registryLink = aasRepositoryRegistryLink.get();
+            this.aasWorker = new RegistrySyncWorker<>("aas",
+                    createAasClient(registryLink.getRegistryApi(),
+                            new AasDescriptorFactory(registryLink.getAasRepositoryBaseURLs(), attributeMapper.get())),
+                    batchSize, initialBackoffMillis, maxBackoffMillis, failureThreshold, System::currentTimeMillis);
+            this.aasWorker.start(intervalMillis);
+        } else {
+            this.aasWorker = null;
+        }
+        if (submodelRepositoryRegistryLink.isPresent() && submodelAttributeMapper.isPresent()) {
+            SubmodelRepositoryRegistryLink registryLink = submodelRepositoryRegistryLink.get();
+            this.submodelWorker = new RegistrySyncWorker<>("submodel",
+                    createSubmodelClient(registryLink.getRegistryApi(),
+                            new SubmodelDescriptorFactory(registryLink.getSubmodelRepositoryBaseURLs(), submodelAttributeMapper.get())),
+                    batchSize, initialBackoffMillis, maxBackoffMillis, failureThreshold, System::currentTimeMillis);
+            this.submodelWorker.start(intervalMillis);
+        } else {
+            this.submodelWorker = null;
+        }
+    }
+
+    public void shellChanged(AssetAdministrationShell shell) {
+        if (aasWorker != null) {
+            aasWorker.enqueueRegister(shell.getId(), shell);
+        }
+    }
+
+    public void shellDeleted(String shellId) {
+        if (aasWorker != null) {
+            aasWorker.enqueueUnregister(shellId);
+        }
+    }
+
+    public void submodelChanged(Submodel submodel) {
+        if (submodelWorker != null) {
+            submodelWorker.enqueueRegister(submodel.getId(), submodel);
+        }
+    }
+
+    public void submodelDeleted(String submodelId) {
+        if (submodelWorker != null) {
+            submodelWorker.enqueueUnregister(submodelId);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (aasWorker != null) {
+            aasWorker.stop();
+        }
+        if (submodelWorker != null) {
+            submodelWorker.stop();
+        }
+    }
+
+    /**
+     * The registry API has no update-or-create operation, so an already existing
+     * descriptor is replaced by deleting and posting it again.
+     */
+    static RegistrySyncWorker.RegistryClient<AssetAdministrationShell> createAasClient(RegistryAndDiscoveryInterfaceApi registryApi,
+                                                                                      AasDescriptorFactory descriptorFactory) {
+        return new RegistrySyncWorker.RegistryClient<>() {
+            @Override
+            public void register(String id, AssetAdministrationShell shell) throws Exception {
+                var descriptor = descriptorFactory.create(shell);
+                try {
+                    registryApi.postAssetAdministrationShellDescriptor(descriptor);
+                } catch (ApiException e) {
+                    if (e.getCode() != HttpStatus.CONFLICT.value()) {
+                        throw e;
+                    }
+                    registryApi.deleteAssetAdministrationShellDescriptorById(id);
+                    registryApi.postAssetAdministrationShellDescriptor(descriptor);
+                }
+                log.info("Shell '{}' has been automatically linked with the Registry", id);
+            }
+
+            @Override
+            public void unregister(String id) throws Exception {
+                try {
+                    registryApi.deleteAssetAdministrationShellDescriptorById(id);
+                } catch (ApiException e) {
+                    if (e.getCode() != HttpStatus.NOT_FOUND.value()) {
+                        throw e;
+                    }
+                }
+            }
+        };
+    }
+
+    static RegistrySyncWorker.RegistryClient<Submodel> createSubmodelClient(SubmodelRegistryApi registryApi,
+                                                                            SubmodelDescriptorFactory descriptorFactory) {
+        return new RegistrySyncWorker.RegistryClient<>() {
+            @Override
+            public void register(String id, Submodel submodel) throws Exception {
+                var descriptor = descriptorFactory.create(submodel);
+                try {
+                    registryApi.postSubmodelDescriptor(descriptor);
+                } catch (org.eclipse.digitaltwin.basyx.submodelregistry.client.ApiException e) {
+                    if (e.getCode() != HttpStatus.CONFLICT.value()) {
+                        throw e;
+                    }
+                    registryApi.deleteSubmodelDescriptorById(id);
+                    registryApi.postSubmodelDescriptor(descriptor);
+                }
+                log.info("Submodel '{}' has been automatically linked with the Registry", id);
+            }
+
+            @Override
+            public void unregister(String id) throws Exception {
+                try {
+                    registryApi.deleteSubmodelDescriptorById(id);
+                } catch (org.eclipse.digitaltwin.basyx.submodelregistry.client.ApiException e) {
+                    if (e.getCode() != HttpStatus.NOT_FOUND.value()) {
+                        throw e;
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Queues descriptor changes for one BaSyx registry and sends them in batches from a single
+ * worker thread.
+ *
+ * Only the latest pending change per id is kept, so that a create followed by updates is sent
+ * as a single registration and a create or update followed by a delete is sent as a delete.
+ * Failed changes are retried with exponential backoff, unless a newer change for the same id
+ * has been queued in the meantime. Since there is never more than one change per id in flight,
+ * the changes for one id reach the registry in the order they have been made.
+ *
+ * After failureThreshold consecutive failures the registry is considered unavailable and the
+ * worker stops sending altogether, instead of letting every queued change fail on its own. It
+ * pauses with the same exponential backoff, growing with every further failed attempt, and a
+ * single successful change resumes it. The changes not sent yet stay queued as they are.
+ *
+ * @param <T> the type of the objects that are registered
+ */
+@Slf4j
+public class RegistrySyncWorker<T> {
+
+    /**
+     * The registry operations used by the worker.
+     */
+    public interface RegistryClient<T> {
+        void register(String id, T source) throws Exception;
+
+        void unregister(String id) throws Exception;
+    }
+
+    private record PendingChange<T>(T source, int attempts, long notBefore) {
+        boolean isDelete() {
+            return source == null;
+        }
+    }
+
+    private final String name;
+    private final RegistryClient<T> client;
+    private final int batchSize;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int failureThreshold;
+    private final LongSupplier clock;
+    private final LinkedHashMap<String, PendingChange<T>> pending = new LinkedHashMap<>();
+    private ScheduledExecutorService scheduler;
+    // only touched by the thread sending the batches
+    private int consecutiveFailures;
+    private long pausedUntil;
+
+    public RegistrySyncWorker(String name, RegistryClient<T> client, int batchSize, long initialBackoffMillis,
+                              long maxBackoffMillis, int failureThreshold, LongSupplier clock) {
+        this.name = name;
+        this.client = client;
+        this.batchSize = batchSize;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.failureThreshold = Math.max(failureThreshold, 1);
+        this.clock = clock;
+    }
+
+    public void start(long intervalMillis) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "registry-sync-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                while (sendBatch() == batchSize) {
+                    // keep draining while full batches are ready
+                }
+            } catch (Exception e) {
+                log.error("Registry sync for {} failed", name, e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    public synchronized void enqueueRegister(String id, T source) {
+        pending.remove(id);
+        pending.put(id, new PendingChange<>(source, 0, 0));
+    }
+
+    public synchronized void enqueueUnregister(String id) {
+        pending.remove(id);
+        pending.put(id, new PendingChange<>(null, 0, 0));
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Sends up to batchSize changes that are due, unless the worker is paused.
+     *
+     * @return the number of changes that have been sent or failed
+     */
+    int sendBatch() {
+        if (clock.getAsLong() < pausedUntil) {
+            return 0;
+        }
+        List<Map.Entry<String, PendingChange<T>>> batch = takeBatch();
+        for (int i = 0; i < batch.size(); i++) {
+            String id = batch.get(i).getKey();
+            PendingChange<T> change = batch.get(i).getValue();
+            try {
+                if (change.isDelete()) {
+                    client.unregister(id);
+                } else {
+                    client.register(id, change.source());
+                }
+                if (consecutiveFailures >= failureThreshold) {
+                    log.info("Registry sync for {} resumed after {} failures", name, consecutiveFailures);
+                }
+                consecutiveFailures = 0;
+            } catch (Exception e) {
+                retry(id, change, e);
+                if (++consecutiveFailures >= failureThreshold) {
+                    long backoff = getBackoff(consecutiveFailures - failureThreshold + 1);
+                    pausedUntil = clock.getAsLong() + backoff;
+                    log.warn("Registry sync for {} paused for {} ms after {} consecutive failures",
+                            name, backoff, consecutiveFailures);
+                    requeue(batch.subList(i + 1, batch.size()));
+                    return i + 1;
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    private synchronized List<Map.Entry<String, PendingChange<T>>> takeBatch() {
+        long now = clock.getAsLong();
+        List<Map.Entry<String, PendingChange<T>>> batch = new ArrayList<>();
+        Iterator<Map.Entry<String, PendingChange<T>>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<String, PendingChange<T>> entry = iterator.next();
+            if (entry.getValue().notBefore() <= now) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+                iterator.remove();
+            }
+        }
+        return batch;
+    }
+
+    // puts changes that have not been attempted back, unless a newer change has been queued meanwhile
+    private synchronized void requeue(List<Map.Entry<String, PendingChange<T>>> changes) {
+        for (Map.Entry<String, PendingChange<T>> entry : changes) {
+            pending.putIfAbsent(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private long getBackoff(int attempts) {
+        return Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 30));
+    }
+
+    private synchronized void retry(String id, PendingChange<T> change, Exception e) {
+        if (pending.containsKey(id)) {
+            log.warn("Registry sync for {} of {} failed, a newer change is already queued", name, id, e);
+            return;
+        }
+        int attempts = change.attempts() + 1;
+        long backoff = getBackoff(attempts);
+        log.warn("Registry sync for {} of {} failed (attempt {}), retrying in {} ms", name, id, attempts, backoff, e);
+        pending.put(id, new PendingChange<>(change.source(), attempts, clock.getAsLong() + backoff));
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.eclipse.paho.client.mqttv3.IMqttClient;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Keeps the local caches of this instance consistent with writes made through other replicas.
+ *
+ * If enabled, every write reported to the ModelWritePipeline of this instance is announced on
+ * the invalidation topic as {"replica": ..., "change": ..., "id": ...}, tagged with the id of this
+ * replica, and the announcements of the other replicas are applied: a buffered write-behind state
+ * of the id is discarded, the cached DTOs and catalog entries are dropped, and the catalog snapshot
+ * and the submodel index are updated from the (shared) backend. Announcements of this replica are
+ * skipped by their replica id. Writes before the MQTT client is available are not announced.
+ *
+ * Announcing and applying run in order on a thread of their own, whose queue does not drop, so
+ * that neither the writers nor the MQTT client's thread wait for them.
+ *
+ * The replicas need distinct MQTT client ids (mqtt.clientId), as the broker disconnects a client
+ * when another one connects with the same id.
+ */
+@Service
+@Slf4j
+public class ReplicaInvalidationService {
+
+    enum Change {
+        shellUpserted, shellDeleted, submodelUpserted, submodelDeleted
+    }
+
+    private final AasBackend aasBackend;
+    private final SubmodelBackend submodelBackend;
+    private final ModelWritePipeline modelWritePipeline;
+    private final WriteBehindService writeBehindService;
+    private final AasSerializationService aasSerializationService;
+    private final String replicaId;
+    private final String topic;
+    private final ExecutorService executor;
+    private volatile IMqttClient mqttClient;
+
+    public ReplicaInvalidationService(MessagingSupportService messagingSupportService, AasBackend aasBackend,
+                                      SubmodelBackend submodelBackend, ModelWritePipeline modelWritePipeline,
+                                      WriteBehindService writeBehindService, AasSerializationService aasSerializationService,
+                                      @Value("${org.factoryx.dspnativebasyx.replication.invalidation.enabled:false}") boolean enabled,
+                                      @Value("${org.factoryx.dspnativebasyx.replication.invalidation.topic:dspnativebasyx/invalidation}") String topic,
+                                      @Value("${org.factoryx.dspnativebasyx.replication.replicaid:}") String replicaId) {
+        this.aasBackend = aasBackend;
+        this.submodelBackend = submodelBackend;
+        this.modelWritePipeline = modelWritePipeline;
+        this.writeBehindService = writeBehindService;
+        this.aasSerializationService = aasSerializationService;
+        this.replicaId = replicaId == null || replicaId.isBlank() ? UUID.randomUUID().toString() : replicaId;
+        this.topic = topic;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (enabled) {
+            modelWritePipeline.setLocalWriteListener(this::announce);
+            messagingSupportService.whenMqttClientAvailable(this::subscribe);
+        }
+    }
+
+    private void subscribe(IMqttClient mqttClient) {
+        try {
+            mqttClient.subscribe(topic, (receivedTopic, message) -> {
+                byte[] payload = message.getPayload();
+                execute(() -> handleMessage(payload));
+            });
+            this.mqttClient = mqttClient;
+            log.info("Subscribed to {} for cross-replica invalidation as replica {}", topic, replicaId);
+        } catch (Exception e) {
+            log.error("Failed to subscribe to {}", topic, e);
+        }
+    }
+
+    void announce(Change change, String id) {
+        IMqttClient client = mqttClient;
+        if (client == null) {
+            return;
+        }
+        execute(() -> {
+            try {
+                ObjectNode announcement = aasSerializationService.createObjectNode();
+                announcement.put("replica", replicaId);
+                announcement.put("change", change.name());
+                announcement.put("id", id);
+                client.publish(topic, new MqttMessage(aasSerializationService.serialize(announcement)));
+            } catch (Exception e) {
+                log.error("Failed to announce {} of {} to the other replicas", change, id, e);
+            }
+        });
+    }
+
+    void handleMessage(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            return;
+        }
+        Change change;
+        String id;
+        try (JsonParser parser = aasSerializationService.createParser(payload)) {
+            JsonNode announcement = aasSerializationService.readTree(parser);
+            if (announcement == null || replicaId.equals(announcement.path("replica").asText())) {
+                return;
+            }
+            change = Change.valueOf(announcement.path("change").asText());
+            id = announcement.path("id").textValue();
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring unreadable message on {}: {}", topic, e.getMessage());
+            return;
+        }
+        if (id == null) {
+            return;
+        }
+        try {
+            switch (change) {
+                case shellUpserted -> aasBackend.findById(id).ifPresentOrElse(shell -> modelWritePipeline.shellSaved(shell, false),
+                        () -> modelWritePipeline.shellDeleted(id, false));
+                case shellDeleted -> modelWritePipeline.shellDeleted(id, false);
+                case submodelUpserted -> {
+                    // a buffered local state would overwrite the other replica's write with the next flush
+                    writeBehindService.discard(id);
+                    submodelBackend.findById(id).ifPresentOrElse(submodel -> modelWritePipeline.submodelSaved(submodel, false),
+                            () -> modelWritePipeline.submodelDeleted(id, false));
+                }
+                case submodelDeleted -> {
+                    writeBehindService.discard(id);
+                    modelWritePipeline.submodelDeleted(id, false);
+                }
+            }
+            log.debug("Applied {} of {} from another replica", change, id);
+        } catch (Exception e) {
+            log.error("Failed to apply {} of {} from another replica", change, id, e);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            // only after stop()
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+}
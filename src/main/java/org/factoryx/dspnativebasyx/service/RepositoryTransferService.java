@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports and imports the whole repository as gzip-compressed NDJSON, one shell or submodel
+ * per line: {"type":"shell","value":{...}} or {"type":"submodel","value":{...}}.
+ *
+ * The export writes every object as soon as it has been read from the backend, and the import
+ * parses the stream line by line and writes batches of batchsize objects with parallelism
+ * threads, so that neither holds more than a few batches in memory. The export puts the Blob
+ * contents kept in the AttachmentStoreService back into the submodels, and the import moves them
+ * there again, so attachments are part of the export. Catalogs show the imported objects
+ * all at once when the import has ended (see CatalogSnapshotService.holdPublication). Imported
+ * objects replace existing ones with the same id and are announced as created or updated
+ * accordingly, with one notification task per batch.
+ *
+ * Invalid lines are skipped and reported with their line number. A stream that ends in the
+ * middle of a line (or of the gzip data) fails the import with ImportTruncatedException; the
+ * batches before have been written.
+ */
+@Service
+@Slf4j
+public class RepositoryTransferService {
+
+    /**
+     * @param errors the first MAX_REPORTED_ERRORS skipped lines, as "line n: reason"
+     */
+    public record ImportResult(long shells, long submodels, long failed, List<String> errors) {
+    }
+
+    /**
+     * Thrown when the import stream ends in the middle of a line.
+     */
+    public static class ImportTruncatedException extends ResponseStatusException {
+        public ImportTruncatedException(long line, ImportResult imported) {
+            super(HttpStatus.BAD_REQUEST, "Import truncated in line " + line + ", imported " + imported.shells()
+                    + " shells and " + imported.submodels() + " submodels before");
+        }
+    }
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private static final String SHELL_TYPE = "shell";
+    private static final String SUBMODEL_TYPE = "submodel";
+    private static final byte[] SHELL_PREFIX = "{\"type\":\"shell\",\"value\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SUBMODEL_PREFIX = "{\"type\":\"submodel\",\"value\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LINE_SUFFIX = "}\n".getBytes(StandardCharsets.UTF_8);
+
+    private final AasBackend aasBackend;
+    private final SubmodelBackend submodelBackend;
+    private final AasSerializationService aasSerializationService;
+    private final WriteBehindService writeBehindService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final AttachmentStoreService attachmentStoreService;
+    private final CanonicalizationService canonicalizationService;
+    private final MessagingSupportService messagingSupportService;
+    private final int batchSize;
+    private final int parallelism;
+
+    public RepositoryTransferService(AasBackend aasBackend, SubmodelBackend submodelBackend,
+                                     AasSerializationService aasSerializationService, WriteBehindService writeBehindService,
+                                     CatalogSnapshotService catalogSnapshotService,
+                                     AttachmentStoreService attachmentStoreService,
+                                     CanonicalizationService canonicalizationService,
+                                     MessagingSupportService messagingSupportService,
+                                     @Value("${org.factoryx.dspnativebasyx.transfer.batchsize:500}") int batchSize,
+                                     @Value("${org.factoryx.dspnativebasyx.transfer.parallelism:4}") int parallelism) {
+        this.aasBackend = aasBackend;
+        this.submodelBackend = submodelBackend;
+        this.aasSerializationService = aasSerializationService;
+        this.writeBehindService = writeBehindService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.attachmentStoreService = attachmentStoreService;
+        this.canonicalizationService = canonicalizationService;
+        this.messagingSupportService = messagingSupportService;
+        this.batchSize = Math.max(1, batchSize);
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public void exportTo(OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out, 64 * 1024);
+        long count = 0;
+        for (AssetAdministrationShell shell : aasBackend.findAll()) {
+            writeLine(gzip, SHELL_PREFIX, aasSerializationService.serialize(shell));
+            count++;
+        }
+        for (Submodel submodel : submodelBackend.findAll()) {
+            writeLine(gzip, SUBMODEL_PREFIX, serializeWithContents(writeBehindService.resolve(submodel)));
+            count++;
+        }
+        gzip.finish();
+        gzip.flush();
+        log.info("Exported {} shells and submodels", count);
+    }
+
+    /**
+     * Serializes a submodel with the Blob contents that are kept in the AttachmentStoreService.
+     */
+    private byte[] serializeWithContents(Submodel submodel) throws IOException {
+        if (!attachmentStoreService.hasAttachments(submodel)) {
+            return aasSerializationService.serialize(submodel);
+        }
+        JsonNode tree = aasSerializationService.toTree(submodel);
+        attachmentStoreService.inline(submodel, tree);
+        return aasSerializationService.serialize(tree);
+    }
+
+    public ImportResult importFrom(InputStream in) throws IOException, InterruptedException {
+        AtomicLong shellCount = new AtomicLong();
+        AtomicLong submodelCount = new AtomicLong();
+        AtomicLong failedCount = new AtomicLong();
+        List<String> errors = Collections.synchronizedList(new ArrayList<>());
+        // bounds the number of parsed batches that are waiting for a writer
+        Semaphore pendingBatches = new Semaphore(parallelism * 2);
+        ExecutorService writers = Executors.newFixedThreadPool(parallelism);
+        long lineNumber = 0;
+        boolean truncated = false;
+        // catalogs show the repository before or after the import, never in between
+        catalogSnapshotService.holdPublication();
+        try (InputStream lines = decompressIfGzipped(in)) {
+            List<AssetAdministrationShell> shells = new ArrayList<>();
+            List<Submodel> submodels = new ArrayList<>();
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                line.reset();
+                int next;
+                try {
+                    while ((next = lines.read()) != -1 && next != '\n') {
+                        line.write(next);
+                    }
+                } catch (EOFException e) {
+                    // the gzip data ends early
+                    truncated = true;
+                    break;
+                }
+                endOfStream = next == -1;
+                lineNumber++;
+                try {
+                    JsonNode value = readLine(line.toByteArray());
+                    if (value == null) {
+                        continue;
+                    }
+                    String type = value.path("type").asText();
+                    if (SHELL_TYPE.equals(type)) {
+                        shells.add(aasSerializationService.deserializeShell(value.get("value")));
+                    } else if (SUBMODEL_TYPE.equals(type)) {
+                        submodels.add(aasSerializationService.deserializeSubmodel(value.get("value")));
+                    } else {
+                        skipLine(lineNumber, "unknown type '" + type + "'", failedCount, errors);
+                    }
+                } catch (Exception e) {
+                    if (endOfStream) {
+                        // the last line has no line break and is incomplete
+                        truncated = true;
+                        break;
+                    }
+                    skipLine(lineNumber, e.getMessage(), failedCount, errors);
+                }
+                if (shells.size() + submodels.size() >= batchSize) {
+                    submitBatch(writers, pendingBatches, shells, submodels, shellCount, submodelCount, failedCount);
+                    shells = new ArrayList<>();
+                    submodels = new ArrayList<>();
+                }
+            }
+            submitBatch(writers, pendingBatches, shells, submodels, shellCount, submodelCount, failedCount);
+            pendingBatches.acquire(parallelism * 2);
+        } finally {
+            // waits for the batches that are still being written, also if the import failed
+            writers.close();
+            catalogSnapshotService.releasePublication();
+        }
+        ImportResult result = new ImportResult(shellCount.get(), submodelCount.get(), failedCount.get(), List.copyOf(errors));
+        if (truncated) {
+            log.warn("Import truncated in line {}, imported {} shells and {} submodels before", lineNumber,
+                    result.shells(), result.submodels());
+            throw new ImportTruncatedException(lineNumber, result);
+        }
+        log.info("Imported {} shells and {} submodels, {} failed", result.shells(), result.submodels(), result.failed());
+        return result;
+    }
+
+    /**
+     * @return the JSON object of the line, null if the line is blank
+     */
+    private JsonNode readLine(byte[] line) throws IOException {
+        try (JsonParser parser = aasSerializationService.createParser(line)) {
+            JsonNode value = aasSerializationService.readTree(parser);
+            if (value == null || value.isMissingNode()) {
+                return null;
+            }
+            if (!value.isObject()) {
+                throw new IOException("not a JSON object");
+            }
+            if (parser.nextToken() != null) {
+                throw new IOException("unexpected content after the JSON object");
+            }
+            return value;
+        }
+    }
+
+    private static void skipLine(long lineNumber, String reason, AtomicLong failedCount, List<String> errors) {
+        log.warn("Skipping import line {}: {}", lineNumber, reason);
+        failedCount.incrementAndGet();
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    private void submitBatch(ExecutorService writers, Semaphore pendingBatches, List<AssetAdministrationShell> shells,
+                             List<Submodel> submodels, AtomicLong shellCount, AtomicLong submodelCount,
+                             AtomicLong failedCount) throws InterruptedException {
+        if (shells.isEmpty() && submodels.isEmpty()) {
+            return;
+        }
+        pendingBatches.acquire();
+        writers.execute(() -> {
+            try {
+                writeBatch(shells, submodels, shellCount, submodelCount, failedCount);
+            } finally {
+                pendingBatches.release();
+            }
+        });
+    }
+
+    private void writeBatch(List<AssetAdministrationShell> shells, List<Submodel> submodels, AtomicLong shellCount,
+                            AtomicLong submodelCount, AtomicLong failedCount) {
+        List<AssetAdministrationShell> savedShells = List.of();
+        List<Submodel> savedSubmodels = List.of();
+        Set<String> replacedShellIds = new HashSet<>();
+        Set<String> replacedSubmodelIds = new HashSet<>();
+        try {
+            for (AssetAdministrationShell shell : shells) {
+                canonicalizationService.canonicalize(shell);
+                if (aasBackend.existsById(shell.getId())) {
+                    replacedShellIds.add(shell.getId());
+                }
+            }
+            if (!shells.isEmpty()) {
+                savedShells = toList(aasBackend.saveAll(shells));
+            }
+            shellCount.addAndGet(savedShells.size());
+        } catch (Exception e) {
+            log.error("Failed to import a batch of {} shells", shells.size(), e);
+            failedCount.addAndGet(shells.size());
+        }
+        try {
+            for (Submodel submodel : submodels) {
+                canonicalizationService.canonicalize(submodel);
+                attachmentStoreService.externalize(submodel);
+                if (submodelBackend.existsById(submodel.getId())) {
+                    replacedSubmodelIds.add(submodel.getId());
+                }
+            }
+            if (!submodels.isEmpty()) {
+                savedSubmodels = toList(submodelBackend.saveAll(submodels));
+            }
+            submodelCount.addAndGet(savedSubmodels.size());
+        } catch (Exception e) {
+            log.error("Failed to import a batch of {} submodels", submodels.size(), e);
+            failedCount.addAndGet(submodels.size());
+        }
+        messagingSupportService.notifyImportedBatch(savedShells, savedSubmodels, replacedShellIds, replacedSubmodelIds);
+    }
+
+    private static <T> List<T> toList(Iterable<T> iterable) {
+        List<T> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    private static void writeLine(OutputStream out, byte[] prefix, byte[] value) throws IOException {
+        out.write(prefix);
+        out.write(value);
+        out.write(LINE_SUFFIX);
+    }
+
+    private static InputStream decompressIfGzipped(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 64 * 1024);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+            return new BufferedInputStream(new GZIPInputStream(buffered, 64 * 1024), 64 * 1024);
+        }
+        return buffered;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+/**
+ * Checks the body of a shell or submodel POST/PUT in a single streaming pass over the raw bytes,
+ * before it is bound to the aas4j model, so that oversized or malformed bodies are rejected without
+ * allocating their object graph. The limits are the total number of bytes, the number of JSON values
+ * (objects, arrays and scalars), the nesting depth and the length of strings and field names; a limit
+ * of 0 is not checked.
+ *
+ * The pass also picks up the top-level "id", so that the conflict and not-found checks can run before
+ * the full parse.
+ */
+@Service
+@Slf4j
+public class RequestBodyValidationService {
+
+    /**
+     * Thrown for a rejected body, with 413 for a body over the byte limit and 400 otherwise.
+     * Rejections are expected from misbehaving partners, so the exception skips filling in its
+     * stack trace.
+     */
+    public static class RequestBodyRejectedException extends ResponseStatusException {
+        public RequestBodyRejectedException(HttpStatus status, String reason) {
+            super(status, reason);
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    private final AasSerializationService aasSerializationService;
+    private final int maxBytes;
+    private final int maxValues;
+    private final int maxDepth;
+    private final int maxStringLength;
+
+    public RequestBodyValidationService(AasSerializationService aasSerializationService,
+                                        @Value("${org.factoryx.dspnativebasyx.bodyvalidation.maxbytes:16777216}") int maxBytes,
+                                        @Value("${org.factoryx.dspnativebasyx.bodyvalidation.maxelements:200000}") int maxValues,
+                                        @Value("${org.factoryx.dspnativebasyx.bodyvalidation.maxdepth:64}") int maxDepth,
+                                        @Value("${org.factoryx.dspnativebasyx.bodyvalidation.maxstringlength:1048576}") int maxStringLength) {
+        this.aasSerializationService = aasSerializationService;
+        this.maxBytes = maxBytes;
+        this.maxValues = maxValues;
+        this.maxDepth = maxDepth;
+        this.maxStringLength = maxStringLength;
+    }
+
+    /**
+     * Validates the body of a shell or submodel and returns its id.
+     *
+     * @throws RequestBodyRejectedException if the body exceeds a limit, is not a single well-formed
+     *                                      JSON object or has no string "id"
+     */
+    public String validate(byte[] body) {
+        if (body == null || body.length == 0) {
+            throw reject(HttpStatus.BAD_REQUEST, "empty body");
+        }
+        if (maxBytes > 0 && body.length > maxBytes) {
+            throw reject(HttpStatus.PAYLOAD_TOO_LARGE, body.length + " bytes");
+        }
+        String id = null;
+        try (JsonParser parser = aasSerializationService.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw reject(HttpStatus.BAD_REQUEST, "not a JSON object");
+            }
+            int depth = 1;
+            int values = 1;
+            JsonToken token;
+            while (depth > 0 && (token = parser.nextToken()) != null) {
+                switch (token) {
+                    case FIELD_NAME -> {
+                        checkLength(parser);
+                        if (depth == 1 && "id".equals(parser.currentName())) {
+                            if (parser.nextToken() != JsonToken.VALUE_STRING) {
+                                throw reject(HttpStatus.BAD_REQUEST, "id is not a string");
+                            }
+                            checkLength(parser);
+                            id = parser.getText();
+                            values++;
+                        }
+                        continue;
+                    }
+                    case START_OBJECT, START_ARRAY -> {
+                        if (maxDepth > 0 && ++depth > maxDepth) {
+                            throw reject(HttpStatus.BAD_REQUEST, "nesting deeper than " + maxDepth);
+                        }
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        continue;
+                    }
+                    case VALUE_STRING -> checkLength(parser);
+                    default -> {
+                    }
+                }
+                if (maxValues > 0 && ++values > maxValues) {
+                    throw reject(HttpStatus.BAD_REQUEST, "more than " + maxValues + " values");
+                }
+            }
+            if (depth > 0 || parser.nextToken() != null) {
+                throw reject(HttpStatus.BAD_REQUEST, "not a single JSON object");
+            }
+        } catch (IOException e) {
+            throw reject(HttpStatus.BAD_REQUEST, "malformed JSON: " + e.getMessage());
+        }
+        if (id == null) {
+            throw reject(HttpStatus.BAD_REQUEST, "no id");
+        }
+        return id;
+    }
+
+    private void checkLength(JsonParser parser) throws IOException {
+        if (maxStringLength > 0 && parser.getTextLength() > maxStringLength) {
+            throw reject(HttpStatus.BAD_REQUEST, "string longer than " + maxStringLength);
+        }
+    }
+
+    private static RequestBodyRejectedException reject(HttpStatus status, String reason) {
+        log.debug("Rejected request body: {}", reason);
+        return new RequestBodyRejectedException(status, reason);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Optional warm-up after startup. The DSP endpoints accept traffic right away, while a background
+ * thread loads the catalog snapshot and the submodel index and pre-serializes up to maxassets
+ * shells and submodels into the DtoCacheService, so that the first requests do not pay for it.
+ *
+ * Which assets will be requested most is not known at startup, so the first maxassets of the
+ * catalog are taken; dtocache.maxentries bounds what is kept anyway.
+ */
+@Service
+@Slf4j
+public class StartupWarmUpService {
+
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final SubmodelIndexService submodelIndexService;
+    private final CatalogFragmentService catalogFragmentService;
+    private final WriteBehindService writeBehindService;
+    private final boolean enabled;
+    private final int maxAssets;
+
+    public StartupWarmUpService(CatalogSnapshotService catalogSnapshotService, SubmodelIndexService submodelIndexService,
+                                CatalogFragmentService catalogFragmentService, WriteBehindService writeBehindService,
+                                @Value("${org.factoryx.dspnativebasyx.startup.warmup.enabled:false}") boolean enabled,
+                                @Value("${org.factoryx.dspnativebasyx.startup.warmup.maxassets:1000}") int maxAssets) {
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.submodelIndexService = submodelIndexService;
+        this.catalogFragmentService = catalogFragmentService;
+        this.writeBehindService = writeBehindService;
+        this.enabled = enabled;
+        this.maxAssets = maxAssets;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("startup-warm-up").start(this::warmUp);
+        }
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        try {
+            var snapshot = catalogSnapshotService.getSnapshot();
+            submodelIndexService.preload();
+            int serialized = 0;
+            for (AssetAdministrationShell shell : snapshot.shells()) {
+                if (serialized >= maxAssets) {
+                    break;
+                }
+                // through the DataAssets, which load the full objects behind summaries of a ModelStore
+                catalogFragmentService.getShellAsset(shell).getETag();
+                serialized++;
+            }
+            for (Submodel submodel : snapshot.submodels()) {
+                if (serialized >= maxAssets) {
+                    break;
+                }
+                catalogFragmentService.getSubmodelAsset(writeBehindService.resolve(submodel)).getETag();
+                serialized++;
+            }
+            log.info("Warm-up finished in {} ms, pre-serialized {} assets", (System.nanoTime() - start) / 1_000_000, serialized);
+        } catch (Exception e) {
+            log.error("Warm-up failed", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ModelStoreInvocationHandler;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+
+/**
+ * Secondary indexes over the submodels: an inverted index from the key values of the semanticIds
+ * to the submodel ids, and a sorted index of the idShorts for prefix searches.
+ *
+ * The indexes are maintained by every write on the SubmodelBackend, including those of the BaSyx
+ * REST API (see ChangeTrackingConfig), and by the writes of other replicas. They are built from the
+ * SubmodelBackend with the first search, and changes made in the meantime take precedence.
+ */
+@Service
+@Slf4j
+public class SubmodelIndexService {
+
+    /**
+     * The indexed attributes of a submodel, which are also sufficient to apply the RBAC rules.
+     */
+    public record IndexEntry(String id, String idShort, List<String> semanticIds, List<String> submodelElementIdShorts) {
+    }
+
+    /**
+     * @param results   the matching entries, at most limit
+     * @param truncated true, if there are more matches than limit
+     */
+    public record SearchResult(List<IndexEntry> results, boolean truncated) {
+    }
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final SubmodelBackend submodelBackend;
+    private final ConcurrentHashMap<String, IndexEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> bySemanticId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<String>> byIdShort = new ConcurrentSkipListMap<>();
+    private final Set<String> removedBeforeLoad = ConcurrentHashMap.newKeySet();
+    private volatile boolean loaded = false;
+
+    public SubmodelIndexService(SubmodelBackend submodelBackend) {
+        this.submodelBackend = submodelBackend;
+    }
+
+    /**
+     * Indexes a created or updated submodel. Must not run concurrently for the same id,
+     * which the per-id write locks ensure.
+     */
+    public void update(Submodel submodel) {
+        IndexEntry entry = toEntry(submodel);
+        IndexEntry previous = entries.put(entry.id(), entry);
+        if (previous != null) {
+            unlink(previous);
+        }
+        link(entry);
+    }
+
+    public void remove(String submodelId) {
+        if (!loaded) {
+            removedBeforeLoad.add(submodelId);
+        }
+        IndexEntry previous = entries.remove(submodelId);
+        if (previous != null) {
+            unlink(previous);
+        }
+    }
+
+    /**
+     * Finds the submodels that carry the semanticId and whose idShort starts with the prefix.
+     * Either criterion may be null. The results are ordered by idShort if a prefix is given.
+     * The limit is clamped to [1, MAX_LIMIT].
+     */
+    public SearchResult search(String semanticId, String idShortPrefix, int limit, Predicate<IndexEntry> filter) {
+        limit = Math.max(1, Math.min(limit, MAX_LIMIT));
+        ensureLoaded();
+        Collection<String> candidates;
+        if (idShortPrefix != null) {
+            List<String> ids = new ArrayList<>();
+            byIdShort.subMap(idShortPrefix, true, idShortPrefix + Character.MAX_VALUE, true)
+                    .values().forEach(ids::addAll);
+            candidates = ids;
+        } else if (semanticId != null) {
+            candidates = bySemanticId.getOrDefault(semanticId, Set.of());
+        } else {
+            candidates = entries.keySet();
+        }
+        List<IndexEntry> results = new ArrayList<>();
+        for (String id : candidates) {
+            IndexEntry entry = entries.get(id);
+            if (entry == null || (semanticId != null && !entry.semanticIds().contains(semanticId)) || !filter.test(entry)) {
+                continue;
+            }
+            if (results.size() == limit) {
+                return new SearchResult(results, true);
+            }
+            results.add(entry);
+        }
+        return new SearchResult(results, false);
+    }
+
+    /**
+     * Builds the index now instead of with the first search.
+     */
+    public void preload() {
+        ensureLoaded();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            int count = 0;
+            // the summaries of a ModelStore carry all indexed attributes
+            for (Submodel submodel : ModelStoreInvocationHandler.findAllSummaries(submodelBackend)) {
+                if (removedBeforeLoad.contains(submodel.getId())) {
+                    continue;
+                }
+                IndexEntry entry = toEntry(submodel);
+                if (entries.putIfAbsent(entry.id(), entry) == null) {
+                    link(entry);
+                    count++;
+                }
+            }
+            loaded = true;
+            removedBeforeLoad.clear();
+            log.info("Indexed {} submodels", count);
+        }
+    }
+
+    private void link(IndexEntry entry) {
+        for (String semanticId : entry.semanticIds()) {
+            bySemanticId.compute(semanticId, (key, ids) -> add(ids, entry.id()));
+        }
+        if (entry.idShort() != null) {
+            byIdShort.compute(entry.idShort(), (key, ids) -> add(ids, entry.id()));
+        }
+    }
+
+    private void unlink(IndexEntry entry) {
+        for (String semanticId : entry.semanticIds()) {
+            bySemanticId.computeIfPresent(semanticId, (key, ids) -> {
+                ids.remove(entry.id());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        if (entry.idShort() != null) {
+            byIdShort.computeIfPresent(entry.idShort(), (key, ids) -> {
+                ids.remove(entry.id());
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    // adding and removing within compute keeps a concurrent removal of the last id from dropping a new one
+    private static Set<String> add(Set<String> ids, String id) {
+        Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+        result.add(id);
+        return result;
+    }
+
+    private static IndexEntry toEntry(Submodel submodel) {
+        List<String> semanticIds = new ArrayList<>();
+        if (submodel.getSemanticId() != null && submodel.getSemanticId().getKeys() != null) {
+            for (Key key : submodel.getSemanticId().getKeys()) {
+                if (key.getValue() != null) {
+                    semanticIds.add(key.getValue());
+                }
+            }
+        }
+        List<String> elementIdShorts = submodel.getSubmodelElements() == null ? List.of()
+                : submodel.getSubmodelElements().stream().map(Referable::getIdShort).toList();
+        return new IndexEntry(submodel.getId(), submodel.getIdShort(), List.copyOf(semanticIds), elementIdShorts);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Selects submodels by their semanticId or by a pattern on their id.
+ * Used to opt in individual submodels into optional features.
+ */
+public class SubmodelMatcher {
+
+    private final Set<String> semanticIds;
+    private final Pattern idPattern;
+
+    /**
+     * @param semanticIds comma separated list of semanticId key values, may be empty
+     * @param idPattern   regular expression that has to match the whole submodel id, may be empty
+     */
+    public SubmodelMatcher(String semanticIds, String idPattern) {
+        this.semanticIds = Arrays.stream(semanticIds.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.idPattern = idPattern.isBlank() ? null : Pattern.compile(idPattern.trim());
+    }
+
+    public boolean isEmpty() {
+        return semanticIds.isEmpty() && idPattern == null;
+    }
+
+    public boolean matches(Submodel submodel) {
+        if (idPattern != null && submodel.getId() != null && idPattern.matcher(submodel.getId()).matches()) {
+            return true;
+        }
+        if (!semanticIds.isEmpty() && submodel.getSemanticId() != null && submodel.getSemanticId().getKeys() != null) {
+            for (Key key : submodel.getSemanticId().getKeys()) {
+                if (semanticIds.contains(key.getValue())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
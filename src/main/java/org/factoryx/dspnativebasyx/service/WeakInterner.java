@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe interning pool for Strings that only holds its canonical instances weakly, so that
+ * values which are no longer referenced from anywhere else are garbage collected and dropped from
+ * the pool. It is limited to Strings because the hash code of an entry is kept from the insert,
+ * which only holds for immutable values; sharing mutable model objects would also let a change
+ * through one model show up in all others.
+ */
+public class WeakInterner {
+
+    private final ConcurrentHashMap<WeakKey, WeakKey> pool = new ConcurrentHashMap<>();
+    private final ReferenceQueue<String> queue = new ReferenceQueue<>();
+
+    /**
+     * Returns the canonical instance equal to the value, which is the value itself if there is none yet.
+     */
+    public String intern(String value) {
+        expungeStaleEntries();
+        WeakKey key = new WeakKey(value, queue);
+        while (true) {
+            WeakKey existing = pool.putIfAbsent(key, key);
+            if (existing == null) {
+                return value;
+            }
+            String canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            pool.remove(existing, existing);
+        }
+    }
+
+    public int size() {
+        expungeStaleEntries();
+        return pool.size();
+    }
+
+    private void expungeStaleEntries() {
+        Reference<? extends String> stale;
+        while ((stale = queue.poll()) != null) {
+            pool.remove(stale);
+        }
+    }
+
+    private static final class WeakKey extends WeakReference<String> {
+
+        // kept, so that the entry can still be removed after its value has been collected
+        private final int hash;
+
+        WeakKey(String value, ReferenceQueue<String> queue) {
+            super(value, queue);
+            this.hash = value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof WeakKey otherKey) || hash != otherKey.hash) {
+                return false;
+            }
+            String value = get();
+            return value != null && value.equals(otherKey.get());
+        }
+    }
+}
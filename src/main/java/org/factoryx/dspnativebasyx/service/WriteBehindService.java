@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ChangeTrackingInvocationHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Opt-in write-behind buffer for submodels that are updated at a high frequency,
+ * e.g. because they carry live machine values.
+ *
+ * Updates of the configured submodels only replace the latest state in memory. Reads are
+ * answered from that state, and the newest state of every buffered submodel is written to
+ * the SubmodelBackend after at most flushdelaymillis, or earlier when maxbuffered submodels
+ * are waiting. Updates that have not been flushed yet are lost if the process dies.
+ *
+ * A flush saves a snapshot of the buffer in batches of FLUSH_BATCH_SIZE, outside of any map
+ * operation, so that writers and readers of the buffer never wait for the backend.
+ */
+@Service
+@Slf4j
+public class WriteBehindService {
+
+    private static final int FLUSH_BATCH_SIZE = 100;
+
+    private final SubmodelBackend submodelBackend;
+    private final SubmodelBackend flushBackend;
+    private final SubmodelMatcher matcher;
+    private final int maxBuffered;
+    private final ConcurrentHashMap<String, Submodel> buffer = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+    // held by a flush, so that a discarded state cannot be saved by a flush already in progress
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+
+    public WriteBehindService(SubmodelBackend submodelBackend,
+                              @Value("${org.factoryx.dspnativebasyx.writebehind.semanticids:}") String semanticIds,
+                              @Value("${org.factoryx.dspnativebasyx.writebehind.idpattern:}") String idPattern,
+                              @Value("${org.factoryx.dspnativebasyx.writebehind.flushdelaymillis:1000}") long flushDelayMillis,
+                              @Value("${org.factoryx.dspnativebasyx.writebehind.maxbuffered:1000}") int maxBuffered) {
+        this.submodelBackend = submodelBackend;
+        // the buffered states have been reported to the ModelWritePipeline when they were buffered
+        this.flushBackend = ChangeTrackingInvocationHandler.unwrap(submodelBackend);
+        this.matcher = new SubmodelMatcher(semanticIds, idPattern);
+        this.maxBuffered = maxBuffered;
+        if (matcher.isEmpty()) {
+            this.scheduler = null;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "write-behind-flush");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::flush, flushDelayMillis, flushDelayMillis, TimeUnit.MILLISECONDS);
+            log.info("Write-behind enabled for submodels with semanticIds [{}] or ids matching '{}', flush delay {} ms",
+                    semanticIds, idPattern, flushDelayMillis);
+        }
+    }
+
+    public boolean appliesTo(Submodel submodel) {
+        return scheduler != null && matcher.matches(submodel);
+    }
+
+    /**
+     * Looks up a submodel, preferring the buffered state over the backend.
+     */
+    public Optional<Submodel> findById(String submodelId) {
+        Submodel buffered = buffer.get(submodelId);
+        if (buffered != null) {
+            return Optional.of(buffered);
+        }
+        return submodelBackend.findById(submodelId);
+    }
+
+    /**
+     * Replaces a submodel read from the backend by its buffered state, if there is one.
+     */
+    public Submodel resolve(Submodel fromBackend) {
+        if (buffer.isEmpty()) {
+            return fromBackend;
+        }
+        return buffer.getOrDefault(fromBackend.getId(), fromBackend);
+    }
+
+    public void buffer(Submodel submodel) {
+        buffer.put(submodel.getId(), submodel);
+        if (buffer.size() >= maxBuffered && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Drops the buffered state, e.g. because the submodel is replaced or deleted on the backend.
+     */
+    public void discard(String submodelId) {
+        flushLock.lock();
+        try {
+            buffer.remove(submodelId);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the buffered state of one submodel to the backend, e.g. before a part of it is
+     * written there. A failed save is thrown.
+     */
+    public void flush(String submodelId) {
+        flushLock.lock();
+        try {
+            Submodel buffered = buffer.get(submodelId);
+            if (buffered != null) {
+                flushBackend.save(buffered);
+                removeIfUnchanged(buffered);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the newest buffered state of every submodel to the backend. A submodel is only
+     * removed from the buffer after it has been saved and only if it has not been updated in the
+     * meantime, so that reads never fall back to an outdated backend state. A newer state and a
+     * failed save are written with the next flush.
+     */
+    public void flush() {
+        flushRequested.set(false);
+        flushLock.lock();
+        try {
+            List<Submodel> snapshot = List.copyOf(buffer.values());
+            int flushed = 0;
+            for (int from = 0; from < snapshot.size(); from += FLUSH_BATCH_SIZE) {
+                flushed += flushBatch(snapshot.subList(from, Math.min(from + FLUSH_BATCH_SIZE, snapshot.size())));
+            }
+            if (flushed > 0) {
+                log.debug("Flushed {} buffered submodels", flushed);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Saves the batch at once and, if that fails, one by one, so that a single submodel the
+     * backend rejects does not keep the others in the buffer.
+     *
+     * @return the number of saved submodels
+     */
+    private int flushBatch(List<Submodel> batch) {
+        try {
+            flushBackend.saveAll(batch);
+            batch.forEach(this::removeIfUnchanged);
+            return batch.size();
+        } catch (Exception e) {
+            log.warn("Failed to flush a batch of {} buffered submodels, saving them one by one", batch.size(), e);
+        }
+        int flushed = 0;
+        for (Submodel submodel : batch) {
+            try {
+                flushBackend.save(submodel);
+                removeIfUnchanged(submodel);
+                flushed++;
+            } catch (Exception e) {
+                log.error("Failed to flush buffered submodel {}", submodel.getId(), e);
+            }
+        }
+        return flushed;
+    }
+
+    private void removeIfUnchanged(Submodel saved) {
+        buffer.computeIfPresent(saved.getId(), (id, current) -> current == saved ? null : current);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            flush();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes the read-modify-write sequences on a single shell or submodel, e.g. the
+ * existence check, the save and the notification of a PUT, so that concurrent writers of
+ * the same id can neither lose updates nor emit their notifications out of order.
+ *
+ * The locks are striped: ids are hashed onto a fixed number of locks, so that the memory
+ * use does not grow with the number of ids and writers of different ids only contend
+ * if their ids share a stripe.
+ */
+@Service
+public class WriteLockService {
+
+    public static final String SHELLS = "shells/";
+    public static final String SUBMODELS = "submodels/";
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public WriteLockService(@Value("${org.factoryx.dspnativebasyx.writelocks.stripes:1024}") int stripeCount) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock getShellLock(String shellId) {
+        return stripes[stripeIndex(SHELLS + shellId)];
+    }
+
+    public Lock getSubmodelLock(String submodelId) {
+        return stripes[stripeIndex(SUBMODELS + submodelId)];
+    }
+
+    int getStripeCount() {
+        return stripes.length;
+    }
+
+    int stripeIndex(String key) {
+        int hash = key.hashCode();
+        // spread the higher bits, as String hashes of similar ids mostly differ in the lower ones
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return hash & mask;
+    }
+}
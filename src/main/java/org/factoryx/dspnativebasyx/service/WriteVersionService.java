@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the writes of every shell and submodel, so that values derived from a model object, e.g.
+ * its serialized DTO or its catalog entry, can be checked for being current by comparing the
+ * version they have been computed at. Unlike a comparison of the model objects, this also detects
+ * writes that a backend applied to the very instance that is held by a cache.
+ *
+ * The versions are drawn from one sequence, so that an id that is deleted and created again never
+ * gets one of its earlier versions back. Objects that have not been written since the start have
+ * version 0.
+ */
+@Service
+public class WriteVersionService {
+
+    private static final String SHELL_KEY_PREFIX = "shell:";
+    private static final String SUBMODEL_KEY_PREFIX = "submodel:";
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+
+    public long getShellVersion(String shellId) {
+        return versions.getOrDefault(SHELL_KEY_PREFIX + shellId, 0L);
+    }
+
+    public long getSubmodelVersion(String submodelId) {
+        return versions.getOrDefault(SUBMODEL_KEY_PREFIX + submodelId, 0L);
+    }
+
+    public void shellWritten(String shellId) {
+        versions.put(SHELL_KEY_PREFIX + shellId, sequence.incrementAndGet());
+    }
+
+    public void submodelWritten(String submodelId) {
+        versions.put(SUBMODEL_KEY_PREFIX + submodelId, sequence.incrementAndGet());
+    }
+
+    public void shellDeleted(String shellId) {
+        versions.remove(SHELL_KEY_PREFIX + shellId);
+    }
+
+    public void submodelDeleted(String submodelId) {
+        versions.remove(SUBMODEL_KEY_PREFIX + submodelId);
+    }
+}
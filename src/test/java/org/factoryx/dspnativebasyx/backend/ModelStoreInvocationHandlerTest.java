@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.backend;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class tests the ModelStoreInvocationHandler
+ */
+public class ModelStoreInvocationHandlerTest {
+
+    /**
+     * Stands in for the BaSyx backend interfaces: CRUD plus operations on the object with the given id,
+     * with the signatures of the SubmodelBackend.
+     */
+    public interface TestBackend extends CrudRepository<Submodel, String> {
+        void deleteSubmodelElement(String submodelId, String idShortPath);
+
+        SubmodelElement getSubmodelElement(String submodelId, String idShortPath);
+
+        // not known to BackendOperations
+        void rename(String submodelId, String idShort);
+
+        default String getIdShortOf(String submodelId) {
+            return findById(submodelId).map(Submodel::getIdShort).orElse(null);
+        }
+    }
+
+    public interface BackendWithoutIds extends CrudRepository<Submodel, String> {
+        void rename(Submodel submodel, String idShort);
+    }
+
+    private MongoModelStore<Submodel> store;
+    private InMemoryTestBackend workspace;
+    private TestBackend backend;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        store = Mockito.mock(MongoModelStore.class);
+        workspace = new InMemoryTestBackend();
+        ReentrantLock lock = new ReentrantLock();
+        backend = ModelStoreInvocationHandler.create(TestBackend.class, workspace, store, id -> lock);
+    }
+
+    @Test
+    public void crudMethodsShouldUseTheStore() {
+        Submodel submodel = getSubmodel("sm1", "Nameplate");
+        Mockito.when(store.findById("sm1")).thenReturn(Optional.of(submodel));
+
+        backend.save(submodel);
+
+        Mockito.verify(store).save(submodel);
+        Assertions.assertEquals(Optional.of(submodel), backend.findById("sm1"));
+        Assertions.assertTrue(workspace.submodels.isEmpty());
+        Assertions.assertTrue(ModelStoreInvocationHandler.isStoreBackend(backend));
+    }
+
+    @Test
+    public void writeOperationsShouldBeAppliedInTheWorkspaceAndWrittenBack() {
+        Mockito.when(store.findCopyById("sm1")).thenReturn(Optional.of(getSubmodel("sm1", "Nameplate")));
+
+        backend.deleteSubmodelElement("sm1", "SerialNumber");
+
+        ArgumentCaptor<Submodel> saved = ArgumentCaptor.forClass(Submodel.class);
+        Mockito.verify(store).save(saved.capture());
+        Assertions.assertTrue(saved.getValue().getSubmodelElements().isEmpty());
+        Assertions.assertTrue(workspace.submodels.isEmpty());
+    }
+
+    @Test
+    public void readOperationsShouldNotWriteBack() {
+        Mockito.when(store.findCopyById("sm1")).thenReturn(Optional.of(getSubmodel("sm1", "Nameplate")));
+
+        Assertions.assertEquals("SerialNumber", backend.getSubmodelElement("sm1", "SerialNumber").getIdShort());
+
+        Mockito.verify(store, Mockito.never()).save(Mockito.any());
+        Assertions.assertTrue(workspace.submodels.isEmpty());
+    }
+
+    @Test
+    public void unclassifiedOperationsShouldBeWrittenBack() {
+        Mockito.when(store.findCopyById("sm1")).thenReturn(Optional.of(getSubmodel("sm1", "Nameplate")));
+
+        backend.rename("sm1", "NameplateV2");
+
+        ArgumentCaptor<Submodel> saved = ArgumentCaptor.forClass(Submodel.class);
+        Mockito.verify(store).save(saved.capture());
+        Assertions.assertEquals("NameplateV2", saved.getValue().getIdShort());
+    }
+
+    @Test
+    public void defaultMethodsShouldRunOnTheProxy() {
+        Mockito.when(store.findById("sm1")).thenReturn(Optional.of(getSubmodel("sm1", "Nameplate")));
+
+        Assertions.assertEquals("Nameplate", backend.getIdShortOf("sm1"));
+        Assertions.assertTrue(workspace.submodels.isEmpty());
+    }
+
+    @Test
+    public void operationWithoutIdShouldFailAtCreation() {
+        Assertions.assertThrows(IllegalStateException.class, () -> ModelStoreInvocationHandler.create(
+                BackendWithoutIds.class, Mockito.mock(BackendWithoutIds.class), store, id -> new ReentrantLock()));
+    }
+
+    @Test
+    public void operationOnUnknownIdShouldFailLikeTheWorkspace() {
+        Mockito.when(store.findCopyById("sm1")).thenReturn(Optional.empty());
+
+        Assertions.assertThrows(NoSuchElementException.class, () -> backend.deleteSubmodelElement("sm1", "SerialNumber"));
+        Mockito.verify(store, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void operationsShouldNotModifyTheStoredObject() {
+        ShardedModelStore<Submodel> shardedStore = ShardedModelStore.forSubmodels(4, 16, new AasSerializationService(
+                JsonMapper.builder().addModule(new SimpleModule()
+                        .addAbstractTypeMapping(SubmodelElement.class, DefaultProperty.class)).build()));
+        Submodel stored = getSubmodel("sm1", "Nameplate");
+        shardedStore.save(stored);
+        TestBackend shardedBackend = ModelStoreInvocationHandler.create(TestBackend.class, workspace, shardedStore,
+                shardedStore::getLock);
+
+        shardedBackend.deleteSubmodelElement("sm1", "SerialNumber");
+
+        // readers still holding the stored object, e.g. the catalog snapshot, keep seeing it unchanged
+        Assertions.assertEquals(1, stored.getSubmodelElements().size());
+        Submodel updated = shardedStore.findById("sm1").orElseThrow();
+        Assertions.assertNotSame(stored, updated);
+        Assertions.assertTrue(updated.getSubmodelElements().isEmpty());
+    }
+
+    @Test
+    public void summariesShouldComeFromTheStore() {
+        List<Submodel> summaries = List.of(getSubmodel("sm1", "Nameplate"));
+        Mockito.when(store.findAllSummaries()).thenReturn(summaries);
+
+        Assertions.assertSame(summaries, ModelStoreInvocationHandler.findAllSummaries(backend));
+        Mockito.verify(store, Mockito.never()).findAll();
+        Assertions.assertEquals(List.of(), ModelStoreInvocationHandler.findAllSummaries(workspace));
+    }
+
+    private static Submodel getSubmodel(String id, String idShort) {
+        return new DefaultSubmodel.Builder().id(id).idShort(idShort)
+                .submodelElements(new ArrayList<>(List.of(new DefaultProperty.Builder().idShort("SerialNumber").value("1").build())))
+                .build();
+    }
+
+    private static class InMemoryTestBackend implements TestBackend {
+
+        private final Map<String, Submodel> submodels = new HashMap<>();
+
+        @Override
+        public void deleteSubmodelElement(String submodelId, String idShortPath) {
+            findById(submodelId).orElseThrow().getSubmodelElements().removeIf(element -> element.getIdShort().equals(idShortPath));
+        }
+
+        @Override
+        public SubmodelElement getSubmodelElement(String submodelId, String idShortPath) {
+            return findById(submodelId).orElseThrow().getSubmodelElements().stream()
+                    .filter(element -> element.getIdShort().equals(idShortPath)).findFirst().orElseThrow();
+        }
+
+        @Override
+        public void rename(String submodelId, String idShort) {
+            findById(submodelId).orElseThrow().setIdShort(idShort);
+        }
+
+        @Override
+        public <S extends Submodel> S save(S entity) {
+            submodels.put(entity.getId(), entity);
+            return entity;
+        }
+
+        @Override
+        public <S extends Submodel> Iterable<S> saveAll(Iterable<S> entities) {
+            entities.forEach(this::save);
+            return entities;
+        }
+
+        @Override
+        public Optional<Submodel> findById(String id) {
+            return Optional.ofNullable(submodels.get(id));
+        }
+
+        @Override
+        public boolean existsById(String id) {
+            return submodels.containsKey(id);
+        }
+
+        @Override
+        public Iterable<Submodel> findAll() {
+            return List.copyOf(submodels.values());
+        }
+
+        @Override
+        public Iterable<Submodel> findAllById(Iterable<String> ids) {
+            List<Submodel> found = new ArrayList<>();
+            ids.forEach(id -> findById(id).ifPresent(found::add));
+            return found;
+        }
+
+        @Override
+        public long count() {
+            return submodels.size();
+        }
+
+        @Override
+        public void deleteById(String id) {
+            submodels.remove(id);
+        }
+
+        @Override
+        public void delete(Submodel entity) {
+            submodels.remove(entity.getId());
+        }
+
+        @Override
+        public void deleteAllById(Iterable<? extends String> ids) {
+            ids.forEach(submodels::remove);
+        }
+
+        @Override
+        public void deleteAll(Iterable<? extends Submodel> entities) {
+            entities.forEach(this::delete);
+        }
+
+        @Override
+        public void deleteAll() {
+            submodels.clear();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.backend;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ConnectionString;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Property;
+import org.eclipse.digitaltwin.aas4j.v3.model.Referable;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.SubmodelElement;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tests the MongoModelStore against a local mongod (mongodb://localhost:27017 or the
+ * system property mongodb.uri), the tests are skipped if none is reachable.
+ */
+public class MongoModelStoreTest {
+
+    private static final String NAMEPLATE = "https://admin-shell.io/zvei/nameplate/2/0/Nameplate";
+
+    private MongoClient mongoClient;
+    private MongoCollection<Document> collection;
+    private MongoModelStore<Submodel> store;
+
+    @BeforeEach
+    public void init() {
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(System.getProperty("mongodb.uri", "mongodb://localhost:27017")))
+                .applyToClusterSettings(cluster -> cluster.serverSelectionTimeout(1, TimeUnit.SECONDS))
+                .build());
+        try {
+            mongoClient.getDatabase("admin").runCommand(new Document("ping", 1));
+        } catch (Exception e) {
+            mongoClient.close();
+            Assumptions.abort("No mongod reachable: " + e.getMessage());
+        }
+        collection = mongoClient.getDatabase("dspnativebasyx-test").getCollection("submodels-" + System.nanoTime());
+        store = MongoModelStore.forSubmodels(collection, new AasSerializationService(JsonMapper.builder()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .addModule(new SimpleModule()
+                        .addAbstractTypeMapping(Reference.class, DefaultReference.class)
+                        .addAbstractTypeMapping(Key.class, DefaultKey.class)
+                        .addAbstractTypeMapping(SubmodelElement.class, DefaultProperty.class))
+                .build()), 10);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        if (collection != null) {
+            collection.drop();
+        }
+        mongoClient.close();
+    }
+
+    @Test
+    public void savedSubmodelShouldBeReadBack() {
+        store.save(getSubmodel("sm1", "Nameplate"));
+        store.save(getSubmodel("sm1", "NameplateV2"));
+
+        Submodel read = store.findById("sm1").orElseThrow();
+        Assertions.assertEquals("NameplateV2", read.getIdShort());
+        Assertions.assertEquals(NAMEPLATE, read.getSemanticId().getKeys().get(0).getValue());
+        Assertions.assertTrue(store.existsById("sm1"));
+        Assertions.assertTrue(store.findById("sm2").isEmpty());
+        Assertions.assertEquals(1, store.count());
+    }
+
+    @Test
+    public void saveAllShouldWriteInBatches() {
+        List<Submodel> submodels = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            submodels.add(getSubmodel("sm" + i, "Nameplate" + i));
+        }
+
+        store.saveAll(submodels);
+
+        Assertions.assertEquals(25, store.findAll().size());
+        Assertions.assertEquals(2, store.findAllById(List.of("sm1", "sm2", "unknown")).size());
+    }
+
+    @Test
+    public void summariesShouldBeReadFromTheLookupFields() {
+        store.save(getSubmodel("sm1", "Nameplate"));
+        // a document written before the elementIdShorts were stored
+        store.save(getSubmodel("sm2", "Legacy"));
+        collection.updateOne(new Document(MongoModelStore.ID, "sm2"), new Document("$unset", new Document(MongoModelStore.ELEMENT_ID_SHORTS, "")));
+        // the summaries must not depend on the JSON
+        collection.updateOne(new Document(MongoModelStore.ID, "sm1"), new Document("$unset", new Document(MongoModelStore.JSON, "")));
+
+        Map<String, Submodel> summaries = new HashMap<>();
+        store.findAllSummaries().forEach(submodel -> summaries.put(submodel.getId(), submodel));
+
+        Submodel summary = summaries.get("sm1");
+        Assertions.assertInstanceOf(ModelSummary.class, summary);
+        Assertions.assertEquals("Nameplate", summary.getIdShort());
+        Assertions.assertEquals(NAMEPLATE, summary.getSemanticId().getKeys().get(0).getValue());
+        Assertions.assertEquals(List.of("SerialNumber"), summary.getSubmodelElements().stream().map(Referable::getIdShort).toList());
+        Assertions.assertFalse(summaries.get("sm2") instanceof ModelSummary);
+        Assertions.assertEquals("1", ((Property) summaries.get("sm2").getSubmodelElements().get(0)).getValue());
+    }
+
+    @Test
+    public void deletesShouldRemoveDocuments() {
+        store.saveAll(List.of(getSubmodel("sm1", "A"), getSubmodel("sm2", "B"), getSubmodel("sm3", "C")));
+
+        store.deleteById("sm1");
+        Assertions.assertEquals(2, store.count());
+        store.deleteAllById(List.of("sm2", "sm3"));
+        Assertions.assertEquals(0, store.count());
+    }
+
+    private static Submodel getSubmodel(String id, String idShort) {
+        return new DefaultSubmodel.Builder().id(id).idShort(idShort)
+                .semanticId(new DefaultReference.Builder().type(ReferenceTypes.EXTERNAL_REFERENCE)
+                        .keys(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE).value(NAMEPLATE).build()).build())
+                .submodelElements(new DefaultProperty.Builder().idShort("SerialNumber").value("1").build())
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.factoryx.dspnativebasyx.service.AasSerializationService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class tests the ShardedModelStore
+ */
+public class ShardedModelStoreTest {
+
+    private ShardedModelStore<Submodel> store;
+
+    @BeforeEach
+    public void init() {
+        store = ShardedModelStore.forSubmodels(6, 64, new AasSerializationService(new ObjectMapper()));
+    }
+
+    @Test
+    public void segmentCountShouldBeRoundedToPowerOfTwo() {
+        Assertions.assertEquals(8, store.getSegmentCount());
+        Assertions.assertEquals(1, ShardedModelStore.forSubmodels(0, 64, new AasSerializationService(new ObjectMapper())).getSegmentCount());
+    }
+
+    @Test
+    public void crudMethodsShouldWorkAcrossSegments() {
+        List<Submodel> submodels = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            submodels.add(getSubmodel("sm" + i));
+        }
+        store.saveAll(submodels);
+        store.save(getSubmodel("extra"));
+
+        Assertions.assertEquals(101, store.count());
+        Assertions.assertTrue(store.existsById("sm42"));
+        Assertions.assertEquals("sm42", store.findById("sm42").orElseThrow().getId());
+        Assertions.assertEquals(2, store.findAllById(List.of("sm1", "sm2", "unknown")).size());
+
+        store.deleteAllById(List.of("sm1", "sm2"));
+        store.delete(getSubmodel("extra"));
+        Assertions.assertEquals(98, store.count());
+        Assertions.assertTrue(store.findById("sm1").isEmpty());
+
+        store.deleteAll();
+        Assertions.assertEquals(0, store.count());
+        Assertions.assertFalse(store.findAll().iterator().hasNext());
+    }
+
+    @Test
+    public void parallelScanShouldSeeEveryObjectOnce() {
+        for (int i = 0; i < 10_000; i++) {
+            store.save(getSubmodel("sm" + i));
+        }
+
+        Spliterator<Submodel> spliterator = store.findAll().spliterator();
+        Assertions.assertTrue(spliterator.hasCharacteristics(Spliterator.CONCURRENT));
+        Assertions.assertNotNull(spliterator.trySplit());
+
+        Map<String, Long> counts = StreamSupport.stream(store.findAll().spliterator(), true)
+                .collect(Collectors.groupingByConcurrent(Submodel::getId, Collectors.counting()));
+        Assertions.assertEquals(10_000, counts.size());
+        Assertions.assertTrue(counts.values().stream().allMatch(count -> count == 1));
+
+        List<Submodel> iterated = new ArrayList<>();
+        store.findAll().iterator().forEachRemaining(iterated::add);
+        Assertions.assertEquals(10_000, iterated.size());
+    }
+
+    @Test
+    public void findByIdShouldNotWaitForSegmentLock() throws Exception {
+        store.save(getSubmodel("sm1"));
+        Lock lock = store.getLock("sm1");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = writer.submit(() -> {
+                lock.lock();
+                try {
+                    locked.countDown();
+                    release.await();
+                } finally {
+                    lock.unlock();
+                }
+                return null;
+            });
+            Assertions.assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+            Assertions.assertTrue(store.findById("sm1").isPresent());
+            Assertions.assertEquals(1, StreamSupport.stream(store.findAll().spliterator(), false).count());
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            writer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void scanShouldNotBlockConcurrentWriters() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            store.save(getSubmodel("stable" + i));
+        }
+        ExecutorService writers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int writerId = w;
+                futures.add(writers.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        String id = "writer" + writerId + "-" + (i % 100);
+                        store.save(getSubmodel(id));
+                        if (i % 3 == 0) {
+                            store.deleteById(id);
+                        }
+                    }
+                }));
+            }
+            for (int scan = 0; scan < 20; scan++) {
+                Set<String> seen = new HashSet<>();
+                store.findAll().forEach(submodel -> seen.add(submodel.getId()));
+                for (int i = 0; i < 1000; i++) {
+                    Assertions.assertTrue(seen.contains("stable" + i));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    private static Submodel getSubmodel(String id) {
+        return new DefaultSubmodel.Builder().id(id).idShort(id).build();
+    }
+}
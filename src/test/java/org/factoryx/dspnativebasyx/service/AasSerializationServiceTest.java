@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * This class tests the AasSerializationService
+ */
+public class AasSerializationServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .addModule(new SimpleModule()
+                    .addAbstractTypeMapping(AssetInformation.class, DefaultAssetInformation.class)
+                    .addAbstractTypeMapping(Reference.class, DefaultReference.class)
+                    .addAbstractTypeMapping(Key.class, DefaultKey.class))
+            .build();
+
+    private final AasSerializationService aasSerializationService = new AasSerializationService(objectMapper);
+
+    @Test
+    public void outputShouldMatchObjectMapper() throws Exception {
+        Submodel submodel = new DefaultSubmodel.Builder()
+                .id("urn:uuid:submodel-1")
+                .idShort("Nameplate")
+                .semanticId(new DefaultReference.Builder()
+                        .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                        .keys(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE).value("urn:example:nameplate").build())
+                        .build())
+                .build();
+
+        Assertions.assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(submodel)),
+                objectMapper.readTree(aasSerializationService.serialize(submodel)));
+        Assertions.assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(Map.of("id", "x"))),
+                objectMapper.readTree(aasSerializationService.serialize(Map.of("id", "x"))));
+    }
+
+    @Test
+    public void deserializedModelsShouldEqualOriginals() throws Exception {
+        AssetAdministrationShell shell = new DefaultAssetAdministrationShell.Builder()
+                .id("urn:uuid:shell-1")
+                .assetInformation(new DefaultAssetInformation.Builder().globalAssetId("urn:uuid:asset-1").build())
+                .build();
+        Submodel submodel = new DefaultSubmodel.Builder().id("urn:uuid:submodel-1").idShort("Nameplate").build();
+
+        Assertions.assertEquals(shell, aasSerializationService.deserializeShell(objectMapper.writeValueAsBytes(shell)));
+        Assertions.assertEquals(submodel, aasSerializationService.deserializeSubmodel(objectMapper.writeValueAsBytes(submodel)));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.digitaltwin.aas4j.v3.model.Blob;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultBlob;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelElementCollection;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class tests the AttachmentStoreService
+ */
+public class AttachmentStoreServiceTest {
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SubmodelBackend submodelBackend = Mockito.mock(SubmodelBackend.class);
+    private AttachmentStoreService attachmentStoreService;
+
+    @BeforeEach
+    public void init() throws Exception {
+        attachmentStoreService = new AttachmentStoreService(submodelBackend,
+                new WriteBehindService(submodelBackend, "", "", 1000, 1000), directory.toString(), 16, 3600000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        attachmentStoreService.stop();
+    }
+
+    @Test
+    public void largeBlobsShouldBeReplacedByReferenceInTheRepresentation() throws Exception {
+        byte[] content = content(7);
+        Blob large = new DefaultBlob.Builder().idShort("cad").contentType("model/step").value(content).build();
+        Blob small = new DefaultBlob.Builder().idShort("note").contentType("text/plain").value(new byte[]{1, 2}).build();
+        Submodel submodel = new DefaultSubmodel.Builder().id("sm1")
+                .submodelElements(new DefaultSubmodelElementCollection.Builder().idShort("files")
+                        .value(List.of(large, small)).build())
+                .build();
+        DtoCacheService dtoCacheService = new DtoCacheService(new AasSerializationService(objectMapper),
+                new WriteVersionService(), attachmentStoreService, 100);
+
+        var dto = dtoCacheService.getForSubmodel(submodel);
+
+        Assertions.assertEquals(1, dto.attachments().size());
+        String hash = dto.attachments().keySet().iterator().next();
+        Assertions.assertEquals("files.cad", dto.attachments().get(hash));
+        JsonNode elements = objectMapper.readTree(dto.bytes()).get("submodelElements").get(0).get("value");
+        Assertions.assertFalse(elements.get(0).has("value"));
+        Assertions.assertEquals(hash, elements.get(0).get("extensions").get(0).get("value").asText());
+        Assertions.assertTrue(elements.get(1).has("value"));
+        // the submodel in the backend keeps its value
+        Assertions.assertArrayEquals(content, large.getValue());
+        Assertions.assertArrayEquals(content, Files.readAllBytes(attachmentStoreService.resolve(hash).orElseThrow()));
+    }
+
+    @Test
+    public void identicalContentsShouldBeStoredOnce() throws Exception {
+        byte[] content = "the same certificate contents".getBytes();
+
+        String first = attachmentStoreService.store(content);
+        String second = attachmentStoreService.store(content.clone());
+
+        Assertions.assertEquals(first, second);
+        try (var files = Files.walk(directory)) {
+            Assertions.assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    public void malformedHashesShouldNotResolve() {
+        Assertions.assertTrue(attachmentStoreService.resolve("../../etc/passwd").isEmpty());
+        Assertions.assertTrue(attachmentStoreService.resolve("0".repeat(64)).isEmpty());
+    }
+
+    @Test
+    public void largeBlobsShouldBeMovedOutOfTheModelWhenWritten() throws Exception {
+        byte[] content = content(5);
+        Blob large = new DefaultBlob.Builder().idShort("cad").contentType("model/step").value(content).build();
+        Blob small = new DefaultBlob.Builder().idShort("note").contentType("text/plain").value(new byte[]{1, 2}).build();
+        Submodel submodel = new DefaultSubmodel.Builder().id("sm1").submodelElements(List.of(large, small)).build();
+
+        attachmentStoreService.externalize(submodel);
+
+        Assertions.assertNull(large.getValue());
+        Assertions.assertEquals(AttachmentStoreService.REFERENCE_EXTENSION_NAME, large.getExtensions().get(0).getName());
+        String hash = large.getExtensions().get(0).getValue();
+        Assertions.assertArrayEquals(content, Files.readAllBytes(attachmentStoreService.resolve(hash).orElseThrow()));
+        Assertions.assertArrayEquals(new byte[]{1, 2}, small.getValue());
+        Assertions.assertTrue(attachmentStoreService.hasAttachments(submodel));
+
+        // the representation references the stored content without reading it
+        DtoCacheService dtoCacheService = new DtoCacheService(new AasSerializationService(objectMapper),
+                new WriteVersionService(), attachmentStoreService, 100);
+        Assertions.assertEquals("cad", dtoCacheService.getForSubmodel(submodel).attachments().get(hash));
+    }
+
+    @Test
+    public void exportShouldPutTheContentsBack() throws Exception {
+        byte[] content = content(6);
+        Blob large = new DefaultBlob.Builder().idShort("cad").contentType("model/step").value(content).build();
+        Submodel submodel = new DefaultSubmodel.Builder().id("sm1")
+                .submodelElements(new DefaultSubmodelElementCollection.Builder().idShort("files")
+                        .value(List.of(large)).build())
+                .build();
+        attachmentStoreService.externalize(submodel);
+        AasSerializationService serializationService = new AasSerializationService(objectMapper);
+
+        JsonNode tree = serializationService.toTree(submodel);
+        attachmentStoreService.inline(submodel, tree);
+
+        JsonNode blob = tree.get("submodelElements").get(0).get("value").get(0);
+        Assertions.assertFalse(blob.has("extensions"));
+        Assertions.assertArrayEquals(content, blob.get("value").binaryValue());
+        // the model keeps its reference
+        Assertions.assertNull(large.getValue());
+    }
+
+    @Test
+    public void garbageCollectionShouldDeleteOnlyOldUnreferencedContents() throws Exception {
+        Submodel submodel = new DefaultSubmodel.Builder().id("sm1")
+                .submodelElements(new DefaultBlob.Builder().idShort("cad").value(content(1)).build())
+                .build();
+        attachmentStoreService.externalize(submodel);
+        // written before startup, read once by the first collection
+        Mockito.when(submodelBackend.findAll()).thenReturn(List.of(submodel));
+        String referenced = attachmentStoreService.store(content(1));
+        String unreferenced = attachmentStoreService.store(content(2));
+        FileTime old = FileTime.from(Instant.now().minusSeconds(7200));
+        Files.setLastModifiedTime(attachmentStoreService.resolve(referenced).orElseThrow(), old);
+        Files.setLastModifiedTime(attachmentStoreService.resolve(unreferenced).orElseThrow(), old);
+        // e.g. stored for a write that has not been reported yet
+        String recent = attachmentStoreService.store(content(3));
+
+        Assertions.assertEquals(1, attachmentStoreService.collectGarbage());
+
+        Assertions.assertTrue(attachmentStoreService.resolve(referenced).isPresent());
+        Assertions.assertTrue(attachmentStoreService.resolve(unreferenced).isEmpty());
+        Assertions.assertTrue(attachmentStoreService.resolve(recent).isPresent());
+    }
+
+    @Test
+    public void garbageCollectionShouldFollowTheReportedWrites() throws Exception {
+        Mockito.when(submodelBackend.findAll()).thenReturn(List.of());
+        attachmentStoreService.collectGarbage();
+        Submodel submodel = new DefaultSubmodel.Builder().id("sm1")
+                .submodelElements(new DefaultBlob.Builder().idShort("cad").value(content(4)).build())
+                .build();
+        attachmentStoreService.externalize(submodel);
+        attachmentStoreService.submodelSaved(submodel);
+        String hash = attachmentStoreService.store(content(4));
+        Files.setLastModifiedTime(attachmentStoreService.resolve(hash).orElseThrow(),
+                FileTime.from(Instant.now().minusSeconds(7200)));
+
+        Assertions.assertEquals(0, attachmentStoreService.collectGarbage());
+
+        attachmentStoreService.submodelDeleted("sm1");
+        Files.setLastModifiedTime(attachmentStoreService.resolve(hash).orElseThrow(),
+                FileTime.from(Instant.now().minusSeconds(7200)));
+        Assertions.assertEquals(1, attachmentStoreService.collectGarbage());
+        Assertions.assertTrue(attachmentStoreService.resolve(hash).isEmpty());
+        // the backend is not read again
+        Mockito.verify(submodelBackend, Mockito.times(1)).findAll();
+    }
+
+    private static byte[] content(int fill) {
+        byte[] content = new byte[1024];
+        Arrays.fill(content, (byte) fill);
+        return content;
+    }
+}
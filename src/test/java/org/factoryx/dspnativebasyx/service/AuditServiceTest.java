@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.factoryx.library.connector.embedded.provider.interfaces.DspTokenValidationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * This class tests the AuditService
+ */
+public class AuditServiceTest {
+
+    private static final Map<String, String> PARTNER = Map.of(
+            DspTokenValidationService.ReservedKeys.partnerId.toString(), "did:web:partner",
+            DspTokenValidationService.ReservedKeys.credentials.toString(), "DataspaceMember");
+
+    private final Logger auditLog = Mockito.mock(Logger.class);
+    private final Logger trailLog = Mockito.mock(Logger.class);
+    private AuditService auditService;
+
+    @BeforeEach
+    public void init() {
+        Mockito.when(trailLog.isInfoEnabled()).thenReturn(true);
+        auditService = new AuditService(auditLog, trailLog, 1024, 10, 100);
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        auditService.stop();
+    }
+
+    @Test
+    public void repeatedMissesShouldBeSampled() throws InterruptedException {
+        for (int i = 0; i < 25; i++) {
+            auditService.unknownId("missing", PARTNER);
+        }
+        auditService.stop();
+
+        // the 1st, 11th and 21st request
+        Mockito.verify(auditLog, Mockito.times(3)).warn(ArgumentMatchers.anyString(), ArgumentMatchers.any(Object[].class));
+    }
+
+    @Test
+    public void catalogRequestShouldBeSummarizedOnceWithThePartnerId() throws InterruptedException {
+        auditService.catalogServed(PARTNER, 3, List.of("aas1", "sm1"), List.of("sm2"), 1_000_000);
+        auditService.stop();
+
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(auditLog, Mockito.times(1)).info(ArgumentMatchers.anyString(), arguments.capture());
+        Assertions.assertEquals("did:web:partner", arguments.getValue()[2]);
+        Assertions.assertEquals("checked=3 granted=2 denied=1 durationMillis=1", arguments.getValue()[3]);
+    }
+
+    @Test
+    public void trailShouldContainEveryDecision() throws InterruptedException {
+        for (int i = 0; i < 25; i++) {
+            auditService.accessGranted("sm" + i, PARTNER);
+            auditService.unknownId("missing", PARTNER);
+        }
+        auditService.stop();
+
+        Mockito.verify(trailLog, Mockito.times(50)).info(ArgumentMatchers.anyString(), ArgumentMatchers.any(Object[].class));
+        // the sampled misses are written besides the trail
+        Mockito.verify(auditLog, Mockito.times(3)).warn(ArgumentMatchers.anyString(), ArgumentMatchers.any(Object[].class));
+    }
+
+    @Test
+    public void trailShouldContainTheDeniedAssetsOfACatalogRequest() throws InterruptedException {
+        List<String> granted = IntStream.range(0, AuditService.TRAIL_IDS_PER_LINE + 1).mapToObj(i -> "sm" + i).toList();
+        auditService.catalogServed(PARTNER, granted.size() + 1, granted, List.of("denied1"), 1_000_000);
+        auditService.stop();
+
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        // two lines for the granted ids, one for the denied one
+        Mockito.verify(trailLog, Mockito.times(3)).info(ArgumentMatchers.anyString(), arguments.capture());
+        Object[] deniedLine = arguments.getAllValues().get(2);
+        Assertions.assertEquals("denied", deniedLine[0]);
+        Assertions.assertEquals("did:web:partner", deniedLine[2]);
+        Assertions.assertEquals(List.of("denied1"), deniedLine[3]);
+    }
+
+    @Test
+    public void eventsShouldNotBeDroppedWhenTheBufferIsFull() throws InterruptedException {
+        AuditService smallBuffer = new AuditService(auditLog, trailLog, 1, 10, 100);
+        for (int i = 0; i < 1000; i++) {
+            smallBuffer.accessGranted("sm" + i, PARTNER);
+        }
+        smallBuffer.stop();
+
+        Mockito.verify(trailLog, Mockito.times(1000)).info(ArgumentMatchers.anyString(), ArgumentMatchers.any(Object[].class));
+    }
+
+    @Test
+    public void disabledTrailShouldOnlyWriteSummaries() throws InterruptedException {
+        Mockito.when(trailLog.isInfoEnabled()).thenReturn(false);
+        auditService.accessGranted("sm1", PARTNER);
+        auditService.catalogServed(PARTNER, 1, List.of("sm1"), List.of(), 1_000_000);
+        auditService.stop();
+
+        Mockito.verify(trailLog, Mockito.never()).info(ArgumentMatchers.anyString(), ArgumentMatchers.any(Object[].class));
+        Mockito.verify(auditLog, Mockito.times(1)).info(ArgumentMatchers.anyString(), ArgumentMatchers.any(Object[].class));
+    }
+}
@@ -16,42 +16,47 @@
 
 package org.factoryx.dspnativebasyx.service;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.json.JsonMapper;
-import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.eclipse.digitaltwin.aas4j.v3.model.*;
 import org.eclipse.digitaltwin.aas4j.v3.model.impl.*;
-import org.eclipse.digitaltwin.basyx.aasrepository.AasRepository;
 import org.eclipse.digitaltwin.basyx.aasrepository.feature.authorization.AasTargetInformation;
 import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
 import org.eclipse.digitaltwin.basyx.authorization.rbac.Action;
 import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacRule;
 import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacStorage;
 import org.eclipse.digitaltwin.basyx.authorization.rules.rbac.backend.inmemory.InMemoryAuthorizationRbacStorage;
-import org.eclipse.digitaltwin.basyx.submodelrepository.SubmodelRepository;
 import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
 import org.eclipse.digitaltwin.basyx.submodelservice.feature.authorization.SubmodelTargetInformation;
+import org.factoryx.dspnativebasyx.model.ChangesApiAsset;
+import org.factoryx.dspnativebasyx.model.ReadApiAsset;
+import org.factoryx.dspnativebasyx.model.SearchApiAsset;
 import org.factoryx.library.connector.embedded.provider.interfaces.DataAsset;
 import org.factoryx.library.connector.embedded.provider.interfaces.DspTokenValidationService;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class tests the BaSyxAccessManagementService as well as the RbacDCPValidationService
@@ -62,23 +67,12 @@ public class BaSyxAccessManagementServiceTest {
     private AasBackend aasBackend;
     @Mock
     private SubmodelBackend submodelBackend;
-    @Mock
-    private AasRepository aasRepository;
-    @Mock
-    private SubmodelRepository submodelRepository;
-
-    private final ObjectMapper objectMapper = JsonMapper.builder()
-            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
-            .addModule(new SimpleModule()
-                    .addAbstractTypeMapping(AssetInformation.class, DefaultAssetInformation.class)
-                    .addAbstractTypeMapping(Reference.class, DefaultReference.class)
-                    .addAbstractTypeMapping(Key.class, DefaultKey.class)
-                    .addAbstractTypeMapping(Resource.class, DefaultResource.class)
-            )
-            .build();
 
+    private final ObjectMapper objectMapper = ServiceFixture.OBJECT_MAPPER;
+
+    private ServiceFixture fixture;
     private BaSyxAccessManagementService baSyxAccessManagementService;
+    private final PropertyHistoryService propertyHistoryService = new PropertyHistoryService("", "test-submodel-id", 16, false, 1000);
 
     private final RbacRule shellReadRule = new RbacRule(TRUSTED_BUSINESS_PARTNER, List.of(Action.READ), new AasTargetInformation(List.of("*")));
 
@@ -97,6 +91,7 @@ public class BaSyxAccessManagementServiceTest {
     private final String submodelId = "test-submodel-id";
     private String shellsApiAssetId;
     private String submodelsApiAssetId;
+    private final String readApiAssetId = ReadApiAsset.ID_PREFIX + TRUSTED_BUSINESS_PARTNER;
 
 
     @BeforeEach
@@ -105,15 +100,13 @@ public class BaSyxAccessManagementServiceTest {
         RbacStorage rbacStorage = new InMemoryAuthorizationRbacStorage(new HashMap<>());
         rbacStorage.addRule(shellReadRule);
         rbacStorage.addRule(submodelReadRule);
-        Mockito.when(aasRepository.getName()).thenReturn("aas-repository");
-        Mockito.when(submodelRepository.getName()).thenReturn("submodel-repository");
-        MessagingSupportService messagingSupportService = new MessagingSupportService(Optional.empty(),
-                Optional.empty(), Optional.empty(), aasRepository, submodelRepository, Optional.empty(),
-                Optional.empty(), Optional.empty(), Optional.empty(), objectMapper);
-        RbacDCPValidationService rbacDCPValidationService =
-                new RbacDCPValidationService(rbacStorage, DATASPACE_MEMBER + "=" + TRUSTED_BUSINESS_PARTNER);
-        baSyxAccessManagementService =
-                new BaSyxAccessManagementService(aasBackend, submodelBackend, rbacDCPValidationService, objectMapper, messagingSupportService, "", "");
+        fixture = ServiceFixture.builder(aasBackend, submodelBackend)
+                .rbac(rbacStorage, DATASPACE_MEMBER + "=" + TRUSTED_BUSINESS_PARTNER)
+                .propertyHistory(propertyHistoryService)
+                .cacheSize(100)
+                .changeLogCapacity(100)
+                .build();
+        baSyxAccessManagementService = fixture.accessManagementService;
         Field shellsApiAssetIdField = BaSyxAccessManagementService.class.getDeclaredField("SHELLS_API_ASSET_ID");
         shellsApiAssetIdField.setAccessible(true);
         shellsApiAssetId = (String) shellsApiAssetIdField.get(baSyxAccessManagementService);
@@ -122,6 +115,11 @@ public class BaSyxAccessManagementServiceTest {
         submodelsApiAssetId = (String) submodelsApiAssetIdField.get(baSyxAccessManagementService);
     }
 
+    @AfterEach
+    public void tearDown() {
+        fixture.stop();
+    }
+
 
     @Test
     public void getAllShouldReturnExpectedAssets() {
@@ -129,10 +127,53 @@ public class BaSyxAccessManagementServiceTest {
         Mockito.when(submodelBackend.findAll()).thenReturn(List.of(submodel));
 
         List<DataAsset> resultList = baSyxAccessManagementService.getAll(happyCasePartnerProperties);
-        var expectedIds = List.of(shellId, submodelId, shellsApiAssetId, submodelsApiAssetId);
+        var expectedIds = List.of(shellId, submodelId, shellsApiAssetId, submodelsApiAssetId,
+                ChangesApiAsset.ID_PREFIX + TRUSTED_BUSINESS_PARTNER, SearchApiAsset.ID_PREFIX + TRUSTED_BUSINESS_PARTNER,
+                readApiAssetId);
         Assertions.assertTrue(resultList.stream().allMatch(dataAsset -> expectedIds.contains(dataAsset.getNativeId())));
     }
 
+    @Test
+    public void saturatedBulkheadsShouldRejectCatalogAndTransfer() throws Exception {
+        Mockito.when(aasBackend.findAll()).thenReturn(List.of(shell));
+        Mockito.when(submodelBackend.findAll()).thenReturn(List.of(submodel));
+        Mockito.when(submodelBackend.findById(submodelId)).thenReturn(Optional.of(submodel));
+        DataAsset submodelDataAsset = baSyxAccessManagementService.getByIdForProperties(submodelId, happyCasePartnerProperties);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            occupy(fixture.bulkheadService.getCatalogBulkhead(), release);
+            occupy(fixture.bulkheadService.getTransferBulkhead(), release);
+
+            Bulkhead.BulkheadFullException catalogRejection = Assertions.assertThrows(Bulkhead.BulkheadFullException.class,
+                    () -> baSyxAccessManagementService.getAll(happyCasePartnerProperties));
+            Bulkhead.BulkheadFullException transferRejection = Assertions.assertThrows(Bulkhead.BulkheadFullException.class,
+                    submodelDataAsset::getDtoRepresentation);
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, catalogRejection.getStatusCode());
+            Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, transferRejection.getStatusCode());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    /**
+     * Takes all permits of the bulkhead until release is counted down.
+     */
+    private static void occupy(Bulkhead bulkhead, CountDownLatch release) throws InterruptedException {
+        int permits = bulkhead.getAvailablePermits();
+        CountDownLatch occupied = new CountDownLatch(permits);
+        for (int i = 0; i < permits; i++) {
+            Thread.ofVirtual().start(() -> bulkhead.run(() -> {
+                occupied.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+        Assertions.assertTrue(occupied.await(5, TimeUnit.SECONDS));
+    }
+
     @Test
     public void getByIdShouldReturnExpectedAsset() {
         Mockito.when(aasBackend.findById(shellId)).thenReturn(Optional.of(shell));
@@ -201,7 +242,230 @@ public class BaSyxAccessManagementServiceTest {
         Assertions.assertEquals(401, response.getStatusCode().value());
     }
 
+    @Test
+    public void testChangesApiAssetShouldReturnCreatedShell() throws IOException {
+        AssetAdministrationShell localShell = objectMapper.readValue(jsonShell.getBytes(), DefaultAssetAdministrationShell.class);
+        Mockito.when(aasBackend.save(Mockito.any())).thenReturn(localShell);
+        baSyxAccessManagementService.forwardToApiAsset(shellsApiAssetId, HttpMethod.POST, jsonShell.getBytes(), HttpHeaders.EMPTY, "/shells", MultiValueMap.fromSingleValue(Map.of()));
+
+        String changesApiAssetId = baSyxAccessManagementService.getAll(happyCasePartnerProperties).stream()
+                .map(DataAsset::getDspId)
+                .filter(id -> id.startsWith(ChangesApiAsset.ID_PREFIX))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals(ChangesApiAsset.ID_PREFIX + TRUSTED_BUSINESS_PARTNER, changesApiAssetId);
+        Assertions.assertNull(baSyxAccessManagementService.getByIdForProperties(changesApiAssetId, insufficientPartnerProperties));
+
+        ResponseEntity<byte[]> response = baSyxAccessManagementService.forwardToApiAsset(changesApiAssetId, HttpMethod.GET, null, HttpHeaders.EMPTY, "/changes", MultiValueMap.fromSingleValue(Map.of("since", "0")));
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        ChangeLogService.ChangePage page = objectMapper.readValue(response.getBody(), ChangeLogService.ChangePage.class);
+        Assertions.assertEquals(1, page.events().size());
+        Assertions.assertEquals(localShell.getId(), page.events().get(0).id());
+        Assertions.assertEquals(ChangeLogService.ChangeType.created, page.events().get(0).type());
+        Assertions.assertEquals(1, page.nextSince());
+
+        ResponseEntity<byte[]> wrongPath = baSyxAccessManagementService.forwardToApiAsset(shellsApiAssetId, HttpMethod.GET, null, HttpHeaders.EMPTY, "/changes", MultiValueMap.fromSingleValue(Map.of()));
+        Assertions.assertEquals(401, wrongPath.getStatusCode().value());
+    }
+
+    @Test
+    public void testApiAssetGetShouldReturnETag() {
+        Mockito.when(submodelBackend.findById(submodelId)).thenReturn(Optional.of(submodel));
+        String path = "/submodels/" + Base64.getUrlEncoder().encodeToString(submodelId.getBytes());
+        ResponseEntity<byte[]> response = baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null, HttpHeaders.EMPTY, path, MultiValueMap.fromSingleValue(Map.of()));
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertNotNull(response.getHeaders().getETag());
+        Assertions.assertArrayEquals(baSyxAccessManagementService.getById(submodelId).getDtoRepresentation(), response.getBody());
+    }
+
+    @Test
+    public void testApiAssetGetShouldReturn304ForMatchingETag() {
+        Mockito.when(submodelBackend.findById(submodelId)).thenReturn(Optional.of(submodel));
+        String path = "/submodels/" + Base64.getUrlEncoder().encodeToString(submodelId.getBytes());
+        ResponseEntity<byte[]> first = baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null, HttpHeaders.EMPTY, path, MultiValueMap.fromSingleValue(Map.of()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(first.getHeaders().getETag());
+        ResponseEntity<byte[]> second = baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null, headers, path, MultiValueMap.fromSingleValue(Map.of()));
 
+        Assertions.assertEquals(304, second.getStatusCode().value());
+        Assertions.assertEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        Assertions.assertNull(second.getBody());
+    }
+
+    @Test
+    public void testApiAssetGetShouldServeNewETagAfterInPlaceWrite() {
+        Mockito.when(submodelBackend.findById(submodelId)).thenReturn(Optional.of(submodel));
+        Mockito.when(submodelBackend.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        String path = "/submodels/" + Base64.getUrlEncoder().encodeToString(submodelId.getBytes());
+        ResponseEntity<byte[]> first = baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null, HttpHeaders.EMPTY, path, MultiValueMap.fromSingleValue(Map.of()));
+
+        // like the BaSyx in-memory backend, which saves the instance it already holds
+        submodel.setIdShort("changed");
+        fixture.submodelBackend.save(submodel);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(first.getHeaders().getETag());
+        ResponseEntity<byte[]> second = baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null, headers, path, MultiValueMap.fromSingleValue(Map.of()));
+
+        Assertions.assertEquals(200, second.getStatusCode().value());
+        Assertions.assertNotEquals(first.getHeaders().getETag(), second.getHeaders().getETag());
+        Assertions.assertTrue(new String(second.getBody()).contains("changed"));
+    }
+
+    @Test
+    public void testApiAssetGetShouldCheckReadAccess() {
+        Mockito.when(submodelBackend.findById(submodelId)).thenReturn(Optional.of(submodel));
+        Mockito.when(aasBackend.findById(shellId)).thenReturn(Optional.of(shell));
+        String submodelPath = "/submodels/" + Base64.getUrlEncoder().encodeToString(submodelId.getBytes());
+        String shellPath = "/shells/" + Base64.getUrlEncoder().encodeToString(shellId.getBytes());
+
+        Assertions.assertEquals(401, baSyxAccessManagementService.forwardToApiAsset(submodelsApiAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, submodelPath, MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+        Assertions.assertEquals(401, baSyxAccessManagementService.forwardToApiAsset(shellsApiAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, shellPath, MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+        // a role without rules is answered as if the models did not exist
+        String otherRoleAssetId = ReadApiAsset.ID_PREFIX + "other_role";
+        Assertions.assertEquals(404, baSyxAccessManagementService.forwardToApiAsset(otherRoleAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, submodelPath, MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+        Assertions.assertEquals(404, baSyxAccessManagementService.forwardToApiAsset(otherRoleAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, shellPath, MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+        Assertions.assertEquals(200, baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, shellPath, MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+        Assertions.assertNull(baSyxAccessManagementService.getByIdForProperties(readApiAssetId, insufficientPartnerProperties));
+    }
+
+    @Test
+    public void testSearchApiAssetShouldFindSubmodelsWrittenThroughTheBackend() throws IOException {
+        Mockito.when(submodelBackend.findAll()).thenReturn(List.of());
+        Mockito.when(submodelBackend.save(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        // a write of the BaSyx REST API, which does not pass the ApiAssets
+        fixture.submodelBackend.save(submodel);
+        String searchApiAssetId = SearchApiAsset.ID_PREFIX + TRUSTED_BUSINESS_PARTNER;
+
+        ResponseEntity<byte[]> response = baSyxAccessManagementService.forwardToApiAsset(searchApiAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, "/search", MultiValueMap.fromSingleValue(Map.of("limit", "0")));
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        var results = objectMapper.readTree(response.getBody()).get("results");
+        Assertions.assertEquals(1, results.size());
+        Assertions.assertEquals(submodelId, results.get(0).get("id").asText());
+        Assertions.assertEquals(400, baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, "/submodels/$search", MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+    }
+
+    @Test
+    public void testApiAssetHistoryShouldReturnWindow() throws IOException {
+        for (long timestamp = 1000; timestamp <= 5000; timestamp += 1000) {
+            Submodel recorded = getSubmodel();
+            recorded.setSubmodelElements(List.of(new DefaultProperty.Builder().idShort("Temperature")
+                    .valueType(DataTypeDefXsd.DOUBLE).value(String.valueOf(timestamp / 100)).build()));
+            propertyHistoryService.record(recorded, timestamp);
+        }
+        String path = "/submodels/" + Base64.getUrlEncoder().encodeToString(submodelId.getBytes())
+                + "/submodel-elements/Temperature/history";
+
+        ResponseEntity<byte[]> response = baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, path, MultiValueMap.fromSingleValue(Map.of("from", "2000", "to", "1970-01-01T00:00:04Z")));
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        var history = objectMapper.readTree(response.getBody());
+        Assertions.assertEquals("[2000,3000,4000]", history.get("timestamps").toString());
+        Assertions.assertEquals("[20.0,30.0,40.0]", history.get("values").toString());
+        Assertions.assertEquals(404, baSyxAccessManagementService.forwardToApiAsset(readApiAssetId, HttpMethod.GET,
+                null, HttpHeaders.EMPTY, path.replace("Temperature", "Pressure"), MultiValueMap.fromSingleValue(Map.of()))
+                .getStatusCode().value());
+        Assertions.assertEquals(404, baSyxAccessManagementService.forwardToApiAsset(ReadApiAsset.ID_PREFIX + "other_role",
+                HttpMethod.GET, null, HttpHeaders.EMPTY, path, MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+    }
+
+    @Test
+    public void elementAccessShouldFollowGrantedPaths() {
+        RbacStorage rbacStorage = new InMemoryAuthorizationRbacStorage(new HashMap<>());
+        rbacStorage.addRule(new RbacRule(TRUSTED_BUSINESS_PARTNER, List.of(Action.READ),
+                new SubmodelTargetInformation(List.of(submodelId), List.of("Collection"))));
+        RbacDCPValidationService rbac = new RbacDCPValidationService(rbacStorage,
+                DATASPACE_MEMBER + "=" + TRUSTED_BUSINESS_PARTNER);
+
+        Assertions.assertTrue(rbac.validateReadAccessForSubmodelElement(submodelId, "Collection", TRUSTED_BUSINESS_PARTNER));
+        Assertions.assertTrue(rbac.validateReadAccessForSubmodelElement(submodelId, "Collection.Temperature", TRUSTED_BUSINESS_PARTNER));
+        Assertions.assertFalse(rbac.validateReadAccessForSubmodelElement(submodelId, "CollectionV2.Temperature", TRUSTED_BUSINESS_PARTNER));
+        Assertions.assertFalse(rbac.validateReadAccessForSubmodelElement("other-submodel-id", "Collection", TRUSTED_BUSINESS_PARTNER));
+    }
+
+    @Test
+    public void testApiAssetAttachmentsShouldCheckReferenceAndReadAccess(@TempDir Path directory) throws IOException {
+        RbacStorage rbacStorage = new InMemoryAuthorizationRbacStorage(new HashMap<>());
+        rbacStorage.addRule(new RbacRule(TRUSTED_BUSINESS_PARTNER, List.of(Action.READ),
+                new SubmodelTargetInformation(List.of(submodelId), List.of("public"))));
+        ServiceFixture attachmentFixture = ServiceFixture.builder(aasBackend, submodelBackend)
+                .rbac(rbacStorage, DATASPACE_MEMBER + "=" + TRUSTED_BUSINESS_PARTNER)
+                .attachments(directory.toString())
+                .build();
+        try {
+            byte[] publicContent = new byte[70000];
+            byte[] secretContent = new byte[70000];
+            Arrays.fill(secretContent, (byte) 1);
+            Submodel withBlobs = getSubmodel();
+            withBlobs.setSubmodelElements(List.of(
+                    new DefaultBlob.Builder().idShort("public").contentType("application/pdf").value(publicContent).build(),
+                    new DefaultBlob.Builder().idShort("secret").contentType("application/pdf").value(secretContent).build()));
+            Mockito.when(submodelBackend.findById(submodelId)).thenReturn(Optional.of(withBlobs));
+            Map<String, String> hashes = new HashMap<>();
+            attachmentFixture.dtoCacheService.getForSubmodel(withBlobs).attachments()
+                    .forEach((hash, idShortPath) -> hashes.put(idShortPath, hash));
+            String unreferenced = attachmentFixture.attachmentStoreService.store(new byte[]{1, 2, 3});
+            String path = "/submodels/" + Base64.getUrlEncoder().encodeToString(submodelId.getBytes()) + "/attachments/";
+            var service = attachmentFixture.accessManagementService;
+
+            ResponseEntity<byte[]> response = service.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null,
+                    HttpHeaders.EMPTY, path + hashes.get("public"), MultiValueMap.fromSingleValue(Map.of()));
+
+            Assertions.assertEquals(200, response.getStatusCode().value());
+            Assertions.assertArrayEquals(publicContent, response.getBody());
+            Assertions.assertEquals(404, service.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null, HttpHeaders.EMPTY,
+                    path + hashes.get("secret"), MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+            Assertions.assertEquals(404, service.forwardToApiAsset(readApiAssetId, HttpMethod.GET, null, HttpHeaders.EMPTY,
+                    path + unreferenced, MultiValueMap.fromSingleValue(Map.of())).getStatusCode().value());
+        } finally {
+            attachmentFixture.stop();
+        }
+    }
+
+    @Test
+    public void testApiAssetShouldRejectOversizedBody() {
+        byte[] body = ("{\"id\": \"large-submodel\", \"idShort\": \"" + "x".repeat(1048576) + "\"}").getBytes();
+        ResponseEntity<byte[]> response = baSyxAccessManagementService.forwardToApiAsset(submodelsApiAssetId, HttpMethod.POST,
+                body, HttpHeaders.EMPTY, "/submodels", MultiValueMap.fromSingleValue(Map.of()));
+
+        Assertions.assertEquals(413, response.getStatusCode().value());
+        Mockito.verify(submodelBackend, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void testApiAssetShouldRejectDeeplyNestedBody() {
+        byte[] body = ("{\"id\": \"nested-submodel\", \"extensions\": " + "[".repeat(40) + "]".repeat(40) + "}").getBytes();
+        ResponseEntity<byte[]> response = baSyxAccessManagementService.forwardToApiAsset(submodelsApiAssetId, HttpMethod.POST,
+                body, HttpHeaders.EMPTY, "/submodels", MultiValueMap.fromSingleValue(Map.of()));
+
+        Assertions.assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    public void testApiAssetShouldCheckIdBeforeFullParse() {
+        Mockito.when(aasBackend.findById(shellId)).thenReturn(Optional.of(getShell()));
+        // binding this body would fail, the conflict is detected before
+        byte[] body = ("{\"id\": \"" + shellId + "\", \"assetInformation\": 42}").getBytes();
+        ResponseEntity<byte[]> conflict = baSyxAccessManagementService.forwardToApiAsset(shellsApiAssetId, HttpMethod.POST,
+                body, HttpHeaders.EMPTY, "/shells", MultiValueMap.fromSingleValue(Map.of()));
+
+        String otherPath = "/shells/" + Base64.getUrlEncoder().encodeToString("other-shell-id".getBytes());
+        ResponseEntity<byte[]> notFound = baSyxAccessManagementService.forwardToApiAsset(shellsApiAssetId, HttpMethod.PUT,
+                body, HttpHeaders.EMPTY, otherPath, MultiValueMap.fromSingleValue(Map.of()));
+
+        Assertions.assertEquals(409, conflict.getStatusCode().value());
+        Assertions.assertEquals(404, notFound.getStatusCode().value());
+        Mockito.verify(aasBackend, Mockito.never()).save(Mockito.any());
+    }
 
 
     /* *** SAMPLE DATA *** */
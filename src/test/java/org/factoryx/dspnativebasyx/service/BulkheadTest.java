@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tests the Bulkhead
+ */
+public class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void saturatedBulkheadShouldRejectAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead("write", 1, 50, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = Thread.ofVirtual().start(() -> bulkhead.run(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertThrows(Bulkhead.BulkheadFullException.class, () -> bulkhead.call(() -> "rejected"));
+        Assertions.assertEquals(1.0, meterRegistry.get("dspnativebasyx.bulkhead.rejected").tag("workload", "write").counter().count());
+
+        release.countDown();
+        holder.join();
+        Assertions.assertEquals("admitted", bulkhead.call(() -> "admitted"));
+    }
+
+    @Test
+    public void failingTaskShouldReleaseItsPermit() {
+        Bulkhead bulkhead = new Bulkhead("transfer", 1, 0, meterRegistry);
+
+        Assertions.assertThrows(IllegalStateException.class, () -> bulkhead.run(() -> {
+            throw new IllegalStateException();
+        }));
+
+        Assertions.assertEquals(1, bulkhead.getAvailablePermits());
+        Assertions.assertEquals(2, meterRegistry.get("dspnativebasyx.bulkhead.execution").tag("workload", "transfer").timer().count()
+                + meterRegistry.get("dspnativebasyx.bulkhead.wait").tag("workload", "transfer").timer().count());
+    }
+
+    @Test
+    public void unboundedBulkheadShouldOnlyMeasure() {
+        Bulkhead bulkhead = new Bulkhead("catalog", 0, 0, meterRegistry);
+
+        for (int i = 0; i < 10; i++) {
+            bulkhead.call(() -> "value");
+        }
+
+        Assertions.assertEquals(10, meterRegistry.get("dspnativebasyx.bulkhead.execution").tag("workload", "catalog").timer().count());
+    }
+
+    @Test
+    public void rejectionShouldBeAnsweredWithServiceUnavailable() throws Exception {
+        // the exception propagates out of the controller, as it does from the catalog and transfer requests of the dsp-protocol-lib
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(SaturatedProbe.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0")) {
+            HttpResponse<Void> response = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + context.getWebServer().getPort() + "/catalog")).build(),
+                    HttpResponse.BodyHandlers.discarding());
+
+            Assertions.assertEquals(503, response.statusCode());
+        }
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class})
+    @RestController
+    static class SaturatedProbe {
+
+        private final Bulkhead bulkhead = new Bulkhead("catalog", 1, 0, new SimpleMeterRegistry());
+
+        @GetMapping("/catalog")
+        public String catalog() {
+            return bulkhead.call(() -> bulkhead.call(() -> "catalog"));
+        }
+    }
+}
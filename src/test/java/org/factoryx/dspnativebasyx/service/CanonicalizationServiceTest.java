@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * This class tests the CanonicalizationService
+ */
+public class CanonicalizationServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CanonicalizationService canonicalizationService = new CanonicalizationService(meterRegistry, true);
+
+    @Test
+    public void equalValuesShouldBeShared() {
+        Submodel first = getSubmodel("urn:uuid:submodel-1");
+        Submodel second = getSubmodel("urn:uuid:submodel-2");
+
+        canonicalizationService.canonicalize(first);
+        canonicalizationService.canonicalize(second);
+
+        Assertions.assertSame(keyValue(first.getSemanticId()), keyValue(second.getSemanticId()));
+        Property firstProperty = (Property) first.getSubmodelElements().get(0);
+        Property secondProperty = (Property) second.getSubmodelElements().get(0);
+        Assertions.assertSame(firstProperty.getIdShort(), secondProperty.getIdShort());
+        Assertions.assertSame(keyValue(firstProperty.getSemanticId()), keyValue(secondProperty.getSemanticId()));
+        Assertions.assertSame(first.getDescription().get(0).getText(), second.getDescription().get(0).getText());
+        Assertions.assertNotSame(firstProperty.getValue(), secondProperty.getValue());
+        Assertions.assertTrue(meterRegistry.get("dspnativebasyx.canonicalization.deduplicated.bytes").counter().count() > 0);
+    }
+
+    @Test
+    public void canonicalizedModelShouldStayEqual() {
+        Submodel submodel = getSubmodel("urn:uuid:submodel-1");
+        Submodel copy = getSubmodel("urn:uuid:submodel-1");
+        canonicalizationService.canonicalize(getSubmodel("urn:uuid:submodel-0"));
+
+        canonicalizationService.canonicalize(submodel);
+
+        Assertions.assertEquals(copy, submodel);
+    }
+
+    @Test
+    public void modelObjectsShouldNotBeShared() {
+        Submodel first = getSubmodel("urn:uuid:submodel-1");
+        Submodel second = getSubmodel("urn:uuid:submodel-2");
+        canonicalizationService.canonicalize(first);
+        canonicalizationService.canonicalize(second);
+
+        first.getSemanticId().getKeys().get(0).setValue("https://example.com/changed");
+        first.getDescription().get(0).setText("changed");
+
+        Assertions.assertNotSame(first.getSemanticId(), second.getSemanticId());
+        Assertions.assertNotSame(first.getDescription().get(0), second.getDescription().get(0));
+        Assertions.assertEquals("https://admin-shell.io/ZVEI/TechnicalData/Submodel/1/2", keyValue(second.getSemanticId()));
+        Assertions.assertEquals("Technical data of the asset", second.getDescription().get(0).getText());
+    }
+
+    private static String keyValue(Reference reference) {
+        return reference.getKeys().get(0).getValue();
+    }
+
+    private static Submodel getSubmodel(String id) {
+        return new DefaultSubmodel.Builder()
+                .id(id)
+                .idShort(new String("TechnicalData"))
+                .description(new DefaultLangStringTextType.Builder().language("en").text(new String("Technical data of the asset")).build())
+                .semanticId(reference("https://admin-shell.io/ZVEI/TechnicalData/Submodel/1/2"))
+                .submodelElements(List.of(new DefaultProperty.Builder()
+                        .idShort(new String("MaxTemperature"))
+                        .semanticId(reference("0173-1#02-AAI049#002"))
+                        .valueType(DataTypeDefXsd.DOUBLE)
+                        .value(new String("85.0"))
+                        .build()))
+                .build();
+    }
+
+    private static Reference reference(String value) {
+        return new DefaultReference.Builder()
+                .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                .keys(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE).value(new String(value)).build())
+                .build();
+    }
+}
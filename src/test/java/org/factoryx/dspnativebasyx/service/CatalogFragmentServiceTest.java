@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ModelSummary;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This class tests the CatalogFragmentService
+ */
+public class CatalogFragmentServiceTest {
+
+    private final WriteVersionService writeVersionService = new WriteVersionService();
+    private final SubmodelBackend submodelBackend = Mockito.mock(SubmodelBackend.class);
+    private final CatalogFragmentService catalogFragmentService = new CatalogFragmentService(
+            new DtoCacheService(new AasSerializationService(new ObjectMapper()), writeVersionService,
+                    ServiceFixture.disabledAttachmentStore(), 100),
+            new BulkheadService(new SimpleMeterRegistry(), 8, 2000, 64, 2000, 32, 5000, 4, 10000), writeVersionService,
+            Mockito.mock(AasBackend.class), submodelBackend);
+
+    @Test
+    public void sameSubmodelShouldReuseItsFragment() {
+        Submodel submodel = getSubmodel("Nameplate");
+
+        var first = catalogFragmentService.getSubmodelAsset(submodel);
+        var second = catalogFragmentService.getSubmodelAsset(submodel);
+
+        Assertions.assertSame(first, second);
+        Assertions.assertSame(first.getProperties(), second.getProperties());
+        Assertions.assertEquals("Nameplate", first.getProperties().get("idShort"));
+    }
+
+    @Test
+    public void newVersionShouldGetNewFragment() {
+        var before = catalogFragmentService.getSubmodelAsset(getSubmodel("Nameplate"));
+
+        var after = catalogFragmentService.getSubmodelAsset(getSubmodel("NameplateV2"));
+
+        Assertions.assertNotSame(before, after);
+        Assertions.assertEquals("NameplateV2", after.getProperties().get("idShort"));
+    }
+
+    @Test
+    public void invalidationShouldDropFragment() {
+        Submodel submodel = getSubmodel("Nameplate");
+        var before = catalogFragmentService.getSubmodelAsset(submodel);
+
+        catalogFragmentService.invalidateSubmodel(submodel.getId());
+
+        Assertions.assertNotSame(before, catalogFragmentService.getSubmodelAsset(submodel));
+    }
+
+    @Test
+    public void inPlaceWriteShouldGetNewFragment() {
+        Submodel submodel = getSubmodel("Nameplate");
+        var before = catalogFragmentService.getSubmodelAsset(submodel);
+
+        submodel.setIdShort("NameplateV2");
+        writeVersionService.submodelWritten(submodel.getId());
+        var after = catalogFragmentService.getSubmodelAsset(submodel);
+
+        Assertions.assertNotSame(before, after);
+        Assertions.assertEquals("NameplateV2", after.getProperties().get("idShort"));
+    }
+
+    @Test
+    public void deletesOutsideTheApiAssetsShouldDropFragments() {
+        ServiceFixture fixture = ServiceFixture.builder(Mockito.mock(AasBackend.class), Mockito.mock(SubmodelBackend.class))
+                .build();
+        try {
+            fixture.catalogFragmentService.getSubmodelAsset(getSubmodel("Nameplate"));
+            Assertions.assertEquals(1, fixture.catalogFragmentService.size());
+
+            // e.g. a DELETE of the BaSyx REST API
+            fixture.submodelBackend.deleteById("sm1");
+
+            Assertions.assertEquals(0, fixture.catalogFragmentService.size());
+        } finally {
+            fixture.stop();
+        }
+    }
+
+    @Test
+    public void summaryShouldTransferTheFullSubmodel() {
+        Submodel submodel = getSubmodel("Nameplate");
+        SubmodelSummary summary = new SubmodelSummary();
+        summary.setId(submodel.getId());
+        summary.setIdShort(submodel.getIdShort());
+        summary.setSubmodelElements(List.of(new DefaultProperty.Builder().idShort("SerialNumber").build()));
+        Mockito.when(submodelBackend.findById(submodel.getId())).thenReturn(Optional.of(submodel));
+
+        var asset = catalogFragmentService.getSubmodelAsset(summary);
+        Assertions.assertEquals(List.of("SerialNumber"), asset.getSubmodelElements());
+        Mockito.verify(submodelBackend, Mockito.never()).findById(Mockito.any());
+
+        String dto = new String(asset.getDtoRepresentation());
+        asset.getETag();
+
+        Assertions.assertTrue(dto.contains("\"value\":\"1\""), dto);
+        Mockito.verify(submodelBackend, Mockito.times(1)).findById(submodel.getId());
+    }
+
+    private static class SubmodelSummary extends DefaultSubmodel implements ModelSummary {
+    }
+
+    private static Submodel getSubmodel(String idShort) {
+        return new DefaultSubmodel.Builder().id("sm1").idShort(idShort)
+                .submodelElements(new DefaultProperty.Builder().idShort("SerialNumber").value("1").build())
+                .build();
+    }
+}
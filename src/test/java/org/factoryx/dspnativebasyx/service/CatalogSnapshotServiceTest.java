@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.factoryx.dspnativebasyx.backend.ShardedModelStore;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class tests the CatalogSnapshotService
+ */
+public class CatalogSnapshotServiceTest {
+
+    @Mock
+    private AasBackend aasBackend;
+
+    @Mock
+    private SubmodelBackend submodelBackend;
+
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(aasBackend.findAll()).thenReturn(List.of());
+        Mockito.when(submodelBackend.findAll()).thenReturn(List.of(getSubmodel("sm1"), getSubmodel("sm2")));
+        catalogSnapshotService = new CatalogSnapshotService(aasBackend, submodelBackend, 4, 0);
+    }
+
+    @Test
+    public void snapshotShouldNotChangeAfterWrites() {
+        var before = catalogSnapshotService.getSnapshot();
+
+        catalogSnapshotService.stageSubmodel(getSubmodel("sm3"));
+        catalogSnapshotService.stageSubmodelRemoval("sm1");
+        var after = catalogSnapshotService.getSnapshot();
+
+        Assertions.assertEquals(List.of("sm1", "sm2"), ids(before.submodels()));
+        Assertions.assertEquals(List.of("sm2", "sm3"), ids(after.submodels()));
+        Assertions.assertTrue(after.version() > before.version());
+        Assertions.assertNull(after.submodels().get("sm1"));
+        Assertions.assertEquals(2, after.submodels().size());
+    }
+
+    @Test
+    public void heldPublicationShouldKeepPreviousVersion() {
+        var before = catalogSnapshotService.getSnapshot();
+
+        catalogSnapshotService.holdPublication();
+        catalogSnapshotService.stageSubmodel(getSubmodel("sm3"));
+        catalogSnapshotService.stageSubmodel(getSubmodel("sm4"));
+        Assertions.assertSame(before, catalogSnapshotService.getSnapshot());
+
+        catalogSnapshotService.releasePublication();
+        Assertions.assertEquals(List.of("sm1", "sm2", "sm3", "sm4"),
+                ids(catalogSnapshotService.getSnapshot().submodels()).stream().sorted().toList());
+    }
+
+    @Test
+    public void compactionShouldKeepContents() {
+        for (int i = 3; i <= 10; i++) {
+            catalogSnapshotService.stageSubmodel(getSubmodel("sm" + i));
+            catalogSnapshotService.getSnapshot();
+        }
+        catalogSnapshotService.stageSubmodelRemoval("sm5");
+
+        var snapshot = catalogSnapshotService.getSnapshot();
+
+        Assertions.assertEquals(9, snapshot.submodels().size());
+        Assertions.assertEquals(9, ids(snapshot.submodels()).size());
+        Assertions.assertNull(snapshot.submodels().get("sm5"));
+        Mockito.verify(submodelBackend, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    public void compactionShouldRunInTheBackground() throws InterruptedException {
+        for (int i = 3; i <= 10; i++) {
+            catalogSnapshotService.stageSubmodel(getSubmodel("sm" + i));
+            Assertions.assertTrue(catalogSnapshotService.getSnapshot().submodels().overlaySize() > 0);
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (catalogSnapshotService.getSnapshot().submodels().overlaySize() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        var snapshot = catalogSnapshotService.getSnapshot();
+        Assertions.assertEquals(0, snapshot.submodels().overlaySize());
+        Assertions.assertEquals(10, snapshot.submodels().size());
+    }
+
+    @Test
+    public void initialLoadShouldNotRunOnTheReaderThread() {
+        List<String> threads = new ArrayList<>();
+        Mockito.when(submodelBackend.findAll()).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return List.of(getSubmodel("sm1"));
+        });
+        catalogSnapshotService = new CatalogSnapshotService(aasBackend, submodelBackend, 4, 0);
+
+        var snapshot = catalogSnapshotService.getSnapshot();
+
+        Assertions.assertEquals(List.of("sm1"), ids(snapshot.submodels()));
+        Assertions.assertEquals(List.of("catalog-snapshot"), threads);
+    }
+
+    @Test
+    public void changesPublishedDuringReloadShouldBeKept() {
+        catalogSnapshotService.getSnapshot();
+        Mockito.when(submodelBackend.findAll()).thenAnswer(invocation -> {
+            // a write that is published while the reload still scans the backends
+            catalogSnapshotService.stageSubmodel(getSubmodel("sm3"));
+            catalogSnapshotService.getSnapshot();
+            return List.of(getSubmodel("sm1"), getSubmodel("sm2"));
+        });
+
+        catalogSnapshotService.reload();
+
+        Assertions.assertEquals(List.of("sm1", "sm2", "sm3"),
+                ids(catalogSnapshotService.getSnapshot().submodels()).stream().sorted().toList());
+    }
+
+    @Test
+    public void snapshotShouldBeLoadedFromConcurrentScan() {
+        ShardedModelStore<Submodel> store = ShardedModelStore.forSubmodels(8, 64, new AasSerializationService(new ObjectMapper()));
+        for (int i = 0; i < 1000; i++) {
+            store.save(getSubmodel("sharded" + i));
+        }
+        Mockito.when(submodelBackend.findAll()).thenReturn(store.findAll());
+        catalogSnapshotService = new CatalogSnapshotService(aasBackend, submodelBackend, 4, 0);
+
+        var snapshot = catalogSnapshotService.getSnapshot();
+
+        Assertions.assertEquals(1000, snapshot.submodels().size());
+        Assertions.assertEquals("sharded999", snapshot.submodels().get("sharded999").getId());
+    }
+
+    private static List<String> ids(Iterable<Submodel> submodels) {
+        List<String> ids = new ArrayList<>();
+        submodels.forEach(submodel -> ids.add(submodel.getId()));
+        return ids;
+    }
+
+    private static Submodel getSubmodel(String id) {
+        return new DefaultSubmodel.Builder().id(id).build();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the DtoCacheService
+ */
+public class DtoCacheServiceTest {
+
+    private final WriteVersionService writeVersionService = new WriteVersionService();
+    private final DtoCacheService dtoCacheService = new DtoCacheService(
+            new AasSerializationService(new ObjectMapper()), writeVersionService, ServiceFixture.disabledAttachmentStore(), 2);
+
+    @Test
+    public void sameVersionShouldReuseEntry() {
+        Submodel submodel = getSubmodel("sm1", "Nameplate");
+
+        Assertions.assertSame(dtoCacheService.getForSubmodel(submodel), dtoCacheService.getForSubmodel(submodel));
+    }
+
+    @Test
+    public void inPlaceWriteShouldNotServeStaleBytes() {
+        Submodel submodel = getSubmodel("sm1", "Nameplate");
+        var before = dtoCacheService.getForSubmodel(submodel);
+
+        // the backend applied the write to the cached instance itself
+        submodel.setIdShort("NameplateV2");
+        writeVersionService.submodelWritten(submodel.getId());
+        var after = dtoCacheService.getForSubmodel(submodel);
+
+        Assertions.assertNotEquals(before.eTag(), after.eTag());
+        Assertions.assertTrue(new String(after.bytes()).contains("NameplateV2"));
+    }
+
+    @Test
+    public void otherInstanceShouldNotReuseEntry() {
+        var before = dtoCacheService.getForSubmodel(getSubmodel("sm1", "Nameplate"));
+
+        // e.g. read again from a backend that deserializes on every read
+        var after = dtoCacheService.getForSubmodel(getSubmodel("sm1", "Nameplate"));
+
+        Assertions.assertNotSame(before, after);
+        Assertions.assertEquals(before.eTag(), after.eTag());
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryShouldBeEvicted() {
+        Submodel first = getSubmodel("sm1", "First");
+        Submodel second = getSubmodel("sm2", "Second");
+        Submodel third = getSubmodel("sm3", "Third");
+        var firstDto = dtoCacheService.getForSubmodel(first);
+        var secondDto = dtoCacheService.getForSubmodel(second);
+
+        // sm1 is used again, so sm2 is the eldest entry when sm3 is added
+        Assertions.assertSame(firstDto, dtoCacheService.getForSubmodel(first));
+        dtoCacheService.getForSubmodel(third);
+
+        Assertions.assertSame(firstDto, dtoCacheService.getForSubmodel(first));
+        Assertions.assertNotSame(secondDto, dtoCacheService.getForSubmodel(second));
+    }
+
+    private static Submodel getSubmodel(String id, String idShort) {
+        return new DefaultSubmodel.Builder().id(id).idShort(idShort).build();
+    }
+}
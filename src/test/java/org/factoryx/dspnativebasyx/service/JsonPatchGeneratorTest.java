@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the JsonPatchGenerator
+ */
+public class JsonPatchGeneratorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void equalTreesShouldProduceEmptyPatch() throws Exception {
+        JsonNode tree = objectMapper.readTree(submodelV1);
+
+        Assertions.assertTrue(JsonPatchGenerator.diff(tree, tree.deepCopy()).isEmpty());
+    }
+
+    @Test
+    public void changedValueShouldProduceSingleReplace() throws Exception {
+        ArrayNode patch = JsonPatchGenerator.diff(objectMapper.readTree(submodelV1), objectMapper.readTree(submodelV2));
+
+        Assertions.assertEquals(1, patch.size());
+        Assertions.assertEquals("replace", patch.get(0).get("op").asText());
+        Assertions.assertEquals("/submodelElements/1/value", patch.get(0).get("path").asText());
+        Assertions.assertEquals("42.5", patch.get(0).get("value").asText());
+    }
+
+    @Test
+    public void addedAndRemovedMembersShouldBeReported() throws Exception {
+        JsonNode source = objectMapper.readTree("""
+                {"a/b": 1, "list": [1, 2, 3]}
+                """);
+        JsonNode target = objectMapper.readTree("""
+                {"c": 2, "list": [1]}
+                """);
+        ArrayNode patch = JsonPatchGenerator.diff(source, target);
+
+        Assertions.assertEquals(objectMapper.readTree("""
+                [
+                  {"op": "remove", "path": "/a~1b"},
+                  {"op": "remove", "path": "/list/2"},
+                  {"op": "remove", "path": "/list/1"},
+                  {"op": "add", "path": "/c", "value": 2}
+                ]
+                """), patch);
+    }
+
+
+    /* *** SAMPLE DATA *** */
+
+    private static final String submodelV1 = """
+            {
+              "modelType": "Submodel",
+              "id": "urn:submodel:1",
+              "submodelElements": [
+                {"modelType": "Property", "idShort": "name", "valueType": "xs:string", "value": "Drill"},
+                {"modelType": "Property", "idShort": "temperature", "valueType": "xs:double", "value": "41.0"}
+              ]
+            }
+            """;
+
+    private static final String submodelV2 = """
+            {
+              "modelType": "Submodel",
+              "id": "urn:submodel:1",
+              "submodelElements": [
+                {"modelType": "Property", "idShort": "name", "valueType": "xs:string", "value": "Drill"},
+                {"modelType": "Property", "idShort": "temperature", "valueType": "xs:double", "value": "42.5"}
+              ]
+            }
+            """;
+}
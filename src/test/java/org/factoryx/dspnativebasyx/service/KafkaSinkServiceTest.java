@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tests the KafkaSinkService against an embedded broker
+ */
+@EmbeddedKafka(partitions = 3, topics = {KafkaSinkServiceTest.SHELL_TOPIC, KafkaSinkServiceTest.SUBMODEL_TOPIC})
+public class KafkaSinkServiceTest {
+
+    static final String SHELL_TOPIC = "test-shell-events";
+    static final String SUBMODEL_TOPIC = "test-submodel-events";
+
+    private KafkaSinkService createService(EmbeddedKafkaBroker broker) {
+        return createService(new AasSerializationService(new ObjectMapper()), broker.getBrokersAsString(),
+                new SimpleMeterRegistry(), 4, 1000);
+    }
+
+    private KafkaSinkService createService(AasSerializationService aasSerializationService, String bootstrapServers,
+                                           SimpleMeterRegistry meterRegistry, int stripes, int queueCapacity) {
+        return new KafkaSinkService(aasSerializationService, new WriteLockService(64), meterRegistry,
+                true, bootstrapServers, SHELL_TOPIC, SUBMODEL_TOPIC, 5, 16384, "lz4", stripes, queueCapacity, 200, 10000);
+    }
+
+    private Consumer<String, byte[]> createConsumer(EmbeddedKafkaBroker broker, String group, String topic) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps(broker, group, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        Consumer<String, byte[]> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new ByteArrayDeserializer()).createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, topic);
+        return consumer;
+    }
+
+    private static Submodel submodel(String id, String version) {
+        return new DefaultSubmodel.Builder().id(id).idShort(version).build();
+    }
+
+    private static String header(ConsumerRecord<String, byte[]> record) {
+        return new String(record.headers().lastHeader(KafkaSinkService.TYPE_HEADER).value(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void changesShouldBeKeyedByIdAndKeepTheirOrder(EmbeddedKafkaBroker broker) throws Exception {
+        KafkaSinkService kafkaSinkService = createService(broker);
+        try {
+            for (int version = 0; version < 50; version++) {
+                for (int id = 0; id < 8; id++) {
+                    ChangeLogService.ChangeType type = version == 0 ? ChangeLogService.ChangeType.created
+                            : ChangeLogService.ChangeType.updated;
+                    kafkaSinkService.submodelChanged(type, submodel("submodel-" + id, "v" + version));
+                }
+            }
+            kafkaSinkService.submodelChanged(ChangeLogService.ChangeType.deleted, submodel("submodel-0", "v50"));
+            kafkaSinkService.flush();
+        } finally {
+            kafkaSinkService.stop();
+        }
+
+        Map<String, List<ConsumerRecord<String, byte[]>>> recordsById = new HashMap<>();
+        try (Consumer<String, byte[]> consumer = createConsumer(broker, "order", SUBMODEL_TOPIC)) {
+            int received = 0;
+            while (received < 8 * 50 + 1) {
+                var records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10));
+                Assertions.assertFalse(records.isEmpty(), "only " + received + " records arrived");
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    recordsById.computeIfAbsent(record.key(), key -> new ArrayList<>()).add(record);
+                    received++;
+                }
+            }
+        }
+
+        Assertions.assertEquals(8, recordsById.size());
+        for (var entry : recordsById.entrySet()) {
+            List<ConsumerRecord<String, byte[]>> records = entry.getValue();
+            Assertions.assertEquals(1, records.stream().map(ConsumerRecord::partition).distinct().count());
+            Assertions.assertEquals("created", header(records.get(0)));
+            for (int version = 0; version < 50; version++) {
+                String json = new String(records.get(version).value(), StandardCharsets.UTF_8);
+                Assertions.assertTrue(json.contains("\"v" + version + "\""), json);
+            }
+        }
+        List<ConsumerRecord<String, byte[]>> deleted = recordsById.get("submodel-0");
+        Assertions.assertEquals(51, deleted.size());
+        Assertions.assertEquals("deleted", header(deleted.get(50)));
+        Assertions.assertNull(deleted.get(50).value());
+    }
+
+    @Test
+    public void batchShouldBePublishedAsCreatedEvents(EmbeddedKafkaBroker broker) throws Exception {
+        KafkaSinkService kafkaSinkService = createService(broker);
+        List<AssetAdministrationShell> shells = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            shells.add(new DefaultAssetAdministrationShell.Builder().id("batch-shell-" + i).build());
+        }
+        try {
+            kafkaSinkService.batchImported(shells, List.of(), Set.of(), Set.of());
+            kafkaSinkService.flush();
+        } finally {
+            kafkaSinkService.stop();
+        }
+
+        Set<String> ids = new HashSet<>();
+        try (Consumer<String, byte[]> consumer = createConsumer(broker, "batch", SHELL_TOPIC)) {
+            while (ids.size() < shells.size()) {
+                var records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10));
+                Assertions.assertFalse(records.isEmpty(), "only " + ids.size() + " shells arrived");
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    Assertions.assertEquals("created", header(record));
+                    ids.add(record.key());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fullQueueShouldDropChangesInsteadOfBlockingWriters() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // without a reachable broker, every send blocks for max.block.ms
+        KafkaSinkService kafkaSinkService = createService(new AasSerializationService(new ObjectMapper()),
+                "localhost:1", meterRegistry, 1, 1);
+        try {
+            long start = System.nanoTime();
+            for (int i = 0; i < 200; i++) {
+                kafkaSinkService.shellChanged(ChangeLogService.ChangeType.created,
+                        new DefaultAssetAdministrationShell.Builder().id("queued-shell-" + i).build());
+            }
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        } finally {
+            kafkaSinkService.stop();
+        }
+
+        Assertions.assertTrue(meterRegistry.counter("dspnativebasyx.kafka.sink.dropped").count() >= 190);
+        Assertions.assertEquals(0, meterRegistry.counter("dspnativebasyx.kafka.sink.sent").count());
+    }
+
+    @Test
+    public void changesShouldBeSerializedByTheStripes(EmbeddedKafkaBroker broker) throws Exception {
+        Set<String> serializingThreads = ConcurrentHashMap.newKeySet();
+        AasSerializationService aasSerializationService = new AasSerializationService(new ObjectMapper()) {
+            @Override
+            public byte[] serialize(Object value) throws IOException {
+                serializingThreads.add(Thread.currentThread().getName());
+                return super.serialize(value);
+            }
+        };
+        KafkaSinkService kafkaSinkService = createService(aasSerializationService, broker.getBrokersAsString(),
+                new SimpleMeterRegistry(), 4, 1000);
+        try {
+            for (int i = 0; i < 20; i++) {
+                kafkaSinkService.submodelChanged(ChangeLogService.ChangeType.created, submodel("stripe-submodel-" + i, "v0"));
+            }
+            kafkaSinkService.flush();
+        } finally {
+            kafkaSinkService.stop();
+        }
+
+        Assertions.assertFalse(serializingThreads.isEmpty());
+        Assertions.assertTrue(serializingThreads.stream().allMatch(name -> name.startsWith("kafka-sink-")),
+                serializingThreads.toString());
+    }
+
+    @Test
+    public void disabledSinkShouldIgnoreChanges() throws Exception {
+        KafkaSinkService kafkaSinkService = new KafkaSinkService(new AasSerializationService(new ObjectMapper()),
+                new WriteLockService(64), new SimpleMeterRegistry(), false, "localhost:1", SHELL_TOPIC, SUBMODEL_TOPIC, 5, 16384,
+                "lz4", 4, 1000, 1000, 30000);
+
+        kafkaSinkService.submodelChanged(ChangeLogService.ChangeType.created, submodel("submodel", "v0"));
+        kafkaSinkService.flush();
+        kafkaSinkService.stop();
+
+        Assertions.assertFalse(kafkaSinkService.isEnabled());
+    }
+}
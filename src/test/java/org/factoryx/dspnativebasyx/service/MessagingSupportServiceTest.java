@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasrepository.feature.kafka.events.AasEventHandler;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.eclipse.paho.client.mqttv3.IMqttClient;
+import org.eclipse.paho.client.mqttv3.MqttException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class tests the MessagingSupportService
+ */
+public class MessagingSupportServiceTest {
+
+    @Test
+    public void notificationsBeforeDeferredWiringShouldBeDelivered() throws Exception {
+        AasEventHandler aasEventHandler = Mockito.mock(AasEventHandler.class);
+        CountDownLatch wiringStarted = new CountDownLatch(1);
+        CountDownLatch releaseWiring = new CountDownLatch(1);
+        DefaultListableBeanFactory integrations = new DefaultListableBeanFactory();
+        integrations.registerBeanDefinition("aasEventHandler", BeanDefinitionBuilder.genericBeanDefinition(AasEventHandler.class, () -> {
+            wiringStarted.countDown();
+            try {
+                releaseWiring.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return aasEventHandler;
+        }).setLazyInit(true).getBeanDefinition());
+
+        MessagingSupportService messagingSupportService = createService(integrations);
+        messagingSupportService.onApplicationReady();
+        Assertions.assertTrue(wiringStarted.await(5, TimeUnit.SECONDS));
+        AssetAdministrationShell shell = shell("aas1");
+        messagingSupportService.notifyNewShell(shell);
+        Mockito.verifyNoInteractions(aasEventHandler);
+
+        releaseWiring.countDown();
+        Mockito.verify(aasEventHandler, Mockito.timeout(5000)).onAasCreated(shell);
+        messagingSupportService.stop();
+    }
+
+    @Test
+    public void unavailableMqttClientShouldNotBlockConstruction() {
+        DefaultListableBeanFactory integrations = new DefaultListableBeanFactory();
+        integrations.registerBeanDefinition("mqttClient", BeanDefinitionBuilder.genericBeanDefinition(IMqttClient.class, () -> {
+            throw new IllegalStateException("broker unreachable");
+        }).setLazyInit(true).getBeanDefinition());
+
+        MessagingSupportService messagingSupportService = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            MessagingSupportService service = createService(integrations);
+            service.onApplicationReady();
+            return service;
+        });
+        messagingSupportService.stop();
+    }
+
+    @Test
+    public void integrationsShouldNotBeResolvedBeforeTheApplicationIsReady() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        AasEventHandler aasEventHandler = Mockito.mock(AasEventHandler.class);
+        DefaultListableBeanFactory integrations = new DefaultListableBeanFactory();
+        integrations.registerBeanDefinition("aasEventHandler", BeanDefinitionBuilder.genericBeanDefinition(AasEventHandler.class, () -> {
+            created.incrementAndGet();
+            return aasEventHandler;
+        }).setLazyInit(true).getBeanDefinition());
+
+        MessagingSupportService messagingSupportService = createService(integrations);
+        messagingSupportService.notifyNewShell(shell("aas1"));
+        Thread.sleep(200);
+        Assertions.assertEquals(0, created.get());
+        Mockito.verifyNoInteractions(aasEventHandler);
+
+        messagingSupportService.onApplicationReady();
+        Mockito.verify(aasEventHandler, Mockito.timeout(5000)).onAasCreated(ArgumentMatchers.any());
+        Assertions.assertEquals(1, created.get());
+        messagingSupportService.stop();
+    }
+
+    @Test
+    public void mqttMessagesShouldBeHeldBackUntilTheClientIsAvailable() throws Exception {
+        IMqttClient mqttClient = Mockito.mock(IMqttClient.class);
+        AasEventHandler aasEventHandler = Mockito.mock(AasEventHandler.class);
+        AtomicInteger attempts = new AtomicInteger();
+        DefaultListableBeanFactory integrations = new DefaultListableBeanFactory();
+        integrations.registerSingleton("aasEventHandler", aasEventHandler);
+        integrations.registerBeanDefinition("mqttClient", BeanDefinitionBuilder.genericBeanDefinition(IMqttClient.class, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("broker unreachable");
+            }
+            return mqttClient;
+        }).setLazyInit(true).getBeanDefinition());
+
+        MessagingSupportService messagingSupportService = createService(integrations);
+        messagingSupportService.onApplicationReady();
+        messagingSupportService.notifyNewShell(shell("aas1"));
+        messagingSupportService.notifyNewShell(shell("aas2"));
+
+        // the event handlers do not wait for the MQTT client
+        Mockito.verify(aasEventHandler, Mockito.timeout(5000).times(2)).onAasCreated(ArgumentMatchers.any());
+        ArgumentCaptor<MqttMessage> published = ArgumentCaptor.forClass(MqttMessage.class);
+        Mockito.verify(mqttClient, Mockito.timeout(5000).times(2)).publish(ArgumentMatchers.anyString(), published.capture());
+        Assertions.assertTrue(attempts.get() >= 3);
+        Assertions.assertTrue(new String(published.getAllValues().get(0).getPayload()).contains("aas1"));
+        Assertions.assertTrue(new String(published.getAllValues().get(1).getPayload()).contains("aas2"));
+        messagingSupportService.stop();
+    }
+
+    @Test
+    public void notificationsShouldBePublishedToMqtt() throws Exception {
+        IMqttClient mqttClient = Mockito.mock(IMqttClient.class);
+        DefaultListableBeanFactory integrations = new DefaultListableBeanFactory();
+        integrations.registerSingleton("mqttClient", mqttClient);
+        MessagingSupportService messagingSupportService = createService(integrations);
+        messagingSupportService.onApplicationReady();
+
+        messagingSupportService.notifyNewShell(shell("aas1"));
+
+        ArgumentCaptor<MqttMessage> published = ArgumentCaptor.forClass(MqttMessage.class);
+        Mockito.verify(mqttClient, Mockito.timeout(5000)).publish(ArgumentMatchers.anyString(), published.capture());
+        Assertions.assertTrue(new String(published.getValue().getPayload()).contains("\"aas1\""));
+        messagingSupportService.stop();
+    }
+
+    @Test
+    public void updateAfterAFailedPatchShouldBeASnapshot() throws Exception {
+        IMqttClient mqttClient = Mockito.mock(IMqttClient.class);
+        Mockito.doThrow(new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED)).doNothing()
+                .when(mqttClient).publish(ArgumentMatchers.anyString(), ArgumentMatchers.any(MqttMessage.class));
+        DefaultListableBeanFactory integrations = new DefaultListableBeanFactory();
+        integrations.registerSingleton("mqttClient", mqttClient);
+        MessagingSupportService messagingSupportService = ServiceFixture.builder(Mockito.mock(AasBackend.class), Mockito.mock(SubmodelBackend.class))
+                .integrations(integrations, false)
+                .deltaUpdates()
+                .build().messagingSupportService;
+
+        messagingSupportService.notifyUpdatedSubmodel(submodel("1"), submodel("2"));
+        Mockito.verify(mqttClient, Mockito.timeout(5000).times(1)).publish(ArgumentMatchers.anyString(), ArgumentMatchers.any(MqttMessage.class));
+        messagingSupportService.notifyUpdatedSubmodel(submodel("2"), submodel("3"));
+        messagingSupportService.notifyUpdatedSubmodel(submodel("3"), submodel("4"));
+
+        ArgumentCaptor<MqttMessage> published = ArgumentCaptor.forClass(MqttMessage.class);
+        Mockito.verify(mqttClient, Mockito.timeout(5000).times(3)).publish(ArgumentMatchers.anyString(), published.capture());
+        String resync = new String(published.getAllValues().get(1).getPayload());
+        String patch = new String(published.getAllValues().get(2).getPayload());
+        Assertions.assertFalse(resync.contains("\"patch\""), resync);
+        Assertions.assertTrue(resync.contains("\"submodelElements\""), resync);
+        Assertions.assertTrue(patch.contains("\"patch\""), patch);
+        messagingSupportService.stop();
+    }
+
+    @Test
+    public void notificationsAboutTheSameShellShouldBeDeliveredInOrder() throws Exception {
+        AasEventHandler aasEventHandler = Mockito.mock(AasEventHandler.class);
+        // the first call is slow, the pool has further threads that could overtake it
+        Mockito.doAnswer(invocation -> {
+            Thread.sleep(300);
+            return null;
+        }).when(aasEventHandler).onAasCreated(ArgumentMatchers.any());
+        DefaultListableBeanFactory integrations = new DefaultListableBeanFactory();
+        integrations.registerSingleton("aasEventHandler", aasEventHandler);
+        MessagingSupportService messagingSupportService = createService(integrations);
+        messagingSupportService.onApplicationReady();
+
+        AssetAdministrationShell shell = shell("aas1");
+        messagingSupportService.notifyNewShell(shell);
+        messagingSupportService.notifyUpdatedShell(shell);
+        messagingSupportService.notifyDeletedShell(shell);
+
+        Mockito.verify(aasEventHandler, Mockito.timeout(5000)).onAasDeleted("aas1");
+        InOrder inOrder = Mockito.inOrder(aasEventHandler);
+        inOrder.verify(aasEventHandler).onAasCreated(shell);
+        inOrder.verify(aasEventHandler).onAasUpdated("aas1", shell);
+        inOrder.verify(aasEventHandler).onAasDeleted("aas1");
+        messagingSupportService.stop();
+    }
+
+    private static Submodel submodel(String value) {
+        return new DefaultSubmodel.Builder().id("submodel1").idShort("Nameplate")
+                .submodelElements(new DefaultProperty.Builder().idShort("SerialNumber").value(value).build())
+                .build();
+    }
+
+    private static AssetAdministrationShell shell(String id) {
+        return new DefaultAssetAdministrationShell.Builder().id(id)
+                .assetInformation(new DefaultAssetInformation.Builder().globalAssetId("asset-" + id).build()).build();
+    }
+
+    private static MessagingSupportService createService(DefaultListableBeanFactory integrations) {
+        return ServiceFixture.builder(Mockito.mock(AasBackend.class), Mockito.mock(SubmodelBackend.class))
+                .integrations(integrations, true)
+                .build().messagingSupportService;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * This class tests the PropertyHistoryBuffer
+ */
+public class PropertyHistoryBufferTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void fullBufferShouldKeepNewestSamples(boolean offHeap) {
+        PropertyHistoryBuffer buffer = new PropertyHistoryBuffer(4, offHeap);
+        for (int i = 1; i <= 6; i++) {
+            buffer.append(i * 10L, i * 1.5);
+        }
+
+        PropertyHistoryBuffer.Window window = buffer.read(Long.MIN_VALUE, Long.MAX_VALUE);
+
+        Assertions.assertEquals(4, buffer.size());
+        Assertions.assertArrayEquals(new long[]{30, 40, 50, 60}, window.timestamps());
+        Assertions.assertArrayEquals(new double[]{4.5, 6.0, 7.5, 9.0}, window.values());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void readShouldReturnInclusiveWindow(boolean offHeap) {
+        PropertyHistoryBuffer buffer = new PropertyHistoryBuffer(8, offHeap);
+        for (int i = 1; i <= 5; i++) {
+            buffer.append(i * 10L, i);
+        }
+
+        Assertions.assertArrayEquals(new long[]{20, 30, 40}, buffer.read(20, 40).timestamps());
+        Assertions.assertEquals(0, buffer.read(60, 70).timestamps().length);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void readShouldFindSamplesAfterClockStepBack(boolean offHeap) {
+        PropertyHistoryBuffer buffer = new PropertyHistoryBuffer(8, offHeap);
+        buffer.append(100, 1);
+        buffer.append(10, 2);
+        buffer.append(20, 3);
+
+        Assertions.assertArrayEquals(new long[]{10, 20}, buffer.read(0, 50).timestamps());
+        Assertions.assertArrayEquals(new double[]{2, 3}, buffer.read(0, 50).values());
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.DataTypeDefXsd;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelElementCollection;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodelElementList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class tests the PropertyHistoryService
+ */
+public class PropertyHistoryServiceTest {
+
+    private final PropertyHistoryService propertyHistoryService = new PropertyHistoryService("", "urn:live:.*", 16, false, 3);
+
+    @Test
+    public void numericAndBooleanPropertiesShouldBeRecorded() {
+        propertyHistoryService.record(getSubmodel("urn:live:1", "21.5", "true"), 1000);
+        propertyHistoryService.record(getSubmodel("urn:live:1", "22", "false"), 2000);
+
+        var temperature = propertyHistoryService.read("urn:live:1", "Temperature", 0, Long.MAX_VALUE);
+        Assertions.assertArrayEquals(new long[]{1000, 2000}, temperature.timestamps());
+        Assertions.assertArrayEquals(new double[]{21.5, 22}, temperature.values());
+        Assertions.assertArrayEquals(new double[]{1, 0},
+                propertyHistoryService.read("urn:live:1", "Status.Running", 0, Long.MAX_VALUE).values());
+        Assertions.assertArrayEquals(new double[]{7, 7},
+                propertyHistoryService.read("urn:live:1", "Axes[0]", 0, Long.MAX_VALUE).values());
+        Assertions.assertNull(propertyHistoryService.read("urn:live:1", "SerialNumber", 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void unparsableValuesAndUnselectedSubmodelsShouldBeSkipped() {
+        propertyHistoryService.record(getSubmodel("urn:live:1", "n/a", "true"), 1000);
+        propertyHistoryService.record(getSubmodel("urn:other:1", "21.5", "true"), 1000);
+
+        Assertions.assertNull(propertyHistoryService.read("urn:live:1", "Temperature", 0, Long.MAX_VALUE));
+        Assertions.assertNull(propertyHistoryService.read("urn:other:1", "Temperature", 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void seriesShouldBeLimitedAndReleasedOnRemove() {
+        propertyHistoryService.record(getSubmodel("urn:live:1", "21.5", "true"), 1000);
+        propertyHistoryService.record(getSubmodel("urn:live:2", "21.5", "true"), 1000);
+        Assertions.assertNull(propertyHistoryService.read("urn:live:2", "Temperature", 0, Long.MAX_VALUE));
+
+        propertyHistoryService.remove("urn:live:1");
+        propertyHistoryService.record(getSubmodel("urn:live:2", "21.5", "true"), 2000);
+
+        Assertions.assertNull(propertyHistoryService.read("urn:live:1", "Temperature", 0, Long.MAX_VALUE));
+        Assertions.assertNotNull(propertyHistoryService.read("urn:live:2", "Temperature", 0, Long.MAX_VALUE));
+    }
+
+    private static Submodel getSubmodel(String id, String temperature, String running) {
+        return new DefaultSubmodel.Builder().id(id).idShort("OperationalData")
+                .submodelElements(new DefaultProperty.Builder().idShort("Temperature")
+                        .valueType(DataTypeDefXsd.DOUBLE).value(temperature).build())
+                .submodelElements(new DefaultProperty.Builder().idShort("SerialNumber")
+                        .valueType(DataTypeDefXsd.STRING).value("4711").build())
+                .submodelElements(new DefaultSubmodelElementCollection.Builder().idShort("Status")
+                        .value(new DefaultProperty.Builder().idShort("Running")
+                                .valueType(DataTypeDefXsd.BOOLEAN).value(running).build())
+                        .build())
+                .submodelElements(new DefaultSubmodelElementList.Builder().idShort("Axes")
+                        .value(new DefaultProperty.Builder().valueType(DataTypeDefXsd.INT).value("7").build())
+                        .build())
+                .build();
+    }
+}
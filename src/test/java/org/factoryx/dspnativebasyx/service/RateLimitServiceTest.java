@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.factoryx.library.connector.embedded.provider.interfaces.DspTokenValidationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+/**
+ * This class tests the RateLimitService
+ */
+public class RateLimitServiceTest {
+
+    private static final String CREDENTIALS = DspTokenValidationService.ReservedKeys.credentials.toString();
+    private static final String PARTNER_ID = DspTokenValidationService.ReservedKeys.partnerId.toString();
+
+    @AfterEach
+    public void resetRequestContext() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void partnersWithTheSameCredentialsShouldHaveSeparateBudgets() {
+        RateLimitService rateLimitService = new RateLimitService(1, 1, 0, 50, 0, 50, 100);
+        Map<String, String> partner1 = Map.of(CREDENTIALS, "member", PARTNER_ID, "did:web:partner1");
+        Map<String, String> partner2 = Map.of(CREDENTIALS, "member", PARTNER_ID, "did:web:partner2");
+
+        rateLimitService.checkCatalog(partner1);
+        RateLimitService.RateLimitExceededException e = Assertions.assertThrows(RateLimitService.RateLimitExceededException.class,
+                () -> rateLimitService.checkCatalog(partner1));
+        Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatusCode());
+        Assertions.assertDoesNotThrow(() -> rateLimitService.checkCatalog(partner2));
+    }
+
+    @Test
+    public void writesWithoutAuthorizationShouldBeLimitedPerClientAddress() {
+        RateLimitService rateLimitService = new RateLimitService(0, 5, 0, 50, 1, 1, 100);
+
+        fromAddress("10.0.0.1");
+        Assertions.assertTrue(rateLimitService.tryAcquireWrite("submodels", new HttpHeaders()));
+        Assertions.assertFalse(rateLimitService.tryAcquireWrite("submodels", new HttpHeaders()));
+        fromAddress("10.0.0.2");
+        Assertions.assertTrue(rateLimitService.tryAcquireWrite("submodels", new HttpHeaders()));
+    }
+
+    @Test
+    public void writesShouldBeLimitedPerAuthorization() {
+        RateLimitService rateLimitService = new RateLimitService(0, 5, 0, 50, 1, 1, 100);
+        HttpHeaders writer1 = new HttpHeaders();
+        writer1.setBearerAuth("token1");
+        HttpHeaders writer2 = new HttpHeaders();
+        writer2.setBearerAuth("token2");
+
+        fromAddress("10.0.0.1");
+        Assertions.assertTrue(rateLimitService.tryAcquireWrite("submodels", writer1));
+        Assertions.assertFalse(rateLimitService.tryAcquireWrite("submodels", writer1));
+        Assertions.assertTrue(rateLimitService.tryAcquireWrite("submodels", writer2));
+    }
+
+    @Test
+    public void writersShouldBeKeyedByPrincipalOrDigestOfTheirCredentials() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth("secret-token");
+        fromAddress("10.0.0.1");
+
+        String key = RateLimitService.getWriterKey("submodels", headers);
+        Assertions.assertTrue(key.startsWith("authorization:"));
+        Assertions.assertFalse(key.contains("secret-token"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setUserPrincipal(() -> "writer1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        Assertions.assertEquals("principal:writer1", RateLimitService.getWriterKey("submodels", headers));
+    }
+
+    @Test
+    public void rejectionsShouldBeAnsweredWithTooManyRequests() throws Exception {
+        // the exception propagates out of the controller, as it does from the catalog request of the dsp-protocol-lib
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) new SpringApplicationBuilder(CatalogProbe.class)
+                .web(WebApplicationType.SERVLET)
+                .run("--server.port=0")) {
+            URI uri = URI.create("http://localhost:" + context.getWebServer().getPort() + "/catalog");
+            HttpClient client = HttpClient.newHttpClient();
+
+            Assertions.assertEquals(200, client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+            Assertions.assertEquals(429, client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()).statusCode());
+        }
+    }
+
+    private static void fromAddress(String address) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(address);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Configuration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class})
+    @RestController
+    static class CatalogProbe {
+
+        private final RateLimitService rateLimitService = new RateLimitService(0.001, 1, 0, 50, 0, 50, 100);
+
+        @GetMapping("/catalog")
+        public String catalog() {
+            rateLimitService.checkCatalog(Map.of(PARTNER_ID, "did:web:partner1"));
+            return "catalog";
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class tests the RateLimiter
+ */
+public class RateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    public void burstShouldBeAdmittedAndThenLimited() {
+        RateLimiter rateLimiter = new RateLimiter(10, 3, 100, clock::get);
+
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner"));
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner"));
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner"));
+        Assertions.assertFalse(rateLimiter.tryAcquire("partner"));
+
+        clock.addAndGet(100_000_000L);
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner"));
+        Assertions.assertFalse(rateLimiter.tryAcquire("partner"));
+    }
+
+    @Test
+    public void partnersShouldHaveSeparateBudgets() {
+        RateLimiter rateLimiter = new RateLimiter(1, 1, 100, clock::get);
+
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner1"));
+        Assertions.assertFalse(rateLimiter.tryAcquire("partner1"));
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner2"));
+    }
+
+    @Test
+    public void disabledLimiterShouldAdmitEverything() {
+        RateLimiter rateLimiter = new RateLimiter(0, 1, 100, clock::get);
+
+        for (int i = 0; i < 1000; i++) {
+            Assertions.assertTrue(rateLimiter.tryAcquire("partner"));
+        }
+        Assertions.assertEquals(0, rateLimiter.getKeyCount());
+    }
+
+    @Test
+    public void idleBucketsShouldBeEvicted() {
+        RateLimiter rateLimiter = new RateLimiter(10, 1, 2, clock::get);
+
+        rateLimiter.tryAcquire("partner1");
+        rateLimiter.tryAcquire("partner2");
+        clock.addAndGet(1_000_000_000L);
+        rateLimiter.tryAcquire("partner3");
+
+        Assertions.assertEquals(1, rateLimiter.getKeyCount());
+    }
+
+    @Test
+    public void newKeysShouldBeRejectedWhileAllBucketsAreActive() {
+        RateLimiter rateLimiter = new RateLimiter(10, 1, 2, clock::get);
+
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner1"));
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner2"));
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertFalse(rateLimiter.tryAcquire("flood" + i));
+        }
+        Assertions.assertEquals(2, rateLimiter.getKeyCount());
+        // the known keys keep their budgets
+        Assertions.assertFalse(rateLimiter.tryAcquire("partner1"));
+
+        clock.addAndGet(100_000_000L);
+        Assertions.assertTrue(rateLimiter.tryAcquire("partner3"));
+        Assertions.assertEquals(1, rateLimiter.getKeyCount());
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasregistry.client.ApiException;
+import org.eclipse.digitaltwin.basyx.aasregistry.client.api.RegistryAndDiscoveryInterfaceApi;
+import org.eclipse.digitaltwin.basyx.aasregistry.client.model.AssetAdministrationShellDescriptor;
+import org.eclipse.digitaltwin.basyx.aasregistry.main.client.factory.AasDescriptorFactory;
+import org.eclipse.digitaltwin.basyx.submodelregistry.client.api.SubmodelRegistryApi;
+import org.eclipse.digitaltwin.basyx.submodelregistry.client.factory.SubmodelDescriptorFactory;
+import org.eclipse.digitaltwin.basyx.submodelregistry.client.model.SubmodelDescriptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * This class tests the registry clients of the RegistrySyncService against a local registry stub
+ */
+public class RegistrySyncServiceTest {
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    // status codes of the next responses, 2xx once they are used up
+    private final Queue<Integer> statuses = new ArrayDeque<>();
+    private HttpServer server;
+    private String basePath;
+
+    @BeforeEach
+    public void init() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+        basePath = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void existingShellDescriptorShouldBeReplaced() throws Exception {
+        AssetAdministrationShell shell = new DefaultAssetAdministrationShell.Builder().id("shell1").build();
+        AasDescriptorFactory descriptorFactory = Mockito.mock(AasDescriptorFactory.class);
+        Mockito.when(descriptorFactory.create(shell)).thenReturn(new AssetAdministrationShellDescriptor().id("shell1"));
+        var client = RegistrySyncService.createAasClient(new RegistryAndDiscoveryInterfaceApi(basePath), descriptorFactory);
+        statuses.add(409);
+
+        client.register("shell1", shell);
+
+        Assertions.assertEquals(List.of("POST", "DELETE", "POST"), methods());
+        Assertions.assertTrue(requests.stream().allMatch(request -> request.contains("/shell-descriptors")));
+    }
+
+    @Test
+    public void missingShellDescriptorShouldCountAsUnregistered() throws Exception {
+        var client = RegistrySyncService.createAasClient(new RegistryAndDiscoveryInterfaceApi(basePath),
+                Mockito.mock(AasDescriptorFactory.class));
+        statuses.add(404);
+
+        client.unregister("shell1");
+
+        Assertions.assertEquals(List.of("DELETE"), methods());
+    }
+
+    @Test
+    public void otherRegistryErrorsShouldFailTheChange() {
+        var client = RegistrySyncService.createAasClient(new RegistryAndDiscoveryInterfaceApi(basePath),
+                Mockito.mock(AasDescriptorFactory.class));
+        statuses.add(500);
+
+        ApiException e = Assertions.assertThrows(ApiException.class, () -> client.unregister("shell1"));
+        Assertions.assertEquals(500, e.getCode());
+    }
+
+    @Test
+    public void existingSubmodelDescriptorShouldBeReplaced() throws Exception {
+        Submodel submodel = new DefaultSubmodel.Builder().id("sm1").build();
+        SubmodelDescriptorFactory descriptorFactory = Mockito.mock(SubmodelDescriptorFactory.class);
+        Mockito.when(descriptorFactory.create(submodel)).thenReturn(new SubmodelDescriptor().id("sm1"));
+        var client = RegistrySyncService.createSubmodelClient(new SubmodelRegistryApi(basePath), descriptorFactory);
+        statuses.add(409);
+
+        client.register("sm1", submodel);
+        statuses.add(404);
+        client.unregister("sm1");
+
+        Assertions.assertEquals(List.of("POST", "DELETE", "POST", "DELETE"), methods());
+        Assertions.assertTrue(requests.stream().allMatch(request -> request.contains("/submodel-descriptors")));
+    }
+
+    private List<String> methods() {
+        return requests.stream().map(request -> request.substring(0, request.indexOf(' '))).toList();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        requests.add(method + " " + exchange.getRequestURI().getPath());
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        Integer status;
+        synchronized (statuses) {
+            status = statuses.poll();
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (status == null && method.equals("POST")) {
+            // the created descriptor is echoed, as by the registry
+            exchange.sendResponseHeaders(201, body.length);
+            exchange.getResponseBody().write(body);
+        } else if (status == null) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            byte[] error = ("{\"messages\":[{\"code\":\"" + status + "\"}]}").getBytes();
+            exchange.sendResponseHeaders(status, error.length);
+            exchange.getResponseBody().write(error);
+        }
+        exchange.close();
+    }
+}
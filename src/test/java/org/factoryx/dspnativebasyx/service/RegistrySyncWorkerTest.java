@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class tests the merging, batching, retry and pause behaviour of the RegistrySyncWorker
+ */
+public class RegistrySyncWorkerTest {
+
+    private final AtomicLong clock = new AtomicLong(0);
+    private final List<String> sentOperations = new ArrayList<>();
+    private final AtomicInteger remainingFailures = new AtomicInteger(0);
+    private RegistrySyncWorker<String> worker;
+
+    @BeforeEach
+    public void init() {
+        RegistrySyncWorker.RegistryClient<String> client = new RegistrySyncWorker.RegistryClient<>() {
+            @Override
+            public void register(String id, String source) throws Exception {
+                failIfRequested();
+                sentOperations.add("register " + id + " " + source);
+            }
+
+            @Override
+            public void unregister(String id) throws Exception {
+                failIfRequested();
+                sentOperations.add("unregister " + id);
+            }
+        };
+        worker = new RegistrySyncWorker<>("test", client, 2, 100, 1000, 3, clock::get);
+    }
+
+    @Test
+    public void consecutiveChangesShouldBeMerged() {
+        worker.enqueueRegister("a", "v1");
+        worker.enqueueRegister("a", "v2");
+        worker.enqueueRegister("b", "v1");
+        worker.enqueueUnregister("b");
+
+        Assertions.assertEquals(2, worker.getPendingCount());
+        Assertions.assertEquals(2, worker.sendBatch());
+        Assertions.assertEquals(List.of("register a v2", "unregister b"), sentOperations);
+    }
+
+    @Test
+    public void batchesShouldBeLimited() {
+        worker.enqueueRegister("a", "v1");
+        worker.enqueueRegister("b", "v1");
+        worker.enqueueRegister("c", "v1");
+
+        Assertions.assertEquals(2, worker.sendBatch());
+        Assertions.assertEquals(1, worker.sendBatch());
+        Assertions.assertEquals(0, worker.sendBatch());
+        Assertions.assertEquals(3, sentOperations.size());
+    }
+
+    @Test
+    public void failedChangesShouldBeRetriedWithBackoff() {
+        remainingFailures.set(2);
+        worker.enqueueRegister("a", "v1");
+
+        worker.sendBatch();
+        Assertions.assertEquals(1, worker.getPendingCount());
+        clock.set(99);
+        Assertions.assertEquals(0, worker.sendBatch());
+        clock.set(100);
+        Assertions.assertEquals(1, worker.sendBatch());
+        // second failure doubles the backoff
+        clock.set(299);
+        Assertions.assertEquals(0, worker.sendBatch());
+        clock.set(300);
+        Assertions.assertEquals(1, worker.sendBatch());
+        Assertions.assertEquals(List.of("register a v1"), sentOperations);
+        Assertions.assertEquals(0, worker.getPendingCount());
+    }
+
+    @Test
+    public void newerChangeShouldReplaceFailedChange() {
+        remainingFailures.set(1);
+        worker.enqueueRegister("a", "v1");
+        worker.sendBatch();
+        worker.enqueueUnregister("a");
+
+        Assertions.assertEquals(1, worker.sendBatch());
+        Assertions.assertEquals(List.of("unregister a"), sentOperations);
+    }
+
+    @Test
+    public void consecutiveFailuresShouldPauseTheWorker() {
+        remainingFailures.set(3);
+        worker.enqueueRegister("a", "v1");
+        worker.enqueueRegister("b", "v1");
+        worker.enqueueRegister("c", "v1");
+        worker.enqueueRegister("d", "v1");
+
+        Assertions.assertEquals(2, worker.sendBatch());
+        // the third failure opens the circuit, d is not attempted
+        Assertions.assertEquals(1, worker.sendBatch());
+        Assertions.assertEquals(4, worker.getPendingCount());
+        Assertions.assertEquals(0, worker.sendBatch());
+        clock.set(99);
+        Assertions.assertEquals(0, worker.sendBatch());
+        Assertions.assertTrue(sentOperations.isEmpty());
+
+        clock.set(100);
+        Assertions.assertEquals(2, worker.sendBatch());
+        Assertions.assertEquals(2, worker.sendBatch());
+        Assertions.assertEquals(List.of("register a v1", "register b v1", "register c v1", "register d v1"), sentOperations);
+    }
+
+    private void failIfRequested() throws Exception {
+        if (remainingFailures.getAndDecrement() > 0) {
+            throw new Exception("registry unavailable");
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.eclipse.paho.client.mqttv3.IMqttClient;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * This class tests the ReplicaInvalidationService
+ */
+public class ReplicaInvalidationServiceTest {
+
+    private static final String TOPIC = "dspnativebasyx/invalidation";
+
+    @Mock
+    private MessagingSupportService messagingSupportService;
+    @Mock
+    private AasBackend aasBackend;
+    @Mock
+    private SubmodelBackend submodelBackend;
+    @Mock
+    private WriteBehindService writeBehindService;
+
+    private ServiceFixture fixture;
+    private CatalogSnapshotService catalogSnapshotService;
+    private SubmodelIndexService submodelIndexService;
+    private ReplicaInvalidationService replicaInvalidationService;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(aasBackend.findAll()).thenReturn(List.of());
+        Mockito.when(submodelBackend.findAll()).thenReturn(List.of(getSubmodel("Nameplate")));
+
+        fixture = ServiceFixture.builder(aasBackend, submodelBackend).build();
+        catalogSnapshotService = fixture.catalogSnapshotService;
+        submodelIndexService = fixture.submodelIndexService;
+        replicaInvalidationService = createService(false);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        replicaInvalidationService.stop();
+        fixture.stop();
+    }
+
+    @Test
+    public void foreignUpdateShouldRefreshSnapshotAndIndex() {
+        Assertions.assertEquals("Nameplate", catalogSnapshotService.getSnapshot().submodels().get("sm1").getIdShort());
+        Mockito.when(submodelBackend.findById("sm1")).thenReturn(Optional.of(getSubmodel("NameplateV2")));
+
+        replicaInvalidationService.handleMessage(announcement("replica-b", "submodelUpserted", "sm1"));
+
+        Assertions.assertEquals("NameplateV2", catalogSnapshotService.getSnapshot().submodels().get("sm1").getIdShort());
+        Assertions.assertEquals(1, submodelIndexService.search(null, "NameplateV2", 10, entry -> true).results().size());
+        Mockito.verify(writeBehindService).discard("sm1");
+    }
+
+    @Test
+    public void foreignDeleteShouldRemoveFromSnapshotAndIndex() {
+        replicaInvalidationService.handleMessage(announcement("replica-b", "submodelDeleted", "sm1"));
+
+        Assertions.assertNull(catalogSnapshotService.getSnapshot().submodels().get("sm1"));
+        Assertions.assertTrue(submodelIndexService.search(null, "Nameplate", 10, entry -> true).results().isEmpty());
+        Mockito.verify(submodelBackend, Mockito.never()).findById(ArgumentMatchers.anyString());
+        Mockito.verify(writeBehindService).discard("sm1");
+    }
+
+    @Test
+    public void ownAnnouncementShouldBeIgnored() {
+        replicaInvalidationService.handleMessage(announcement("replica-a", "submodelDeleted", "sm1"));
+
+        Assertions.assertNotNull(catalogSnapshotService.getSnapshot().submodels().get("sm1"));
+        Mockito.verifyNoInteractions(writeBehindService);
+    }
+
+    @Test
+    public void invalidPayloadShouldBeIgnored() {
+        replicaInvalidationService.handleMessage(announcement("replica-b", "renamed", "sm1"));
+        replicaInvalidationService.handleMessage("not json".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertNotNull(catalogSnapshotService.getSnapshot().submodels().get("sm1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void localWritesShouldBeAnnouncedWithTheReplicaId() throws Exception {
+        replicaInvalidationService.stop();
+        replicaInvalidationService = createService(true);
+        ArgumentCaptor<Consumer<IMqttClient>> whenAvailable = ArgumentCaptor.forClass(Consumer.class);
+        Mockito.verify(messagingSupportService).whenMqttClientAvailable(whenAvailable.capture());
+        IMqttClient mqttClient = Mockito.mock(IMqttClient.class);
+        whenAvailable.getValue().accept(mqttClient);
+
+        fixture.modelWritePipeline.submodelSaved(getSubmodel("NameplateV2"));
+        Mockito.when(submodelBackend.findById("sm1")).thenReturn(Optional.of(getSubmodel("NameplateV3")));
+        replicaInvalidationService.handleMessage(announcement("replica-b", "submodelUpserted", "sm1"));
+
+        ArgumentCaptor<MqttMessage> published = ArgumentCaptor.forClass(MqttMessage.class);
+        Mockito.verify(mqttClient, Mockito.timeout(5000)).publish(ArgumentMatchers.eq(TOPIC), published.capture());
+        String payload = new String(published.getValue().getPayload(), StandardCharsets.UTF_8);
+        Assertions.assertTrue(payload.contains("\"replica\":\"replica-a\""), payload);
+        Assertions.assertTrue(payload.contains("\"change\":\"submodelUpserted\""), payload);
+        // the write of the other replica is not announced again
+        Thread.sleep(100);
+        Mockito.verify(mqttClient, Mockito.times(1)).publish(ArgumentMatchers.anyString(), ArgumentMatchers.any(MqttMessage.class));
+    }
+
+    private ReplicaInvalidationService createService(boolean enabled) {
+        return new ReplicaInvalidationService(messagingSupportService, aasBackend, submodelBackend, fixture.modelWritePipeline,
+                writeBehindService, fixture.aasSerializationService, enabled, TOPIC, "replica-a");
+    }
+
+    private static byte[] announcement(String replica, String change, String id) {
+        return ("{\"replica\":\"" + replica + "\",\"change\":\"" + change + "\",\"id\":\"" + id + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Submodel getSubmodel(String idShort) {
+        return new DefaultSubmodel.Builder().id("sm1").idShort(idShort).build();
+    }
+}
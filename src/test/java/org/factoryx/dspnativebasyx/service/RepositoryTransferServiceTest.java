@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.*;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.*;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * This class tests the RepositoryTransferService
+ */
+public class RepositoryTransferServiceTest {
+
+    @Mock
+    private AasBackend aasBackend;
+    @Mock
+    private SubmodelBackend submodelBackend;
+
+    private ServiceFixture fixture;
+    private ChangeLogService changeLogService;
+    private RepositoryTransferService repositoryTransferService;
+
+    @BeforeEach
+    public void init() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(aasBackend.saveAll(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        Mockito.when(submodelBackend.saveAll(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        fixture = ServiceFixture.builder(aasBackend, submodelBackend).changeLogCapacity(100).transfer(2, 2).build();
+        changeLogService = fixture.changeLogService;
+        repositoryTransferService = fixture.repositoryTransferService;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        fixture.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void exportShouldBeImportable() throws Exception {
+        List<AssetAdministrationShell> shells = List.of(getShell("shell-1"), getShell("shell-2"));
+        List<Submodel> submodels = List.of(getSubmodel("submodel-1"), getSubmodel("submodel-2"), getSubmodel("submodel-3"));
+        Mockito.when(aasBackend.findAll()).thenReturn(shells);
+        Mockito.when(submodelBackend.findAll()).thenReturn(submodels);
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+
+        repositoryTransferService.exportTo(export);
+        var result = repositoryTransferService.importFrom(new ByteArrayInputStream(export.toByteArray()));
+
+        Assertions.assertEquals(new RepositoryTransferService.ImportResult(2, 3, 0, List.of()), result);
+        ArgumentCaptor<Iterable<Submodel>> captor = ArgumentCaptor.forClass(Iterable.class);
+        Mockito.verify(submodelBackend, Mockito.atLeastOnce()).saveAll(captor.capture());
+        List<Submodel> imported = new ArrayList<>();
+        captor.getAllValues().forEach(batch -> batch.forEach(imported::add));
+        Assertions.assertEquals(submodels.stream().map(Submodel::getId).sorted().toList(),
+                imported.stream().map(Submodel::getId).sorted().toList());
+        Assertions.assertEquals(5, changeLogService.getLatestSequence());
+    }
+
+    @Test
+    public void invalidLinesShouldBeSkippedAndReported() throws Exception {
+        String ndjson = """
+                {"type":"submodel","value":{"id":"submodel-1","modelType":"Submodel"}}
+                {"type":"unknown","value":{}}
+                [1, 2]
+
+                {"type":"submodel","value":{"id":"submodel-2"
+                {"type":"submodel","value":{"id":"submodel-3","modelType":"Submodel"}}
+                """;
+
+        var result = repositoryTransferService.importFrom(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertEquals(2, result.submodels());
+        Assertions.assertEquals(3, result.failed());
+        Assertions.assertEquals(List.of(2, 3, 5), result.errors().stream()
+                .map(error -> Integer.parseInt(error.substring("line ".length(), error.indexOf(':')))).toList());
+    }
+
+    @Test
+    public void truncatedImportShouldFail() throws Exception {
+        String ndjson = """
+                {"type":"submodel","value":{"id":"submodel-1","modelType":"Submodel"}}
+                {"type":"submodel","value":{"id":"submo""";
+
+        var e = Assertions.assertThrows(RepositoryTransferService.ImportTruncatedException.class,
+                () -> repositoryTransferService.importFrom(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))));
+
+        Assertions.assertTrue(e.getReason().contains("line 2"), e.getReason());
+        Mockito.verify(submodelBackend).saveAll(Mockito.any());
+    }
+
+    @Test
+    public void truncatedGzipImportShouldFail() throws Exception {
+        List<Submodel> submodels = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            submodels.add(getSubmodel("submodel-" + i));
+        }
+        Mockito.when(aasBackend.findAll()).thenReturn(List.of());
+        Mockito.when(submodelBackend.findAll()).thenReturn(submodels);
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        repositoryTransferService.exportTo(export);
+        byte[] truncated = Arrays.copyOf(export.toByteArray(), export.size() / 2);
+
+        Assertions.assertThrows(RepositoryTransferService.ImportTruncatedException.class,
+                () -> repositoryTransferService.importFrom(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    public void replacedObjectsShouldBeAnnouncedAsUpdated() throws Exception {
+        Mockito.when(submodelBackend.existsById("submodel-1")).thenReturn(true);
+        String ndjson = """
+                {"type":"submodel","value":{"id":"submodel-1","modelType":"Submodel"}}
+                {"type":"submodel","value":{"id":"submodel-2","modelType":"Submodel"}}
+                """;
+
+        repositoryTransferService.importFrom(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        var events = changeLogService.readSince(0, 10, event -> true).events();
+        Assertions.assertEquals(Map.of("submodel-1", ChangeLogService.ChangeType.updated, "submodel-2", ChangeLogService.ChangeType.created),
+                events.stream().collect(Collectors.toMap(ChangeLogService.ChangeEvent::id, ChangeLogService.ChangeEvent::type)));
+    }
+
+    @Test
+    public void catalogsShouldNeverShowPartialImport() throws Exception {
+        Mockito.when(submodelBackend.saveAll(Mockito.any())).thenAnswer(invocation -> {
+            Thread.sleep(10);
+            return invocation.getArgument(0);
+        });
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            ndjson.append("{\"type\":\"submodel\",\"value\":{\"id\":\"imported-").append(i)
+                    .append("\",\"modelType\":\"Submodel\"}}\n");
+        }
+        Set<Integer> visibleCounts = ConcurrentHashMap.newKeySet();
+        AtomicBoolean importing = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (importing.get()) {
+                int count = 0;
+                for (Submodel submodel : fixture.catalogSnapshotService.getSnapshot().submodels()) {
+                    if (submodel.getId().startsWith("imported-")) {
+                        count++;
+                    }
+                }
+                visibleCounts.add(count);
+            }
+        });
+        reader.start();
+
+        try {
+            repositoryTransferService.importFrom(new ByteArrayInputStream(ndjson.toString().getBytes(StandardCharsets.UTF_8)));
+        } finally {
+            importing.set(false);
+            reader.join();
+        }
+
+        Assertions.assertEquals(40, fixture.catalogSnapshotService.getSnapshot().submodels().size());
+        Assertions.assertTrue(Set.of(0, 40).containsAll(visibleCounts), visibleCounts.toString());
+    }
+
+    private static AssetAdministrationShell getShell(String id) {
+        return new DefaultAssetAdministrationShell.Builder()
+                .id(id)
+                .assetInformation(new DefaultAssetInformation.Builder().globalAssetId("global-" + id).build())
+                .build();
+    }
+
+    private static Submodel getSubmodel(String id) {
+        return new DefaultSubmodel.Builder().id(id).idShort("Nameplate").build();
+    }
+}
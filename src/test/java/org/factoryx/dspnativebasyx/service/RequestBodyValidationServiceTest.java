@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class tests the RequestBodyValidationService
+ */
+public class RequestBodyValidationServiceTest {
+
+    private RequestBodyValidationService requestBodyValidationService;
+
+    @BeforeEach
+    public void init() {
+        requestBodyValidationService = new RequestBodyValidationService(new AasSerializationService(new ObjectMapper()),
+                1024, 50, 4, 64);
+    }
+
+    @Test
+    public void validBodyShouldReturnTopLevelId() {
+        String body = """
+                {"idShort": "Nameplate", "semanticId": {"keys": [{"type": "GlobalReference", "value": "nested"}]},
+                 "submodelElements": [{"id": "not-this-one"}], "id": "urn:uuid:submodel-1"}
+                """;
+
+        Assertions.assertEquals("urn:uuid:submodel-1", validate(body));
+    }
+
+    @Test
+    public void oversizedBodyShouldBeRejectedWith413() {
+        RequestBodyValidationService.RequestBodyRejectedException e = Assertions.assertThrows(
+                RequestBodyValidationService.RequestBodyRejectedException.class,
+                () -> validate("{\"id\": \"sm1\", \"idShort\": \"" + "x".repeat(1100) + "\"}"));
+
+        Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatusCode());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "[]",
+            "{\"idShort\": \"no id\"}",
+            "{\"id\": 42}",
+            "{\"id\": \"sm1\"",
+            "{\"id\": \"sm1\"} {}",
+            "{\"id\": \"sm1\", \"a\": [[[[1]]]]}",
+            "{\"id\": \"sm1\", \"a\": [1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33, 34, 35, 36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48, 49, 50]}",
+            "{\"id\": \"sm1\", \"idShort\": \"a string value that is longer than the limit of sixty-four characters\"}",
+            "{\"id\": \"sm1\", \"a field name that is longer than the limit of sixty-four characters\": 1}"
+    })
+    public void invalidBodyShouldBeRejectedWith400(String body) {
+        RequestBodyValidationService.RequestBodyRejectedException e = Assertions.assertThrows(
+                RequestBodyValidationService.RequestBodyRejectedException.class, () -> validate(body));
+
+        Assertions.assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    public void zeroLimitsShouldNotBeChecked() {
+        RequestBodyValidationService unlimited = new RequestBodyValidationService(
+                new AasSerializationService(new ObjectMapper()), 0, 0, 0, 0);
+        String body = "{\"id\": \"sm1\", \"a\": " + "[".repeat(100) + "]".repeat(100) + "}";
+
+        Assertions.assertEquals("sm1", unlimited.validate(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String validate(String body) {
+        return requestBodyValidationService.validate(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
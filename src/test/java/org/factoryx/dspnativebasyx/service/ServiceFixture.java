@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+
+package org.factoryx.dspnativebasyx.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetAdministrationShell;
+import org.eclipse.digitaltwin.aas4j.v3.model.AssetInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.Key;
+import org.eclipse.digitaltwin.aas4j.v3.model.Reference;
+import org.eclipse.digitaltwin.aas4j.v3.model.Resource;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultAssetInformation;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultResource;
+import org.eclipse.digitaltwin.basyx.aasrepository.AasRepository;
+import org.eclipse.digitaltwin.basyx.aasrepository.feature.kafka.events.AasEventHandler;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.authorization.rbac.RbacStorage;
+import org.eclipse.digitaltwin.basyx.authorization.rules.rbac.backend.inmemory.InMemoryAuthorizationRbacStorage;
+import org.eclipse.digitaltwin.basyx.submodelrepository.SubmodelRepository;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.feature.kafka.events.SubmodelEventHandler;
+import org.eclipse.paho.client.mqttv3.IMqttClient;
+import org.factoryx.dspnativebasyx.backend.ChangeTrackingInvocationHandler;
+import org.factoryx.dspnativebasyx.backend.ModelChangeListener;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Optional;
+
+/**
+ * Wires the services like the application context does, for the tests, the benchmarks and the
+ * load harness. The defaults are those of application.properties, without rate limits, without
+ * write-behind and without integrations; the builder overrides what a test needs.
+ *
+ * The backends are wrapped with the change tracking like in ChangeTrackingConfig, aasBackend and
+ * submodelBackend are the tracked instances.
+ */
+public class ServiceFixture {
+
+    public static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_ENUMS)
+            .addModule(new SimpleModule()
+                    .addAbstractTypeMapping(AssetInformation.class, DefaultAssetInformation.class)
+                    .addAbstractTypeMapping(Reference.class, DefaultReference.class)
+                    .addAbstractTypeMapping(Key.class, DefaultKey.class)
+                    .addAbstractTypeMapping(Resource.class, DefaultResource.class))
+            .build();
+
+    public final AasBackend aasBackend;
+    public final SubmodelBackend submodelBackend;
+    public final AasRepository aasRepository;
+    public final SubmodelRepository submodelRepository;
+    public final AasSerializationService aasSerializationService;
+    public final ChangeLogService changeLogService;
+    public final AuditService auditService;
+    public final BulkheadService bulkheadService;
+    public final KafkaSinkService kafkaSinkService;
+    public final MessagingSupportService messagingSupportService;
+    public final RbacDCPValidationService rbacDCPValidationService;
+    public final DtoCacheService dtoCacheService;
+    public final CatalogFragmentService catalogFragmentService;
+    public final CatalogSnapshotService catalogSnapshotService;
+    public final SubmodelIndexService submodelIndexService;
+    public final WriteVersionService writeVersionService;
+    public final PropertyHistoryService propertyHistoryService;
+    public final WriteBehindService writeBehindService;
+    public final AttachmentStoreService attachmentStoreService;
+    public final CanonicalizationService canonicalizationService;
+    public final ModelWritePipeline modelWritePipeline;
+    public final BaSyxAccessManagementService accessManagementService;
+    public final RepositoryTransferService repositoryTransferService;
+
+    private ServiceFixture(Builder builder) {
+        WriteLockService writeLockService = new WriteLockService(1024);
+        this.aasBackend = ChangeTrackingInvocationHandler.create(AasBackend.class, builder.aasBackend,
+                AssetAdministrationShell::getId,
+                ModelChangeListener.of(shell -> this.modelWritePipeline.shellSaved(shell),
+                        shellId -> this.modelWritePipeline.shellDeleted(shellId)),
+                writeLockService::getShellLock);
+        this.submodelBackend = ChangeTrackingInvocationHandler.create(SubmodelBackend.class, builder.submodelBackend,
+                Submodel::getId,
+                ModelChangeListener.of(submodel -> this.modelWritePipeline.submodelSaved(submodel),
+                        submodelId -> this.modelWritePipeline.submodelDeleted(submodelId),
+                        (submodelId, replacing) -> this.modelWritePipeline.submodelWriting(submodelId, replacing)),
+                writeLockService::getSubmodelLock);
+        this.aasRepository = Mockito.mock(AasRepository.class);
+        this.submodelRepository = Mockito.mock(SubmodelRepository.class);
+        Mockito.when(aasRepository.getName()).thenReturn("aas-repository");
+        Mockito.when(submodelRepository.getName()).thenReturn("submodel-repository");
+        this.aasSerializationService = new AasSerializationService(builder.objectMapper);
+        this.changeLogService = new ChangeLogService(builder.changeLogCapacity);
+        this.auditService = new AuditService(8192, 100, 10000);
+        this.bulkheadService = builder.boundedBulkheads
+                ? new BulkheadService(new SimpleMeterRegistry(), 8, 2000, 64, 2000, 32, 5000, 4, 10000)
+                : new BulkheadService(new SimpleMeterRegistry(), 0, 0, 0, 0, 0, 0, 4, 10000);
+        this.kafkaSinkService = Mockito.mock(KafkaSinkService.class);
+        RegistrySyncService registrySyncService = new RegistrySyncService(Optional.empty(), Optional.empty(),
+                Optional.empty(), Optional.empty(), 100, 500, 1000, 300000);
+        this.messagingSupportService = new MessagingSupportService(
+                builder.integrations.getBeanProvider(SubmodelEventHandler.class),
+                builder.integrations.getBeanProvider(AasEventHandler.class),
+                builder.integrations.getBeanProvider(IMqttClient.class), aasRepository, submodelRepository,
+                registrySyncService, aasSerializationService, changeLogService, bulkheadService, kafkaSinkService,
+                builder.deltaUpdates, 10, builder.deferIntegrations, 50, 10000);
+        this.rbacDCPValidationService = new RbacDCPValidationService(builder.rbacStorage, builder.roleMappings);
+        this.writeVersionService = new WriteVersionService();
+        this.writeBehindService = new WriteBehindService(submodelBackend, "", builder.writeBehindPattern, 60000, 1000);
+        try {
+            this.attachmentStoreService = new AttachmentStoreService(submodelBackend, writeBehindService,
+                    builder.attachmentDirectory, 65536, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.dtoCacheService = new DtoCacheService(aasSerializationService, writeVersionService, attachmentStoreService,
+                builder.cacheSize);
+        this.catalogFragmentService = new CatalogFragmentService(dtoCacheService, bulkheadService, writeVersionService,
+                aasBackend, submodelBackend);
+        this.catalogSnapshotService = new CatalogSnapshotService(aasBackend, submodelBackend, 4096, 0);
+        this.submodelIndexService = new SubmodelIndexService(submodelBackend);
+        this.propertyHistoryService = builder.propertyHistoryService;
+        this.canonicalizationService = new CanonicalizationService(new SimpleMeterRegistry(), true);
+        this.modelWritePipeline = new ModelWritePipeline(dtoCacheService, catalogFragmentService, catalogSnapshotService,
+                submodelIndexService, propertyHistoryService, writeVersionService, writeBehindService,
+                attachmentStoreService);
+        ApiAssetReadService apiAssetReadService = new ApiAssetReadService(aasBackend, writeBehindService,
+                rbacDCPValidationService, aasSerializationService, dtoCacheService, changeLogService,
+                submodelIndexService, propertyHistoryService, attachmentStoreService, catalogFragmentService);
+        ApiAssetWriteService apiAssetWriteService = new ApiAssetWriteService(aasBackend, submodelBackend,
+                aasSerializationService, new RequestBodyValidationService(aasSerializationService, 16777216, 200000, 64, 1048576),
+                canonicalizationService, writeLockService, writeBehindService, attachmentStoreService,
+                messagingSupportService, modelWritePipeline);
+        this.accessManagementService = new BaSyxAccessManagementService(aasBackend, rbacDCPValidationService,
+                writeBehindService, catalogSnapshotService, new RateLimitService(0, 5, 0, 50, 0, 50, 10000),
+                bulkheadService, auditService, catalogFragmentService, apiAssetReadService, apiAssetWriteService, "", "");
+        this.repositoryTransferService = new RepositoryTransferService(aasBackend, submodelBackend, aasSerializationService,
+                writeBehindService, catalogSnapshotService, attachmentStoreService, canonicalizationService,
+                messagingSupportService, builder.transferBatchSize, builder.transferParallelism);
+    }
+
+    public static Builder builder(AasBackend aasBackend, SubmodelBackend submodelBackend) {
+        return new Builder(aasBackend, submodelBackend);
+    }
+
+    /**
+     * An AttachmentStoreService without directory, for tests of single services.
+     */
+    public static AttachmentStoreService disabledAttachmentStore() {
+        SubmodelBackend submodelBackend = Mockito.mock(SubmodelBackend.class);
+        try {
+            return new AttachmentStoreService(submodelBackend, new WriteBehindService(submodelBackend, "", "", 1000, 1000),
+                    "", 65536, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void stop() {
+        messagingSupportService.stop();
+        writeBehindService.stop();
+        attachmentStoreService.stop();
+        catalogSnapshotService.stop();
+        bulkheadService.stop();
+        try {
+            auditService.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static class Builder {
+
+        private final AasBackend aasBackend;
+        private final SubmodelBackend submodelBackend;
+        private ObjectMapper objectMapper = OBJECT_MAPPER;
+        private RbacStorage rbacStorage = new InMemoryAuthorizationRbacStorage(new HashMap<>());
+        private String roleMappings = "member=role";
+        private ListableBeanFactory integrations = new StaticListableBeanFactory();
+        private boolean deferIntegrations = false;
+        private boolean deltaUpdates = false;
+        private boolean boundedBulkheads = true;
+        private int cacheSize = 10000;
+        private String attachmentDirectory = "";
+        private String writeBehindPattern = "";
+        private int changeLogCapacity = 1000;
+        private int transferBatchSize = 500;
+        private int transferParallelism = 4;
+        private PropertyHistoryService propertyHistoryService = new PropertyHistoryService("", "", 1024, false, 100000);
+
+        private Builder(AasBackend aasBackend, SubmodelBackend submodelBackend) {
+            this.aasBackend = aasBackend;
+            this.submodelBackend = submodelBackend;
+        }
+
+        public Builder objectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        public Builder rbac(RbacStorage rbacStorage, String roleMappings) {
+            this.rbacStorage = rbacStorage;
+            this.roleMappings = roleMappings;
+            return this;
+        }
+
+        public Builder integrations(ListableBeanFactory integrations, boolean deferIntegrations) {
+            this.integrations = integrations;
+            this.deferIntegrations = deferIntegrations;
+            return this;
+        }
+
+        /**
+         * Publishes submodel updates to MQTT as JSON Patch, with a snapshot every 10th update.
+         */
+        public Builder deltaUpdates() {
+            this.deltaUpdates = true;
+            return this;
+        }
+
+        /**
+         * Disables the concurrency limits of the bulkheads, e.g. for benchmarks that measure
+         * the request handling itself.
+         */
+        public Builder unboundedBulkheads() {
+            this.boundedBulkheads = false;
+            return this;
+        }
+
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        /**
+         * Enables the AttachmentStoreService, Blob values of at least 64 KiB are stored in the directory.
+         */
+        public Builder attachments(String directory) {
+            this.attachmentDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Enables the WriteBehindService for the submodels with ids matching the pattern. The
+         * buffer is only flushed explicitly, or after a minute.
+         */
+        public Builder writeBehind(String idPattern) {
+            this.writeBehindPattern = idPattern;
+            return this;
+        }
+
+        public Builder changeLogCapacity(int changeLogCapacity) {
+            this.changeLogCapacity = changeLogCapacity;
+            return this;
+        }
+
+        public Builder transfer(int batchSize, int parallelism) {
+            this.transferBatchSize = batchSize;
+            this.transferParallelism = parallelism;
+            return this;
+        }
+
+        public Builder propertyHistory(PropertyHistoryService propertyHistoryService) {
+            this.propertyHistoryService = propertyHistoryService;
+            return this;
+        }
+
+        public ServiceFixture build() {
+            return new ServiceFixture(this);
+        }
+    }
+}
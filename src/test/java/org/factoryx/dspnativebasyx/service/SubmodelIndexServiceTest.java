@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultProperty;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+/**
+ * This class tests the SubmodelIndexService
+ */
+public class SubmodelIndexServiceTest {
+
+    private static final String NAMEPLATE = "https://admin-shell.io/zvei/nameplate/2/0/Nameplate";
+    private static final String CARBON_FOOTPRINT = "https://admin-shell.io/idta/CarbonFootprint/CarbonFootprint/0/9";
+
+    @Mock
+    private SubmodelBackend submodelBackend;
+
+    private SubmodelIndexService submodelIndexService;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        Mockito.when(submodelBackend.findAll()).thenReturn(List.of(
+                getSubmodel("sm1", "Nameplate", NAMEPLATE),
+                getSubmodel("sm2", "CarbonFootprint", CARBON_FOOTPRINT)));
+        submodelIndexService = new SubmodelIndexService(submodelBackend);
+    }
+
+    @Test
+    public void searchShouldMatchSemanticIdAndIdShortPrefix() {
+        submodelIndexService.update(getSubmodel("sm3", "NameplateV3", NAMEPLATE));
+
+        Assertions.assertEquals(List.of("sm1", "sm3"),
+                ids(submodelIndexService.search(NAMEPLATE, null, 10, entry -> true)).stream().sorted().toList());
+        Assertions.assertEquals(List.of("sm1", "sm3"),
+                ids(submodelIndexService.search(null, "Name", 10, entry -> true)));
+        Assertions.assertEquals(List.of("sm2"),
+                ids(submodelIndexService.search(CARBON_FOOTPRINT, "Carbon", 10, entry -> true)));
+        Assertions.assertTrue(submodelIndexService.search(CARBON_FOOTPRINT, "Name", 10, entry -> true).results().isEmpty());
+        Mockito.verify(submodelBackend, Mockito.times(1)).findAll();
+    }
+
+    @Test
+    public void updatesAndRemovalsShouldBeReflected() {
+        submodelIndexService.remove("sm1");
+        submodelIndexService.update(getSubmodel("sm2", "Nameplate", NAMEPLATE));
+
+        Assertions.assertEquals(List.of("sm2"), ids(submodelIndexService.search(NAMEPLATE, null, 10, entry -> true)));
+        Assertions.assertTrue(submodelIndexService.search(CARBON_FOOTPRINT, null, 10, entry -> true).results().isEmpty());
+        Assertions.assertTrue(submodelIndexService.search(null, "Carbon", 10, entry -> true).results().isEmpty());
+    }
+
+    @Test
+    public void searchShouldApplyFilterAndLimit() {
+        submodelIndexService.update(getSubmodel("sm3", "Nameplate2", NAMEPLATE));
+        submodelIndexService.update(getSubmodel("sm4", "Nameplate3", NAMEPLATE));
+
+        var limited = submodelIndexService.search(NAMEPLATE, null, 2, entry -> true);
+        Assertions.assertEquals(2, limited.results().size());
+        Assertions.assertTrue(limited.truncated());
+
+        var filtered = submodelIndexService.search(NAMEPLATE, null, 2, entry -> !entry.id().equals("sm1"));
+        Assertions.assertEquals(List.of("sm3", "sm4"), ids(filtered).stream().sorted().toList());
+        Assertions.assertFalse(filtered.truncated());
+    }
+
+    @Test
+    public void limitShouldBeClamped() {
+        submodelIndexService.update(getSubmodel("sm3", "Nameplate2", NAMEPLATE));
+
+        var zero = submodelIndexService.search(NAMEPLATE, null, 0, entry -> true);
+        Assertions.assertEquals(1, zero.results().size());
+        Assertions.assertTrue(zero.truncated());
+        Assertions.assertEquals(1, submodelIndexService.search(NAMEPLATE, null, -5, entry -> true).results().size());
+        Assertions.assertEquals(2, submodelIndexService.search(NAMEPLATE, null, Integer.MAX_VALUE, entry -> true).results().size());
+    }
+
+    private static List<String> ids(SubmodelIndexService.SearchResult result) {
+        return result.results().stream().map(SubmodelIndexService.IndexEntry::id).toList();
+    }
+
+    private static Submodel getSubmodel(String id, String idShort, String semanticId) {
+        return new DefaultSubmodel.Builder()
+                .id(id)
+                .idShort(idShort)
+                .semanticId(new DefaultReference.Builder()
+                        .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                        .keys(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE).value(semanticId).build())
+                        .build())
+                .submodelElements(new DefaultProperty.Builder().idShort("value").value("1").build())
+                .build();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.eclipse.digitaltwin.aas4j.v3.model.KeyTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.ReferenceTypes;
+import org.eclipse.digitaltwin.aas4j.v3.model.Submodel;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultKey;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultReference;
+import org.eclipse.digitaltwin.aas4j.v3.model.impl.DefaultSubmodel;
+import org.eclipse.digitaltwin.basyx.aasservice.backend.AasBackend;
+import org.eclipse.digitaltwin.basyx.submodelservice.backend.SubmodelBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tests the WriteBehindService
+ */
+public class WriteBehindServiceTest {
+
+    private static final String LIVE_DATA_SEMANTIC_ID = "urn:example:livedata:1:0";
+
+    @Mock
+    private SubmodelBackend submodelBackend;
+
+    private WriteBehindService writeBehindService;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        writeBehindService = new WriteBehindService(submodelBackend, LIVE_DATA_SEMANTIC_ID, "urn:live:.*", 60000, 1000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        writeBehindService.stop();
+    }
+
+    @Test
+    public void onlyConfiguredSubmodelsShouldBeBuffered() {
+        Assertions.assertTrue(writeBehindService.appliesTo(getSubmodel("urn:live:1", null)));
+        Assertions.assertTrue(writeBehindService.appliesTo(getSubmodel("urn:other:1", LIVE_DATA_SEMANTIC_ID)));
+        Assertions.assertFalse(writeBehindService.appliesTo(getSubmodel("urn:other:1", "urn:example:nameplate")));
+    }
+
+    @Test
+    public void readsShouldBeAnsweredFromBuffer() {
+        Submodel stored = getSubmodel("urn:live:1", null);
+        Submodel buffered = getSubmodel("urn:live:1", null);
+        buffered.setIdShort("updated");
+        Mockito.when(submodelBackend.findById("urn:live:1")).thenReturn(Optional.of(stored));
+
+        writeBehindService.buffer(buffered);
+
+        Assertions.assertSame(buffered, writeBehindService.findById("urn:live:1").orElseThrow());
+        Assertions.assertSame(buffered, writeBehindService.resolve(stored));
+        Mockito.verify(submodelBackend, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void flushShouldSaveOnlyNewestState() {
+        Submodel first = getSubmodel("urn:live:1", null);
+        Submodel second = getSubmodel("urn:live:1", null);
+        second.setIdShort("second");
+
+        writeBehindService.buffer(first);
+        writeBehindService.buffer(second);
+        writeBehindService.flush();
+
+        Mockito.verify(submodelBackend, Mockito.times(1)).saveAll(List.of(second));
+        Mockito.verify(submodelBackend, Mockito.never()).save(Mockito.any());
+        Mockito.when(submodelBackend.findById("urn:live:1")).thenReturn(Optional.of(second));
+        Assertions.assertSame(second, writeBehindService.findById("urn:live:1").orElseThrow());
+    }
+
+    @Test
+    public void discardedSubmodelsShouldNotBeFlushed() {
+        writeBehindService.buffer(getSubmodel("urn:live:1", null));
+        writeBehindService.discard("urn:live:1");
+        writeBehindService.flush();
+
+        Mockito.verify(submodelBackend, Mockito.never()).save(Mockito.any());
+        Mockito.verify(submodelBackend, Mockito.never()).saveAll(Mockito.any());
+    }
+
+    @Test
+    public void updatesDuringFlushShouldStayBuffered() {
+        Submodel first = getSubmodel("urn:live:1", null);
+        Submodel second = getSubmodel("urn:live:1", null);
+        second.setIdShort("second");
+        // a writer buffers a newer state while the backend is saving the flushed one
+        Mockito.when(submodelBackend.saveAll(List.of(first))).thenAnswer(invocation -> {
+            writeBehindService.buffer(second);
+            return List.of(first);
+        });
+
+        writeBehindService.buffer(first);
+        writeBehindService.flush();
+
+        Assertions.assertSame(second, writeBehindService.findById("urn:live:1").orElseThrow());
+        writeBehindService.flush();
+        Mockito.verify(submodelBackend).saveAll(List.of(second));
+    }
+
+    @Test
+    public void failedBatchShouldBeSavedOneByOne() {
+        Submodel valid = getSubmodel("urn:live:1", null);
+        Submodel rejected = getSubmodel("urn:live:2", null);
+        Mockito.when(submodelBackend.saveAll(Mockito.any())).thenThrow(new IllegalStateException("rejected"));
+        Mockito.when(submodelBackend.save(rejected)).thenThrow(new IllegalStateException("rejected"));
+
+        writeBehindService.buffer(valid);
+        writeBehindService.buffer(rejected);
+        writeBehindService.flush();
+
+        Mockito.verify(submodelBackend).save(valid);
+        Mockito.when(submodelBackend.findById("urn:live:1")).thenReturn(Optional.empty());
+        Assertions.assertTrue(writeBehindService.findById("urn:live:1").isEmpty());
+        Assertions.assertSame(rejected, writeBehindService.findById("urn:live:2").orElseThrow());
+    }
+
+    @Test
+    public void restApiWritesShouldDropBufferedState() {
+        ServiceFixture fixture = ServiceFixture.builder(Mockito.mock(AasBackend.class), submodelBackend)
+                .writeBehind("urn:live:.*").build();
+        try {
+            Submodel buffered = getSubmodel("urn:live:1", null);
+            buffered.setIdShort("buffered");
+            Submodel put = getSubmodel("urn:live:1", null);
+            put.setIdShort("put");
+            Mockito.when(submodelBackend.save(put)).thenReturn(put);
+
+            fixture.writeBehindService.buffer(buffered);
+            fixture.submodelBackend.save(put);
+            Mockito.when(submodelBackend.findById("urn:live:1")).thenReturn(Optional.of(put));
+            Assertions.assertSame(put, fixture.writeBehindService.findById("urn:live:1").orElseThrow());
+
+            fixture.writeBehindService.buffer(buffered);
+            fixture.submodelBackend.deleteById("urn:live:1");
+            Mockito.when(submodelBackend.findById("urn:live:1")).thenReturn(Optional.empty());
+            Assertions.assertTrue(fixture.writeBehindService.findById("urn:live:1").isEmpty());
+
+            fixture.writeBehindService.flush();
+            Mockito.verify(submodelBackend, Mockito.never()).save(buffered);
+            Mockito.verify(submodelBackend, Mockito.never()).saveAll(Mockito.any());
+        } finally {
+            fixture.stop();
+        }
+    }
+
+    @Test
+    public void bufferedStateShouldBeSavedBeforeElementWrites() {
+        ServiceFixture fixture = ServiceFixture.builder(Mockito.mock(AasBackend.class), submodelBackend)
+                .writeBehind("urn:live:.*").build();
+        try {
+            Submodel buffered = getSubmodel("urn:live:1", null);
+            Mockito.when(submodelBackend.findById("urn:live:1")).thenReturn(Optional.of(buffered));
+
+            fixture.writeBehindService.buffer(buffered);
+            fixture.submodelBackend.deleteSubmodelElement("urn:live:1", "temperature");
+
+            InOrder inOrder = Mockito.inOrder(submodelBackend);
+            inOrder.verify(submodelBackend).save(buffered);
+            inOrder.verify(submodelBackend).deleteSubmodelElement("urn:live:1", "temperature");
+            fixture.writeBehindService.flush();
+            Mockito.verify(submodelBackend, Mockito.never()).saveAll(Mockito.any());
+        } finally {
+            fixture.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void directWriteShouldNotBeOverwrittenByRunningFlush() throws Exception {
+        ServiceFixture fixture = ServiceFixture.builder(Mockito.mock(AasBackend.class), submodelBackend)
+                .writeBehind("urn:live:.*").build();
+        try {
+            Submodel buffered = getSubmodel("urn:live:1", null);
+            buffered.setIdShort("buffered");
+            // a PUT of a submodel that no longer matches the write-behind configuration is saved directly
+            Submodel put = getSubmodel("urn:live:1", null);
+            put.setIdShort("put");
+            List<String> written = new CopyOnWriteArrayList<>();
+            CountDownLatch flushing = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            Mockito.when(submodelBackend.saveAll(Mockito.any())).thenAnswer(invocation -> {
+                flushing.countDown();
+                release.await();
+                ((Iterable<Submodel>) invocation.getArgument(0)).forEach(submodel -> written.add(submodel.getIdShort()));
+                return invocation.getArgument(0);
+            });
+            Mockito.when(submodelBackend.save(put)).thenAnswer(invocation -> {
+                written.add(put.getIdShort());
+                return put;
+            });
+
+            fixture.writeBehindService.buffer(buffered);
+            CompletableFuture<Void> flush = CompletableFuture.runAsync(fixture.writeBehindService::flush);
+            Assertions.assertTrue(flushing.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Submodel> write = CompletableFuture.supplyAsync(() -> fixture.submodelBackend.save(put));
+            Thread.sleep(100);
+            Assertions.assertFalse(write.isDone());
+            release.countDown();
+            write.get(5, TimeUnit.SECONDS);
+            flush.get(5, TimeUnit.SECONDS);
+
+            Assertions.assertEquals(List.of("buffered", "put"), written);
+            fixture.writeBehindService.flush();
+            Mockito.verify(submodelBackend, Mockito.times(1)).saveAll(Mockito.any());
+        } finally {
+            fixture.stop();
+        }
+    }
+
+    private Submodel getSubmodel(String id, String semanticId) {
+        Submodel submodel = new DefaultSubmodel();
+        submodel.setId(id);
+        if (semanticId != null) {
+            submodel.setSemanticId(new DefaultReference.Builder()
+                    .type(ReferenceTypes.EXTERNAL_REFERENCE)
+                    .keys(List.of(new DefaultKey.Builder().type(KeyTypes.GLOBAL_REFERENCE).value(semanticId).build()))
+                    .build());
+        }
+        return submodel;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2025. Fraunhofer-Gesellschaft zur Foerderung der angewandten Forschung e.V. (represented by Fraunhofer ISST)
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Apache License, Version 2.0 which is available at
+ * https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.factoryx.dspnativebasyx.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * This class tests the WriteLockService
+ */
+public class WriteLockServiceTest {
+
+    private final WriteLockService writeLockService = new WriteLockService(1000);
+
+    @Test
+    public void stripeCountShouldBeRoundedToPowerOfTwo() {
+        Assertions.assertEquals(1024, writeLockService.getStripeCount());
+        Assertions.assertEquals(1024, new WriteLockService(1024).getStripeCount());
+        Assertions.assertEquals(2048, new WriteLockService(1025).getStripeCount());
+        Assertions.assertEquals(2, new WriteLockService(2).getStripeCount());
+        Assertions.assertEquals(1, new WriteLockService(1).getStripeCount());
+        Assertions.assertEquals(1, new WriteLockService(0).getStripeCount());
+    }
+
+    @Test
+    public void idsShouldBeSpreadOverAllStripes() {
+        Set<Integer> usedStripes = new HashSet<>();
+        for (int i = 0; i < 100000; i++) {
+            int index = writeLockService.stripeIndex(WriteLockService.SUBMODELS + "urn:submodel:" + i);
+            Assertions.assertTrue(index >= 0 && index < 1024);
+            usedStripes.add(index);
+        }
+        Assertions.assertEquals(1024, usedStripes.size());
+    }
+
+    @Test
+    public void sameIdShouldBlockOtherWriters() throws Exception {
+        Lock lock = writeLockService.getSubmodelLock("urn:submodel:1");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        Assertions.assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        Assertions.assertFalse(writeLockService.getSubmodelLock("urn:submodel:1").tryLock());
+        String independentId = findIdOnOtherStripe("urn:submodel:1");
+        Lock independentLock = writeLockService.getSubmodelLock(independentId);
+        Assertions.assertTrue(independentLock.tryLock());
+        independentLock.unlock();
+
+        release.countDown();
+        holder.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shellsAndSubmodelsShouldUseSeparateKeys() {
+        // with separate keys, a shell and a submodel of the same id only share a stripe by chance,
+        // i.e. for about 1 in 1024 ids; with a shared key, they would always share it
+        int sharedStripes = 0;
+        for (int i = 0; i < 10000; i++) {
+            String id = "urn:uuid:" + i;
+            Assertions.assertSame(writeLockService.getShellLock(id), writeLockService.getShellLock(id));
+            if (writeLockService.getShellLock(id) == writeLockService.getSubmodelLock(id)) {
+                sharedStripes++;
+            }
+        }
+        Assertions.assertTrue(sharedStripes < 50, sharedStripes + " of 10000 ids share a stripe");
+    }
+
+    private String findIdOnOtherStripe(String id) {
+        int stripe = writeLockService.stripeIndex(WriteLockService.SUBMODELS + id);
+        for (int i = 0; ; i++) {
+            String candidate = "urn:submodel:other:" + i;
+            if (writeLockService.stripeIndex(WriteLockService.SUBMODELS + candidate) != stripe) {
+                return candidate;
+            }
+        }
+    }
+}